@@ -0,0 +1,75 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import org.immutables.value.Value;
+
+import java.net.URI;
+
+/**
+ * A single recorded access to section data.
+ */
+
+@ImmutablesStyleType
+@Value.Immutable
+public interface EoAccessTraceEntryType
+{
+  /**
+   * @return The time of the access, in nanoseconds, as reported by
+   * {@link System#nanoTime()}
+   */
+
+  long timeNanos();
+
+  /**
+   * @return The ID of the thread that performed the access
+   */
+
+  long threadId();
+
+  /**
+   * @return The file containing the section
+   */
+
+  URI file();
+
+  /**
+   * @return The section tag
+   */
+
+  long tag();
+
+  /**
+   * @return The offset of the section within the file
+   */
+
+  long sectionOffset();
+
+  /**
+   * @return The position within the section data at which the read began
+   */
+
+  long position();
+
+  /**
+   * @return The number of bytes read
+   */
+
+  long bytes();
+}
@@ -0,0 +1,359 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import com.io7m.jaffirm.core.Preconditions;
+
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A recorder of section accesses. Accesses are written into a fixed-size
+ * ring buffer without locking; once the buffer is full, the oldest
+ * accesses are overwritten. The contents of the buffer can be captured
+ * or dumped to a file at any time, including while accesses are being
+ * recorded.
+ *
+ * <p>Instances of this class are safe for use from multiple threads.</p>
+ *
+ * @see EoFileReadersTraced
+ */
+
+public final class EoAccessTracer
+{
+  private static final String DUMP_HEADER =
+    "time_nanos,thread,tag,section_offset,position,bytes,file";
+
+  /**
+   * The stamp of a slot that has never been written.
+   */
+
+  private static final long STAMP_EMPTY = -1L;
+
+  /**
+   * The stamp of a slot that is currently being written.
+   */
+
+  private static final long STAMP_WRITING = -2L;
+
+  private final int mask;
+  private final AtomicLong next;
+  private final AtomicLongArray stamps;
+  private final long[] times;
+  private final long[] threads;
+  private final int[] files;
+  private final long[] tags;
+  private final long[] offsets;
+  private final long[] positions;
+  private final long[] bytes;
+  private final ConcurrentHashMap<URI, Integer> fileIds;
+  private final CopyOnWriteArrayList<URI> fileNames;
+
+  /**
+   * A recorder of section accesses.
+   *
+   * @param capacity The number of accesses retained; must be a power of two
+   */
+
+  public EoAccessTracer(
+    final int capacity)
+  {
+    Preconditions.checkPrecondition(
+      capacity > 0 && Integer.bitCount(capacity) == 1,
+      "Capacity must be a positive power of two"
+    );
+
+    this.mask = capacity - 1;
+    this.next = new AtomicLong(0L);
+    this.stamps = new AtomicLongArray(capacity);
+    for (int index = 0; index < capacity; ++index) {
+      this.stamps.set(index, STAMP_EMPTY);
+    }
+    this.times = new long[capacity];
+    this.threads = new long[capacity];
+    this.files = new int[capacity];
+    this.tags = new long[capacity];
+    this.offsets = new long[capacity];
+    this.positions = new long[capacity];
+    this.bytes = new long[capacity];
+    this.fileIds = new ConcurrentHashMap<>();
+    this.fileNames = new CopyOnWriteArrayList<>();
+  }
+
+  /**
+   * Register a file, returning an identifier used when recording accesses.
+   *
+   * @param file The file
+   *
+   * @return The file identifier
+   */
+
+  int fileId(
+    final URI file)
+  {
+    return this.fileIds.computeIfAbsent(file, f -> {
+      synchronized (this.fileNames) {
+        this.fileNames.add(f);
+        return Integer.valueOf(this.fileNames.size() - 1);
+      }
+    }).intValue();
+  }
+
+  /**
+   * Record an access.
+   *
+   * @param file          The file identifier
+   * @param tag           The section tag
+   * @param sectionOffset The section offset
+   * @param position      The position within the section data
+   * @param count         The number of bytes read
+   */
+
+  void record(
+    final int file,
+    final long tag,
+    final long sectionOffset,
+    final long position,
+    final long count)
+  {
+    final var sequence = this.next.getAndIncrement();
+    final var slot = (int) (sequence & this.mask);
+
+    /*
+     * Claim the slot exclusively. A writer that has wrapped around the
+     * ring may be writing the same slot; wait for it to finish, and give
+     * up if it has already recorded a newer access.
+     */
+
+    while (true) {
+      final var current = this.stamps.get(slot);
+      if (current > sequence) {
+        return;
+      }
+      if (current != STAMP_WRITING
+          && this.stamps.compareAndSet(slot, current, STAMP_WRITING)) {
+        break;
+      }
+      Thread.onSpinWait();
+    }
+
+    /*
+     * Prevent the field writes below from becoming visible before the
+     * slot is marked as being written.
+     */
+
+    VarHandle.storeStoreFence();
+
+    this.times[slot] = System.nanoTime();
+    this.threads[slot] = Thread.currentThread().threadId();
+    this.files[slot] = file;
+    this.tags[slot] = tag;
+    this.offsets[slot] = sectionOffset;
+    this.positions[slot] = position;
+    this.bytes[slot] = count;
+    this.stamps.setRelease(slot, sequence);
+  }
+
+  /**
+   * @return The total number of accesses recorded, including any that have
+   * since been overwritten
+   */
+
+  public long recorded()
+  {
+    return this.next.get();
+  }
+
+  /**
+   * Capture the accesses currently held in the buffer. Accesses that are
+   * being written concurrently with the capture are omitted.
+   *
+   * @return The accesses, in the order in which they were recorded
+   */
+
+  public List<EoAccessTraceEntry> snapshot()
+  {
+    final var end = this.next.get();
+    final var capacity = this.mask + 1L;
+    final var start = Math.max(0L, end - capacity);
+    final var results = new ArrayList<EoAccessTraceEntry>((int) (end - start));
+
+    for (long sequence = start; sequence < end; ++sequence) {
+      final var slot = (int) (sequence & this.mask);
+      if (this.stamps.getAcquire(slot) != sequence) {
+        continue;
+      }
+
+      final var entry =
+        EoAccessTraceEntry.builder()
+          .setTimeNanos(this.times[slot])
+          .setThreadId(this.threads[slot])
+          .setFile(this.fileNames.get(this.files[slot]))
+          .setTag(this.tags[slot])
+          .setSectionOffset(this.offsets[slot])
+          .setPosition(this.positions[slot])
+          .setBytes(this.bytes[slot])
+          .build();
+
+      /*
+       * Prevent the field reads above from being reordered after the
+       * validating read of the stamp.
+       */
+
+      VarHandle.loadLoadFence();
+      if (this.stamps.getAcquire(slot) == sequence) {
+        results.add(entry);
+      }
+    }
+
+    results.sort(Comparator.comparingLong(EoAccessTraceEntry::timeNanos));
+    return results;
+  }
+
+  /**
+   * Dump the accesses currently held in the buffer to the given file, one
+   * access per line, in a comma-separated format suitable for
+   * {@link #readDump(Path)}.
+   *
+   * @param output The output file
+   *
+   * @throws EoException On errors
+   */
+
+  public void dump(
+    final Path output)
+    throws EoException
+  {
+    Objects.requireNonNull(output, "output");
+
+    try (final var writer =
+           Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+      writer.write(DUMP_HEADER);
+      writer.newLine();
+      for (final var entry : this.snapshot()) {
+        writer.write(Long.toString(entry.timeNanos()));
+        writer.write(',');
+        writer.write(Long.toString(entry.threadId()));
+        writer.write(',');
+        writer.write("0x" + Long.toUnsignedString(entry.tag(), 16));
+        writer.write(',');
+        writer.write(Long.toUnsignedString(entry.sectionOffset()));
+        writer.write(',');
+        writer.write(Long.toUnsignedString(entry.position()));
+        writer.write(',');
+        writer.write(Long.toUnsignedString(entry.bytes()));
+        writer.write(',');
+        writer.write(entry.file().toString());
+        writer.newLine();
+      }
+    } catch (final IOException e) {
+      throw EoException.wrap(e);
+    }
+  }
+
+  /**
+   * Read accesses from a file produced by {@link #dump(Path)}.
+   *
+   * @param input The input file
+   *
+   * @return The accesses
+   *
+   * @throws EoException On errors
+   */
+
+  public static List<EoAccessTraceEntry> readDump(
+    final Path input)
+    throws EoException
+  {
+    Objects.requireNonNull(input, "input");
+
+    final List<String> lines;
+    try {
+      lines = Files.readAllLines(input, StandardCharsets.UTF_8);
+    } catch (final IOException e) {
+      throw EoException.wrap(e);
+    }
+
+    if (lines.isEmpty() || !DUMP_HEADER.equals(lines.get(0))) {
+      throw errorDumpMalformed(input, 1);
+    }
+
+    final var results = new ArrayList<EoAccessTraceEntry>(lines.size() - 1);
+    for (int index = 1; index < lines.size(); ++index) {
+      final var line = lines.get(index);
+      if (line.isBlank()) {
+        continue;
+      }
+
+      /*
+       * The file URI is the last field, and may itself contain commas.
+       */
+
+      final var fields = line.split(",", 7);
+      if (fields.length != 7 || !fields[2].startsWith("0x")) {
+        throw errorDumpMalformed(input, index + 1);
+      }
+
+      try {
+        results.add(
+          EoAccessTraceEntry.builder()
+            .setTimeNanos(Long.parseLong(fields[0]))
+            .setThreadId(Long.parseLong(fields[1]))
+            .setTag(Long.parseUnsignedLong(fields[2].substring(2), 16))
+            .setSectionOffset(Long.parseUnsignedLong(fields[3]))
+            .setPosition(Long.parseUnsignedLong(fields[4]))
+            .setBytes(Long.parseUnsignedLong(fields[5]))
+            .setFile(URI.create(fields[6]))
+            .build()
+        );
+      } catch (final IllegalArgumentException e) {
+        throw errorDumpMalformed(input, index + 1);
+      }
+    }
+    return results;
+  }
+
+  private static EoException errorDumpMalformed(
+    final Path input,
+    final int line)
+  {
+    return new EoException(
+      "Malformed access trace.",
+      "error-trace-malformed",
+      Map.ofEntries(
+        Map.entry("File", input.toString()),
+        Map.entry("Line", Integer.toString(line))
+      ),
+      Optional.empty()
+    );
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import com.io7m.jaffirm.core.Preconditions;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of direct byte buffers whose addresses and capacities are
+ * multiples of a given block size, as required for direct I/O. Buffers
+ * are allocated on demand; at most a bounded number of released buffers
+ * are retained for reuse.
+ *
+ * <p>Instances of this class are safe for use from multiple threads.</p>
+ */
+
+public final class EoAlignedBufferPool
+{
+  private final int blockSize;
+  private final int bufferSize;
+  private final int maximumRetained;
+  private final ConcurrentLinkedQueue<ByteBuffer> free;
+  private final AtomicInteger retained;
+
+  /**
+   * A pool of aligned direct byte buffers.
+   *
+   * @param inBlockSize       The block size; must be a power of two
+   * @param inBufferSize      The size of each buffer; must be a multiple
+   *                          of the block size
+   * @param inMaximumRetained The maximum number of released buffers retained
+   */
+
+  public EoAlignedBufferPool(
+    final int inBlockSize,
+    final int inBufferSize,
+    final int inMaximumRetained)
+  {
+    Preconditions.checkPrecondition(
+      inBlockSize > 0 && Integer.bitCount(inBlockSize) == 1,
+      "Block size must be a positive power of two"
+    );
+    Preconditions.checkPrecondition(
+      inBufferSize > 0 && inBufferSize % inBlockSize == 0,
+      "Buffer size must be a positive multiple of the block size"
+    );
+    Preconditions.checkPrecondition(
+      inMaximumRetained >= 0,
+      "Maximum retained buffers must be non-negative"
+    );
+
+    this.blockSize = inBlockSize;
+    this.bufferSize = inBufferSize;
+    this.maximumRetained = inMaximumRetained;
+    this.free = new ConcurrentLinkedQueue<>();
+    this.retained = new AtomicInteger(0);
+  }
+
+  /**
+   * @return The block size
+   */
+
+  public int blockSize()
+  {
+    return this.blockSize;
+  }
+
+  /**
+   * @return The size of each buffer
+   */
+
+  public int bufferSize()
+  {
+    return this.bufferSize;
+  }
+
+  /**
+   * @return The number of released buffers currently retained
+   */
+
+  public int retained()
+  {
+    return this.retained.get();
+  }
+
+  /**
+   * Acquire a buffer. The buffer is cleared, and its capacity is equal to
+   * {@link #bufferSize()}.
+   *
+   * @return A buffer
+   */
+
+  public ByteBuffer acquire()
+  {
+    final var buffer = this.free.poll();
+    if (buffer != null) {
+      this.retained.decrementAndGet();
+      return buffer.clear();
+    }
+
+    return ByteBuffer.allocateDirect(this.bufferSize + this.blockSize)
+      .alignedSlice(this.blockSize)
+      .limit(this.bufferSize)
+      .slice();
+  }
+
+  /**
+   * Release a buffer previously acquired from this pool.
+   *
+   * @param buffer The buffer
+   */
+
+  public void release(
+    final ByteBuffer buffer)
+  {
+    Objects.requireNonNull(buffer, "buffer");
+
+    if (buffer.capacity() != this.bufferSize || !buffer.isDirect()) {
+      return;
+    }
+
+    if (this.retained.incrementAndGet() <= this.maximumRetained) {
+      this.free.add(buffer);
+    } else {
+      this.retained.decrementAndGet();
+    }
+  }
+}
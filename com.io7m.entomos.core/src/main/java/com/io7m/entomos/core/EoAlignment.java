@@ -0,0 +1,77 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+/**
+ * Functions concerning the alignment of sections.
+ */
+
+final class EoAlignment
+{
+  /**
+   * The default alignment of section data.
+   */
+
+  static final int ALIGNMENT_DEFAULT = 16;
+
+  /**
+   * The maximum alignment of section data.
+   */
+
+  static final int ALIGNMENT_MAXIMUM = 65536;
+
+  private EoAlignment()
+  {
+
+  }
+
+  /**
+   * @param alignment The alignment
+   *
+   * @return {@code true} if the given alignment is a power of two in the
+   * range {@code [16, 65536]}
+   */
+
+  static boolean isValid(
+    final int alignment)
+  {
+    return alignment >= ALIGNMENT_DEFAULT
+           && alignment <= ALIGNMENT_MAXIMUM
+           && Integer.bitCount(alignment) == 1;
+  }
+
+  /**
+   * Determine the offset of the next section header at or after the given
+   * position. Section headers are 16 bytes long and are placed such that
+   * the section data that follows the header is aligned to the given
+   * alignment.
+   *
+   * @param position  The position
+   * @param alignment The alignment
+   *
+   * @return The offset of the next section header
+   */
+
+  static long nextSectionOffset(
+    final long position,
+    final int alignment)
+  {
+    final var mask = alignment - 1L;
+    return ((position + 16L + mask) & ~mask) - 16L;
+  }
+}
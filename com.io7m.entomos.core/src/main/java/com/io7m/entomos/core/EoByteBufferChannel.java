@@ -0,0 +1,137 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Objects;
+
+/**
+ * A read-only channel over a byte buffer.
+ */
+
+final class EoByteBufferChannel
+  implements SeekableByteChannel
+{
+  private final ByteBuffer data;
+  private final Runnable onClose;
+  private long position;
+  private boolean closed;
+
+  EoByteBufferChannel(
+    final ByteBuffer inData,
+    final Runnable inOnClose)
+  {
+    this.data =
+      Objects.requireNonNull(inData, "data").duplicate();
+    this.onClose =
+      Objects.requireNonNull(inOnClose, "onClose");
+    this.position =
+      0L;
+  }
+
+  @Override
+  public int read(
+    final ByteBuffer dst)
+    throws ClosedChannelException
+  {
+    this.checkOpen();
+
+    final var size = this.data.limit();
+    if (this.position >= size) {
+      return -1;
+    }
+
+    final var start =
+      (int) this.position;
+    final var count =
+      Math.min(dst.remaining(), size - start);
+
+    dst.put(this.data.slice(start, count));
+    this.position += count;
+    return count;
+  }
+
+  @Override
+  public int write(
+    final ByteBuffer src)
+  {
+    throw new NonWritableChannelException();
+  }
+
+  @Override
+  public long position()
+    throws ClosedChannelException
+  {
+    this.checkOpen();
+    return this.position;
+  }
+
+  @Override
+  public SeekableByteChannel position(
+    final long newPosition)
+    throws ClosedChannelException
+  {
+    this.checkOpen();
+    if (newPosition < 0L) {
+      throw new IllegalArgumentException("Position must be non-negative");
+    }
+    this.position = newPosition;
+    return this;
+  }
+
+  @Override
+  public long size()
+    throws ClosedChannelException
+  {
+    this.checkOpen();
+    return this.data.limit();
+  }
+
+  @Override
+  public SeekableByteChannel truncate(
+    final long size)
+  {
+    throw new NonWritableChannelException();
+  }
+
+  @Override
+  public boolean isOpen()
+  {
+    return !this.closed;
+  }
+
+  @Override
+  public void close()
+  {
+    if (!this.closed) {
+      this.closed = true;
+      this.onClose.run();
+    }
+  }
+
+  private void checkOpen()
+    throws ClosedChannelException
+  {
+    if (this.closed) {
+      throw new ClosedChannelException();
+    }
+  }
+}
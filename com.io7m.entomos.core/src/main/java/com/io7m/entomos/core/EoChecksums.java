@@ -0,0 +1,118 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Functions over checksum sections. A checksum section consists of a
+ * sequence of 16-byte entries, each holding the 64-bit offset of a
+ * section, the 32-bit CRC32C checksum of the stored data of the section,
+ * and 32 bits of zero padding.
+ */
+
+final class EoChecksums
+{
+  /**
+   * The size of a single checksum entry.
+   */
+
+  static final int ENTRY_SIZE = 16;
+
+  private EoChecksums()
+  {
+
+  }
+
+  /**
+   * Calculate the CRC32C checksum of the remaining data in a channel.
+   *
+   * @param channel The channel
+   *
+   * @return The checksum
+   *
+   * @throws IOException On errors
+   */
+
+  static int crc32c(
+    final ReadableByteChannel channel)
+    throws IOException
+  {
+    final var crc = new CRC32C();
+    final var buffer = ByteBuffer.allocate(65536);
+    while (channel.read(buffer) != -1) {
+      crc.update(buffer.flip());
+      buffer.clear();
+    }
+    return (int) crc.getValue();
+  }
+
+  /**
+   * Serialize checksum entries.
+   *
+   * @param checksums The checksums by section offset
+   *
+   * @return The serialized entries
+   */
+
+  static ByteBuffer serialize(
+    final Map<Long, Integer> checksums)
+  {
+    final var buffer = ByteBuffer.allocate(checksums.size() * ENTRY_SIZE);
+    for (final var entry : checksums.entrySet()) {
+      buffer.putLong(entry.getKey().longValue());
+      buffer.putInt(entry.getValue().intValue());
+      buffer.putInt(0);
+    }
+    return buffer.flip();
+  }
+
+  /**
+   * Parse checksum entries.
+   *
+   * @param data The serialized entries
+   *
+   * @return The checksums by section offset
+   *
+   * @throws IOException If the data is malformed
+   */
+
+  static Map<Long, Integer> parse(
+    final ByteBuffer data)
+    throws IOException
+  {
+    if (data.remaining() % ENTRY_SIZE != 0) {
+      throw new IOException(
+        "Checksum section size is not a multiple of the entry size.");
+    }
+
+    final var results = new HashMap<Long, Integer>();
+    while (data.hasRemaining()) {
+      final var offset = data.getLong();
+      final var checksum = data.getInt();
+      data.getInt();
+      results.put(Long.valueOf(offset), Integer.valueOf(checksum));
+    }
+    return Map.copyOf(results);
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A small least-recently-used cache of decompressed chunks, held by a
+ * single reader. Chunks are identified by the offset of the section
+ * and the index of the chunk within the section.
+ */
+
+final class EoChunkCache
+{
+  private final long maximumSize;
+  private final ReentrantLock lock;
+  private final LinkedHashMap<Key, ByteBuffer> chunks;
+  private long size;
+
+  private record Key(
+    long section,
+    int chunk)
+  {
+
+  }
+
+  /**
+   * Create a cache.
+   *
+   * @param inMaximumSize The maximum total size of retained chunks
+   */
+
+  EoChunkCache(
+    final long inMaximumSize)
+  {
+    this.maximumSize = inMaximumSize;
+    this.lock = new ReentrantLock();
+    this.chunks = new LinkedHashMap<>(16, 0.75f, true);
+  }
+
+  /**
+   * @param section The section offset
+   * @param chunk   The chunk index
+   *
+   * @return The cached chunk, or {@code null}
+   */
+
+  ByteBuffer get(
+    final long section,
+    final int chunk)
+  {
+    this.lock.lock();
+    try {
+      return this.chunks.get(new Key(section, chunk));
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Add a chunk to the cache, evicting the least recently used chunks if
+   * necessary. The most recently added chunk is always retained.
+   *
+   * @param section The section offset
+   * @param chunk   The chunk index
+   * @param data    The read-only chunk data
+   */
+
+  void put(
+    final long section,
+    final int chunk,
+    final ByteBuffer data)
+  {
+    this.lock.lock();
+    try {
+      final var existing = this.chunks.put(new Key(section, chunk), data);
+      if (existing != null) {
+        this.size -= existing.capacity();
+      }
+      this.size += data.capacity();
+
+      final var iterator = this.chunks.values().iterator();
+      while (this.size > this.maximumSize && this.chunks.size() > 1) {
+        this.size -= iterator.next().capacity();
+        iterator.remove();
+      }
+    } finally {
+      this.lock.unlock();
+    }
+  }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Objects;
+
+/**
+ * A read-only channel that decompresses a section stored with the
+ * {@link EoSectionEncoding#DEFLATE_CHUNKED} encoding. The channel reports
+ * the uncompressed size of the data, and may be positioned anywhere; only
+ * the chunks that contain the data actually read are decompressed.
+ * Decompressed chunks are shared between channels of the same reader
+ * through a chunk cache. Closing this channel closes the underlying
+ * channel.
+ */
+
+final class EoChunkedChannel
+  implements SeekableByteChannel
+{
+  private final SeekableByteChannel stored;
+  private final EoChunkedSection index;
+  private final EoChunkCache cache;
+  private final long sectionOffset;
+  private long position;
+  private boolean closed;
+
+  private EoChunkedChannel(
+    final SeekableByteChannel inStored,
+    final EoChunkedSection inIndex,
+    final EoChunkCache inCache,
+    final long inSectionOffset)
+  {
+    this.stored =
+      Objects.requireNonNull(inStored, "stored");
+    this.index =
+      Objects.requireNonNull(inIndex, "index");
+    this.cache =
+      Objects.requireNonNull(inCache, "cache");
+    this.sectionOffset =
+      inSectionOffset;
+  }
+
+  /**
+   * Open a decompressing channel over the stored data of a section.
+   *
+   * @param stored  The stored section data
+   * @param cache   The chunk cache
+   * @param section The section
+   *
+   * @return A channel
+   *
+   * @throws IOException On errors
+   */
+
+  static EoChunkedChannel open(
+    final SeekableByteChannel stored,
+    final EoChunkCache cache,
+    final EoFileSection section)
+    throws IOException
+  {
+    return new EoChunkedChannel(
+      stored,
+      EoChunkedSection.open(stored),
+      cache,
+      section.offset()
+    );
+  }
+
+  private ByteBuffer chunk(
+    final int chunk)
+    throws IOException
+  {
+    final var existing = this.cache.get(this.sectionOffset, chunk);
+    if (existing != null) {
+      return existing;
+    }
+
+    final var data =
+      EoChunkedSection.inflate(
+        this.index.readCompressed(this.stored, chunk),
+        this.index.chunkLength(chunk)
+      );
+    this.cache.put(this.sectionOffset, chunk, data);
+    return data;
+  }
+
+  @Override
+  public int read(
+    final ByteBuffer dst)
+    throws IOException
+  {
+    this.checkOpen();
+
+    final var size = this.index.size();
+    if (this.position >= size) {
+      return -1;
+    }
+
+    final var chunkSize = this.index.chunkSize();
+    var total = 0;
+    while (dst.hasRemaining() && this.position < size) {
+      final var chunk = (int) (this.position / chunkSize);
+      final var within = (int) (this.position % chunkSize);
+      final var data = this.chunk(chunk);
+      final var count = Math.min(dst.remaining(), data.limit() - within);
+      dst.put(dst.position(), data, within, count);
+      dst.position(dst.position() + count);
+      this.position += count;
+      total += count;
+    }
+    return total;
+  }
+
+  @Override
+  public int write(
+    final ByteBuffer src)
+  {
+    throw new NonWritableChannelException();
+  }
+
+  @Override
+  public long position()
+    throws ClosedChannelException
+  {
+    this.checkOpen();
+    return this.position;
+  }
+
+  @Override
+  public SeekableByteChannel position(
+    final long newPosition)
+    throws ClosedChannelException
+  {
+    this.checkOpen();
+    if (newPosition < 0L) {
+      throw new IllegalArgumentException("Position must be non-negative");
+    }
+    this.position = newPosition;
+    return this;
+  }
+
+  @Override
+  public long size()
+    throws ClosedChannelException
+  {
+    this.checkOpen();
+    return this.index.size();
+  }
+
+  @Override
+  public SeekableByteChannel truncate(
+    final long newSize)
+  {
+    throw new NonWritableChannelException();
+  }
+
+  @Override
+  public boolean isOpen()
+  {
+    return !this.closed && this.stored.isOpen();
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    if (!this.closed) {
+      this.closed = true;
+      this.stored.close();
+    }
+  }
+
+  private void checkOpen()
+    throws ClosedChannelException
+  {
+    if (!this.isOpen()) {
+      throw new ClosedChannelException();
+    }
+  }
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.util.zip.DataFormatException;
+
+/**
+ * The chunk index of a section stored with the
+ * {@link EoSectionEncoding#DEFLATE_CHUNKED} encoding.
+ */
+
+final class EoChunkedSection
+{
+  /**
+   * The size of the header at the start of the section data.
+   */
+
+  static final int HEADER_SIZE = 16;
+
+  /**
+   * The smallest permitted chunk size.
+   */
+
+  static final int CHUNK_SIZE_MINIMUM = 4096;
+
+  /**
+   * The largest permitted chunk size. Readers allocate buffers of the
+   * chunk size, and so files that declare larger chunks are rejected
+   * rather than being allowed to force arbitrarily large allocations.
+   */
+
+  static final int CHUNK_SIZE_MAXIMUM = 16777216;
+
+  /**
+   * Determine whether a chunk size is permitted.
+   *
+   * @param chunkSize The chunk size
+   *
+   * @return {@code true} if the chunk size is a power of two in the range
+   * {@code [CHUNK_SIZE_MINIMUM, CHUNK_SIZE_MAXIMUM]}
+   */
+
+  static boolean isValidChunkSize(
+    final int chunkSize)
+  {
+    return chunkSize >= CHUNK_SIZE_MINIMUM
+           && chunkSize <= CHUNK_SIZE_MAXIMUM
+           && Integer.bitCount(chunkSize) == 1;
+  }
+
+  private final long size;
+  private final int chunkSize;
+  private final long[] offsets;
+
+  private EoChunkedSection(
+    final long inSize,
+    final int inChunkSize,
+    final long[] inOffsets)
+  {
+    this.size = inSize;
+    this.chunkSize = inChunkSize;
+    this.offsets = inOffsets;
+  }
+
+  /**
+   * Read the chunk index of the section.
+   *
+   * @param stored The stored section data
+   *
+   * @return The chunk index
+   *
+   * @throws IOException On errors, or if the index is malformed
+   */
+
+  static EoChunkedSection open(
+    final SeekableByteChannel stored)
+    throws IOException
+  {
+    final var storedSize = stored.size();
+    final var header = ByteBuffer.allocate(HEADER_SIZE);
+    readFully(stored, 0L, header);
+
+    final var size = header.getLong(0);
+    final var chunkSize = header.getInt(8);
+    final var count = Integer.toUnsignedLong(header.getInt(12));
+
+    if (size < 0L || !isValidChunkSize(chunkSize)) {
+      throw errorMalformed();
+    }
+    if (count != (size + chunkSize - 1L) / chunkSize) {
+      throw errorMalformed();
+    }
+
+    final var tableSize = (count + 1L) * 8L;
+    final var tableOffset = storedSize - tableSize;
+    if (tableOffset < HEADER_SIZE || tableSize > Integer.MAX_VALUE) {
+      throw errorMalformed();
+    }
+
+    final var table = ByteBuffer.allocate((int) tableSize);
+    readFully(stored, tableOffset, table);
+
+    final var offsets = new long[(int) count + 1];
+    long previous = HEADER_SIZE;
+    for (int index = 0; index < offsets.length; ++index) {
+      final var offset = table.getLong(index * 8);
+      if (offset < previous || offset > tableOffset) {
+        throw errorMalformed();
+      }
+      offsets[index] = offset;
+      previous = offset;
+    }
+    if (offsets[0] != HEADER_SIZE
+        || offsets[offsets.length - 1] != tableOffset) {
+      throw errorMalformed();
+    }
+    return new EoChunkedSection(size, chunkSize, offsets);
+  }
+
+  private static IOException errorMalformed()
+  {
+    return new IOException("Chunked section index is malformed.");
+  }
+
+  private static void readFully(
+    final SeekableByteChannel stored,
+    final long offset,
+    final ByteBuffer buffer)
+    throws IOException
+  {
+    stored.position(offset);
+    while (buffer.hasRemaining()) {
+      if (stored.read(buffer) < 0) {
+        throw new IOException("Chunked section data is truncated.");
+      }
+    }
+    buffer.flip();
+  }
+
+  /**
+   * Decompress a chunk.
+   *
+   * @param compressed The compressed chunk data
+   * @param length     The expected uncompressed length
+   *
+   * @return A read-only buffer containing the uncompressed chunk
+   *
+   * @throws IOException On errors
+   */
+
+  static ByteBuffer inflate(
+    final ByteBuffer compressed,
+    final int length)
+    throws IOException
+  {
+    /*
+     * The output buffer has room for one byte more than expected so that
+     * chunks that decompress to more data than declared can be detected.
+     */
+
+    final var output = ByteBuffer.allocate(length + 1);
+    final var inflater = EoInflaters.acquire();
+    try {
+      inflater.setInput(compressed);
+      while (!inflater.finished()) {
+        if (inflater.needsInput() || inflater.needsDictionary()) {
+          throw new IOException("Compressed chunk data is truncated.");
+        }
+        inflater.inflate(output);
+        if (output.position() > length) {
+          throw new IOException(
+            "Compressed chunk is larger than the chunk size.");
+        }
+      }
+    } catch (final DataFormatException e) {
+      throw new IOException(e);
+    } finally {
+      EoInflaters.release(inflater);
+    }
+
+    if (output.position() != length) {
+      throw new IOException("Compressed chunk is smaller than the chunk size.");
+    }
+    return output.flip().asReadOnlyBuffer();
+  }
+
+  /**
+   * @return The uncompressed size of the section data
+   */
+
+  long size()
+  {
+    return this.size;
+  }
+
+  /**
+   * @return The uncompressed size of all chunks but the last
+   */
+
+  int chunkSize()
+  {
+    return this.chunkSize;
+  }
+
+  /**
+   * @return The number of chunks
+   */
+
+  int chunkCount()
+  {
+    return this.offsets.length - 1;
+  }
+
+  /**
+   * @param chunk The chunk index
+   *
+   * @return The uncompressed size of the given chunk
+   */
+
+  int chunkLength(
+    final int chunk)
+  {
+    final var start = (long) chunk * this.chunkSize;
+    return (int) Math.min(this.chunkSize, this.size - start);
+  }
+
+  /**
+   * Read the compressed data of a chunk.
+   *
+   * @param stored The stored section data
+   * @param chunk  The chunk index
+   *
+   * @return The compressed data
+   *
+   * @throws IOException On errors
+   */
+
+  ByteBuffer readCompressed(
+    final SeekableByteChannel stored,
+    final int chunk)
+    throws IOException
+  {
+    final var start = this.offsets[chunk];
+    final var length = this.offsets[chunk + 1] - start;
+    if (length > Integer.MAX_VALUE) {
+      throw errorMalformed();
+    }
+
+    final var buffer = ByteBuffer.allocate((int) length);
+    readFully(stored, start, buffer);
+    return buffer;
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import org.immutables.value.Value;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * An index of sections by the SHA-256 digest of their stored data, built
+ * over a set of files. Sections with the same tag, the same encoding, and
+ * identical stored data share a key, and so the index identifies duplicate
+ * sections both within and across files.
+ */
+
+@ImmutablesStyleType
+@Value.Immutable
+public interface EoDeduplicationIndexType
+{
+  /**
+   * The locations of all indexed sections. Keys take the form
+   * {@code tag:encoding:digest}, where {@code tag} is the section tag as
+   * sixteen lowercase hexadecimal digits, {@code encoding} is the name of
+   * the section encoding, and {@code digest} is the lowercase hexadecimal
+   * digest of the stored data.
+   *
+   * @return The locations of all indexed sections, by key; locations are
+   * ordered by file and then by offset
+   */
+
+  SortedMap<String, List<EoSectionLocation>> sectionsByDigest();
+
+  /**
+   * @return The files that could not be read as entomos files
+   */
+
+  List<Path> unreadable();
+
+  /**
+   * @return The groups of sections that have at least one duplicate
+   */
+
+  @Value.Lazy
+  default SortedMap<String, List<EoSectionLocation>> duplicates()
+  {
+    final var results = new TreeMap<String, List<EoSectionLocation>>();
+    for (final var entry : this.sectionsByDigest().entrySet()) {
+      if (entry.getValue().size() > 1) {
+        results.put(entry.getKey(), entry.getValue());
+      }
+    }
+    return results;
+  }
+
+  /**
+   * @return The total size of the stored data of all indexed sections
+   */
+
+  @Value.Lazy
+  default long totalBytes()
+  {
+    return this.sectionsByDigest()
+      .values()
+      .stream()
+      .flatMap(List::stream)
+      .mapToLong(l -> l.section().dataSize())
+      .sum();
+  }
+
+  /**
+   * @return The size of the stored data that would be eliminated if every
+   * group of duplicates were reduced to a single copy
+   */
+
+  @Value.Lazy
+  default long redundantBytes()
+  {
+    return this.duplicates()
+      .values()
+      .stream()
+      .mapToLong(g -> g.getFirst().section().dataSize() * (g.size() - 1))
+      .sum();
+  }
+
+  /**
+   * @return The first location of each section's group, by location
+   */
+
+  @Value.Lazy
+  default Map<EoSectionLocation, EoSectionLocation> canonicalLocations()
+  {
+    final var results = new HashMap<EoSectionLocation, EoSectionLocation>();
+    for (final var group : this.sectionsByDigest().values()) {
+      final var first = group.getFirst();
+      for (final var location : group) {
+        results.put(location, first);
+      }
+    }
+    return Map.copyOf(results);
+  }
+
+  /**
+   * Find the canonical copy of a section. Callers can use the canonical
+   * location as a cache key so that duplicate sections are served from a
+   * single cached copy.
+   *
+   * @param location The section location
+   *
+   * @return The location of the first section with the same tag, encoding,
+   * and stored data
+   */
+
+  default Optional<EoSectionLocation> canonicalOf(
+    final EoSectionLocation location)
+  {
+    return Optional.ofNullable(this.canonicalLocations().get(location));
+  }
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+
+/**
+ * A builder of deduplication indices. Each file is read on an executor,
+ * and the stored data of every section (other than the end section) with
+ * a non-zero size is digested with SHA-256. Sections are grouped by their
+ * tag and encoding as well as their digest, as stored data is only
+ * interchangeable between sections that are interpreted in the same way.
+ *
+ * @param <P> The type of extra parameters passed to the reader factory
+ */
+
+public final class EoDeduplicationIndexer<P>
+{
+  private static final int BUFFER_SIZE = 65536;
+
+  private final EoFileReaderFactoryType<P> readers;
+  private final Executor executor;
+
+  /**
+   * A builder of deduplication indices.
+   *
+   * @param inReaders  The factory used to open files
+   * @param inExecutor The executor on which files are read
+   */
+
+  public EoDeduplicationIndexer(
+    final EoFileReaderFactoryType<P> inReaders,
+    final Executor inExecutor)
+  {
+    this.readers =
+      Objects.requireNonNull(inReaders, "readers");
+    this.executor =
+      Objects.requireNonNull(inExecutor, "executor");
+  }
+
+  private record Digested(
+    String digest,
+    EoSectionLocation location)
+  {
+
+  }
+
+  private record FileResult(
+    Path file,
+    List<Digested> sections,
+    boolean readable)
+  {
+
+  }
+
+  /**
+   * Index all regular files in a directory and its subdirectories.
+   *
+   * @param directory  The directory
+   * @param fileTag    The file tag
+   * @param endTag     The end tag
+   * @param parameters The reader parameters
+   *
+   * @return The index
+   *
+   * @throws EoException On errors
+   */
+
+  public EoDeduplicationIndex indexDirectory(
+    final Path directory,
+    final long fileTag,
+    final long endTag,
+    final P parameters)
+    throws EoException
+  {
+    Objects.requireNonNull(directory, "directory");
+
+    final List<Path> files;
+    try (final Stream<Path> stream = Files.walk(directory)) {
+      files = stream.filter(Files::isRegularFile).toList();
+    } catch (final IOException e) {
+      throw EoException.wrap(e);
+    }
+    return this.indexFiles(files, fileTag, endTag, parameters);
+  }
+
+  /**
+   * Index the given files. Files that cannot be opened as entomos files
+   * are listed as unreadable in the index.
+   *
+   * @param files      The files
+   * @param fileTag    The file tag
+   * @param endTag     The end tag
+   * @param parameters The reader parameters
+   *
+   * @return The index
+   *
+   * @throws EoException On errors
+   */
+
+  public EoDeduplicationIndex indexFiles(
+    final Collection<Path> files,
+    final long fileTag,
+    final long endTag,
+    final P parameters)
+    throws EoException
+  {
+    Objects.requireNonNull(files, "files");
+
+    final var futures =
+      files.stream()
+        .sorted()
+        .map(file -> CompletableFuture.supplyAsync(
+          () -> this.indexFile(file, fileTag, endTag, parameters),
+          this.executor
+        ))
+        .toList();
+
+    final var groups = new TreeMap<String, List<EoSectionLocation>>();
+    final var unreadable = new ArrayList<Path>();
+
+    try {
+      for (final var future : futures) {
+        final var result = future.join();
+        if (!result.readable()) {
+          unreadable.add(result.file());
+          continue;
+        }
+        for (final var section : result.sections()) {
+          groups.computeIfAbsent(section.digest(), k -> new ArrayList<>())
+            .add(section.location());
+        }
+      }
+    } catch (final CompletionException e) {
+      throw EoException.wrap(e.getCause());
+    }
+
+    final var byLocation =
+      Comparator.comparing(EoSectionLocation::file)
+        .thenComparing(
+          EoSectionLocation::section,
+          EoFileSection.EO_OFFSET_COMPARATOR
+        );
+
+    final var sorted = new TreeMap<String, List<EoSectionLocation>>();
+    for (final var entry : groups.entrySet()) {
+      final var locations = entry.getValue();
+      locations.sort(byLocation);
+      sorted.put(entry.getKey(), List.copyOf(locations));
+    }
+
+    return EoDeduplicationIndex.builder()
+      .setSectionsByDigest(sorted)
+      .setUnreadable(unreadable)
+      .build();
+  }
+
+  private FileResult indexFile(
+    final Path file,
+    final long fileTag,
+    final long endTag,
+    final P parameters)
+  {
+    final var results = new ArrayList<Digested>();
+    try (final var reader =
+           this.readers.forFile(fileTag, endTag, file, parameters)) {
+      final var sections = reader.sections();
+      final var end = sections.last();
+      final var buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+      for (final var section : sections) {
+        if (section.equals(end) || section.dataSize() == 0L) {
+          continue;
+        }
+        results.add(new Digested(
+          keyOf(
+            section.tag(),
+            reader.encodingOf(section),
+            digestOf(reader, section, buffer)
+          ),
+          EoSectionLocation.of(file, section)
+        ));
+      }
+    } catch (final EoException e) {
+      return new FileResult(file, List.of(), false);
+    }
+    return new FileResult(file, List.copyOf(results), true);
+  }
+
+  private static String keyOf(
+    final long tag,
+    final EoSectionEncoding encoding,
+    final String digest)
+  {
+    return String.format(
+      "%s:%s:%s",
+      HexFormat.of().toHexDigits(tag),
+      encoding.name(),
+      digest
+    );
+  }
+
+  private static String digestOf(
+    final EoFileReaderType reader,
+    final EoFileSection section,
+    final ByteBuffer buffer)
+    throws EoException
+  {
+    final MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+
+    try (final var channel = reader.rawDataChannel(section)) {
+      buffer.clear();
+      while (channel.read(buffer) != -1) {
+        digest.update(buffer.flip());
+        buffer.clear();
+      }
+    } catch (final IOException e) {
+      throw EoException.wrap(e);
+    }
+    return HexFormat.of().formatHex(digest.digest());
+  }
+}
@@ -0,0 +1,374 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Objects;
+
+/**
+ * A read-only channel over a file opened for direct I/O. All reads from
+ * the file are made in whole, aligned blocks into aligned buffers taken
+ * from a pool, and the requested bytes are copied out of those buffers,
+ * so callers may read at any position and of any length.
+ *
+ * <p>Sequential reads through {@link #read(ByteBuffer)} retain the most
+ * recently read buffer so that the many small reads made when parsing
+ * section headers do not each incur a separate disk read. Sequential reads
+ * must be made from a single thread; subrange channels returned by
+ * {@link #subrange(long, long)} use positional reads and may be used
+ * concurrently.</p>
+ */
+
+final class EoDirectChannel
+  implements SeekableByteChannel
+{
+  private final FileChannel channel;
+  private final EoAlignedBufferPool pool;
+  private final long size;
+  private final long blockMask;
+  private ByteBuffer cursor;
+  private long cursorStart;
+  private long position;
+
+  EoDirectChannel(
+    final FileChannel inChannel,
+    final EoAlignedBufferPool inPool)
+    throws IOException
+  {
+    this.channel =
+      Objects.requireNonNull(inChannel, "channel");
+    this.pool =
+      Objects.requireNonNull(inPool, "pool");
+    this.size =
+      inChannel.size();
+    this.blockMask =
+      inPool.blockSize() - 1L;
+    this.cursorStart =
+      -1L;
+  }
+
+  /**
+   * Read bytes at the given position. This method may be called
+   * concurrently from any number of threads.
+   *
+   * @param dst         The destination buffer
+   * @param startOffset The position within the file
+   *
+   * @return The number of bytes read, or {@code -1} at the end of the file
+   *
+   * @throws IOException On errors
+   */
+
+  int read(
+    final ByteBuffer dst,
+    final long startOffset)
+    throws IOException
+  {
+    this.checkOpen();
+
+    if (startOffset >= this.size) {
+      return -1;
+    }
+
+    final var end = Math.min(startOffset + dst.remaining(), this.size);
+    final var buffer = this.pool.acquire();
+    try {
+      var offset = startOffset;
+      while (offset < end) {
+        final var blockStart = offset & ~this.blockMask;
+        final var filled = this.fill(buffer, blockStart, end);
+        final var available = (blockStart + filled) - offset;
+        if (available <= 0L) {
+          break;
+        }
+
+        final var count = (int) Math.min(available, end - offset);
+        dst.put(buffer.slice((int) (offset - blockStart), count));
+        offset += count;
+      }
+      return (int) (offset - startOffset);
+    } finally {
+      this.pool.release(buffer);
+    }
+  }
+
+  private int fill(
+    final ByteBuffer buffer,
+    final long blockStart,
+    final long end)
+    throws IOException
+  {
+    final var wanted =
+      Math.min(((end - blockStart) + this.blockMask) & ~this.blockMask,
+               buffer.capacity());
+
+    /*
+     * Reads must stop at the end of the file; the final read of a file
+     * whose size is not a multiple of the block size is short, and a
+     * further read would be made at an unaligned position.
+     */
+
+    buffer.clear();
+    buffer.limit((int) wanted);
+    while (buffer.hasRemaining()
+           && blockStart + buffer.position() < this.size) {
+      final var count =
+        this.channel.read(buffer, blockStart + buffer.position());
+      if (count <= 0) {
+        break;
+      }
+    }
+    return buffer.position();
+  }
+
+  /**
+   * Create a read-only channel over a range of the file.
+   *
+   * @param offset The offset of the range
+   * @param length The length of the range
+   *
+   * @return A channel
+   */
+
+  SeekableByteChannel subrange(
+    final long offset,
+    final long length)
+  {
+    return new Subrange(offset, length);
+  }
+
+  @Override
+  public int read(
+    final ByteBuffer dst)
+    throws IOException
+  {
+    this.checkOpen();
+
+    if (this.position >= this.size) {
+      return -1;
+    }
+
+    if (this.cursor == null) {
+      this.cursor = this.pool.acquire();
+    }
+
+    final var start = this.position;
+    final var end = Math.min(start + dst.remaining(), this.size);
+    while (this.position < end) {
+      final var cursorEnd = this.cursorStart + this.cursor.position();
+      if (this.cursorStart < 0L
+          || this.position < this.cursorStart
+          || this.position >= cursorEnd) {
+        this.cursorStart = this.position & ~this.blockMask;
+        this.fill(this.cursor, this.cursorStart, this.size);
+        if (this.cursorStart + this.cursor.position() <= this.position) {
+          break;
+        }
+        continue;
+      }
+
+      final var count = (int) (Math.min(cursorEnd, end) - this.position);
+      dst.put(
+        this.cursor.slice(
+          (int) (this.position - this.cursorStart),
+          count
+        )
+      );
+      this.position += count;
+    }
+    return (int) (this.position - start);
+  }
+
+  @Override
+  public int write(
+    final ByteBuffer src)
+  {
+    throw new NonWritableChannelException();
+  }
+
+  @Override
+  public long position()
+    throws ClosedChannelException
+  {
+    this.checkOpen();
+    return this.position;
+  }
+
+  @Override
+  public SeekableByteChannel position(
+    final long newPosition)
+    throws ClosedChannelException
+  {
+    this.checkOpen();
+    if (newPosition < 0L) {
+      throw new IllegalArgumentException("Position must be non-negative");
+    }
+    this.position = newPosition;
+    return this;
+  }
+
+  @Override
+  public long size()
+    throws ClosedChannelException
+  {
+    this.checkOpen();
+    return this.size;
+  }
+
+  @Override
+  public SeekableByteChannel truncate(
+    final long newSize)
+  {
+    throw new NonWritableChannelException();
+  }
+
+  @Override
+  public boolean isOpen()
+  {
+    return this.channel.isOpen();
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    if (this.cursor != null) {
+      this.pool.release(this.cursor);
+      this.cursor = null;
+    }
+    this.channel.close();
+  }
+
+  private void checkOpen()
+    throws ClosedChannelException
+  {
+    if (!this.channel.isOpen()) {
+      throw new ClosedChannelException();
+    }
+  }
+
+  private final class Subrange
+    implements SeekableByteChannel
+  {
+    private final long offset;
+    private final long length;
+    private long rangePosition;
+    private boolean closed;
+
+    Subrange(
+      final long inOffset,
+      final long inLength)
+    {
+      this.offset = inOffset;
+      this.length = inLength;
+    }
+
+    @Override
+    public int read(
+      final ByteBuffer dst)
+      throws IOException
+    {
+      this.checkRangeOpen();
+
+      final var remaining = this.length - this.rangePosition;
+      if (remaining <= 0L) {
+        return -1;
+      }
+
+      final var limited =
+        dst.slice(dst.position(), (int) Math.min(remaining, dst.remaining()));
+      final var count =
+        EoDirectChannel.this.read(limited, this.offset + this.rangePosition);
+      if (count < 0) {
+        return -1;
+      }
+
+      dst.position(dst.position() + count);
+      this.rangePosition += count;
+      return count;
+    }
+
+    @Override
+    public int write(
+      final ByteBuffer src)
+    {
+      throw new NonWritableChannelException();
+    }
+
+    @Override
+    public long position()
+      throws ClosedChannelException
+    {
+      this.checkRangeOpen();
+      return this.rangePosition;
+    }
+
+    @Override
+    public SeekableByteChannel position(
+      final long newPosition)
+      throws ClosedChannelException
+    {
+      this.checkRangeOpen();
+      if (newPosition < 0L) {
+        throw new IllegalArgumentException("Position must be non-negative");
+      }
+      this.rangePosition = newPosition;
+      return this;
+    }
+
+    @Override
+    public long size()
+      throws ClosedChannelException
+    {
+      this.checkRangeOpen();
+      return this.length;
+    }
+
+    @Override
+    public SeekableByteChannel truncate(
+      final long newSize)
+    {
+      throw new NonWritableChannelException();
+    }
+
+    @Override
+    public boolean isOpen()
+    {
+      return !this.closed && EoDirectChannel.this.isOpen();
+    }
+
+    @Override
+    public void close()
+    {
+      this.closed = true;
+    }
+
+    private void checkRangeOpen()
+      throws ClosedChannelException
+    {
+      if (!this.isOpen()) {
+        throw new ClosedChannelException();
+      }
+    }
+  }
+}
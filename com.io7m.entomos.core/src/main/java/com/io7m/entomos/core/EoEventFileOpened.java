@@ -0,0 +1,59 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * An event recorded when a file is opened and its sections enumerated.
+ */
+
+@Name("com.io7m.entomos.FileOpened")
+@Label("File Opened")
+@Category("Entomos")
+@Description("A file was opened and its sections enumerated.")
+@Enabled(false)
+@StackTrace(false)
+final class EoEventFileOpened
+  extends Event
+{
+  @Label("URI")
+  @Description("The URI of the file.")
+  String uri;
+
+  @Label("Section Count")
+  @Description("The number of sections in the file.")
+  long sectionCount;
+
+  @Label("Header Bytes Read")
+  @Description("The number of bytes of file and section headers read.")
+  @DataAmount
+  long headerBytesRead;
+
+  EoEventFileOpened()
+  {
+
+  }
+}
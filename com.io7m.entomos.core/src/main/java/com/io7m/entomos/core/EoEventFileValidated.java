@@ -0,0 +1,65 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * An event recorded when a file is validated against a format description.
+ */
+
+@Name("com.io7m.entomos.FileValidated")
+@Label("File Validated")
+@Category("Entomos")
+@Description("A file was validated against a format description.")
+@Enabled(false)
+@StackTrace(false)
+final class EoEventFileValidated
+  extends Event
+{
+  @Label("URI")
+  @Description("The URI of the file.")
+  String uri;
+
+  @Label("File Version")
+  @Description("The format version declared by the file.")
+  String fileVersion;
+
+  @Label("Description Version")
+  @Description("The version of the format description chosen for validation.")
+  String descriptionVersion;
+
+  @Label("Succeeded")
+  @Description("True if the file passed validation.")
+  boolean succeeded;
+
+  @Label("Error Code")
+  @Description("The error code, if validation failed.")
+  String errorCode;
+
+  EoEventFileValidated()
+  {
+
+  }
+}
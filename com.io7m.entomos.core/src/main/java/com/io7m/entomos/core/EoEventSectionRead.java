@@ -0,0 +1,72 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * An event recorded for each read from a section data channel.
+ */
+
+@Name("com.io7m.entomos.SectionRead")
+@Label("Section Read")
+@Category("Entomos")
+@Description("Data was read from a section.")
+@Enabled(false)
+@StackTrace(false)
+final class EoEventSectionRead
+  extends Event
+{
+  private static final EventType TYPE =
+    EventType.getEventType(EoEventSectionRead.class);
+
+  @Label("URI")
+  @Description("The URI of the file.")
+  String uri;
+
+  @Label("Section Tag")
+  @Description("The tag of the section.")
+  long tag;
+
+  @Label("Section Offset")
+  @Description("The offset of the section within the file.")
+  long offset;
+
+  @Label("Bytes")
+  @Description("The number of bytes read.")
+  @DataAmount
+  long bytes;
+
+  EoEventSectionRead()
+  {
+
+  }
+
+  static boolean enabled()
+  {
+    return TYPE.isEnabled();
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Objects;
+
+/**
+ * A section data channel that records a {@link EoEventSectionRead} event
+ * for each read.
+ */
+
+final class EoEventSectionReadChannel
+  implements SeekableByteChannel
+{
+  private final SeekableByteChannel delegate;
+  private final String uri;
+  private final EoFileSection section;
+
+  EoEventSectionReadChannel(
+    final SeekableByteChannel inDelegate,
+    final URI inUri,
+    final EoFileSection inSection)
+  {
+    this.delegate =
+      Objects.requireNonNull(inDelegate, "delegate");
+    this.uri =
+      inUri.toString();
+    this.section =
+      Objects.requireNonNull(inSection, "section");
+  }
+
+  /**
+   * Wrap the given channel if section read events are enabled.
+   *
+   * @param channel The channel
+   * @param uri     The file URI
+   * @param section The section
+   *
+   * @return The channel, possibly wrapped
+   */
+
+  static SeekableByteChannel wrap(
+    final SeekableByteChannel channel,
+    final URI uri,
+    final EoFileSection section)
+  {
+    if (EoEventSectionRead.enabled()) {
+      return new EoEventSectionReadChannel(channel, uri, section);
+    }
+    return channel;
+  }
+
+  /**
+   * @return The underlying channel
+   */
+
+  SeekableByteChannel delegate()
+  {
+    return this.delegate;
+  }
+
+  @Override
+  public int read(
+    final ByteBuffer dst)
+    throws IOException
+  {
+    final var event = new EoEventSectionRead();
+    event.begin();
+    final var count = this.delegate.read(dst);
+    event.end();
+
+    if (event.shouldCommit()) {
+      event.uri = this.uri;
+      event.tag = this.section.tag();
+      event.offset = this.section.offset();
+      event.bytes = Math.max(0, count);
+      event.commit();
+    }
+    return count;
+  }
+
+  @Override
+  public int write(
+    final ByteBuffer src)
+    throws IOException
+  {
+    return this.delegate.write(src);
+  }
+
+  @Override
+  public long position()
+    throws IOException
+  {
+    return this.delegate.position();
+  }
+
+  @Override
+  public SeekableByteChannel position(
+    final long newPosition)
+    throws IOException
+  {
+    this.delegate.position(newPosition);
+    return this;
+  }
+
+  @Override
+  public long size()
+    throws IOException
+  {
+    return this.delegate.size();
+  }
+
+  @Override
+  public SeekableByteChannel truncate(
+    final long size)
+    throws IOException
+  {
+    this.delegate.truncate(size);
+    return this;
+  }
+
+  @Override
+  public boolean isOpen()
+  {
+    return this.delegate.isOpen();
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    this.delegate.close();
+  }
+}
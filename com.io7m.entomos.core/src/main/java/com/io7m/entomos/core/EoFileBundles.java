@@ -0,0 +1,296 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import com.io7m.jbssio.vanilla.BSSReaders;
+import com.io7m.jmulticlose.core.CloseableCollection;
+import com.io7m.verona.core.Version;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Functions to merge files into bundles, and to split bundles into shards.
+ *
+ * <p>All files are read and written according to a single file
+ * description: the description supplies the file and end tags, the version
+ * and alignment of written files, and the tag of the checksum section (if
+ * any). Section data is copied exactly as stored using
+ * {@link java.nio.channels.FileChannel#transferTo(long, long,
+ * java.nio.channels.WritableByteChannel)}, and so encoded sections are
+ * neither decoded nor encoded again. End sections and checksum sections of
+ * the inputs are not copied; each written file receives a single end
+ * section, and a new checksum section if the description declares one.</p>
+ *
+ * <p>If validation is requested, the sequence of sections that would be
+ * written to each output is checked against the description before any
+ * data is written, exactly as a checked reader would check the finished
+ * file.</p>
+ *
+ * <p>Every input file must have exactly the version given by the
+ * description, as sections are copied without any conversion and the
+ * outputs are written with that version.</p>
+ *
+ * <p>Output files must not be input files. Each output file is written to
+ * a temporary file in the same directory and then atomically moved into
+ * place, so a failure never leaves a partially written output.</p>
+ */
+
+public final class EoFileBundles
+{
+  private final EoFileWriters writers;
+
+  /**
+   * Functions to merge files into bundles, and to split bundles into
+   * shards.
+   */
+
+  public EoFileBundles()
+  {
+    this.writers = new EoFileWriters();
+  }
+
+  private record Source(
+    EoFileReaderType reader,
+    EoFileSection section)
+  {
+
+  }
+
+  /**
+   * Merge the sections of the given files, in order, into a single file.
+   *
+   * @param inputs   The input files
+   * @param format   The file description
+   * @param output   The output file
+   * @param validate {@code true} if the output should be validated
+   *
+   * @throws EoException On errors, or if validation fails
+   */
+
+  public void merge(
+    final List<Path> inputs,
+    final EoFileDescription format,
+    final Path output,
+    final boolean validate)
+    throws EoException
+  {
+    Objects.requireNonNull(inputs, "inputs");
+    Objects.requireNonNull(format, "format");
+    Objects.requireNonNull(output, "output");
+
+    EoOutputFiles.checkNotInput(output, inputs);
+
+    final var readers = readersFor(format);
+    try (final var resources = CloseableCollection.create(() -> {
+      return new EoException(
+        "One or more resources could not be closed.",
+        "error-resources",
+        Map.of("File", output.toString()),
+        Optional.empty()
+      );
+    })) {
+      final var sources = new ArrayList<Source>();
+      for (final var input : inputs) {
+        final var reader =
+          resources.add(
+            readers.forFile(format.fileTag(), format.endTag(), input, null));
+        checkVersion(input, reader, format);
+        addSources(sources, reader, format);
+      }
+
+      if (validate) {
+        checkPlanned(output, sources, format);
+      }
+      this.write(output, sources, format);
+    }
+  }
+
+  /**
+   * Split a file into shards by tag. Each section is copied to the shard
+   * associated with its tag, preserving the relative order of sections.
+   * Sections with tags that are not associated with any shard are
+   * discarded. Multiple tags may be associated with the same shard.
+   *
+   * @param input    The input file
+   * @param format   The file description
+   * @param shards   The output shard files by tag
+   * @param validate {@code true} if each shard should be validated
+   *
+   * @return The shard files that were written
+   *
+   * @throws EoException On errors, or if validation fails
+   */
+
+  public Set<Path> split(
+    final Path input,
+    final EoFileDescription format,
+    final Map<Long, Path> shards,
+    final boolean validate)
+    throws EoException
+  {
+    Objects.requireNonNull(input, "input");
+    Objects.requireNonNull(format, "format");
+    Objects.requireNonNull(shards, "shards");
+
+    for (final var shard : shards.values()) {
+      EoOutputFiles.checkNotInput(shard, List.of(input));
+    }
+
+    try (final var reader =
+           readersFor(format)
+             .forFile(format.fileTag(), format.endTag(), input, null)) {
+      checkVersion(input, reader, format);
+
+      final var sources = new ArrayList<Source>();
+      addSources(sources, reader, format);
+
+      final var byShard = new LinkedHashMap<Path, List<Source>>();
+      for (final var source : sources) {
+        final var shard = shards.get(Long.valueOf(source.section().tag()));
+        if (shard != null) {
+          byShard.computeIfAbsent(shard, k -> new ArrayList<>()).add(source);
+        }
+      }
+
+      if (validate) {
+        for (final var entry : byShard.entrySet()) {
+          checkPlanned(entry.getKey(), entry.getValue(), format);
+        }
+      }
+      for (final var entry : byShard.entrySet()) {
+        this.write(entry.getKey(), entry.getValue(), format);
+      }
+      return Set.copyOf(byShard.keySet());
+    }
+  }
+
+  private static EoFileReadersUnchecked readersFor(
+    final EoFileDescription format)
+  {
+    return new EoFileReadersUnchecked(
+      new BSSReaders(),
+      EoMetricsType.none(),
+      format.alignment()
+    );
+  }
+
+  private static void checkVersion(
+    final Path input,
+    final EoFileReaderType reader,
+    final EoFileDescription format)
+    throws EoException
+  {
+    final var version = reader.version();
+    if (version.major() == format.versionMajor()
+        && version.minor() == format.versionMinor()) {
+      return;
+    }
+
+    final var supported =
+      Version.of(format.versionMajor(), format.versionMinor(), 0);
+
+    throw new EoException(
+      "File format version is not supported.",
+      "error-file-version-not-supported",
+      Map.ofEntries(
+        Map.entry("File", input.toString()),
+        Map.entry("Version", version.toString()),
+        Map.entry("Supported", supported.toString())
+      ),
+      Optional.empty()
+    );
+  }
+
+  private static void addSources(
+    final List<Source> sources,
+    final EoFileReaderType reader,
+    final EoFileDescription format)
+  {
+    final var checksumTag = format.checksumTag();
+    for (final var section : reader.sections()) {
+      final var tag = section.tag();
+      if (tag == format.endTag()) {
+        continue;
+      }
+      if (checksumTag.isPresent() && tag == checksumTag.getAsLong()) {
+        continue;
+      }
+      sources.add(new Source(reader, section));
+    }
+  }
+
+  private static void checkPlanned(
+    final Path output,
+    final List<Source> sources,
+    final EoFileDescription format)
+    throws EoException
+  {
+    final var alignment = format.alignment();
+    final var planned = new TreeSet<EoFileSection>();
+
+    var position = EoAlignment.nextSectionOffset(16L, alignment);
+    for (final var source : sources) {
+      final var size = source.section().dataSize();
+      planned.add(
+        EoFileSection.builder()
+          .setTag(source.section().tag())
+          .setOffset(position)
+          .setDataSize(size)
+          .build()
+      );
+      position =
+        EoAlignment.nextSectionOffset(position + 16L + size, alignment);
+    }
+
+    planned.add(
+      EoFileSection.builder()
+        .setTag(format.endTag())
+        .setOffset(position)
+        .setDataSize(0L)
+        .build()
+    );
+
+    EoFileReadersChecked.checkSections(output.toUri(), planned, format);
+  }
+
+  private void write(
+    final Path output,
+    final List<Source> sources,
+    final EoFileDescription format)
+    throws EoException
+  {
+    EoOutputFiles.replace(output, file -> {
+      try (final var writer = this.writers.forFile(file, format)) {
+        for (final var source : sources) {
+          try (final var channel =
+                 source.reader().rawDataChannel(source.section())) {
+            writer.copySection(source.section().tag(), channel);
+          }
+        }
+      }
+    });
+  }
+}
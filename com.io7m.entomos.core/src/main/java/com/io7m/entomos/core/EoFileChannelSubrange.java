@@ -0,0 +1,269 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import com.io7m.jaffirm.core.Preconditions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+
+/**
+ * A read-only channel over a range of a file channel. All reads are
+ * positional, and so any number of these channels may be used concurrently
+ * over the same file channel. Closing this channel does not close the
+ * underlying file channel.
+ */
+
+final class EoFileChannelSubrange
+  implements SeekableByteChannel
+{
+  private final FileChannel channel;
+  private final long offset;
+  private final long size;
+  private long position;
+  private boolean closed;
+
+  EoFileChannelSubrange(
+    final FileChannel inChannel,
+    final long inOffset,
+    final long inSize)
+  {
+    this.channel =
+      Objects.requireNonNull(inChannel, "channel");
+    this.offset =
+      inOffset;
+    this.size =
+      inSize;
+    this.position =
+      0L;
+  }
+
+  /**
+   * @return The size of the range, regardless of whether the channel is
+   * open
+   */
+
+  long limit()
+  {
+    return this.size;
+  }
+
+  /**
+   * Determine whether a range lies entirely within this range.
+   *
+   * @param inOffset The offset of the range relative to this channel
+   * @param inSize   The size of the range
+   *
+   * @return {@code true} if the range is contained within this range
+   */
+
+  boolean contains(
+    final long inOffset,
+    final long inSize)
+  {
+    return inOffset >= 0L
+           && inSize >= 0L
+           && inOffset <= this.size
+           && inSize <= this.size - inOffset;
+  }
+
+  /**
+   * Create a channel over a range of this channel. The new channel refers
+   * directly to the underlying file channel, and so ranges of ranges do
+   * not accumulate layers of indirection. The range must lie entirely
+   * within this range, so that data outside this range cannot be read.
+   *
+   * @param inOffset The offset of the range relative to this channel
+   * @param inSize   The size of the range
+   *
+   * @return A channel over the range
+   */
+
+  EoFileChannelSubrange subrange(
+    final long inOffset,
+    final long inSize)
+  {
+    Preconditions.checkPrecondition(
+      this.contains(inOffset, inSize),
+      "Subrange must lie within the containing range"
+    );
+    return new EoFileChannelSubrange(
+      this.channel,
+      this.offset + inOffset,
+      inSize
+    );
+  }
+
+  /**
+   * Remove any metrics or event wrappers from the given section data
+   * channel.
+   *
+   * @param channel The channel
+   *
+   * @return The innermost channel
+   */
+
+  static SeekableByteChannel unwrap(
+    final SeekableByteChannel channel)
+  {
+    var current = channel;
+    while (true) {
+      switch (current) {
+        case final EoMetricsSectionChannel c -> current = c.delegate();
+        case final EoEventSectionReadChannel c -> current = c.delegate();
+        default -> {
+          return current;
+        }
+      }
+    }
+  }
+
+  @Override
+  public int read(
+    final ByteBuffer dst)
+    throws IOException
+  {
+    this.checkOpen();
+
+    final var remaining = this.size - this.position;
+    if (remaining <= 0L) {
+      return -1;
+    }
+
+    final int count;
+    if (dst.remaining() > remaining) {
+      final var limited = dst.slice(dst.position(), (int) remaining);
+      count = this.channel.read(limited, this.offset + this.position);
+      if (count > 0) {
+        dst.position(dst.position() + count);
+      }
+    } else {
+      count = this.channel.read(dst, this.offset + this.position);
+    }
+
+    if (count < 0) {
+      return -1;
+    }
+    this.position += count;
+    return count;
+  }
+
+  /**
+   * Transfer the remaining bytes of the range to the given channel,
+   * allowing the operating system to copy data without it passing through
+   * the Java heap where possible.
+   *
+   * @param target The target channel
+   *
+   * @return The number of bytes transferred
+   *
+   * @throws IOException On errors
+   */
+
+  long transferTo(
+    final WritableByteChannel target)
+    throws IOException
+  {
+    this.checkOpen();
+
+    long total = 0L;
+    while (this.position < this.size) {
+      final var count =
+        this.channel.transferTo(
+          this.offset + this.position,
+          this.size - this.position,
+          target
+        );
+      if (count <= 0L) {
+        break;
+      }
+      this.position += count;
+      total += count;
+    }
+    return total;
+  }
+
+  @Override
+  public int write(
+    final ByteBuffer src)
+  {
+    throw new NonWritableChannelException();
+  }
+
+  @Override
+  public long position()
+    throws ClosedChannelException
+  {
+    this.checkOpen();
+    return this.position;
+  }
+
+  @Override
+  public SeekableByteChannel position(
+    final long newPosition)
+    throws ClosedChannelException
+  {
+    this.checkOpen();
+    if (newPosition < 0L) {
+      throw new IllegalArgumentException("Position must be non-negative");
+    }
+    this.position = newPosition;
+    return this;
+  }
+
+  @Override
+  public long size()
+    throws ClosedChannelException
+  {
+    this.checkOpen();
+    return this.size;
+  }
+
+  @Override
+  public SeekableByteChannel truncate(
+    final long newSize)
+  {
+    throw new NonWritableChannelException();
+  }
+
+  @Override
+  public boolean isOpen()
+  {
+    return !this.closed && this.channel.isOpen();
+  }
+
+  @Override
+  public void close()
+  {
+    this.closed = true;
+  }
+
+  private void checkOpen()
+    throws ClosedChannelException
+  {
+    if (!this.isOpen()) {
+      throw new ClosedChannelException();
+    }
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.entomos.core;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A converter between two versions of a file format.
+ *
+ * <p>The caller supplies a transform for each section tag whose data
+ * changes between the two versions. Sections with a transform are decoded,
+ * passed through the transform, and encoded according to the target
+ * description, streaming data so that memory use does not depend on the
+ * size of the sections. All other sections are copied exactly as stored
+ * where the source and target descriptions agree on their encoding, so
+ * that converting a file only rewrites the data that actually changed.</p>
+ *
+ * <p>The input file is validated against the source description, and the
+ * output file is validated against the target description. The output is
+ * written to a temporary file in the same directory and is only moved into
+ * place once it has been validated, so a failed conversion leaves any
+ * existing output file untouched. The output file must not be the input
+ * file.</p>
+ */
+
+public final class EoFileConverter
+{
+  private final EoFileDescription source;
+  private final EoFileDescription target;
+  private final Map<Long, EoSectionTransformType> transforms;
+  private final EoFileReadersChecked readers;
+  private final EoFileWriters writers;
+
+  /**
+   * A converter between two versions of a file format.
+   *
+   * @param inSource     The source file description
+   * @param inTarget     The target file description
+   * @param inTransforms The section transforms by source section tag
+   */
+
+  public EoFileConverter(
+    final EoFileDescription inSource,
+    final EoFileDescription inTarget,
+    final Map<Long, EoSectionTransformType> inTransforms)
+  {
+    this.source =
+      Objects.requireNonNull(inSource, "source");
+    this.target =
+      Objects.requireNonNull(inTarget, "target");
+    this.transforms =
+      Map.copyOf(Objects.requireNonNull(inTransforms, "transforms"));
+    this.readers =
+      new EoFileReadersChecked();
+    this.writers =
+      new EoFileWriters();
+  }
+
+  /**
+   * Convert a file. The end section and the checksum section (if any) of
+   * the input are not copied; the output receives its own end section, and
+   * a new checksum section if the target description declares one.
+   *
+   * @param input  The input file
+   * @param output The output file
+   *
+   * @return Statistics describing the conversion
+   *
+   * @throws EoException On errors, or if either file fails validation
+   */
+
+  public EoConversionStatistics convert(
+    final Path input,
+    final Path output)
+    throws EoException
+  {
+    Objects.requireNonNull(input, "input");
+    Objects.requireNonNull(output, "output");
+
+    EoOutputFiles.checkNotInput(output, List.of(input));
+
+    final var statistics = new AtomicReference<EoConversionStatistics>();
+    EoOutputFiles.replace(output, file -> {
+      try (final var reader =
+             this.readers.forFile(
+               this.source.fileTag(),
+               this.source.endTag(),
+               input,
+               versionsOf(this.source));
+           final var writer =
+             this.writers.forFile(file, this.target)) {
+        statistics.set(this.convertSections(reader, writer));
+      }
+
+      this.readers.forFile(
+        this.target.fileTag(),
+        this.target.endTag(),
+        file,
+        versionsOf(this.target)
+      ).close();
+    });
+    return statistics.get();
+  }
+
+  private EoConversionStatistics convertSections(
+    final EoFileReaderType reader,
+    final EoFileWriterType writer)
+    throws EoException
+  {
+    final var checksumTag = this.source.checksumTag();
+
+    long sectionsCopied = 0L;
+    long sectionsTransformed = 0L;
+    long bytesCopied = 0L;
+    long bytesTransformed = 0L;
+
+    for (final var section : reader.sections()) {
+      final var tag = section.tag();
+      if (tag == this.source.endTag()) {
+        continue;
+      }
+      if (checksumTag.isPresent() && tag == checksumTag.getAsLong()) {
+        continue;
+      }
+
+      final var transform = this.transforms.get(Long.valueOf(tag));
+      if (transform == null) {
+        writer.copySection(reader, section);
+        ++sectionsCopied;
+        bytesCopied += section.dataSize();
+        continue;
+      }
+
+      try (final var data = reader.dataChannel(section);
+           final var output = writer.createSection(tag)) {
+        transform.transform(section, data, output);
+      } catch (final IOException e) {
+        throw EoException.wrap(e);
+      }
+      ++sectionsTransformed;
+      bytesTransformed += section.dataSize();
+    }
+
+    return EoConversionStatistics.builder()
+      .setSectionsCopied(sectionsCopied)
+      .setSectionsTransformed(sectionsTransformed)
+      .setBytesCopied(bytesCopied)
+      .setBytesTransformed(bytesTransformed)
+      .build();
+  }
+
+  private static EoFileVersionsDescription versionsOf(
+    final EoFileDescription description)
+  {
+    return EoFileVersionsDescription.builder()
+      .addDescriptions(description)
+      .build();
+  }
+}
@@ -23,6 +23,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.NavigableMap;
+import java.util.OptionalLong;
 import java.util.TreeMap;
 
 /**
@@ -73,6 +74,37 @@ public interface EoFileDescriptionType
     return EoSectionsUnknown.UNKNOWN_SECTIONS_NOT_PERMITTED;
   }
 
+  /**
+   * The alignment of section data. Section headers are placed such that
+   * the data of every section (including the end section) begins at an
+   * offset that is a multiple of the alignment. The alignment must be a
+   * power of two in the range {@code [16, 65536]}; an alignment equal to
+   * the page size allows section data to be mapped and read with direct
+   * I/O.
+   *
+   * @return The alignment of section data
+   */
+
+  @Value.Default
+  default int alignment()
+  {
+    return EoAlignment.ALIGNMENT_DEFAULT;
+  }
+
+  /**
+   * The tag of the optional checksum section. If a tag is specified,
+   * writers opened with this description append a section with the tag
+   * that holds a CRC32C checksum of the stored data of every other section,
+   * and checked readers verify the data of each section against its
+   * checksum the first time that the section is accessed. The checksum
+   * section is implicitly permitted to appear at most once, and must not
+   * be declared in {@link #sections()}.
+   *
+   * @return The tag of the checksum section, if any
+   */
+
+  OptionalLong checksumTag();
+
   /**
    * @return The section descriptions by tag
    */
@@ -148,5 +180,23 @@ public interface EoFileDescriptionType
         "The file tag and end tag must be different."
       );
     }
+
+    final var checksumTag = this.checksumTag();
+    if (checksumTag.isPresent()) {
+      final var tag = checksumTag.getAsLong();
+      if (sectionMap.containsKey(tag)
+          || tag == this.fileTag()
+          || tag == this.endTag()) {
+        throw new IllegalArgumentException(
+          "The checksum tag must differ from the file, end, and section tags."
+        );
+      }
+    }
+
+    if (!EoAlignment.isValid(this.alignment())) {
+      throw new IllegalArgumentException(
+        "The alignment must be a power of two in the range [16, 65536]."
+      );
+    }
   }
 }
@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import com.io7m.verona.core.Version;
+import org.immutables.value.Value;
+
+import java.util.List;
+
+/**
+ * The result of enumerating the sections of a file. An index contains
+ * everything a reader needs to provide access to a file without reading
+ * any of the file's section headers.
+ */
+
+@ImmutablesStyleType
+@Value.Immutable
+public interface EoFileIndexType
+{
+  /**
+   * @return The file tag
+   */
+
+  long fileTag();
+
+  /**
+   * @return The tag of the end section
+   */
+
+  long endTag();
+
+  /**
+   * @return The version of the file format in the file
+   */
+
+  Version version();
+
+  /**
+   * @return The sections in the file, in offset order
+   */
+
+  List<EoFileSection> sections();
+
+  /**
+   * Check preconditions for the type.
+   */
+
+  @Value.Check
+  default void checkPreconditions()
+  {
+    final var sectionList = this.sections();
+    if (sectionList.isEmpty()) {
+      throw new IllegalArgumentException(
+        "An index must contain at least an end section."
+      );
+    }
+
+    if (sectionList.get(sectionList.size() - 1).tag() != this.endTag()) {
+      throw new IllegalArgumentException(
+        "The last section in an index must be the end section."
+      );
+    }
+
+    for (int index = 1; index < sectionList.size(); ++index) {
+      final var previous = sectionList.get(index - 1);
+      final var current = sectionList.get(index);
+      if (previous.compareTo(current) >= 0) {
+        throw new IllegalArgumentException(
+          "Sections in an index must be in strictly ascending offset order."
+        );
+      }
+    }
+  }
+}
@@ -85,4 +85,55 @@ public interface EoFileReaderFactoryType<P>
       throw EoException.wrap(e);
     }
   }
+
+  /**
+   * Open a reader for a file embedded as the data of a section of another
+   * file. If the parent section is stored without encoding, the nested
+   * reader reads directly from the channel of the parent file, translating
+   * offsets into the parent's channel; no data is copied, and files nested
+   * to any depth within a file opened over a {@link FileChannel} are read
+   * with the same positional, zero-copy channels as top-level files.
+   * Encoded parent sections are read through their decoded data channels.
+   * The parent reader must remain open for as long as the nested reader is
+   * used; closing the nested reader does not close the parent.
+   *
+   * @param uri        The URI for diagnostic purposes
+   * @param fileTag    The required file tag of the nested file
+   * @param endTag     The required end tag of the nested file
+   * @param parent     The parent reader
+   * @param section    The parent section containing the nested file
+   * @param parameters The extra parameters
+   *
+   * @return A reader
+   *
+   * @throws EoException On errors
+   */
+
+  default EoFileReaderType forSection(
+    final URI uri,
+    final long fileTag,
+    final long endTag,
+    final EoFileReaderType parent,
+    final EoFileSection section,
+    final P parameters)
+    throws EoException
+  {
+    final SeekableByteChannel channel;
+    if (parent.encodingOf(section) == EoSectionEncoding.RAW) {
+      channel = EoFileChannelSubrange.unwrap(parent.rawDataChannel(section));
+    } else {
+      channel = parent.dataChannel(section);
+    }
+
+    try {
+      return this.forChannel(uri, fileTag, endTag, channel, parameters);
+    } catch (final EoException e) {
+      try {
+        channel.close();
+      } catch (final IOException x) {
+        e.addSuppressed(x);
+      }
+      throw e;
+    }
+  }
 }
@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import java.net.URI;
+import java.nio.channels.SeekableByteChannel;
+
+/**
+ * A factory of file readers that can open files using an index produced
+ * by an earlier reader, skipping enumeration and validation.
+ *
+ * @param <P> The type of extra parameters
+ */
+
+public interface EoFileReaderIndexableFactoryType<P>
+  extends EoFileReaderFactoryType<P>
+{
+  /**
+   * Open a reader for the given channel using an existing index. The index
+   * is assumed to have been produced by a reader from a factory of this
+   * type using parameters with the same fingerprint, and so no section
+   * headers are read and no validation is performed.
+   *
+   * @param uri        The URI for diagnostic purposes
+   * @param channel    The channel
+   * @param index      The index
+   * @param parameters The extra parameters
+   *
+   * @return A reader
+   *
+   * @throws EoException On errors
+   *
+   * @see #fingerprint(Object)
+   */
+
+  EoFileReaderType forIndex(
+    URI uri,
+    SeekableByteChannel channel,
+    EoFileIndex index,
+    P parameters)
+    throws EoException;
+
+  /**
+   * Compute a stable fingerprint identifying the validation that readers
+   * perform when given the specified parameters. Two sets of parameters
+   * with equal fingerprints are guaranteed to accept and reject exactly the
+   * same files, and enumerate the same sections within them.
+   *
+   * @param parameters The extra parameters
+   *
+   * @return The fingerprint
+   */
+
+  long fingerprint(P parameters);
+}
@@ -0,0 +1,567 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import com.io7m.jaffirm.core.Preconditions;
+import com.io7m.verona.core.Version;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A pool of readers that keeps at most a fixed number of files open at
+ * any one time.
+ *
+ * <p>Consumers acquire leases on readers; a lease is itself a reader, and
+ * closing the lease returns it to the pool. Any number of consumers may
+ * hold leases on the same file simultaneously, sharing one underlying
+ * reader. When a file must be opened and the open-file budget is
+ * exhausted, the least recently used reader that has no outstanding
+ * leases is closed. The index of each file the pool has opened is
+ * retained along with the size and modification time of the file, so a
+ * closed reader is reopened on next access without enumerating or
+ * validating its sections again; if the size or modification time of the
+ * file has changed, the file is opened and validated from scratch. At most
+ * {@link #RETAINED_INDEXES_MAXIMUM} indexes are retained, discarding the
+ * least recently used. If every open reader is leased, acquisition blocks
+ * until a lease is closed.</p>
+ *
+ * <p>Instances of this class are safe for use from multiple threads.</p>
+ *
+ * @param <P> The type of extra parameters
+ */
+
+public final class EoFileReaderPool<P>
+  implements AutoCloseable
+{
+  private static final System.Logger LOG =
+    System.getLogger(EoFileReaderPool.class.getName());
+
+  /**
+   * The maximum number of file indexes retained by the pool.
+   */
+
+  public static final int RETAINED_INDEXES_MAXIMUM = 4096;
+
+  private final EoFileReaderIndexableFactoryType<P> factory;
+  private final int maximumOpenFiles;
+  private final ReentrantLock lock;
+  private final Condition changed;
+  private final LinkedHashMap<Key<P>, Entry<P>> entries;
+  private final LinkedHashMap<Key<P>, Retained> indexes;
+  private int openFiles;
+  private int waiting;
+  private boolean closed;
+
+  /**
+   * A pool of readers that keeps at most a fixed number of files open at
+   * any one time.
+   *
+   * @param inFactory          The factory used to open readers
+   * @param inMaximumOpenFiles The maximum number of open files
+   */
+
+  public EoFileReaderPool(
+    final EoFileReaderIndexableFactoryType<P> inFactory,
+    final int inMaximumOpenFiles)
+  {
+    Preconditions.checkPrecondition(
+      inMaximumOpenFiles > 0,
+      "Maximum open files must be positive"
+    );
+
+    this.factory =
+      Objects.requireNonNull(inFactory, "factory");
+    this.maximumOpenFiles =
+      inMaximumOpenFiles;
+    this.lock =
+      new ReentrantLock();
+    this.changed =
+      this.lock.newCondition();
+    this.entries =
+      new LinkedHashMap<>(16, 0.75f, true);
+    this.indexes =
+      new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(
+          final Map.Entry<Key<P>, Retained> eldest)
+        {
+          return this.size() > RETAINED_INDEXES_MAXIMUM;
+        }
+      };
+  }
+
+  private record Key<P>(
+    Path file,
+    long fileTag,
+    long endTag,
+    P parameters)
+  {
+
+  }
+
+  private record Stamp(
+    long size,
+    FileTime modified)
+  {
+    static Stamp of(
+      final Path file)
+      throws EoException
+    {
+      try {
+        final var attributes =
+          Files.readAttributes(file, BasicFileAttributes.class);
+        return new Stamp(attributes.size(), attributes.lastModifiedTime());
+      } catch (final IOException e) {
+        throw EoException.wrap(e);
+      }
+    }
+  }
+
+  private record Retained(
+    EoFileIndex index,
+    Stamp stamp)
+  {
+
+  }
+
+  private static final class Entry<P>
+  {
+    private final Key<P> key;
+    private EoFileReaderType reader;
+    private boolean opening;
+    private int leases;
+
+    Entry(
+      final Key<P> inKey)
+    {
+      this.key = inKey;
+    }
+  }
+
+  /**
+   * Acquire a lease on a reader for the given file. The returned reader
+   * must be closed when the caller has finished with it.
+   *
+   * @param fileTag    The required file tag
+   * @param endTag     The required end tag
+   * @param file       The file
+   * @param parameters The extra parameters
+   *
+   * @return A leased reader
+   *
+   * @throws EoException On errors
+   */
+
+  public EoFileReaderType acquire(
+    final long fileTag,
+    final long endTag,
+    final Path file,
+    final P parameters)
+    throws EoException
+  {
+    Objects.requireNonNull(file, "file");
+
+    final var key =
+      new Key<>(file.toAbsolutePath().normalize(), fileTag, endTag, parameters);
+
+    final Entry<P> entry;
+    final Retained retained;
+    final var evicted = new ArrayList<EoFileReaderType>();
+
+    this.lock.lock();
+    try {
+      this.checkNotClosed();
+      entry = this.entries.computeIfAbsent(key, Entry::new);
+      entry.leases += 1;
+
+      try {
+        while (entry.opening
+               || (entry.reader == null
+                   && this.openFiles >= this.maximumOpenFiles)) {
+          if (entry.opening || !this.evictIdle(evicted)) {
+            this.await();
+          }
+          this.checkNotClosed();
+        }
+        if (entry.reader != null) {
+          return new Lease(entry);
+        }
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        this.releaseLocked(entry);
+        throw EoException.wrap(e);
+      } catch (final EoException e) {
+        this.releaseLocked(entry);
+        throw e;
+      }
+
+      this.openFiles += 1;
+      entry.opening = true;
+      retained = this.indexes.get(key);
+    } finally {
+      this.lock.unlock();
+      closeEvicted(evicted);
+    }
+
+    final EoFileReaderType reader;
+    final Stamp stamp;
+    try {
+      stamp = Stamp.of(key.file());
+      reader = this.open(key, retained, stamp);
+    } catch (final EoException e) {
+      this.lock.lock();
+      try {
+        if (!this.closed) {
+          this.openFiles -= 1;
+        }
+        entry.opening = false;
+        this.releaseLocked(entry);
+      } finally {
+        this.lock.unlock();
+      }
+      throw e;
+    }
+
+    this.lock.lock();
+    try {
+      entry.opening = false;
+      if (this.closed) {
+        this.releaseLocked(entry);
+        reader.close();
+        throw errorClosed();
+      }
+      entry.reader = reader;
+      this.indexes.put(key, new Retained(reader.index(), stamp));
+      this.changed.signalAll();
+      return new Lease(entry);
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  private void await()
+    throws InterruptedException
+  {
+    this.waiting += 1;
+    try {
+      this.changed.await();
+    } finally {
+      this.waiting -= 1;
+    }
+  }
+
+  private EoFileReaderType open(
+    final Key<P> key,
+    final Retained retained,
+    final Stamp stamp)
+    throws EoException
+  {
+    if (retained == null || !retained.stamp().equals(stamp)) {
+      return this.factory.forFile(
+        key.fileTag(),
+        key.endTag(),
+        key.file(),
+        key.parameters()
+      );
+    }
+
+    final FileChannel channel;
+    try {
+      channel = FileChannel.open(key.file());
+    } catch (final IOException e) {
+      throw EoException.wrap(e);
+    }
+
+    try {
+      return this.factory.forIndex(
+        key.file().toUri(),
+        channel,
+        retained.index(),
+        key.parameters()
+      );
+    } catch (final EoException e) {
+      try {
+        channel.close();
+      } catch (final IOException x) {
+        e.addSuppressed(x);
+      }
+      throw e;
+    }
+  }
+
+  private boolean evictIdle(
+    final List<EoFileReaderType> evicted)
+  {
+    final var iterator = this.entries.values().iterator();
+    while (iterator.hasNext()) {
+      final var entry = iterator.next();
+      if (entry.reader != null && entry.leases == 0) {
+        evicted.add(entry.reader);
+        entry.reader = null;
+        iterator.remove();
+        this.openFiles -= 1;
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /*
+   * Readers are evicted under the lock but closed outside it, so that slow
+   * closes do not stall other threads. A reader that cannot be closed has
+   * already been removed from the pool, and the caller that happened to
+   * evict it has no interest in the failure, so it is logged rather than
+   * thrown.
+   */
+
+  private static void closeEvicted(
+    final List<EoFileReaderType> evicted)
+  {
+    for (final var reader : evicted) {
+      try {
+        reader.close();
+      } catch (final EoException e) {
+        LOG.log(
+          System.Logger.Level.WARNING,
+          "Failed to close an evicted reader: %s".formatted(e.getMessage()),
+          e
+        );
+      }
+    }
+  }
+
+  private void releaseLocked(
+    final Entry<P> entry)
+  {
+    entry.leases -= 1;
+    if (entry.leases == 0 && entry.reader == null && !entry.opening) {
+      this.entries.remove(entry.key, entry);
+    }
+    this.changed.signalAll();
+  }
+
+  private void checkNotClosed()
+    throws EoException
+  {
+    if (this.closed) {
+      throw errorClosed();
+    }
+  }
+
+  private static EoException errorClosed()
+  {
+    return new EoException(
+      "The reader pool has been closed.",
+      "error-pool-closed",
+      Map.of(),
+      Optional.empty()
+    );
+  }
+
+  /**
+   * @return The number of files currently open
+   */
+
+  public int openFiles()
+  {
+    this.lock.lock();
+    try {
+      return this.openFiles;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * @return The number of callers currently blocked waiting for a reader
+   */
+
+  public int waiting()
+  {
+    this.lock.lock();
+    try {
+      return this.waiting;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * @return The number of files for which an index is retained
+   */
+
+  public int indexedFiles()
+  {
+    this.lock.lock();
+    try {
+      return this.indexes.size();
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Close every reader in the pool. Readers that are currently leased are
+   * closed regardless of their leases.
+   *
+   * @throws EoException On errors
+   */
+
+  @Override
+  public void close()
+    throws EoException
+  {
+    final var readers = new ArrayList<EoFileReaderType>();
+
+    this.lock.lock();
+    try {
+      if (this.closed) {
+        return;
+      }
+      this.closed = true;
+      for (final var entry : this.entries.values()) {
+        if (entry.reader != null) {
+          readers.add(entry.reader);
+          entry.reader = null;
+        }
+      }
+      this.entries.clear();
+      this.indexes.clear();
+      this.openFiles = 0;
+      this.changed.signalAll();
+    } finally {
+      this.lock.unlock();
+    }
+
+    EoException failure = null;
+    for (final var reader : readers) {
+      try {
+        reader.close();
+      } catch (final EoException e) {
+        if (failure == null) {
+          failure = e;
+        } else {
+          failure.addSuppressed(e);
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private final class Lease
+    implements EoFileReaderType
+  {
+    private final Entry<P> entry;
+    private final EoFileReaderType reader;
+    private final AtomicBoolean closed;
+
+    Lease(
+      final Entry<P> inEntry)
+    {
+      this.entry = inEntry;
+      this.reader = inEntry.reader;
+      this.closed = new AtomicBoolean(false);
+    }
+
+    @Override
+    public NavigableSet<EoFileSection> sections()
+    {
+      return this.reader.sections();
+    }
+
+    @Override
+    public URI uri()
+    {
+      return this.reader.uri();
+    }
+
+    @Override
+    public long fileTag()
+    {
+      return this.reader.fileTag();
+    }
+
+    @Override
+    public Version version()
+    {
+      return this.reader.version();
+    }
+
+    @Override
+    public EoFileIndex index()
+    {
+      return this.reader.index();
+    }
+
+    @Override
+    public SeekableByteChannel dataChannel(
+      final EoFileSection section)
+      throws EoException
+    {
+      return this.reader.dataChannel(section);
+    }
+
+    @Override
+    public SeekableByteChannel rawDataChannel(
+      final EoFileSection section)
+      throws EoException
+    {
+      return this.reader.rawDataChannel(section);
+    }
+
+    @Override
+    public EoSectionEncoding encodingOf(
+      final EoFileSection section)
+    {
+      return this.reader.encodingOf(section);
+    }
+
+    @Override
+    public void close()
+    {
+      if (this.closed.compareAndSet(false, true)) {
+        final var pool = EoFileReaderPool.this;
+        pool.lock.lock();
+        try {
+          pool.releaseLocked(this.entry);
+        } finally {
+          pool.lock.unlock();
+        }
+      }
+    }
+  }
+}
@@ -19,8 +19,13 @@ package com.io7m.entomos.core;
 
 import com.io7m.verona.core.Version;
 
+import java.net.URI;
 import java.nio.channels.SeekableByteChannel;
 import java.util.NavigableSet;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A file reader.
@@ -35,6 +40,12 @@ public interface EoFileReaderType
 
   NavigableSet<EoFileSection> sections();
 
+  /**
+   * @return The URI of the file, for diagnostic purposes
+   */
+
+  URI uri();
+
   /**
    * @return The file tag
    */
@@ -48,7 +59,26 @@ public interface EoFileReaderType
   Version version();
 
   /**
-   * Get access to the data within a section on the file.
+   * @return The index of the sections in the file
+   */
+
+  default EoFileIndex index()
+  {
+    final var sectionSet = this.sections();
+    return EoFileIndex.builder()
+      .setFileTag(this.fileTag())
+      .setEndTag(sectionSet.last().tag())
+      .setVersion(this.version())
+      .setSections(sectionSet)
+      .build();
+  }
+
+  /**
+   * Get access to the data within a section on the file. If the reader
+   * was opened over a {@link java.nio.channels.FileChannel}, or was opened
+   * for direct I/O by {@link EoFileReadersDirect}, the returned channels
+   * use positional reads and any number of them may be used concurrently
+   * from different threads.
    *
    * @param section The section
    *
@@ -59,6 +89,77 @@ public interface EoFileReaderType
     EoFileSection section)
     throws EoException;
 
+  /**
+   * Get access to the data within a section on the file exactly as it is
+   * stored, without decoding it according to the section's
+   * {@link #encodingOf(EoFileSection) encoding}. For sections that are
+   * not encoded, this is equivalent to
+   * {@link #dataChannel(EoFileSection)}.
+   *
+   * @param section The section
+   *
+   * @return A byte channel for the stored section data
+   *
+   * @throws EoException On errors
+   */
+
+  default SeekableByteChannel rawDataChannel(
+    final EoFileSection section)
+    throws EoException
+  {
+    return this.dataChannel(section);
+  }
+
+  /**
+   * Determine the encoding of the given section. Readers that do not know
+   * the description of the file format treat all sections as
+   * {@link EoSectionEncoding#RAW}, and return the stored data from
+   * {@link #dataChannel(EoFileSection)}.
+   *
+   * @param section The section
+   *
+   * @return The section encoding
+   */
+
+  default EoSectionEncoding encodingOf(
+    final EoFileSection section)
+  {
+    return EoSectionEncoding.RAW;
+  }
+
+  /**
+   * Obtain a stream of handles to the sections in the file, in offset
+   * order, excluding the end section. The stream's spliterator divides the
+   * sections evenly when split, and so the stream may be made parallel in
+   * order to read and decode sections using multiple threads on the
+   * common fork-join pool, subject to the same concurrency conditions as
+   * {@link #dataChannel(EoFileSection)}.
+   *
+   * @return A stream of section handles
+   */
+
+  default Stream<EoSectionHandle> sectionStream()
+  {
+    final var sectionSet = this.sections();
+    final var handles =
+      new EoSectionHandle[Math.max(0, sectionSet.size() - 1)];
+    final var iterator = sectionSet.iterator();
+    for (int index = 0; index < handles.length; ++index) {
+      handles[index] = new EoSectionHandle(this, iterator.next());
+    }
+
+    return StreamSupport.stream(
+      Spliterators.spliterator(
+        handles,
+        Spliterator.ORDERED
+        | Spliterator.DISTINCT
+        | Spliterator.NONNULL
+        | Spliterator.IMMUTABLE
+      ),
+      false
+    );
+  }
+
   @Override
   void close()
     throws EoException;
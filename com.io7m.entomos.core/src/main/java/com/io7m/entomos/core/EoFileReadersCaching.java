@@ -0,0 +1,219 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import com.io7m.verona.core.Version;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+import java.util.NavigableSet;
+import java.util.Objects;
+
+/**
+ * A supplier of readers that serve section data from a shared cache. The
+ * readers are produced by a base factory, and sections are loaded into the
+ * cache on first access.
+ *
+ * @param <P> The type of extra parameters
+ */
+
+public final class EoFileReadersCaching<P>
+  implements EoFileReaderFactoryType<P>
+{
+  private final EoFileReaderFactoryType<P> base;
+  private final EoSectionCacheType cache;
+
+  /**
+   * A supplier of readers that serve section data from a shared cache.
+   *
+   * @param inBase  The base reader factory
+   * @param inCache The section cache
+   */
+
+  public EoFileReadersCaching(
+    final EoFileReaderFactoryType<P> inBase,
+    final EoSectionCacheType inCache)
+  {
+    this.base =
+      Objects.requireNonNull(inBase, "base");
+    this.cache =
+      Objects.requireNonNull(inCache, "cache");
+  }
+
+  /**
+   * @return The section cache
+   */
+
+  public EoSectionCacheType cache()
+  {
+    return this.cache;
+  }
+
+  @Override
+  public EoFileReaderType forChannel(
+    final URI uri,
+    final long fileTag,
+    final long endTag,
+    final SeekableByteChannel channel,
+    final P parameters)
+    throws EoException
+  {
+    Objects.requireNonNull(uri, "uri");
+
+    return new EoFileReaderCaching(
+      uri,
+      this.base.forChannel(uri, fileTag, endTag, channel, parameters),
+      this.cache
+    );
+  }
+
+  @Override
+  public EoFileReaderType forFile(
+    final long fileTag,
+    final long endTag,
+    final Path file,
+    final P parameters)
+    throws EoException
+  {
+    Objects.requireNonNull(file, "file");
+
+    return new EoFileReaderCaching(
+      file.toUri(),
+      this.base.forFile(fileTag, endTag, file, parameters),
+      this.cache
+    );
+  }
+
+  private static final class EoFileReaderCaching
+    implements EoFileReaderType
+  {
+    private final URI uri;
+    private final EoFileReaderType baseReader;
+    private final EoSectionCacheType cache;
+
+    EoFileReaderCaching(
+      final URI inUri,
+      final EoFileReaderType inBaseReader,
+      final EoSectionCacheType inCache)
+    {
+      this.uri =
+        Objects.requireNonNull(inUri, "uri");
+      this.baseReader =
+        Objects.requireNonNull(inBaseReader, "baseReader");
+      this.cache =
+        Objects.requireNonNull(inCache, "cache");
+    }
+
+    @Override
+    public NavigableSet<EoFileSection> sections()
+    {
+      return this.baseReader.sections();
+    }
+
+    @Override
+    public URI uri()
+    {
+      return this.baseReader.uri();
+    }
+
+    @Override
+    public long fileTag()
+    {
+      return this.baseReader.fileTag();
+    }
+
+    @Override
+    public Version version()
+    {
+      return this.baseReader.version();
+    }
+
+    @Override
+    public SeekableByteChannel dataChannel(
+      final EoFileSection section)
+      throws EoException
+    {
+      if (!this.sections().contains(section)) {
+        return this.baseReader.dataChannel(section);
+      }
+
+      /*
+       * Encoded sections are not cached, as the size of the decoded data
+       * is not known until the section is opened.
+       */
+
+      if (this.encodingOf(section) != EoSectionEncoding.RAW) {
+        return this.baseReader.dataChannel(section);
+      }
+
+      final var size = section.dataSize();
+      if (Long.compareUnsigned(size, this.cache.maximumEntrySize()) > 0) {
+        return this.baseReader.dataChannel(section);
+      }
+
+      final var lease =
+        this.cache.get(this.uri, section, t -> this.load(section, t));
+      return EoEventSectionReadChannel.wrap(
+        new EoByteBufferChannel(lease.data(), lease::close),
+        this.uri,
+        section
+      );
+    }
+
+    @Override
+    public SeekableByteChannel rawDataChannel(
+      final EoFileSection section)
+      throws EoException
+    {
+      return this.baseReader.rawDataChannel(section);
+    }
+
+    @Override
+    public EoSectionEncoding encodingOf(
+      final EoFileSection section)
+    {
+      return this.baseReader.encodingOf(section);
+    }
+
+    private void load(
+      final EoFileSection section,
+      final ByteBuffer target)
+      throws EoException
+    {
+      try (final var channel = this.baseReader.dataChannel(section)) {
+        while (target.hasRemaining()) {
+          if (channel.read(target) < 0) {
+            break;
+          }
+        }
+      } catch (final IOException e) {
+        throw EoException.wrap(e);
+      }
+    }
+
+    @Override
+    public void close()
+      throws EoException
+    {
+      this.baseReader.close();
+    }
+  }
+}
@@ -21,13 +21,25 @@ import com.io7m.jbssio.api.BSSReaderProviderType;
 import com.io7m.jbssio.vanilla.BSSReaders;
 import com.io7m.verona.core.Version;
 
+import java.io.IOException;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.NavigableSet;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 /**
@@ -36,9 +48,13 @@ import java.util.stream.Collectors;
  */
 
 public final class EoFileReadersChecked
-  implements EoFileReaderFactoryType<EoFileVersionsDescription>
+  implements EoFileReaderIndexableFactoryType<EoFileVersionsDescription>
 {
+  private static final long CHUNK_CACHE_SIZE = 4L * 1024L * 1024L;
+
   private final EoFileReadersUnchecked unchecked;
+  private final Optional<EoValidationCache> validationCache;
+  private final EoMetricsType metrics;
 
   /**
    * A supplier of checked readers. These readers will validate that the file
@@ -60,8 +76,109 @@ public final class EoFileReadersChecked
   public EoFileReadersChecked(
     final BSSReaderProviderType inReaders)
   {
+    this(inReaders, Optional.empty(), EoMetricsType.none());
+  }
+
+  /**
+   * A supplier of checked readers. These readers will validate that the file
+   * confirms to a given specification. Files opened with
+   * {@link #forFile(long, long, Path, EoFileVersionsDescription)} that have
+   * already been validated, and have not changed since, are not validated
+   * again.
+   *
+   * @param inReaders         A provider of {@code bssio} readers.
+   * @param inValidationCache A cache of validation results
+   */
+
+  public EoFileReadersChecked(
+    final BSSReaderProviderType inReaders,
+    final EoValidationCache inValidationCache)
+  {
+    this(
+      inReaders,
+      Optional.of(
+        Objects.requireNonNull(inValidationCache, "validationCache")),
+      EoMetricsType.none()
+    );
+  }
+
+  /**
+   * A supplier of checked readers. These readers will validate that the file
+   * confirms to a given specification.
+   *
+   * @param inReaders         A provider of {@code bssio} readers.
+   * @param inValidationCache A cache of validation results, if any
+   * @param inMetrics         A metrics listener
+   */
+
+  public EoFileReadersChecked(
+    final BSSReaderProviderType inReaders,
+    final Optional<EoValidationCache> inValidationCache,
+    final EoMetricsType inMetrics)
+  {
+    this.metrics =
+      Objects.requireNonNull(inMetrics, "metrics");
+    this.validationCache =
+      Objects.requireNonNull(inValidationCache, "validationCache");
     this.unchecked =
-      new EoFileReadersUnchecked(inReaders);
+      new EoFileReadersUnchecked(inReaders, inMetrics);
+  }
+
+  @Override
+  public EoFileReaderType forFile(
+    final long fileTag,
+    final long endTag,
+    final Path file,
+    final EoFileVersionsDescription parameters)
+    throws EoException
+  {
+    Objects.requireNonNull(file, "file");
+    Objects.requireNonNull(parameters, "parameters");
+
+    if (this.validationCache.isEmpty()) {
+      return EoFileReaderIndexableFactoryType.super.forFile(
+        fileTag, endTag, file, parameters
+      );
+    }
+
+    final var cache =
+      this.validationCache.get();
+
+    final BasicFileAttributes attributes;
+    try {
+      attributes = Files.readAttributes(file, BasicFileAttributes.class);
+    } catch (final IOException e) {
+      throw EoException.wrap(e);
+    }
+
+    if (cache.isValidated(file, attributes, parameters)) {
+      final FileChannel channel;
+      try {
+        channel = FileChannel.open(file);
+      } catch (final IOException e) {
+        throw EoException.wrap(e);
+      }
+
+      return new EoFileReaderChecked(
+        file.toUri(),
+        this.unchecked.forChannelAligned(
+          file.toUri(),
+          fileTag,
+          endTag,
+          channel,
+          parameters.alignment()
+        ),
+        parameters,
+        this.metrics
+      );
+    }
+
+    final var reader =
+      EoFileReaderIndexableFactoryType.super.forFile(
+        fileTag, endTag, file, parameters
+      );
+    cache.markValidated(file, attributes, parameters);
+    return reader;
   }
 
   @Override
@@ -80,25 +197,396 @@ public final class EoFileReadersChecked
     final var checked =
       new EoFileReaderChecked(
         uri,
-        this.unchecked.forChannel(uri, fileTag, endTag, channel, null),
-        parameters
+        this.unchecked.forChannelAligned(
+          uri,
+          fileTag,
+          endTag,
+          channel,
+          parameters.alignment()
+        ),
+        parameters,
+        this.metrics
       );
 
     checked.start();
     return checked;
   }
 
+  @Override
+  public EoFileReaderType forIndex(
+    final URI uri,
+    final SeekableByteChannel channel,
+    final EoFileIndex index,
+    final EoFileVersionsDescription parameters)
+    throws EoException
+  {
+    Objects.requireNonNull(uri, "uri");
+    Objects.requireNonNull(channel, "channel");
+    Objects.requireNonNull(index, "index");
+    Objects.requireNonNull(parameters, "parameters");
+
+    return new EoFileReaderChecked(
+      uri,
+      this.unchecked.forIndex(uri, channel, index, null),
+      parameters,
+      this.metrics
+    );
+  }
+
+  @Override
+  public long fingerprint(
+    final EoFileVersionsDescription parameters)
+  {
+    Objects.requireNonNull(parameters, "parameters");
+
+    final MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+
+    final var buffer = ByteBuffer.allocate(24);
+    for (final var description : parameters.versions().values()) {
+      buffer.clear();
+      buffer.putInt(description.versionMajor());
+      buffer.putInt(description.versionMinor());
+      buffer.putLong(description.fileTag());
+      buffer.putLong(description.endTag());
+      digest.update(buffer.flip());
+      buffer.clear();
+      buffer.putInt(description.alignment());
+      buffer.putLong(description.checksumTag().orElse(0L));
+      buffer.put((byte) (description.checksumTag().isPresent() ? 1 : 0));
+      digest.update(buffer.flip());
+      digest.update(nameBytes(description.sectionsUnknown()));
+
+      for (final var section : description.sectionByTag().values()) {
+        buffer.clear();
+        buffer.putLong(section.tag());
+        digest.update(buffer.flip());
+        digest.update(nameBytes(section.ordering()));
+        digest.update(nameBytes(section.cardinality()));
+        digest.update(nameBytes(section.encoding()));
+      }
+    }
+
+    final var result = ByteBuffer.wrap(digest.digest()).getLong();
+    return result == 0L ? 1L : result;
+  }
+
+  private static byte[] nameBytes(
+    final Enum<?> value)
+  {
+    return value.name().getBytes(StandardCharsets.US_ASCII);
+  }
+
+  /**
+   * Check that a sequence of sections (such as the sections of an open
+   * file, or the sections that are about to be written to a file) satisfies
+   * the given description. The last section must be the end section.
+   *
+   * @param uri         The URI of the file, for diagnostic purposes
+   * @param sections    The sections
+   * @param description The file description
+   *
+   * @throws EoException If the sections do not satisfy the description
+   */
+
+  static void checkSections(
+    final URI uri,
+    final NavigableSet<EoFileSection> sections,
+    final EoFileDescription description)
+    throws EoException
+  {
+    checkSectionsKnown(uri, sections, description);
+    checkSectionOrdering(uri, sections, description);
+    checkSectionCardinality(uri, sections, description);
+    checkChecksumSectionCardinality(uri, sections, description);
+  }
+
+  /*
+   * A file may contain at most one checksum section, as writers produce a
+   * single checksum section covering every other section.
+   */
+
+  private static void checkChecksumSectionCardinality(
+    final URI uri,
+    final NavigableSet<EoFileSection> sections,
+    final EoFileDescription description)
+    throws EoException
+  {
+    final var checksumTag = description.checksumTag();
+    if (checksumTag.isEmpty()) {
+      return;
+    }
+
+    final var tag = checksumTag.getAsLong();
+    final var count =
+      sections.stream()
+        .filter(s -> s.tag() == tag)
+        .count();
+
+    if (count > 1L) {
+      throw errorSectionCardinality(
+        uri,
+        EoFileSectionDescription.builder()
+          .setTag(tag)
+          .setCardinality(EoSectionCardinality.ZERO_TO_ONE)
+          .build(),
+        Long.valueOf(count)
+      );
+    }
+  }
+
+  private static void checkSectionCardinality(
+    final URI uri,
+    final NavigableSet<EoFileSection> sections,
+    final EoFileDescription description)
+    throws EoException
+  {
+    final var tagCounts = new HashMap<Long, Long>();
+    for (final var fileSection : sections) {
+      final var count =
+        tagCounts.getOrDefault(fileSection.tag(), 0L) + 1;
+      tagCounts.put(fileSection.tag(), count);
+    }
+
+    for (final var section : description.sections()) {
+      final var count =
+        tagCounts.getOrDefault(section.tag(), 0L);
+
+      switch (section.cardinality()) {
+        case ONE -> {
+          if (count != 1L) {
+            throw errorSectionCardinality(uri, section, count);
+          }
+        }
+        case ZERO_TO_ONE -> {
+          if (count > 1L) {
+            throw errorSectionCardinality(uri, section, count);
+          }
+        }
+        case ZERO_TO_N -> {
+          // Nothing to do
+        }
+        case ONE_TO_N -> {
+          if (count < 1L) {
+            throw errorSectionCardinality(uri, section, count);
+          }
+        }
+      }
+    }
+  }
+
+  private static EoException errorSectionCardinality(
+    final URI uri,
+    final EoFileSectionDescription section,
+    final Long count)
+  {
+    final var sectionTagText =
+      "0x" + Long.toUnsignedString(section.tag(), 16);
+
+    return new EoException(
+      "Section cardinality violation; too many or too few sections with this tag.",
+      "error-section-tag-cardinality",
+      Map.ofEntries(
+        Map.entry("File", uri.toString()),
+        Map.entry("Tag", sectionTagText),
+        Map.entry("Cardinality", section.cardinality().toString()),
+        Map.entry("Section Count", count.toString())
+      ),
+      Optional.empty()
+    );
+  }
+
+  private static void checkSectionOrdering(
+    final URI uri,
+    final NavigableSet<EoFileSection> sections,
+    final EoFileDescription description)
+    throws EoException
+  {
+    for (final var section : description.sections()) {
+      switch (section.ordering()) {
+        case MUST_BE_FIRST -> {
+          final var first =
+            sections.first();
+          if (first.tag() != section.tag()) {
+            throw errorSectionNotFirst(uri, section, first);
+          }
+        }
+        case MUST_BE_LAST -> {
+          var lastNotEnd =
+            sections.lower(sections.last());
+          if (isChecksumSection(description, lastNotEnd)) {
+            lastNotEnd = sections.lower(lastNotEnd);
+          }
+          if (lastNotEnd.tag() != section.tag()) {
+            throw errorSectionNotLast(uri, section, lastNotEnd);
+          }
+        }
+        case ANY_ORDER -> {
+          // Do nothing.
+        }
+      }
+    }
+  }
+
+  private static EoException errorSectionNotLast(
+    final URI uri,
+    final EoFileSectionDescription section,
+    final EoFileSection last)
+  {
+    final var sectionTagText =
+      "0x" + Long.toUnsignedString(section.tag(), 16);
+    final var firstTagText =
+      "0x" + Long.toUnsignedString(last.tag(), 16);
+    final var offset =
+      "0x" + Long.toUnsignedString(last.offset(), 16);
+
+    return new EoException(
+      "The last section is not of the required tag.",
+      "error-section-tag-last",
+      Map.ofEntries(
+        Map.entry("File", uri.toString()),
+        Map.entry("Offset", offset),
+        Map.entry("Required Tag", sectionTagText),
+        Map.entry("Received Tag", firstTagText)
+      ),
+      Optional.empty()
+    );
+  }
+
+  private static EoException errorSectionNotFirst(
+    final URI uri,
+    final EoFileSectionDescription section,
+    final EoFileSection first)
+  {
+    final var sectionTagText =
+      "0x" + Long.toUnsignedString(section.tag(), 16);
+    final var firstTagText =
+      "0x" + Long.toUnsignedString(first.tag(), 16);
+    final var offset =
+      "0x" + Long.toUnsignedString(first.offset(), 16);
+
+    return new EoException(
+      "The first section is not of the required tag.",
+      "error-section-tag-first",
+      Map.ofEntries(
+        Map.entry("File", uri.toString()),
+        Map.entry("Offset", offset),
+        Map.entry("Required Tag", sectionTagText),
+        Map.entry("Received Tag", firstTagText)
+      ),
+      Optional.empty()
+    );
+  }
+
+  private static boolean isChecksumSection(
+    final EoFileDescription description,
+    final EoFileSection section)
+  {
+    final var checksumTag = description.checksumTag();
+    return section != null
+           && checksumTag.isPresent()
+           && checksumTag.getAsLong() == section.tag();
+  }
+
+  private static void checkSectionsKnown(
+    final URI uri,
+    final NavigableSet<EoFileSection> sections,
+    final EoFileDescription description)
+    throws EoException
+  {
+    switch (description.sectionsUnknown()) {
+      case UNKNOWN_SECTIONS_PERMITTED -> {
+        // Do nothing.
+      }
+      case UNKNOWN_SECTIONS_NOT_PERMITTED -> {
+        for (final var section : sections) {
+          if (section.tag() == description.endTag()) {
+            continue;
+          }
+          if (isChecksumSection(description, section)) {
+            continue;
+          }
+          if (!description.sectionByTag().containsKey(section.tag())) {
+            throw errorSectionUnknown(uri, description, section);
+          }
+        }
+      }
+    }
+  }
+
+  private static EoException errorSectionUnknown(
+    final URI uri,
+    final EoFileDescription description,
+    final EoFileSection section)
+  {
+    final var supported =
+      description.sections()
+        .stream()
+        .map(EoFileSectionDescription::tag)
+        .map(t -> "0x" + Long.toUnsignedString(t, 16))
+        .collect(Collectors.joining(", "));
+
+    final var tagText =
+      "0x" + Long.toUnsignedString(section.tag(), 16);
+    final var offset =
+      "0x" + Long.toUnsignedString(section.offset(), 16);
+
+    return new EoException(
+      "A section with an unknown tag was encountered, and unknown tags are not permitted.",
+      "error-section-tag-unknown",
+      Map.ofEntries(
+        Map.entry("File", uri.toString()),
+        Map.entry("Offset", offset),
+        Map.entry("Tag", tagText),
+        Map.entry("Supported", supported)
+      ),
+      Optional.empty()
+    );
+  }
+
+  /**
+   * Determine the file description against which a reader produced by
+   * this factory validated its file.
+   *
+   * @param reader The reader
+   *
+   * @return The file description, or nothing if the reader was not
+   * produced by this factory
+   */
+
+  static Optional<EoFileDescription> formatOf(
+    final EoFileReaderType reader)
+  {
+    if (reader instanceof final EoFileReaderChecked checked) {
+      return checked.format;
+    }
+    return Optional.empty();
+  }
+
   private static final class EoFileReaderChecked
     implements EoFileReaderType
   {
     private final URI uri;
     private final EoFileReaderType baseReader;
     private final EoFileVersionsDescription versions;
+    private final EoMetricsType metrics;
+    private final Optional<EoFileDescription> format;
+    private final Map<Long, EoFileSectionDescription> encoded;
+    private final EoChunkCache chunks;
+    private final OptionalLong checksumTag;
+    private final ReentrantLock checksumsLock;
+    private final ConcurrentHashMap<Long, Optional<EoException>> verified;
+    private Optional<Map<Long, Integer>> checksums;
 
     public EoFileReaderChecked(
       final URI inUri,
       final EoFileReaderType inBaseReader,
-      final EoFileVersionsDescription inParameters)
+      final EoFileVersionsDescription inParameters,
+      final EoMetricsType inMetrics)
     {
       this.uri =
         Objects.requireNonNull(inUri, "uri");
@@ -106,6 +594,21 @@ public final class EoFileReadersChecked
         Objects.requireNonNull(inBaseReader, "baseReader");
       this.versions =
         Objects.requireNonNull(inParameters, "parameters");
+      this.metrics =
+        Objects.requireNonNull(inMetrics, "metrics");
+      this.format =
+        this.findBestFormat(this.baseReader.version());
+      this.encoded =
+        EoSectionEncodings.encodedSections(this.format);
+      this.chunks =
+        new EoChunkCache(CHUNK_CACHE_SIZE);
+      this.checksumTag =
+        this.format.map(EoFileDescription::checksumTag)
+          .orElse(OptionalLong.empty());
+      this.checksumsLock =
+        new ReentrantLock();
+      this.verified =
+        new ConcurrentHashMap<>();
     }
 
     @Override
@@ -114,6 +617,12 @@ public final class EoFileReadersChecked
       return this.baseReader.sections();
     }
 
+    @Override
+    public URI uri()
+    {
+      return this.baseReader.uri();
+    }
+
     @Override
     public long fileTag()
     {
@@ -131,225 +640,257 @@ public final class EoFileReadersChecked
       final EoFileSection section)
       throws EoException
     {
-      return this.baseReader.dataChannel(section);
+      this.verify(section);
+
+      final var encoding = this.encodingOf(section);
+      final var stored = this.baseReader.dataChannel(section);
+      return EoSectionEncodings.decode(
+        this.uri,
+        section,
+        encoding,
+        stored,
+        this.chunks
+      );
     }
 
     @Override
-    public void close()
+    public SeekableByteChannel rawDataChannel(
+      final EoFileSection section)
       throws EoException
     {
-      this.baseReader.close();
+      this.verify(section);
+      return this.baseReader.rawDataChannel(section);
     }
 
-    public void start()
+    /**
+     * Verify the stored data of the given section against the checksum
+     * section, if the format declares one. Verification happens at most
+     * once per section; the result is cached for subsequent accesses.
+     */
+
+    private void verify(
+      final EoFileSection section)
       throws EoException
     {
-      try {
-        final var receivedVersion =
-          this.version();
-        final var format =
-          this.findBestFormat(receivedVersion);
-        if (format.isEmpty()) {
-          throw this.errorVersionNotSupported(receivedVersion);
+      if (this.checksumTag.isEmpty()) {
+        return;
+      }
+
+      final var tag = section.tag();
+      if (tag == this.checksumTag.getAsLong() || tag == this.endTag()) {
+        return;
+      }
+
+      final var key = Long.valueOf(section.offset());
+      final var existing = this.verified.get(key);
+      if (existing != null) {
+        if (existing.isPresent()) {
+          final var cached = existing.get();
+          throw new EoException(
+            cached.getMessage(),
+            cached,
+            cached.errorCode(),
+            cached.attributes(),
+            cached.remediatingAction()
+          );
         }
+        return;
+      }
 
-        this.checkFormat(format.get());
-      } catch (final Throwable e) {
-        this.close();
+      final var table = this.checksums();
+      if (table.isEmpty()) {
+        this.verified.put(key, Optional.empty());
+        return;
+      }
+
+      /*
+       * Writers record a checksum for every section, so a section without
+       * one indicates that the file has been truncated or tampered with.
+       */
+
+      final var expected = table.get().get(key);
+      if (expected == null) {
+        final var error = this.errorChecksumMissing(section);
+        this.verified.put(key, Optional.of(error));
+        throw error;
+      }
+
+      final int received;
+      try (final var channel = this.baseReader.rawDataChannel(section)) {
+        received = EoChecksums.crc32c(channel);
+      } catch (final IOException e) {
         throw EoException.wrap(e);
       }
+
+      if (received != expected.intValue()) {
+        final var error =
+          this.errorChecksum(section, expected.intValue(), received);
+        this.verified.put(key, Optional.of(error));
+        throw error;
+      }
+      this.verified.put(key, Optional.empty());
     }
 
-    private void checkFormat(
-      final EoFileDescription description)
-      throws EoException
+    private long endTag()
     {
-      this.checkSectionsKnown(description);
-      this.checkSectionOrdering(description);
-      this.checkSectionCardinality(description);
+      return this.sections().last().tag();
     }
 
-    private void checkSectionCardinality(
-      final EoFileDescription description)
+    private Optional<Map<Long, Integer>> checksums()
       throws EoException
     {
-      final var tagCounts = new HashMap<Long, Long>();
-      for (final var fileSection : this.sections()) {
-        final var count =
-          tagCounts.getOrDefault(fileSection.tag(), 0L) + 1;
-        tagCounts.put(fileSection.tag(), count);
-      }
-
-      for (final var section : description.sections()) {
-        final var count =
-          tagCounts.getOrDefault(section.tag(), 0L);
-
-        switch (section.cardinality()) {
-          case ONE -> {
-            if (count != 1L) {
-              throw this.errorSectionCardinality(section, count);
-            }
-          }
-          case ZERO_TO_ONE -> {
-            if (count > 1L) {
-              throw this.errorSectionCardinality(section, count);
-            }
-          }
-          case ZERO_TO_N -> {
-            // Nothing to do
-          }
-          case ONE_TO_N -> {
-            if (count < 1L) {
-              throw this.errorSectionCardinality(section, count);
-            }
-          }
+      this.checksumsLock.lock();
+      try {
+        if (this.checksums == null) {
+          this.checksums = this.loadChecksums(this.checksumTag.getAsLong());
         }
+        return this.checksums;
+      } finally {
+        this.checksumsLock.unlock();
       }
     }
 
-    private EoException errorSectionCardinality(
-      final EoFileSectionDescription section,
-      final Long count)
+    private Optional<Map<Long, Integer>> loadChecksums(
+      final long tag)
+      throws EoException
     {
-      final var sectionTagText =
-        "0x" + Long.toUnsignedString(section.tag(), 16);
+      final var section =
+        this.sections()
+          .stream()
+          .filter(s -> s.tag() == tag)
+          .findFirst();
 
-      return new EoException(
-        "Section cardinality violation; too many or too few sections with this tag.",
-        "error-section-tag-cardinality",
-        Map.ofEntries(
-          Map.entry("File", this.uri.toString()),
-          Map.entry("Tag", sectionTagText),
-          Map.entry("Cardinality", section.cardinality().toString()),
-          Map.entry("Section Count", count.toString())
-        ),
-        Optional.empty()
-      );
-    }
+      if (section.isEmpty()) {
+        return Optional.empty();
+      }
 
-    private void checkSectionOrdering(
-      final EoFileDescription description)
-      throws EoException
-    {
-      for (final var section : description.sections()) {
-        switch (section.ordering()) {
-          case MUST_BE_FIRST -> {
-            final var first =
-              this.sections().first();
-            if (first.tag() != section.tag()) {
-              throw this.errorSectionNotFirst(section, first);
-            }
-          }
-          case MUST_BE_LAST -> {
-            final var lastNotEnd =
-              this.sections().lower(this.sections().last());
-            if (lastNotEnd.tag() != section.tag()) {
-              throw this.errorSectionNotLast(section, lastNotEnd);
-            }
-          }
-          case ANY_ORDER -> {
-            // Do nothing.
+      try (final var channel =
+             this.baseReader.rawDataChannel(section.get())) {
+        final var data =
+          ByteBuffer.allocate(Math.toIntExact(channel.size()));
+        while (data.hasRemaining()) {
+          if (channel.read(data) == -1) {
+            break;
           }
         }
+        return Optional.of(EoChecksums.parse(data.flip()));
+      } catch (final IOException | ArithmeticException e) {
+        throw new EoException(
+          "The checksum section is malformed.",
+          e,
+          "error-checksums-malformed",
+          Map.of("File", this.uri.toString()),
+          Optional.empty()
+        );
       }
     }
 
-    private EoException errorSectionNotLast(
-      final EoFileSectionDescription section,
-      final EoFileSection last)
+    private EoException errorChecksumMissing(
+      final EoFileSection section)
     {
-      final var sectionTagText =
+      final var tagText =
         "0x" + Long.toUnsignedString(section.tag(), 16);
-      final var firstTagText =
-        "0x" + Long.toUnsignedString(last.tag(), 16);
       final var offset =
-        "0x" + Long.toUnsignedString(last.offset(), 16);
+        "0x" + Long.toUnsignedString(section.offset(), 16);
 
       return new EoException(
-        "The last section is not of the required tag.",
-        "error-section-tag-last",
+        "Section has no recorded checksum.",
+        "error-section-checksum-missing",
         Map.ofEntries(
           Map.entry("File", this.uri.toString()),
           Map.entry("Offset", offset),
-          Map.entry("Required Tag", sectionTagText),
-          Map.entry("Received Tag", firstTagText)
+          Map.entry("Tag", tagText)
         ),
         Optional.empty()
       );
     }
 
-    private EoException errorSectionNotFirst(
-      final EoFileSectionDescription section,
-      final EoFileSection first)
+    private EoException errorChecksum(
+      final EoFileSection section,
+      final int expected,
+      final int received)
     {
-      final var sectionTagText =
+      final var tagText =
         "0x" + Long.toUnsignedString(section.tag(), 16);
-      final var firstTagText =
-        "0x" + Long.toUnsignedString(first.tag(), 16);
       final var offset =
-        "0x" + Long.toUnsignedString(first.offset(), 16);
+        "0x" + Long.toUnsignedString(section.offset(), 16);
 
       return new EoException(
-        "The first section is not of the required tag.",
-        "error-section-tag-first",
+        "Section data does not match the recorded checksum.",
+        "error-section-checksum",
         Map.ofEntries(
           Map.entry("File", this.uri.toString()),
           Map.entry("Offset", offset),
-          Map.entry("Required Tag", sectionTagText),
-          Map.entry("Received Tag", firstTagText)
+          Map.entry("Tag", tagText),
+          Map.entry("Expected", Integer.toUnsignedString(expected, 16)),
+          Map.entry("Received", Integer.toUnsignedString(received, 16))
         ),
         Optional.empty()
       );
     }
 
-    private void checkSectionsKnown(
-      final EoFileDescription description)
-      throws EoException
+    @Override
+    public EoSectionEncoding encodingOf(
+      final EoFileSection section)
     {
-      switch (description.sectionsUnknown()) {
-        case UNKNOWN_SECTIONS_PERMITTED -> {
-          // Do nothing.
-        }
-        case UNKNOWN_SECTIONS_NOT_PERMITTED -> {
-          for (final var section : this.sections()) {
-            if (section.tag() == description.endTag()) {
-              continue;
-            }
-            if (!description.sectionByTag().containsKey(section.tag())) {
-              throw this.errorSectionUnknown(description, section);
-            }
-          }
-        }
+      final var description = this.encoded.get(Long.valueOf(section.tag()));
+      if (description == null) {
+        return EoSectionEncoding.RAW;
       }
+      return description.encoding();
     }
 
-    private EoException errorSectionUnknown(
-      final EoFileDescription description,
-      final EoFileSection section)
+    @Override
+    public void close()
+      throws EoException
     {
-      final var supported =
-        description.sections()
-          .stream()
-          .map(EoFileSectionDescription::tag)
-          .map(t -> "0x" + Long.toUnsignedString(t, 16))
-          .collect(Collectors.joining(", "));
+      this.baseReader.close();
+    }
 
-      final var tagText =
-        "0x" + Long.toUnsignedString(section.tag(), 16);
-      final var offset =
-        "0x" + Long.toUnsignedString(section.offset(), 16);
+    public void start()
+      throws EoException
+    {
+      final var event = new EoEventFileValidated();
+      event.begin();
 
-      return new EoException(
-        "A section with an unknown tag was encountered, and unknown tags are not permitted.",
-        "error-section-tag-unknown",
-        Map.ofEntries(
-          Map.entry("File", this.uri.toString()),
-          Map.entry("Offset", offset),
-          Map.entry("Tag", tagText),
-          Map.entry("Supported", supported)
-        ),
-        Optional.empty()
-      );
+      final var receivedVersion =
+        this.version();
+      final var format =
+        this.format;
+
+      try {
+        if (format.isEmpty()) {
+          throw this.errorVersionNotSupported(receivedVersion);
+        }
+
+        checkSections(this.uri, this.sections(), format.get());
+        this.commitEvent(event, format, Optional.empty());
+      } catch (final Throwable e) {
+        final var ex = EoException.wrap(e);
+        this.commitEvent(event, format, Optional.of(ex));
+        this.metrics.onValidationFailed(this.uri, ex);
+        this.close();
+        throw ex;
+      }
+    }
+
+    private void commitEvent(
+      final EoEventFileValidated event,
+      final Optional<EoFileDescription> format,
+      final Optional<EoException> failure)
+    {
+      event.end();
+      if (event.shouldCommit()) {
+        event.uri = this.uri.toString();
+        event.fileVersion = this.version().toString();
+        event.descriptionVersion =
+          format.map(f -> Version.of(f.versionMajor(), f.versionMinor(), 0))
+            .map(Version::toString)
+            .orElse(null);
+        event.succeeded = failure.isEmpty();
+        event.errorCode = failure.map(EoException::errorCode).orElse(null);
+        event.commit();
+      }
     }
 
     private Optional<EoFileDescription> findBestFormat(
@@ -0,0 +1,249 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import com.io7m.jaffirm.core.Preconditions;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * A supplier of readers that read files with direct I/O, bypassing the
+ * operating system's page cache. This avoids evicting the cached data of
+ * other processes when scanning very large amounts of data. Headers and
+ * section data are read in whole blocks through a pool of aligned buffers,
+ * and so sections need not be aligned to the file system block size;
+ * files written with a matching {@link EoFileDescription#alignment()}
+ * will incur the fewest wasted reads.
+ *
+ * <p>Direct I/O is requested with the {@code DIRECT} option of
+ * {@code com.sun.nio.file.ExtendedOpenOption}, which is supported on Linux
+ * for most local file systems.</p>
+ *
+ * @param <P> The type of extra parameters
+ */
+
+public final class EoFileReadersDirect<P>
+  implements EoFileReaderFactoryType<P>
+{
+  private static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+
+  /*
+   * The option is looked up by name so that compiling this class does not
+   * produce warnings about the use of an internal API.
+   */
+
+  private static final Optional<OpenOption> OPTION_DIRECT =
+    findDirectOption();
+
+  private final EoFileReaderFactoryType<P> base;
+  private final EoDirectIOPolicy policy;
+  private final int bufferSize;
+  private final int maximumRetained;
+
+  /**
+   * A supplier of readers that read files with direct I/O.
+   *
+   * @param inBase   The base reader factory
+   * @param inPolicy The policy for opening files
+   */
+
+  public EoFileReadersDirect(
+    final EoFileReaderFactoryType<P> inBase,
+    final EoDirectIOPolicy inPolicy)
+  {
+    this(inBase, inPolicy, DEFAULT_BUFFER_SIZE, 8);
+  }
+
+  /**
+   * A supplier of readers that read files with direct I/O.
+   *
+   * @param inBase            The base reader factory
+   * @param inPolicy          The policy for opening files
+   * @param inBufferSize      The size of each read buffer
+   * @param inMaximumRetained The maximum number of idle buffers retained per
+   *                          open file
+   */
+
+  public EoFileReadersDirect(
+    final EoFileReaderFactoryType<P> inBase,
+    final EoDirectIOPolicy inPolicy,
+    final int inBufferSize,
+    final int inMaximumRetained)
+  {
+    this.base =
+      Objects.requireNonNull(inBase, "base");
+    this.policy =
+      Objects.requireNonNull(inPolicy, "policy");
+
+    Preconditions.checkPrecondition(
+      inBufferSize >= EoAlignment.ALIGNMENT_MAXIMUM,
+      "Buffer size must be at least 65536"
+    );
+
+    this.bufferSize = inBufferSize;
+    this.maximumRetained = inMaximumRetained;
+  }
+
+  /**
+   * Open a reader for the given readable channel. Direct I/O can only be
+   * applied to files opened by this factory, so the channel is passed to
+   * the base factory unchanged.
+   *
+   * @param uri        The URI for diagnostic purposes
+   * @param fileTag    The required file tag
+   * @param endTag     The required end tag
+   * @param channel    The channel
+   * @param parameters The extra parameters
+   *
+   * @return A reader
+   *
+   * @throws EoException On errors
+   */
+
+  @Override
+  public EoFileReaderType forChannel(
+    final URI uri,
+    final long fileTag,
+    final long endTag,
+    final SeekableByteChannel channel,
+    final P parameters)
+    throws EoException
+  {
+    return this.base.forChannel(uri, fileTag, endTag, channel, parameters);
+  }
+
+  @Override
+  public EoFileReaderType forFile(
+    final long fileTag,
+    final long endTag,
+    final Path file,
+    final P parameters)
+    throws EoException
+  {
+    Objects.requireNonNull(file, "file");
+
+    final FileChannel channel;
+    final int blockSize;
+    try {
+      blockSize = blockSizeOf(file);
+      channel = this.open(file);
+    } catch (final IOException e) {
+      throw EoException.wrap(e);
+    }
+
+    final EoDirectChannel direct;
+    try {
+      direct = new EoDirectChannel(
+        channel,
+        new EoAlignedBufferPool(
+          blockSize,
+          this.bufferSize,
+          this.maximumRetained
+        )
+      );
+    } catch (final IOException e) {
+      try {
+        channel.close();
+      } catch (final IOException x) {
+        e.addSuppressed(x);
+      }
+      throw EoException.wrap(e);
+    }
+
+    return this.base.forChannel(
+      file.toUri(),
+      fileTag,
+      endTag,
+      direct,
+      parameters
+    );
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Optional<OpenOption> findDirectOption()
+  {
+    try {
+      final var type =
+        Class.forName("com.sun.nio.file.ExtendedOpenOption");
+      return Optional.of(
+        (OpenOption) Enum.valueOf((Class<? extends Enum>) type, "DIRECT")
+      );
+    } catch (final ClassNotFoundException | IllegalArgumentException e) {
+      return Optional.empty();
+    }
+  }
+
+  private static int blockSize(
+    final long size)
+  {
+    if (size <= 0L || size > EoAlignment.ALIGNMENT_MAXIMUM) {
+      return 4096;
+    }
+    return Math.max(512, Integer.highestOneBit((int) size));
+  }
+
+  private static int blockSizeOf(
+    final Path file)
+    throws IOException
+  {
+    try {
+      return blockSize(Files.getFileStore(file).getBlockSize());
+    } catch (final UnsupportedOperationException e) {
+      return 4096;
+    }
+  }
+
+  private FileChannel open(
+    final Path file)
+    throws EoException, IOException
+  {
+    try {
+      return FileChannel.open(
+        file,
+        READ,
+        OPTION_DIRECT.orElseThrow(UnsupportedOperationException::new)
+      );
+    } catch (final UnsupportedOperationException | IOException e) {
+      if (!Files.isReadable(file)) {
+        throw EoException.wrap(e);
+      }
+
+      return switch (this.policy) {
+        case DIRECT_PREFERRED -> FileChannel.open(file, READ);
+        case DIRECT_REQUIRED -> throw new EoException(
+          "Direct I/O is not supported for this file.",
+          e,
+          "error-direct-io-unsupported",
+          Map.of("File", file.toString()),
+          Optional.empty()
+        );
+      };
+    }
+  }
+}
@@ -0,0 +1,350 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import com.io7m.verona.core.Version;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * A supplier of readers that persist the index of each file they open in a
+ * sidecar file alongside it (such as {@code file.bin.eoidx}). When a file is
+ * opened and its sidecar records the same file size and modification time,
+ * and was produced by readers with the same validation fingerprint, the
+ * file is opened from the sidecar without enumerating or validating any
+ * sections. Otherwise, the file is opened normally and the sidecar is
+ * rebuilt.
+ *
+ * <p>Sidecars are purely an optimization: a sidecar that is missing,
+ * corrupt, or out of date is ignored, and failure to write a sidecar
+ * (for example, because the directory is read-only) is not an error.</p>
+ *
+ * @param <P> The type of extra parameters
+ */
+
+public final class EoFileReadersIndexed<P>
+  implements EoFileReaderFactoryType<P>
+{
+  /**
+   * The file suffix used for sidecar index files.
+   */
+
+  public static final String SIDECAR_SUFFIX = ".eoidx";
+
+  private static final long SIDECAR_MAGIC =
+    EoTags.pngStyle((byte) 'E', (byte) 'I', (byte) 'X');
+  private static final int SIDECAR_VERSION = 1;
+  private static final int SIDECAR_HEADER_SIZE = 80;
+  private static final int SIDECAR_SECTION_SIZE = 24;
+  private static final int SIDECAR_TRAILER_SIZE = 8;
+
+  private final EoFileReaderIndexableFactoryType<P> base;
+
+  /**
+   * A supplier of readers that persist the index of each file they open in
+   * a sidecar file alongside it.
+   *
+   * @param inBase The base reader factory
+   */
+
+  public EoFileReadersIndexed(
+    final EoFileReaderIndexableFactoryType<P> inBase)
+  {
+    this.base =
+      Objects.requireNonNull(inBase, "base");
+  }
+
+  /**
+   * Determine the sidecar file for the given file.
+   *
+   * @param file The file
+   *
+   * @return The sidecar file
+   */
+
+  public static Path sidecarOf(
+    final Path file)
+  {
+    return file.resolveSibling(file.getFileName() + SIDECAR_SUFFIX);
+  }
+
+  @Override
+  public EoFileReaderType forChannel(
+    final URI uri,
+    final long fileTag,
+    final long endTag,
+    final SeekableByteChannel channel,
+    final P parameters)
+    throws EoException
+  {
+    return this.base.forChannel(uri, fileTag, endTag, channel, parameters);
+  }
+
+  @Override
+  public EoFileReaderType forFile(
+    final long fileTag,
+    final long endTag,
+    final Path file,
+    final P parameters)
+    throws EoException
+  {
+    Objects.requireNonNull(file, "file");
+
+    final BasicFileAttributes attributes;
+    try {
+      attributes = Files.readAttributes(file, BasicFileAttributes.class);
+    } catch (final IOException e) {
+      throw EoException.wrap(e);
+    }
+
+    final var fingerprint =
+      this.base.fingerprint(parameters);
+    final var sidecarFile =
+      sidecarOf(file);
+    final var sidecar =
+      readSidecar(sidecarFile);
+
+    if (sidecar.isPresent()) {
+      final var existing = sidecar.get();
+      if (existing.matches(attributes, fingerprint, fileTag, endTag)) {
+        try {
+          return this.base.forIndex(
+            file.toUri(),
+            FileChannel.open(file),
+            existing.index(),
+            parameters
+          );
+        } catch (final IOException e) {
+          throw EoException.wrap(e);
+        }
+      }
+    }
+
+    final var reader =
+      this.base.forFile(fileTag, endTag, file, parameters);
+
+    writeSidecar(
+      sidecarFile,
+      new Sidecar(
+        attributes.size(),
+        attributes.lastModifiedTime().toInstant(),
+        fingerprint,
+        reader.index()
+      )
+    );
+    return reader;
+  }
+
+  private record Sidecar(
+    long size,
+    Instant lastModified,
+    long fingerprint,
+    EoFileIndex index)
+  {
+    boolean matches(
+      final BasicFileAttributes attributes,
+      final long requiredFingerprint,
+      final long fileTag,
+      final long endTag)
+    {
+      return this.size == attributes.size()
+             && this.lastModified.equals(
+        attributes.lastModifiedTime().toInstant())
+             && (requiredFingerprint == 0L
+                 || this.fingerprint == requiredFingerprint)
+             && this.index.fileTag() == fileTag
+             && this.index.endTag() == endTag;
+    }
+  }
+
+  private static Optional<Sidecar> readSidecar(
+    final Path sidecarFile)
+  {
+    try {
+      if (!Files.isRegularFile(sidecarFile)) {
+        return Optional.empty();
+      }
+      return decodeSidecar(ByteBuffer.wrap(Files.readAllBytes(sidecarFile)));
+    } catch (final IOException
+                   | BufferUnderflowException
+                   | IllegalArgumentException e) {
+      return Optional.empty();
+    }
+  }
+
+  private static Optional<Sidecar> decodeSidecar(
+    final ByteBuffer buffer)
+  {
+    if (buffer.capacity() < SIDECAR_HEADER_SIZE + SIDECAR_TRAILER_SIZE) {
+      return Optional.empty();
+    }
+
+    final var checksummed =
+      buffer.capacity() - SIDECAR_TRAILER_SIZE;
+    final var crc = new CRC32C();
+    crc.update(buffer.slice(0, checksummed));
+    if ((int) crc.getValue() != buffer.getInt(checksummed)) {
+      return Optional.empty();
+    }
+
+    if (buffer.getLong() != SIDECAR_MAGIC) {
+      return Optional.empty();
+    }
+    if (buffer.getInt() != SIDECAR_VERSION) {
+      return Optional.empty();
+    }
+    buffer.getInt();
+
+    final var size =
+      buffer.getLong();
+    final var seconds =
+      buffer.getLong();
+    final var nanos =
+      buffer.getInt();
+    buffer.getInt();
+    final var fingerprint =
+      buffer.getLong();
+    final var fileTag =
+      buffer.getLong();
+    final var endTag =
+      buffer.getLong();
+    final var major =
+      buffer.getInt();
+    final var minor =
+      buffer.getInt();
+    final var count =
+      buffer.getLong();
+
+    final var expectedSize =
+      SIDECAR_HEADER_SIZE
+      + (count * SIDECAR_SECTION_SIZE)
+      + SIDECAR_TRAILER_SIZE;
+
+    if (count < 0L || expectedSize != buffer.capacity()) {
+      return Optional.empty();
+    }
+
+    final var sections = new ArrayList<EoFileSection>((int) count);
+    for (long index = 0L; index < count; ++index) {
+      sections.add(
+        EoFileSection.builder()
+          .setTag(buffer.getLong())
+          .setOffset(buffer.getLong())
+          .setDataSize(buffer.getLong())
+          .build()
+      );
+    }
+
+    return Optional.of(
+      new Sidecar(
+        size,
+        Instant.ofEpochSecond(seconds, nanos),
+        fingerprint,
+        EoFileIndex.builder()
+          .setFileTag(fileTag)
+          .setEndTag(endTag)
+          .setVersion(Version.of(major, minor, 0))
+          .setSections(sections)
+          .build()
+      )
+    );
+  }
+
+  private static void writeSidecar(
+    final Path sidecarFile,
+    final Sidecar sidecar)
+  {
+    final var index =
+      sidecar.index();
+    final var sections =
+      index.sections();
+    final var buffer =
+      ByteBuffer.allocate(
+        SIDECAR_HEADER_SIZE
+        + (sections.size() * SIDECAR_SECTION_SIZE)
+        + SIDECAR_TRAILER_SIZE
+      );
+
+    buffer.putLong(SIDECAR_MAGIC);
+    buffer.putInt(SIDECAR_VERSION);
+    buffer.putInt(0);
+    buffer.putLong(sidecar.size());
+    buffer.putLong(sidecar.lastModified().getEpochSecond());
+    buffer.putInt(sidecar.lastModified().getNano());
+    buffer.putInt(0);
+    buffer.putLong(sidecar.fingerprint());
+    buffer.putLong(index.fileTag());
+    buffer.putLong(index.endTag());
+    buffer.putInt(index.version().major());
+    buffer.putInt(index.version().minor());
+    buffer.putLong(sections.size());
+
+    for (final var section : sections) {
+      buffer.putLong(section.tag());
+      buffer.putLong(section.offset());
+      buffer.putLong(section.dataSize());
+    }
+
+    final var crc = new CRC32C();
+    crc.update(buffer.slice(0, buffer.position()));
+    buffer.putInt((int) crc.getValue());
+    buffer.putInt(0);
+
+    Path temporary = null;
+    try {
+      temporary =
+        Files.createTempFile(
+          sidecarFile.toAbsolutePath().getParent(),
+          sidecarFile.getFileName().toString(),
+          ".tmp"
+        );
+      Files.write(temporary, buffer.array());
+      try {
+        Files.move(temporary, sidecarFile, ATOMIC_MOVE, REPLACE_EXISTING);
+      } catch (final AtomicMoveNotSupportedException e) {
+        Files.move(temporary, sidecarFile, REPLACE_EXISTING);
+      }
+    } catch (final IOException e) {
+      if (temporary == null) {
+        return;
+      }
+      try {
+        Files.deleteIfExists(temporary);
+      } catch (final IOException ex) {
+        // Nothing can be done about this.
+      }
+    }
+  }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import com.io7m.jaffirm.core.Preconditions;
+import com.io7m.verona.core.Version;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A supplier of readers that decompress sections stored with the
+ * {@link EoSectionEncoding#DEFLATE_CHUNKED} encoding using multiple
+ * threads. The chunks following the current position of a section data
+ * channel are decompressed concurrently on a fork-join pool, with at most a
+ * fixed number of chunks in flight per channel, and bytes are delivered to
+ * the caller in order. This is intended for sections that are read from
+ * start to finish; random access within a section is still supported, but
+ * discards chunks that were decompressed ahead. The readers are produced by
+ * a base factory that must decode sections (such as a checked reader
+ * factory); all other sections are read from the base reader unchanged.
+ *
+ * @param <P> The type of extra parameters
+ */
+
+public final class EoFileReadersParallelInflating<P>
+  implements EoFileReaderFactoryType<P>
+{
+  private final EoFileReaderFactoryType<P> base;
+  private final ForkJoinPool pool;
+  private final int inFlight;
+
+  /**
+   * A supplier of readers that decompress chunked sections using multiple
+   * threads.
+   *
+   * @param inBase     The base reader factory
+   * @param inPool     The pool on which chunks are decompressed
+   * @param inInFlight The maximum number of chunks in flight per channel
+   */
+
+  public EoFileReadersParallelInflating(
+    final EoFileReaderFactoryType<P> inBase,
+    final ForkJoinPool inPool,
+    final int inInFlight)
+  {
+    this.base =
+      Objects.requireNonNull(inBase, "base");
+    this.pool =
+      Objects.requireNonNull(inPool, "pool");
+    this.inFlight =
+      inInFlight;
+
+    Preconditions.checkPrecondition(
+      inInFlight > 0,
+      "In-flight chunk count must be positive"
+    );
+  }
+
+  /**
+   * A supplier of readers that decompress chunked sections using the
+   * common fork-join pool, with up to twice the pool's parallelism in
+   * chunks in flight per channel.
+   *
+   * @param inBase The base reader factory
+   */
+
+  public EoFileReadersParallelInflating(
+    final EoFileReaderFactoryType<P> inBase)
+  {
+    this(
+      inBase,
+      ForkJoinPool.commonPool(),
+      Math.max(2, ForkJoinPool.commonPool().getParallelism() * 2)
+    );
+  }
+
+  @Override
+  public EoFileReaderType forChannel(
+    final URI uri,
+    final long fileTag,
+    final long endTag,
+    final SeekableByteChannel channel,
+    final P parameters)
+    throws EoException
+  {
+    Objects.requireNonNull(uri, "uri");
+
+    return new EoFileReaderParallelInflating(
+      uri,
+      this.base.forChannel(uri, fileTag, endTag, channel, parameters),
+      this.pool,
+      this.inFlight
+    );
+  }
+
+  @Override
+  public EoFileReaderType forFile(
+    final long fileTag,
+    final long endTag,
+    final Path file,
+    final P parameters)
+    throws EoException
+  {
+    Objects.requireNonNull(file, "file");
+
+    return new EoFileReaderParallelInflating(
+      file.toUri(),
+      this.base.forFile(fileTag, endTag, file, parameters),
+      this.pool,
+      this.inFlight
+    );
+  }
+
+  private static final class EoFileReaderParallelInflating
+    implements EoFileReaderType
+  {
+    private final URI uri;
+    private final EoFileReaderType baseReader;
+    private final ForkJoinPool pool;
+    private final int inFlight;
+
+    EoFileReaderParallelInflating(
+      final URI inUri,
+      final EoFileReaderType inBaseReader,
+      final ForkJoinPool inPool,
+      final int inInFlight)
+    {
+      this.uri =
+        Objects.requireNonNull(inUri, "uri");
+      this.baseReader =
+        Objects.requireNonNull(inBaseReader, "baseReader");
+      this.pool =
+        Objects.requireNonNull(inPool, "pool");
+      this.inFlight =
+        inInFlight;
+    }
+
+    @Override
+    public NavigableSet<EoFileSection> sections()
+    {
+      return this.baseReader.sections();
+    }
+
+    @Override
+    public URI uri()
+    {
+      return this.baseReader.uri();
+    }
+
+    @Override
+    public long fileTag()
+    {
+      return this.baseReader.fileTag();
+    }
+
+    @Override
+    public Version version()
+    {
+      return this.baseReader.version();
+    }
+
+    @Override
+    public EoFileIndex index()
+    {
+      return this.baseReader.index();
+    }
+
+    @Override
+    public SeekableByteChannel dataChannel(
+      final EoFileSection section)
+      throws EoException
+    {
+      final var encoding = this.encodingOf(section);
+      if (encoding != EoSectionEncoding.DEFLATE_CHUNKED) {
+        return this.baseReader.dataChannel(section);
+      }
+
+      final var stored = this.baseReader.rawDataChannel(section);
+      try {
+        return new EoParallelChunkedChannel(
+          stored,
+          EoChunkedSection.open(stored),
+          this.pool,
+          this.inFlight
+        );
+      } catch (final IOException e) {
+        try {
+          stored.close();
+        } catch (final IOException x) {
+          e.addSuppressed(x);
+        }
+        throw EoSectionEncodings.errorDecode(this.uri, section, encoding, e);
+      }
+    }
+
+    @Override
+    public SeekableByteChannel rawDataChannel(
+      final EoFileSection section)
+      throws EoException
+    {
+      return this.baseReader.rawDataChannel(section);
+    }
+
+    @Override
+    public EoSectionEncoding encodingOf(
+      final EoFileSection section)
+    {
+      return this.baseReader.encodingOf(section);
+    }
+
+    @Override
+    public void close()
+      throws EoException
+    {
+      this.baseReader.close();
+    }
+  }
+}
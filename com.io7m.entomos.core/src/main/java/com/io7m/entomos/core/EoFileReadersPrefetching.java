@@ -0,0 +1,531 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import com.io7m.jaffirm.core.Preconditions;
+import com.io7m.verona.core.Version;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A supplier of readers that read section data ahead of time on a
+ * background virtual thread, so that I/O overlaps with the processing of
+ * earlier sections. Readers produced by this factory prefetch sections in
+ * file order; {@link #prefetch(EoFileReaderType, List, int, long)} can be
+ * used to prefetch sections in any planned order.
+ *
+ * <p>At most {@code lookahead} sections are held in memory at once, and
+ * the total size of the buffers holding them never exceeds the memory
+ * budget; sections larger than the budget are not prefetched. A section
+ * is held until the channel returned for it by
+ * {@link EoFileReaderType#dataChannel(EoFileSection)} is closed. Requesting
+ * a section discards any prefetched sections that precede it in the plan
+ * and have not been requested. Sections not in the plan, or requested more
+ * than once, are read directly from the underlying reader.</p>
+ *
+ * <p>The underlying readers must permit data channels to be used
+ * concurrently from different threads, as is the case for readers opened
+ * over a {@link java.nio.channels.FileChannel}.</p>
+ *
+ * @param <P> The type of extra parameters
+ */
+
+public final class EoFileReadersPrefetching<P>
+  implements EoFileReaderFactoryType<P>
+{
+  private final EoFileReaderFactoryType<P> base;
+  private final int lookahead;
+  private final long memoryBudget;
+
+  /**
+   * A supplier of readers that read section data ahead of time.
+   *
+   * @param inBase         The base reader factory
+   * @param inLookahead    The maximum number of sections held at once
+   * @param inMemoryBudget The maximum number of bytes held at once
+   */
+
+  public EoFileReadersPrefetching(
+    final EoFileReaderFactoryType<P> inBase,
+    final int inLookahead,
+    final long inMemoryBudget)
+  {
+    this.base =
+      Objects.requireNonNull(inBase, "base");
+
+    checkParameters(inLookahead, inMemoryBudget);
+    this.lookahead = inLookahead;
+    this.memoryBudget = inMemoryBudget;
+  }
+
+  private static void checkParameters(
+    final int lookahead,
+    final long memoryBudget)
+  {
+    Preconditions.checkPrecondition(
+      lookahead > 0,
+      "Lookahead must be positive"
+    );
+    Preconditions.checkPrecondition(
+      memoryBudget > 0L,
+      "Memory budget must be positive"
+    );
+  }
+
+  /**
+   * Wrap a reader such that the given sections are read ahead of time, in
+   * the given order. The returned reader takes ownership of the given
+   * reader, and closes it when it is itself closed.
+   *
+   * @param reader       The reader
+   * @param plan         The sections, in the order in which they will be
+   *                     requested
+   * @param lookahead    The maximum number of sections held at once
+   * @param memoryBudget The maximum number of bytes held at once
+   *
+   * @return A prefetching reader
+   */
+
+  public static EoFileReaderType prefetch(
+    final EoFileReaderType reader,
+    final List<EoFileSection> plan,
+    final int lookahead,
+    final long memoryBudget)
+  {
+    Objects.requireNonNull(reader, "reader");
+    Objects.requireNonNull(plan, "plan");
+    checkParameters(lookahead, memoryBudget);
+
+    final var prefetching =
+      new EoFileReaderPrefetching(reader, plan, lookahead, memoryBudget);
+    prefetching.start();
+    return prefetching;
+  }
+
+  @Override
+  public EoFileReaderType forChannel(
+    final URI uri,
+    final long fileTag,
+    final long endTag,
+    final SeekableByteChannel channel,
+    final P parameters)
+    throws EoException
+  {
+    final var reader =
+      this.base.forChannel(uri, fileTag, endTag, channel, parameters);
+
+    final var sections = reader.sections();
+    final var plan = new ArrayList<>(sections.headSet(sections.last()));
+    return prefetch(reader, plan, this.lookahead, this.memoryBudget);
+  }
+
+  @Override
+  public EoFileReaderType forFile(
+    final long fileTag,
+    final long endTag,
+    final Path file,
+    final P parameters)
+    throws EoException
+  {
+    Objects.requireNonNull(file, "file");
+
+    final var reader =
+      this.base.forFile(fileTag, endTag, file, parameters);
+
+    final var sections = reader.sections();
+    final var plan = new ArrayList<>(sections.headSet(sections.last()));
+    return prefetch(reader, plan, this.lookahead, this.memoryBudget);
+  }
+
+  private static final class Slot
+  {
+    private final EoFileSection section;
+    private final CompletableFuture<ByteBuffer> future;
+    private boolean started;
+    private boolean taken;
+
+    Slot(
+      final EoFileSection inSection)
+    {
+      this.section = inSection;
+      this.future = new CompletableFuture<>();
+    }
+  }
+
+  private static final class EoFileReaderPrefetching
+    implements EoFileReaderType
+  {
+    private final EoFileReaderType baseReader;
+    private final List<Slot> slots;
+    private final Map<EoFileSection, Integer> slotIndices;
+    private final int lookahead;
+    private final long memoryBudget;
+    private final ReentrantLock lock;
+    private final Condition changed;
+    private final ArrayDeque<ByteBuffer> free;
+    private Thread thread;
+    private int held;
+    private long allocated;
+    private int consumerIndex;
+    private boolean closed;
+
+    EoFileReaderPrefetching(
+      final EoFileReaderType inBaseReader,
+      final List<EoFileSection> plan,
+      final int inLookahead,
+      final long inMemoryBudget)
+    {
+      this.baseReader =
+        Objects.requireNonNull(inBaseReader, "baseReader");
+      this.lookahead =
+        inLookahead;
+      this.memoryBudget =
+        inMemoryBudget;
+      this.lock =
+        new ReentrantLock();
+      this.changed =
+        this.lock.newCondition();
+      this.free =
+        new ArrayDeque<>();
+      this.slots =
+        new ArrayList<>(plan.size());
+      this.slotIndices =
+        new HashMap<>(plan.size());
+
+      for (final var section : plan) {
+        if (!this.slotIndices.containsKey(section)) {
+          this.slotIndices.put(section, this.slots.size());
+          this.slots.add(new Slot(section));
+        }
+      }
+    }
+
+    void start()
+    {
+      this.thread =
+        Thread.ofVirtual()
+          .name("com.io7m.entomos.prefetch")
+          .start(this::run);
+    }
+
+    private void run()
+    {
+      try {
+        for (final var slot : this.slots) {
+          if (!this.prefetchSlot(slot)) {
+            break;
+          }
+        }
+      } finally {
+        for (final var slot : this.slots) {
+          slot.future.complete(null);
+        }
+      }
+    }
+
+    private boolean prefetchSlot(
+      final Slot slot)
+    {
+      /*
+       * Encoded sections are not prefetched, as the size of the decoded
+       * data is not known until the section is opened.
+       */
+
+      if (this.baseReader.encodingOf(slot.section) != EoSectionEncoding.RAW) {
+        slot.future.complete(null);
+        return true;
+      }
+
+      final var size = slot.section.dataSize();
+      if (size < 0L || size > this.memoryBudget || size > Integer.MAX_VALUE) {
+        slot.future.complete(null);
+        return true;
+      }
+
+      final ByteBuffer buffer;
+      this.lock.lock();
+      try {
+        while (!this.closed
+               && !slot.taken
+               && (this.held >= this.lookahead || !this.canAllocate(size))) {
+          this.changed.await();
+        }
+        if (this.closed) {
+          return false;
+        }
+        if (slot.taken) {
+          slot.future.complete(null);
+          return true;
+        }
+        buffer = this.allocate((int) size);
+        this.held += 1;
+        slot.started = true;
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      } finally {
+        this.lock.unlock();
+      }
+
+      try (final var channel = this.baseReader.dataChannel(slot.section)) {
+        while (buffer.hasRemaining()) {
+          if (channel.read(buffer) == -1) {
+            throw EoSectionCacheHeap.errorShortLoad(
+              this.baseReader.uri(),
+              slot.section,
+              buffer
+            );
+          }
+        }
+        slot.future.complete(buffer.flip());
+      } catch (final Exception e) {
+        this.release(buffer);
+        slot.future.completeExceptionally(e);
+      }
+      return true;
+    }
+
+    private boolean canAllocate(
+      final long size)
+    {
+      for (final var buffer : this.free) {
+        if (buffer.capacity() >= size) {
+          return true;
+        }
+      }
+      return this.allocated - this.freeBytes() + size <= this.memoryBudget;
+    }
+
+    private long freeBytes()
+    {
+      long total = 0L;
+      for (final var buffer : this.free) {
+        total += buffer.capacity();
+      }
+      return total;
+    }
+
+    private ByteBuffer allocate(
+      final int size)
+    {
+      final var iterator = this.free.iterator();
+      while (iterator.hasNext()) {
+        final var buffer = iterator.next();
+        if (buffer.capacity() >= size) {
+          iterator.remove();
+          return buffer.clear().limit(size);
+        }
+      }
+
+      while (this.allocated + size > this.memoryBudget
+             && !this.free.isEmpty()) {
+        this.allocated -= this.free.removeFirst().capacity();
+      }
+
+      this.allocated += size;
+      return ByteBuffer.allocate(size);
+    }
+
+    private void release(
+      final ByteBuffer buffer)
+    {
+      this.lock.lock();
+      try {
+        this.held -= 1;
+        this.free.addLast(buffer);
+        this.changed.signalAll();
+      } finally {
+        this.lock.unlock();
+      }
+    }
+
+    @Override
+    public NavigableSet<EoFileSection> sections()
+    {
+      return this.baseReader.sections();
+    }
+
+    @Override
+    public URI uri()
+    {
+      return this.baseReader.uri();
+    }
+
+    @Override
+    public long fileTag()
+    {
+      return this.baseReader.fileTag();
+    }
+
+    @Override
+    public Version version()
+    {
+      return this.baseReader.version();
+    }
+
+    @Override
+    public EoFileIndex index()
+    {
+      return this.baseReader.index();
+    }
+
+    @Override
+    public SeekableByteChannel dataChannel(
+      final EoFileSection section)
+      throws EoException
+    {
+      final var index = this.slotIndices.get(section);
+      if (index == null) {
+        return this.baseReader.dataChannel(section);
+      }
+
+      final Slot slot;
+      final boolean started;
+      this.lock.lock();
+      try {
+        if (this.closed) {
+          throw errorClosed();
+        }
+
+        slot = this.slots.get(index.intValue());
+        if (slot.taken) {
+          return this.baseReader.dataChannel(section);
+        }
+
+        while (this.consumerIndex < index.intValue()) {
+          this.discard(this.slots.get(this.consumerIndex));
+          this.consumerIndex += 1;
+        }
+        this.consumerIndex = Math.max(this.consumerIndex, index + 1);
+        slot.taken = true;
+        started = slot.started;
+        this.changed.signalAll();
+      } finally {
+        this.lock.unlock();
+      }
+
+      /*
+       * If the background thread has not yet started reading the section,
+       * then it may be waiting for the caller to close other channels.
+       * Waiting for it here could therefore deadlock, so the section is
+       * read directly instead.
+       */
+
+      if (!started) {
+        return this.baseReader.dataChannel(section);
+      }
+
+      final ByteBuffer buffer;
+      try {
+        buffer = slot.future.get();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        slot.future.thenAccept(this::releaseIfPresent);
+        throw EoException.wrap(e);
+      } catch (final ExecutionException e) {
+        throw EoException.wrap(e);
+      }
+
+      if (buffer == null) {
+        return this.baseReader.dataChannel(section);
+      }
+      return new EoByteBufferChannel(buffer, () -> this.release(buffer));
+    }
+
+    @Override
+    public SeekableByteChannel rawDataChannel(
+      final EoFileSection section)
+      throws EoException
+    {
+      return this.baseReader.rawDataChannel(section);
+    }
+
+    @Override
+    public EoSectionEncoding encodingOf(
+      final EoFileSection section)
+    {
+      return this.baseReader.encodingOf(section);
+    }
+
+    private void discard(
+      final Slot slot)
+    {
+      if (!slot.taken) {
+        slot.taken = true;
+        slot.future.thenAccept(this::releaseIfPresent);
+      }
+    }
+
+    private void releaseIfPresent(
+      final ByteBuffer buffer)
+    {
+      if (buffer != null) {
+        this.release(buffer);
+      }
+    }
+
+    private static EoException errorClosed()
+    {
+      return new EoException(
+        "The reader has been closed.",
+        "error-reader-closed",
+        Map.of(),
+        Optional.empty()
+      );
+    }
+
+    @Override
+    public void close()
+      throws EoException
+    {
+      this.lock.lock();
+      try {
+        if (this.closed) {
+          return;
+        }
+        this.closed = true;
+        this.changed.signalAll();
+      } finally {
+        this.lock.unlock();
+      }
+
+      try {
+        this.thread.join();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+
+      this.baseReader.close();
+    }
+  }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import com.io7m.verona.core.Version;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+import java.util.NavigableSet;
+import java.util.Objects;
+
+/**
+ * A supplier of readers that record every read of section data to an
+ * access tracer. The readers are produced by a base factory.
+ *
+ * @param <P> The type of extra parameters
+ */
+
+public final class EoFileReadersTraced<P>
+  implements EoFileReaderFactoryType<P>
+{
+  private final EoFileReaderFactoryType<P> base;
+  private final EoAccessTracer tracer;
+
+  /**
+   * A supplier of readers that record every read of section data to an
+   * access tracer.
+   *
+   * @param inBase   The base reader factory
+   * @param inTracer The access tracer
+   */
+
+  public EoFileReadersTraced(
+    final EoFileReaderFactoryType<P> inBase,
+    final EoAccessTracer inTracer)
+  {
+    this.base =
+      Objects.requireNonNull(inBase, "base");
+    this.tracer =
+      Objects.requireNonNull(inTracer, "tracer");
+  }
+
+  /**
+   * @return The access tracer
+   */
+
+  public EoAccessTracer tracer()
+  {
+    return this.tracer;
+  }
+
+  @Override
+  public EoFileReaderType forChannel(
+    final URI uri,
+    final long fileTag,
+    final long endTag,
+    final SeekableByteChannel channel,
+    final P parameters)
+    throws EoException
+  {
+    Objects.requireNonNull(uri, "uri");
+
+    return new EoFileReaderTraced(
+      this.tracer.fileId(uri),
+      this.base.forChannel(uri, fileTag, endTag, channel, parameters),
+      this.tracer
+    );
+  }
+
+  @Override
+  public EoFileReaderType forFile(
+    final long fileTag,
+    final long endTag,
+    final Path file,
+    final P parameters)
+    throws EoException
+  {
+    Objects.requireNonNull(file, "file");
+
+    final var uri = file.toUri();
+    return new EoFileReaderTraced(
+      this.tracer.fileId(uri),
+      this.base.forFile(fileTag, endTag, file, parameters),
+      this.tracer
+    );
+  }
+
+  private static final class EoFileReaderTraced
+    implements EoFileReaderType
+  {
+    private final int fileId;
+    private final EoFileReaderType baseReader;
+    private final EoAccessTracer tracer;
+
+    EoFileReaderTraced(
+      final int inFileId,
+      final EoFileReaderType inBaseReader,
+      final EoAccessTracer inTracer)
+    {
+      this.fileId =
+        inFileId;
+      this.baseReader =
+        Objects.requireNonNull(inBaseReader, "baseReader");
+      this.tracer =
+        Objects.requireNonNull(inTracer, "tracer");
+    }
+
+    @Override
+    public NavigableSet<EoFileSection> sections()
+    {
+      return this.baseReader.sections();
+    }
+
+    @Override
+    public URI uri()
+    {
+      return this.baseReader.uri();
+    }
+
+    @Override
+    public long fileTag()
+    {
+      return this.baseReader.fileTag();
+    }
+
+    @Override
+    public Version version()
+    {
+      return this.baseReader.version();
+    }
+
+    @Override
+    public EoFileIndex index()
+    {
+      return this.baseReader.index();
+    }
+
+    @Override
+    public SeekableByteChannel dataChannel(
+      final EoFileSection section)
+      throws EoException
+    {
+      return new TracedChannel(
+        this.baseReader.dataChannel(section),
+        section
+      );
+    }
+
+    @Override
+    public SeekableByteChannel rawDataChannel(
+      final EoFileSection section)
+      throws EoException
+    {
+      return new TracedChannel(
+        this.baseReader.rawDataChannel(section),
+        section
+      );
+    }
+
+    @Override
+    public EoSectionEncoding encodingOf(
+      final EoFileSection section)
+    {
+      return this.baseReader.encodingOf(section);
+    }
+
+    @Override
+    public void close()
+      throws EoException
+    {
+      this.baseReader.close();
+    }
+
+    private final class TracedChannel
+      implements SeekableByteChannel
+    {
+      private final SeekableByteChannel delegate;
+      private final EoFileSection section;
+
+      TracedChannel(
+        final SeekableByteChannel inDelegate,
+        final EoFileSection inSection)
+      {
+        this.delegate = inDelegate;
+        this.section = inSection;
+      }
+
+      @Override
+      public int read(
+        final ByteBuffer dst)
+        throws IOException
+      {
+        final var position = this.delegate.position();
+        final var count = this.delegate.read(dst);
+        if (count > 0) {
+          EoFileReaderTraced.this.tracer.record(
+            EoFileReaderTraced.this.fileId,
+            this.section.tag(),
+            this.section.offset(),
+            position,
+            count
+          );
+        }
+        return count;
+      }
+
+      @Override
+      public int write(
+        final ByteBuffer src)
+        throws IOException
+      {
+        return this.delegate.write(src);
+      }
+
+      @Override
+      public long position()
+        throws IOException
+      {
+        return this.delegate.position();
+      }
+
+      @Override
+      public SeekableByteChannel position(
+        final long newPosition)
+        throws IOException
+      {
+        this.delegate.position(newPosition);
+        return this;
+      }
+
+      @Override
+      public long size()
+        throws IOException
+      {
+        return this.delegate.size();
+      }
+
+      @Override
+      public SeekableByteChannel truncate(
+        final long size)
+        throws IOException
+      {
+        this.delegate.truncate(size);
+        return this;
+      }
+
+      @Override
+      public boolean isOpen()
+      {
+        return this.delegate.isOpen();
+      }
+
+      @Override
+      public void close()
+        throws IOException
+      {
+        this.delegate.close();
+      }
+    }
+  }
+}
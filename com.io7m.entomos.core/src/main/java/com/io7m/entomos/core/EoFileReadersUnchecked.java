@@ -29,6 +29,7 @@ import com.io7m.wendover.core.CloseShieldSeekableByteChannel;
 import com.io7m.wendover.core.SubrangeSeekableByteChannel;
 
 import java.net.URI;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SeekableByteChannel;
 import java.util.Collections;
 import java.util.Map;
@@ -44,9 +45,11 @@ import java.util.TreeSet;
  */
 
 public final class EoFileReadersUnchecked
-  implements EoFileReaderFactoryType<Void>
+  implements EoFileReaderIndexableFactoryType<Void>
 {
   private final BSSReaderProviderType readers;
+  private final EoMetricsType metrics;
+  private final int alignment;
 
   /**
    * A supplier of unchecked readers. These readers will not do
@@ -69,9 +72,53 @@ public final class EoFileReadersUnchecked
 
   public EoFileReadersUnchecked(
     final BSSReaderProviderType inReaders)
+  {
+    this(inReaders, EoMetricsType.none());
+  }
+
+  /**
+   * A supplier of unchecked readers. These readers will not do
+   * any file structure verification beyond the bare minimum required
+   * to actually enumerate sections in the file.
+   *
+   * @param inReaders A provider of {@code bssio} readers.
+   * @param inMetrics A metrics listener
+   */
+
+  public EoFileReadersUnchecked(
+    final BSSReaderProviderType inReaders,
+    final EoMetricsType inMetrics)
+  {
+    this(inReaders, inMetrics, EoAlignment.ALIGNMENT_DEFAULT);
+  }
+
+  /**
+   * A supplier of unchecked readers. These readers will not do
+   * any file structure verification beyond the bare minimum required
+   * to actually enumerate sections in the file.
+   *
+   * @param inReaders   A provider of {@code bssio} readers.
+   * @param inMetrics   A metrics listener
+   * @param inAlignment The alignment of section data in files
+   *
+   * @see EoFileDescription#alignment()
+   */
+
+  public EoFileReadersUnchecked(
+    final BSSReaderProviderType inReaders,
+    final EoMetricsType inMetrics,
+    final int inAlignment)
   {
     this.readers =
       Objects.requireNonNull(inReaders, "readers");
+    this.metrics =
+      Objects.requireNonNull(inMetrics, "metrics");
+
+    Preconditions.checkPrecondition(
+      EoAlignment.isValid(inAlignment),
+      "Alignment must be a power of two in the range [16, 65536]"
+    );
+    this.alignment = inAlignment;
   }
 
   @Override
@@ -82,6 +129,23 @@ public final class EoFileReadersUnchecked
     final SeekableByteChannel channel,
     final Void parameters)
     throws EoException
+  {
+    return this.forChannelAligned(
+      uri,
+      fileTag,
+      endTag,
+      channel,
+      this.alignment
+    );
+  }
+
+  EoFileReaderType forChannelAligned(
+    final URI uri,
+    final long fileTag,
+    final long endTag,
+    final SeekableByteChannel channel,
+    final int fileAlignment)
+    throws EoException
   {
     Objects.requireNonNull(uri, "uri");
     Objects.requireNonNull(channel, "channel");
@@ -91,6 +155,10 @@ public final class EoFileReadersUnchecked
       "File tag cannot equal end tag"
     );
 
+    final var timeStart = System.nanoTime();
+    final var event = new EoEventFileOpened();
+    event.begin();
+
     try {
       final var bssReader =
         this.readers.createReaderFromChannel(uri, channel, "File");
@@ -100,16 +168,80 @@ public final class EoFileReadersUnchecked
           fileTag,
           endTag,
           channel,
-          bssReader
+          bssReader,
+          this.metrics,
+          fileAlignment
         );
 
       fileReader.start();
+
+      final var duration = System.nanoTime() - timeStart;
+      final var count = fileReader.sections().size();
+      event.end();
+      if (event.shouldCommit()) {
+        event.uri = uri.toString();
+        event.sectionCount = count;
+        event.headerBytesRead = 16L + (16L * count);
+        event.commit();
+      }
+
+      this.metrics.onFileOpened(uri, duration, count);
+      return fileReader;
+    } catch (final SIOException e) {
+      final var ex = EoException.wrap(e);
+      this.metrics.onFileOpenFailed(uri, ex);
+      throw ex;
+    } catch (final EoException e) {
+      this.metrics.onFileOpenFailed(uri, e);
+      throw e;
+    }
+  }
+
+  @Override
+  public EoFileReaderType forIndex(
+    final URI uri,
+    final SeekableByteChannel channel,
+    final EoFileIndex index,
+    final Void parameters)
+    throws EoException
+  {
+    Objects.requireNonNull(uri, "uri");
+    Objects.requireNonNull(channel, "channel");
+    Objects.requireNonNull(index, "index");
+
+    try {
+      final var bssReader =
+        this.readers.createReaderFromChannel(uri, channel, "File");
+      final var fileReader =
+        new EoFileReader(
+          uri,
+          index.fileTag(),
+          index.endTag(),
+          channel,
+          bssReader,
+          this.metrics,
+          this.alignment
+        );
+
+      fileReader.startFromIndex(index);
       return fileReader;
     } catch (final SIOException e) {
       throw EoException.wrap(e);
     }
   }
 
+  @Override
+  public long fingerprint(
+    final Void parameters)
+  {
+    /*
+     * No validation is performed, but the alignment determines where
+     * section headers are found when enumerating sections.
+     */
+
+    return Integer.toUnsignedLong(this.alignment);
+  }
+
   private static final class EoFileReader
     implements EoFileReaderType
   {
@@ -120,6 +252,8 @@ public final class EoFileReadersUnchecked
     private final SeekableByteChannel channel;
     private final BSSReaderRandomAccessType reader;
     private final TreeSet<EoFileSection> sections;
+    private final EoMetricsType metrics;
+    private final int alignment;
     private Version version;
 
     public EoFileReader(
@@ -127,7 +261,9 @@ public final class EoFileReadersUnchecked
       final long inFileTag,
       final long inEndTag,
       final SeekableByteChannel inChannel,
-      final BSSReaderRandomAccessType bssReader)
+      final BSSReaderRandomAccessType bssReader,
+      final EoMetricsType inMetrics,
+      final int inAlignment)
     {
       this.uri =
         Objects.requireNonNull(inUri, "uri");
@@ -151,6 +287,10 @@ public final class EoFileReadersUnchecked
         this.resources.add(bssReader);
       this.version =
         Version.of(0, 0, 0);
+      this.metrics =
+        Objects.requireNonNull(inMetrics, "metrics");
+      this.alignment =
+        inAlignment;
     }
 
     @Override
@@ -159,6 +299,12 @@ public final class EoFileReadersUnchecked
       return Collections.unmodifiableNavigableSet(this.sections);
     }
 
+    @Override
+    public URI uri()
+    {
+      return this.uri;
+    }
+
     @Override
     public long fileTag()
     {
@@ -177,16 +323,57 @@ public final class EoFileReadersUnchecked
       throws EoException
     {
       if (this.sections.contains(section)) {
-        final var closeShield =
-          new CloseShieldSeekableByteChannel(this.channel);
-        return new SubrangeSeekableByteChannel(
-          closeShield,
+        if (this.channel instanceof final EoFileChannelSubrange subrange
+            && !subrange.contains(section.dataOffset(), section.dataSize())) {
+          throw this.errorSectionOutOfBounds(section, subrange.limit());
+        }
+        return EoEventSectionReadChannel.wrap(
+          EoMetricsSectionChannel.wrap(
+            this.openDataChannel(section),
+            this.metrics,
+            this.uri,
+            section
+          ),
+          this.uri,
+          section
+        );
+      }
+
+      throw this.errorNoSuchSection(section);
+    }
+
+    private SeekableByteChannel openDataChannel(
+      final EoFileSection section)
+    {
+      if (this.channel instanceof final FileChannel fileChannel) {
+        return new EoFileChannelSubrange(
+          fileChannel,
           section.dataOffset(),
           section.dataSize()
         );
       }
 
-      throw this.errorNoSuchSection(section);
+      if (this.channel instanceof final EoFileChannelSubrange subrange) {
+        return subrange.subrange(
+          section.dataOffset(),
+          section.dataSize()
+        );
+      }
+
+      if (this.channel instanceof final EoDirectChannel directChannel) {
+        return directChannel.subrange(
+          section.dataOffset(),
+          section.dataSize()
+        );
+      }
+
+      final var closeShield =
+        new CloseShieldSeekableByteChannel(this.channel);
+      return new SubrangeSeekableByteChannel(
+        closeShield,
+        section.dataOffset(),
+        section.dataSize()
+      );
     }
 
     private EoException errorNoSuchSection(
@@ -212,6 +399,31 @@ public final class EoFileReadersUnchecked
       );
     }
 
+    private EoException errorSectionOutOfBounds(
+      final EoFileSection section,
+      final long limit)
+    {
+      final var tag =
+        "0x" + Long.toUnsignedString(section.tag(), 16);
+      final var offset =
+        "0x" + Long.toUnsignedString(section.offset(), 16);
+      final var size =
+        Long.toUnsignedString(section.dataSize());
+
+      return new EoException(
+        "Section data extends beyond the end of the containing file.",
+        "error-section-out-of-bounds",
+        Map.ofEntries(
+          Map.entry("File", this.uri.toString()),
+          Map.entry("Tag", tag),
+          Map.entry("Offset", offset),
+          Map.entry("Size", size),
+          Map.entry("File Size", Long.toUnsignedString(limit))
+        ),
+        Optional.empty()
+      );
+    }
+
     @Override
     public void close()
       throws EoException
@@ -231,10 +443,18 @@ public final class EoFileReadersUnchecked
       }
     }
 
+    public void startFromIndex(
+      final EoFileIndex index)
+    {
+      this.version = index.version();
+      this.sections.addAll(index.sections());
+    }
+
     private void readFileSections()
       throws SIOException, EoException
     {
       this.reader.seekTo(16L);
+      this.seekToSection();
 
       while (this.enumerateFileSection()) {
         // Nothing
@@ -258,7 +478,9 @@ public final class EoFileReadersUnchecked
         this.reader.readU64BE("SectionDataSize");
 
       this.reader.skip(size);
-      seekTo16(this.reader);
+      if (tag != this.endTag) {
+        this.seekToSection();
+      }
 
       this.sections.add(
         EoFileSection.builder()
@@ -296,18 +518,17 @@ public final class EoFileReadersUnchecked
         16);
     }
 
-    private static void seekTo16(
-      final BSSReaderRandomAccessType r)
+    private void seekToSection()
       throws SIOException
     {
-      final var position = r.offsetCurrentAbsolute();
-      if (position % 16 == 0) {
-        return;
-      }
+      final var position =
+        this.reader.offsetCurrentAbsolute();
+      final var next =
+        EoAlignment.nextSectionOffset(position, this.alignment);
 
-      final var next = position + (16L - (position % 16L));
-      final var diff = next - position;
-      r.skip(diff);
+      if (next != position) {
+        this.reader.skip(next - position);
+      }
     }
 
     private void readFileTag()
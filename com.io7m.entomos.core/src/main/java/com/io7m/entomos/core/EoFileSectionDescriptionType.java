@@ -52,4 +52,43 @@ public interface EoFileSectionDescriptionType
   {
     return EoSectionCardinality.ZERO_TO_N;
   }
+
+  /**
+   * @return The encoding of the section data
+   */
+
+  @Value.Default
+  default EoSectionEncoding encoding()
+  {
+    return EoSectionEncoding.RAW;
+  }
+
+  /**
+   * The size of the uncompressed chunks of sections using the
+   * {@link EoSectionEncoding#DEFLATE_CHUNKED} encoding. The size must be a
+   * power of two in the range {@code [4096, 16777216]}; readers reject
+   * files that declare chunk sizes outside this range.
+   *
+   * @return The chunk size
+   */
+
+  @Value.Default
+  default int chunkSize()
+  {
+    return 65536;
+  }
+
+  /**
+   * Check preconditions for the type.
+   */
+
+  @Value.Check
+  default void checkPreconditions()
+  {
+    if (!EoChunkedSection.isValidChunkSize(this.chunkSize())) {
+      throw new IllegalArgumentException(
+        "The chunk size must be a power of two in the range [4096, 16777216]."
+      );
+    }
+  }
 }
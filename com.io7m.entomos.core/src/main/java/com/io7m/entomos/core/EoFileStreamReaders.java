@@ -0,0 +1,420 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import com.io7m.jaffirm.core.Preconditions;
+import com.io7m.verona.core.Version;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Functions to read files in a single pass from non-seekable sources such
+ * as pipes and sockets. Sections are delivered to a visitor in file order
+ * as they arrive; nothing is buffered beyond the data the visitor itself
+ * reads. The stream is read up to and including the end section, and any
+ * trailing data is left unread.
+ *
+ * <p>As with {@link EoFileReadersUnchecked}, no structure verification is
+ * performed beyond that required to enumerate sections.</p>
+ */
+
+public final class EoFileStreamReaders
+{
+  private static final int SKIP_BUFFER_SIZE = 8192;
+
+  private final int alignment;
+
+  /**
+   * Functions to read files in a single pass, assuming the default section
+   * alignment.
+   */
+
+  public EoFileStreamReaders()
+  {
+    this(EoAlignment.ALIGNMENT_DEFAULT);
+  }
+
+  /**
+   * Functions to read files in a single pass.
+   *
+   * @param inAlignment The alignment of section data in files
+   *
+   * @see EoFileDescription#alignment()
+   */
+
+  public EoFileStreamReaders(
+    final int inAlignment)
+  {
+    Preconditions.checkPrecondition(
+      EoAlignment.isValid(inAlignment),
+      "Alignment must be a power of two in the range [16, 65536]"
+    );
+    this.alignment = inAlignment;
+  }
+
+  /**
+   * Read a file from the given stream.
+   *
+   * @param uri     The URI for diagnostic purposes
+   * @param fileTag The required file tag
+   * @param endTag  The required end tag
+   * @param stream  The stream
+   * @param visitor The visitor
+   *
+   * @throws EoException On errors
+   */
+
+  public void visit(
+    final URI uri,
+    final long fileTag,
+    final long endTag,
+    final InputStream stream,
+    final EoStreamVisitorType visitor)
+    throws EoException
+  {
+    Objects.requireNonNull(stream, "stream");
+    this.visit(uri, fileTag, endTag, Channels.newChannel(stream), visitor);
+  }
+
+  /**
+   * Read a file from the given channel.
+   *
+   * @param uri     The URI for diagnostic purposes
+   * @param fileTag The required file tag
+   * @param endTag  The required end tag
+   * @param channel The channel
+   * @param visitor The visitor
+   *
+   * @throws EoException On errors
+   */
+
+  public void visit(
+    final URI uri,
+    final long fileTag,
+    final long endTag,
+    final ReadableByteChannel channel,
+    final EoStreamVisitorType visitor)
+    throws EoException
+  {
+    Objects.requireNonNull(uri, "uri");
+    Objects.requireNonNull(channel, "channel");
+    Objects.requireNonNull(visitor, "visitor");
+
+    Preconditions.checkPrecondition(
+      fileTag != endTag,
+      "File tag cannot equal end tag"
+    );
+
+    try {
+      new StreamReader(uri, fileTag, endTag, channel, this.alignment)
+        .run(visitor);
+    } catch (final IOException e) {
+      throw EoException.wrap(e);
+    }
+  }
+
+  private static final class StreamReader
+  {
+    private final URI uri;
+    private final long fileTag;
+    private final long endTag;
+    private final ReadableByteChannel channel;
+    private final int alignment;
+    private final ByteBuffer header;
+    private ByteBuffer skipBuffer;
+    private long offset;
+
+    StreamReader(
+      final URI inUri,
+      final long inFileTag,
+      final long inEndTag,
+      final ReadableByteChannel inChannel,
+      final int inAlignment)
+    {
+      this.uri = inUri;
+      this.fileTag = inFileTag;
+      this.endTag = inEndTag;
+      this.channel = inChannel;
+      this.alignment = inAlignment;
+      this.header = ByteBuffer.allocate(16);
+    }
+
+    void run(
+      final EoStreamVisitorType visitor)
+      throws IOException, EoException
+    {
+      this.readFileHeader(visitor);
+
+      while (true) {
+        this.skip(
+          EoAlignment.nextSectionOffset(this.offset, this.alignment)
+          - this.offset,
+          this::errorFileEndMissing
+        );
+
+        final var sectionOffset = this.offset;
+        if (!this.readHeader()) {
+          throw this.errorFileEndMissing();
+        }
+
+        final var section =
+          EoFileSection.builder()
+            .setTag(this.header.getLong(0))
+            .setDataSize(this.header.getLong(8))
+            .setOffset(sectionOffset)
+            .build();
+
+        if (section.tag() == this.endTag) {
+          visitor.onFileEnd(section);
+          return;
+        }
+
+        final var data = new SectionChannel(section);
+        try {
+          visitor.onSection(section, data);
+        } catch (final EoException e) {
+          if (data.truncated != null) {
+            throw data.truncated;
+          }
+          throw e;
+        } finally {
+          data.closed = true;
+        }
+
+        /*
+         * Report truncation even if the visitor swallowed the exception
+         * raised by the section channel.
+         */
+
+        if (data.truncated != null) {
+          throw data.truncated;
+        }
+        this.skip(
+          data.remaining,
+          () -> this.errorSectionTruncated(section)
+        );
+      }
+    }
+
+    private void readFileHeader(
+      final EoStreamVisitorType visitor)
+      throws IOException, EoException
+    {
+      if (!this.readHeader()) {
+        throw this.errorFileTagMissing();
+      }
+
+      final var receivedFileTag = this.header.getLong(0);
+      if (receivedFileTag != this.fileTag) {
+        throw this.errorFileTagIncorrect(receivedFileTag);
+      }
+
+      visitor.onFileStart(
+        receivedFileTag,
+        Version.of(this.header.getInt(8), this.header.getInt(12), 0)
+      );
+    }
+
+    private boolean readHeader()
+      throws IOException
+    {
+      this.header.clear();
+      while (this.header.hasRemaining()) {
+        final var count = this.channel.read(this.header);
+        if (count == -1) {
+          return false;
+        }
+        this.offset += count;
+      }
+      return true;
+    }
+
+    private void skip(
+      final long count,
+      final Supplier<EoException> onEnd)
+      throws IOException, EoException
+    {
+      if (count <= 0L) {
+        return;
+      }
+
+      if (this.skipBuffer == null) {
+        this.skipBuffer = ByteBuffer.allocate(SKIP_BUFFER_SIZE);
+      }
+
+      var remaining = count;
+      while (remaining > 0L) {
+        this.skipBuffer.clear();
+        this.skipBuffer.limit((int) Math.min(remaining, SKIP_BUFFER_SIZE));
+        final var read = this.channel.read(this.skipBuffer);
+        if (read == -1) {
+          throw onEnd.get();
+        }
+        remaining -= read;
+        this.offset += read;
+      }
+    }
+
+    private String offsetText()
+    {
+      return "0x" + Long.toUnsignedString(this.offset, 16);
+    }
+
+    private EoException errorFileEndMissing()
+    {
+      final var expected =
+        "0x" + Long.toUnsignedString(this.endTag, 16);
+
+      return new EoException(
+        "File is missing an 'end' section.",
+        "error-file-end-missing",
+        Map.ofEntries(
+          Map.entry("File", this.uri.toString()),
+          Map.entry("Expected", expected),
+          Map.entry("Offset", this.offsetText())
+        ),
+        Optional.empty()
+      );
+    }
+
+    private EoException errorFileTagMissing()
+    {
+      final var expected =
+        "0x" + Long.toUnsignedString(this.fileTag, 16);
+
+      return new EoException(
+        "Missing file tag.",
+        "error-file-tag-missing",
+        Map.ofEntries(
+          Map.entry("File", this.uri.toString()),
+          Map.entry("Expected", expected),
+          Map.entry("Offset", this.offsetText())
+        ),
+        Optional.empty()
+      );
+    }
+
+    private EoException errorFileTagIncorrect(
+      final long receivedFileTag)
+    {
+      final var expected =
+        "0x" + Long.toUnsignedString(this.fileTag, 16);
+      final var received =
+        "0x" + Long.toUnsignedString(receivedFileTag, 16);
+
+      return new EoException(
+        "Incorrect file tag.",
+        "error-file-tag-incorrect",
+        Map.ofEntries(
+          Map.entry("File", this.uri.toString()),
+          Map.entry("Expected", expected),
+          Map.entry("Received", received)
+        ),
+        Optional.empty()
+      );
+    }
+
+    private EoException errorSectionTruncated(
+      final EoFileSection section)
+    {
+      return new EoException(
+        "Section data was shorter than the declared section size.",
+        "error-section-data-truncated",
+        Map.ofEntries(
+          Map.entry("File", this.uri.toString()),
+          Map.entry(
+            "Offset",
+            "0x" + Long.toUnsignedString(section.offset(), 16)),
+          Map.entry(
+            "Tag",
+            "0x" + Long.toUnsignedString(section.tag(), 16))
+        ),
+        Optional.empty()
+      );
+    }
+
+    private final class SectionChannel
+      implements ReadableByteChannel
+    {
+      private final EoFileSection section;
+      private long remaining;
+      private boolean closed;
+      private EoException truncated;
+
+      SectionChannel(
+        final EoFileSection inSection)
+      {
+        this.section = inSection;
+        this.remaining = inSection.dataSize();
+      }
+
+      @Override
+      public int read(
+        final ByteBuffer dst)
+        throws IOException
+      {
+        if (this.closed) {
+          throw new ClosedChannelException();
+        }
+        if (this.remaining <= 0L) {
+          return -1;
+        }
+
+        final var limit =
+          (int) Math.min(dst.remaining(), this.remaining);
+        final var limited =
+          dst.slice(dst.position(), limit);
+        final var count =
+          StreamReader.this.channel.read(limited);
+
+        if (count == -1) {
+          this.truncated =
+            StreamReader.this.errorSectionTruncated(this.section);
+          throw new IOException(this.truncated.getMessage(), this.truncated);
+        }
+
+        dst.position(dst.position() + count);
+        this.remaining -= count;
+        StreamReader.this.offset += count;
+        return count;
+      }
+
+      @Override
+      public boolean isOpen()
+      {
+        return !this.closed;
+      }
+
+      @Override
+      public void close()
+      {
+        this.closed = true;
+      }
+    }
+  }
+}
@@ -0,0 +1,533 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import com.io7m.jbssio.vanilla.BSSReaders;
+import com.io7m.verona.core.Version;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Section-level incremental synchronization between copies of files.
+ *
+ * <p>A receiver holding an old copy of a file computes its
+ * {@link #signature(Path, long, long) signature}: the SHA-256 digest of
+ * the stored data of each section. A sender holding the new copy uses the
+ * signature to {@link #createPatch(List, Path, long, long, Path) create a
+ * patch} that contains the layout of the new file and the data of only
+ * those sections that the receiver does not already have. The receiver
+ * then {@link #applyPatch(Path, Path, Path) applies the patch} to its old
+ * copy, transferring both the unchanged sections and the patch data into
+ * the rebuilt file without copying them through the Java heap where
+ * possible.</p>
+ *
+ * <p>Patches are themselves entomos files. The first section is a layout
+ * section holding the target file's tags, version, alignment, and a list
+ * of entries (one per target section) that each either name a section of
+ * the base file by offset, or a data section of the patch by index. The
+ * layout section is followed by the data sections.</p>
+ */
+
+public final class EoFileSync
+{
+  /**
+   * The file tag of patch files.
+   */
+
+  public static final long PATCH_FILE_TAG =
+    EoTags.pngStyle((byte) 'E', (byte) 'P', (byte) 'T');
+
+  /**
+   * The end tag of patch files.
+   */
+
+  public static final long PATCH_END_TAG =
+    EoTags.ofString("EPT_END_");
+
+  /**
+   * The tag of the layout section of patch files.
+   */
+
+  public static final long PATCH_LAYOUT_TAG =
+    EoTags.ofString("EPT_LAYT");
+
+  /**
+   * The tag of the data sections of patch files.
+   */
+
+  public static final long PATCH_DATA_TAG =
+    EoTags.ofString("EPT_DATA");
+
+  private static final int LAYOUT_HEADER_SIZE = 32;
+  private static final int LAYOUT_ENTRY_SIZE = 32;
+  private static final long ENTRY_COPY = 0L;
+  private static final long ENTRY_DATA = 1L;
+
+  private final EoFileReadersUnchecked readers;
+  private final EoFileReadersUnchecked patchReaders;
+  private final EoFileWriters writers;
+  private final int alignment;
+
+  /**
+   * Section-level incremental synchronization between copies of files
+   * whose sections use the given alignment.
+   *
+   * @param inAlignment The section alignment of synchronized files
+   *
+   * @see EoFileDescription#alignment()
+   */
+
+  public EoFileSync(
+    final int inAlignment)
+  {
+    this.readers =
+      new EoFileReadersUnchecked(
+        new BSSReaders(),
+        EoMetricsType.none(),
+        inAlignment
+      );
+    this.patchReaders =
+      new EoFileReadersUnchecked();
+    this.writers =
+      new EoFileWriters();
+    this.alignment =
+      inAlignment;
+  }
+
+  /**
+   * Section-level incremental synchronization between copies of files
+   * whose sections use the default alignment.
+   */
+
+  public EoFileSync()
+  {
+    this(EoAlignment.ALIGNMENT_DEFAULT);
+  }
+
+  /**
+   * Compute the signature of a file.
+   *
+   * @param file    The file
+   * @param fileTag The file tag
+   * @param endTag  The end tag
+   *
+   * @return The SHA-256 digests of all sections other than the end section
+   *
+   * @throws EoException On errors
+   */
+
+  public List<EoSectionDigest> signature(
+    final Path file,
+    final long fileTag,
+    final long endTag)
+    throws EoException
+  {
+    Objects.requireNonNull(file, "file");
+
+    try (final var reader =
+           this.readers.forFile(fileTag, endTag, file, null)) {
+      final var sections = new ArrayList<>(reader.sections());
+      sections.removeLast();
+
+      final var results = new ArrayList<EoSectionDigest>(sections.size());
+      for (final var section : sections) {
+        results.add(
+          EoSectionDigest.builder()
+            .setSection(section)
+            .setAlgorithm(EoDigestAlgorithm.SHA_256)
+            .setDigest(digestOf(reader, section))
+            .build()
+        );
+      }
+      return List.copyOf(results);
+    }
+  }
+
+  private static String digestOf(
+    final EoFileReaderType reader,
+    final EoFileSection section)
+    throws EoException
+  {
+    final MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+
+    try (final var channel = reader.rawDataChannel(section)) {
+      final var buffer = ByteBuffer.allocate(65536);
+      while (channel.read(buffer) != -1) {
+        digest.update(buffer.flip());
+        buffer.clear();
+      }
+    } catch (final IOException e) {
+      throw EoException.wrap(e);
+    }
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  private record Key(
+    long tag,
+    String digest)
+  {
+
+  }
+
+  /**
+   * Create a patch that transforms a base file with the given signature
+   * into the given target file.
+   *
+   * @param baseSignature The signature of the base file
+   * @param target        The target file
+   * @param fileTag       The file tag
+   * @param endTag        The end tag
+   * @param patch         The output patch file, which must differ from the
+   *                      target file
+   *
+   * @return Statistics describing the patch
+   *
+   * @throws EoException On errors
+   */
+
+  public EoPatchStatistics createPatch(
+    final List<EoSectionDigest> baseSignature,
+    final Path target,
+    final long fileTag,
+    final long endTag,
+    final Path patch)
+    throws EoException
+  {
+    Objects.requireNonNull(baseSignature, "baseSignature");
+    Objects.requireNonNull(target, "target");
+    Objects.requireNonNull(patch, "patch");
+
+    EoOutputFiles.checkNotInput(patch, List.of(target));
+
+    final var available = new HashMap<Key, EoFileSection>();
+    for (final var digest : baseSignature) {
+      available.putIfAbsent(
+        new Key(digest.section().tag(), digest.digest()),
+        digest.section()
+      );
+    }
+
+    try (final var reader =
+           this.readers.forFile(fileTag, endTag, target, null)) {
+      final var sections = new ArrayList<>(reader.sections());
+      sections.removeLast();
+
+      final var layout =
+        ByteBuffer.allocate(
+          LAYOUT_HEADER_SIZE + sections.size() * LAYOUT_ENTRY_SIZE);
+
+      final var version = reader.version();
+      layout.putLong(fileTag);
+      layout.putLong(endTag);
+      layout.putInt(version.major());
+      layout.putInt(version.minor());
+      layout.putInt(this.alignment);
+      layout.putInt(sections.size());
+
+      final var sent = new ArrayList<EoFileSection>();
+      final var statistics = EoPatchStatistics.builder();
+      long sectionsReused = 0L;
+      long bytesReused = 0L;
+      long bytesSent = 0L;
+
+      for (final var section : sections) {
+        final var existing =
+          available.get(new Key(section.tag(), digestOf(reader, section)));
+
+        layout.putLong(section.tag());
+        if (existing != null) {
+          layout.putLong(ENTRY_COPY);
+          layout.putLong(existing.offset());
+          sectionsReused += 1L;
+          bytesReused += section.dataSize();
+        } else {
+          layout.putLong(ENTRY_DATA);
+          layout.putLong(sent.size());
+          sent.add(section);
+          bytesSent += section.dataSize();
+        }
+        layout.putLong(section.dataSize());
+      }
+
+      EoOutputFiles.replace(patch, temporary -> {
+        try (final var writer =
+               this.writers.forFile(
+                 temporary,
+                 PATCH_FILE_TAG,
+                 PATCH_END_TAG,
+                 Version.of(1, 0, 0))) {
+          writer.writeSection(PATCH_LAYOUT_TAG, layout.flip());
+          for (final var section : sent) {
+            try (final var channel = reader.rawDataChannel(section)) {
+              writer.copySection(PATCH_DATA_TAG, channel);
+            }
+          }
+        }
+      });
+
+      return statistics
+        .setSectionsReused(sectionsReused)
+        .setSectionsSent(sent.size())
+        .setBytesReused(bytesReused)
+        .setBytesSent(bytesSent)
+        .build();
+    }
+  }
+
+  /**
+   * Rebuild a target file by applying a patch to a base file.
+   *
+   * @param base   The base file
+   * @param patch  The patch file
+   * @param output The output file, which must differ from the base file
+   *               and the patch file
+   *
+   * @throws EoException On errors
+   */
+
+  public void applyPatch(
+    final Path base,
+    final Path patch,
+    final Path output)
+    throws EoException
+  {
+    Objects.requireNonNull(base, "base");
+    Objects.requireNonNull(patch, "patch");
+    Objects.requireNonNull(output, "output");
+
+    EoOutputFiles.checkNotInput(output, List.of(base, patch));
+
+    try (final var patchReader =
+           this.patchReaders.forFile(
+             PATCH_FILE_TAG, PATCH_END_TAG, patch, null)) {
+      final var patchSections = new ArrayList<>(patchReader.sections());
+      patchSections.removeLast();
+
+      if (patchSections.isEmpty()
+          || patchSections.getFirst().tag() != PATCH_LAYOUT_TAG) {
+        throw errorPatch(patch, "The patch does not begin with a layout.");
+      }
+
+      final var layout = readLayout(patchReader, patchSections.getFirst());
+      final var data = patchSections.subList(1, patchSections.size());
+
+      final var fileTag = layout.getLong();
+      final var endTag = layout.getLong();
+      final var major = layout.getInt();
+      final var minor = layout.getInt();
+      final var layoutAlignment = layout.getInt();
+      final var count = layout.getInt();
+
+      if (layout.remaining() != (long) count * LAYOUT_ENTRY_SIZE) {
+        throw errorPatch(patch, "The patch layout is truncated.");
+      }
+      if (major < 0 || minor < 0) {
+        throw errorPatch(patch, "The patch declares an invalid version.");
+      }
+      if (!EoAlignment.isValid(layoutAlignment)) {
+        throw errorPatch(patch, "The patch declares an invalid alignment.");
+      }
+
+      final var baseReaders =
+        new EoFileReadersUnchecked(
+          new BSSReaders(),
+          EoMetricsType.none(),
+          layoutAlignment
+        );
+
+      try (final var baseReader =
+             baseReaders.forFile(fileTag, endTag, base, null);
+           final var writer =
+             this.writers.forFileAligned(
+               output,
+               fileTag,
+               endTag,
+               Version.of(major, minor, 0),
+               layoutAlignment)) {
+
+        final var baseSections = new HashMap<Long, EoFileSection>();
+        for (final var section : baseReader.sections()) {
+          baseSections.put(Long.valueOf(section.offset()), section);
+        }
+
+        for (int index = 0; index < count; ++index) {
+          final var tag = layout.getLong();
+          final var kind = layout.getLong();
+          final var reference = layout.getLong();
+          final var size = layout.getLong();
+
+          final EoFileReaderType source;
+          final EoFileSection section;
+          if (kind == ENTRY_COPY) {
+            source = baseReader;
+            section = baseSections.get(Long.valueOf(reference));
+          } else if (kind == ENTRY_DATA
+                     && reference >= 0L
+                     && reference < data.size()) {
+            source = patchReader;
+            section = data.get((int) reference);
+          } else {
+            throw errorPatch(patch, "The patch layout is malformed.");
+          }
+
+          if (section == null || section.dataSize() != size) {
+            throw errorPatch(
+              patch,
+              "The patch refers to a section that does not exist."
+            );
+          }
+
+          try (final var channel = source.rawDataChannel(section)) {
+            writer.copySection(tag, channel);
+          }
+        }
+      }
+    } catch (final IOException e) {
+      throw EoException.wrap(e);
+    }
+  }
+
+  private static ByteBuffer readLayout(
+    final EoFileReaderType reader,
+    final EoFileSection section)
+    throws EoException
+  {
+    try (final var channel = reader.rawDataChannel(section)) {
+      final var buffer =
+        ByteBuffer.allocate(Math.toIntExact(section.dataSize()));
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer) == -1) {
+          break;
+        }
+      }
+      if (buffer.position() < LAYOUT_HEADER_SIZE) {
+        throw new IOException("The patch layout is truncated.");
+      }
+      return buffer.flip();
+    } catch (final IOException | ArithmeticException e) {
+      throw EoException.wrap(e);
+    }
+  }
+
+  private static EoException errorPatch(
+    final Path patch,
+    final String message)
+  {
+    return new EoException(
+      message,
+      "error-patch-malformed",
+      Map.of("File", patch.toString()),
+      Optional.empty()
+    );
+  }
+
+  /**
+   * Bring every file in a replica directory up to date with the
+   * corresponding file in a source directory. Files missing from the
+   * replica are copied in full; existing files are patched. Copied and
+   * rebuilt files are written to temporary files that atomically replace
+   * the old copy, so an interrupted sync never leaves a partial file in the
+   * replica. This stands in for
+   * replication between hosts, where the signature and patch would be
+   * exchanged over the network.
+   *
+   * @param source  The source directory
+   * @param replica The replica directory
+   * @param fileTag The file tag
+   * @param endTag  The end tag
+   *
+   * @return The statistics of each patched file, by relative path
+   *
+   * @throws EoException On errors
+   */
+
+  public Map<Path, EoPatchStatistics> syncDirectory(
+    final Path source,
+    final Path replica,
+    final long fileTag,
+    final long endTag)
+    throws EoException
+  {
+    Objects.requireNonNull(source, "source");
+    Objects.requireNonNull(replica, "replica");
+
+    final var results = new HashMap<Path, EoPatchStatistics>();
+    try (final Stream<Path> stream = Files.walk(source)) {
+      final var files = stream.filter(Files::isRegularFile).toList();
+      for (final var file : files) {
+        final var relative = source.relativize(file);
+        final var existing = replica.resolve(relative);
+        Files.createDirectories(existing.toAbsolutePath().getParent());
+
+        if (!Files.isRegularFile(existing)) {
+          EoOutputFiles.replace(
+            existing,
+            t -> Files.copy(file, t, REPLACE_EXISTING)
+          );
+          continue;
+        }
+
+        final var patch =
+          Files.createTempFile(existing.getParent(), "patch", ".tmp");
+        final var rebuilt =
+          Files.createTempFile(existing.getParent(), "rebuilt", ".tmp");
+
+        try {
+          final var statistics =
+            this.createPatch(
+              this.signature(existing, fileTag, endTag),
+              file,
+              fileTag,
+              endTag,
+              patch
+            );
+          this.applyPatch(existing, patch, rebuilt);
+          Files.move(rebuilt, existing, ATOMIC_MOVE, REPLACE_EXISTING);
+          results.put(relative, statistics);
+        } finally {
+          Files.deleteIfExists(patch);
+          Files.deleteIfExists(rebuilt);
+        }
+      }
+    } catch (final IOException e) {
+      throw EoException.wrap(e);
+    }
+    return Map.copyOf(results);
+  }
+}
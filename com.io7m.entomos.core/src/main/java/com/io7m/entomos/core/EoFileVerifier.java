@@ -0,0 +1,359 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * A verifier of entire files. The file is opened once and validated with
+ * a checked reader, and the stored data of every section is then digested
+ * concurrently on an executor using positional reads of the channel
+ * underlying that reader. Digests are compared against expected digests
+ * supplied by the caller, keyed by section offset, or, for
+ * {@link EoDigestAlgorithm#CRC32C}, against the checksum section of the
+ * file if the format against which the reader validated the file declares
+ * one. In the latter case, a section that has no entry in the checksum
+ * section is reported as {@link EoVerificationStatus#MISSING}. If
+ * digesting any section fails, the remaining sections are abandoned.
+ */
+
+public final class EoFileVerifier
+{
+  private static final int BUFFER_SIZE = 262144;
+
+  private final EoFileReadersChecked readers;
+  private final Executor executor;
+
+  /**
+   * A verifier of entire files.
+   *
+   * @param inReaders  The checked readers used to validate files
+   * @param inExecutor The executor on which sections are digested
+   */
+
+  public EoFileVerifier(
+    final EoFileReadersChecked inReaders,
+    final Executor inExecutor)
+  {
+    this.readers =
+      Objects.requireNonNull(inReaders, "readers");
+    this.executor =
+      Objects.requireNonNull(inExecutor, "executor");
+  }
+
+  /**
+   * A verifier of entire files that digests sections on the common
+   * fork-join pool.
+   */
+
+  public EoFileVerifier()
+  {
+    this(new EoFileReadersChecked(), ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Verify a file, comparing digests against the file's checksum section
+   * where possible.
+   *
+   * @param file      The file
+   * @param fileTag   The file tag
+   * @param endTag    The end tag
+   * @param formats   The supported file formats
+   * @param algorithm The digest algorithm
+   *
+   * @return A verification report
+   *
+   * @throws EoException If the file cannot be read or is structurally invalid
+   */
+
+  public EoVerificationReport verify(
+    final Path file,
+    final long fileTag,
+    final long endTag,
+    final EoFileVersionsDescription formats,
+    final EoDigestAlgorithm algorithm)
+    throws EoException
+  {
+    return this.verify(file, fileTag, endTag, formats, algorithm, Map.of());
+  }
+
+  /**
+   * Verify a file.
+   *
+   * @param file      The file
+   * @param fileTag   The file tag
+   * @param endTag    The end tag
+   * @param formats   The supported file formats
+   * @param algorithm The digest algorithm
+   * @param expected  The expected digests as hexadecimal, by section offset
+   *
+   * @return A verification report
+   *
+   * @throws EoException If the file cannot be read or is structurally invalid
+   */
+
+  public EoVerificationReport verify(
+    final Path file,
+    final long fileTag,
+    final long endTag,
+    final EoFileVersionsDescription formats,
+    final EoDigestAlgorithm algorithm,
+    final Map<Long, String> expected)
+    throws EoException
+  {
+    Objects.requireNonNull(file, "file");
+    Objects.requireNonNull(formats, "formats");
+    Objects.requireNonNull(algorithm, "algorithm");
+    Objects.requireNonNull(expected, "expected");
+
+    final FileChannel channel;
+    try {
+      channel = FileChannel.open(file);
+    } catch (final IOException e) {
+      throw EoException.wrap(e);
+    }
+
+    try (channel;
+         final var reader =
+           this.readers.forChannel(
+             file.toUri(), fileTag, endTag, channel, formats)) {
+      final var sections = new ArrayList<>(reader.sections());
+      sections.removeLast();
+
+      final var checksums =
+        algorithm == EoDigestAlgorithm.CRC32C
+          ? loadChecksums(
+          channel, sections, EoFileReadersChecked.formatOf(reader))
+          : Optional.<Checksums>empty();
+
+      return this.digestAll(
+        file, channel, sections, algorithm, expected, checksums);
+    } catch (final IOException e) {
+      throw EoException.wrap(e);
+    }
+  }
+
+  private EoVerificationReport digestAll(
+    final Path file,
+    final FileChannel channel,
+    final ArrayList<EoFileSection> sections,
+    final EoDigestAlgorithm algorithm,
+    final Map<Long, String> expected,
+    final Optional<Checksums> checksums)
+    throws EoException
+  {
+    final var timeThen = System.nanoTime();
+    final var cancelled = new AtomicBoolean(false);
+    final var futures =
+      new ArrayList<CompletableFuture<EoSectionDigest>>(sections.size());
+
+    try {
+      for (final var section : sections) {
+        final var key = Long.valueOf(section.offset());
+        var expectedDigest = Optional.ofNullable(expected.get(key));
+        var expectedRequired = false;
+        if (expectedDigest.isEmpty() && checksums.isPresent()) {
+          final var table = checksums.get();
+          if (section.tag() != table.tag()) {
+            expectedRequired = true;
+            expectedDigest = Optional.ofNullable(table.values().get(key))
+              .map(x -> HexFormat.of().toHexDigits(x.intValue()));
+          }
+        }
+
+        final var expectedFinal = expectedDigest;
+        final var requiredFinal = expectedRequired;
+        final var future = CompletableFuture.supplyAsync(
+          () -> EoSectionDigest.builder()
+            .setSection(section)
+            .setAlgorithm(algorithm)
+            .setDigest(digest(channel, section, algorithm, cancelled))
+            .setExpected(expectedFinal.map(x -> x.toLowerCase(Locale.ROOT)))
+            .setExpectedRequired(requiredFinal)
+            .build(),
+          this.executor
+        );
+
+        /*
+         * Tell the remaining tasks to give up as soon as any task fails,
+         * rather than when the failed task's result is eventually joined.
+         */
+
+        future.whenComplete((r, x) -> {
+          if (x != null) {
+            cancelled.set(true);
+          }
+        });
+        futures.add(future);
+      }
+
+      final var results = new ArrayList<EoSectionDigest>(futures.size());
+      long bytes = 0L;
+      for (final var future : futures) {
+        final var result = future.join();
+        bytes += result.section().dataSize();
+        results.add(result);
+      }
+
+      return EoVerificationReport.builder()
+        .setFile(file.toUri())
+        .setAlgorithm(algorithm)
+        .setSections(results)
+        .setBytes(bytes)
+        .setElapsed(Duration.ofNanos(System.nanoTime() - timeThen))
+        .build();
+    } catch (final CompletionException e) {
+      if (e.getCause() instanceof final UncheckedIOException x) {
+        throw EoException.wrap(x.getCause());
+      }
+      throw EoException.wrap(e.getCause());
+    } finally {
+
+      /*
+       * Tell any remaining tasks to give up, and wait for all of them to
+       * finish before the caller closes the shared channel. The futures
+       * themselves are not cancelled, as a cancelled future whose task has
+       * not yet started would be abandoned rather than run, and could not
+       * be waited for.
+       */
+
+      cancelled.set(true);
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+        .handle((r, x) -> null)
+        .join();
+    }
+  }
+
+  private record Checksums(
+    long tag,
+    Map<Long, Integer> values)
+  {
+
+  }
+
+  private static Optional<Checksums> loadChecksums(
+    final FileChannel channel,
+    final ArrayList<EoFileSection> sections,
+    final Optional<EoFileDescription> format)
+    throws IOException
+  {
+    final var checksumTag =
+      format.map(EoFileDescription::checksumTag);
+    if (checksumTag.isEmpty() || checksumTag.get().isEmpty()) {
+      return Optional.empty();
+    }
+
+    final var tag = checksumTag.get().getAsLong();
+    for (final var section : sections) {
+      if (section.tag() == tag) {
+        final var data =
+          ByteBuffer.allocate(Math.toIntExact(section.dataSize()));
+        readFully(channel, section.dataOffset(), data);
+        return Optional.of(new Checksums(tag, EoChecksums.parse(data.flip())));
+      }
+    }
+    return Optional.empty();
+  }
+
+  private static void readFully(
+    final FileChannel channel,
+    final long offset,
+    final ByteBuffer data)
+    throws IOException
+  {
+    var position = offset;
+    while (data.hasRemaining()) {
+      final var count = channel.read(data, position);
+      if (count < 0) {
+        throw new IOException("Unexpected end of file.");
+      }
+      position += count;
+    }
+  }
+
+  private static String digest(
+    final FileChannel channel,
+    final EoFileSection section,
+    final EoDigestAlgorithm algorithm,
+    final AtomicBoolean cancelled)
+  {
+    final var buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    try {
+      return switch (algorithm) {
+        case CRC32C -> {
+          final var crc = new CRC32C();
+          digestRange(channel, section, buffer, cancelled, crc::update);
+          yield HexFormat.of().toHexDigits((int) crc.getValue());
+        }
+        case SHA_256 -> {
+          final var digest = MessageDigest.getInstance("SHA-256");
+          digestRange(channel, section, buffer, cancelled, digest::update);
+          yield HexFormat.of().formatHex(digest.digest());
+        }
+      };
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void digestRange(
+    final FileChannel channel,
+    final EoFileSection section,
+    final ByteBuffer buffer,
+    final AtomicBoolean cancelled,
+    final Consumer<ByteBuffer> consumer)
+    throws IOException
+  {
+    var position = section.dataOffset();
+    final var end = position + section.dataSize();
+    while (position < end) {
+      if (cancelled.get()) {
+        throw new CancellationException();
+      }
+      buffer.clear();
+      buffer.limit((int) Math.min(buffer.capacity(), end - position));
+      readFully(channel, position, buffer);
+      position += buffer.position();
+      consumer.accept(buffer.flip());
+    }
+  }
+}
@@ -57,6 +57,16 @@ public interface EoFileVersionsDescriptionType
     return Collections.unmodifiableNavigableMap(m);
   }
 
+  /**
+   * @return The alignment of section data shared by all versions
+   */
+
+  @Value.Lazy
+  default int alignment()
+  {
+    return this.descriptions().get(0).alignment();
+  }
+
   /**
    * Check preconditions for the type.
    */
@@ -106,5 +116,17 @@ public interface EoFileVersionsDescriptionType
         "All file format versions must use the same end tag."
       );
     }
+
+    final var alignments =
+      descriptions
+        .stream()
+        .map(EoFileDescription::alignment)
+        .collect(Collectors.toUnmodifiableSet());
+
+    if (alignments.size() != 1) {
+      throw new IllegalArgumentException(
+        "All file format versions must use the same alignment."
+      );
+    }
   }
 }
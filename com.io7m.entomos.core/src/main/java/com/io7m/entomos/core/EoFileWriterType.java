@@ -0,0 +1,158 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * A file writer. Sections are written one at a time, in the order in which
+ * they are to appear in the file. Closing the writer writes the end
+ * section.
+ */
+
+public interface EoFileWriterType
+  extends AutoCloseable
+{
+  /**
+   * @return The URI of the file, for diagnostic purposes
+   */
+
+  URI uri();
+
+  /**
+   * @return The offset within the file at which the next section will be
+   * written
+   */
+
+  long position();
+
+  /**
+   * Determine the encoding that will be applied to sections with the given
+   * tag. Writers that are not given a file description do not encode any
+   * sections.
+   *
+   * @param tag The section tag
+   *
+   * @return The section encoding
+   */
+
+  EoSectionEncoding encodingOf(
+    long tag);
+
+  /**
+   * Begin a new section. Data written to the returned channel becomes the
+   * data of the section, and closing the channel completes the section.
+   * Only one section may be open at any given time. The data is encoded
+   * according to the {@link #encodingOf(long) encoding} of the tag.
+   *
+   * @param tag The section tag
+   *
+   * @return A channel for the section data
+   *
+   * @throws EoException On errors
+   */
+
+  WritableByteChannel createSection(
+    long tag)
+    throws EoException;
+
+  /**
+   * Write a section containing the remaining bytes of the given buffer.
+   * The data is encoded according to the {@link #encodingOf(long) encoding}
+   * of the tag.
+   *
+   * @param tag  The section tag
+   * @param data The section data
+   *
+   * @throws EoException On errors
+   */
+
+  void writeSection(
+    long tag,
+    ByteBuffer data)
+    throws EoException;
+
+  /**
+   * Write a section containing the entire contents of the given channel.
+   * If the channel is a section data channel produced by a reader over a
+   * {@link java.nio.channels.FileChannel}, the data is transferred without
+   * being copied through the Java heap. The data is written exactly as
+   * given, and so must already be encoded according to the
+   * {@link #encodingOf(long) encoding} of the tag.
+   *
+   * @param tag    The section tag
+   * @param source The source channel
+   *
+   * @throws EoException On errors
+   */
+
+  void copySection(
+    long tag,
+    SeekableByteChannel source)
+    throws EoException;
+
+  /**
+   * Copy a section from the given reader. If the reader and this writer
+   * agree on the encoding of the section, the stored data is copied
+   * without being decoded. Otherwise, the section is decoded by the reader
+   * and encoded again by this writer.
+   *
+   * @param reader  The reader
+   * @param section The section
+   *
+   * @throws EoException On errors
+   */
+
+  default void copySection(
+    final EoFileReaderType reader,
+    final EoFileSection section)
+    throws EoException
+  {
+    final var tag = section.tag();
+    if (reader.encodingOf(section) == this.encodingOf(tag)) {
+      try (final var channel = reader.rawDataChannel(section)) {
+        this.copySection(tag, channel);
+      } catch (final IOException e) {
+        throw EoException.wrap(e);
+      }
+      return;
+    }
+
+    try (final var channel = reader.dataChannel(section);
+         final var output = this.createSection(tag)) {
+      final var buffer = ByteBuffer.allocate(65536);
+      while (channel.read(buffer) != -1) {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+          output.write(buffer);
+        }
+        buffer.clear();
+      }
+    } catch (final IOException e) {
+      throw EoException.wrap(e);
+    }
+  }
+
+  @Override
+  void close()
+    throws EoException;
+}
@@ -0,0 +1,952 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import com.io7m.jaffirm.core.Preconditions;
+import com.io7m.verona.core.Version;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.zip.CRC32C;
+import java.util.zip.Deflater;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * A supplier of file writers. The writers do not check the sections
+ * written against any file description; files written should be opened
+ * with a checked reader if validation is required. Writers opened with a
+ * file description encode sections according to the encodings declared in
+ * the description, and write a checksum section if the description
+ * declares one. Checksums are calculated by reading back the data of each
+ * section once it is complete, and so channels given to such writers must
+ * also be readable.
+ */
+
+public final class EoFileWriters
+{
+  private static final int COPY_BUFFER_SIZE = 65536;
+
+  /**
+   * A supplier of file writers.
+   */
+
+  public EoFileWriters()
+  {
+
+  }
+
+  /**
+   * Open a writer for the given channel. Section data is aligned to 16
+   * bytes. The file header is written immediately at the start of the
+   * channel.
+   *
+   * @param uri     The URI for diagnostic purposes
+   * @param fileTag The file tag
+   * @param endTag  The end tag
+   * @param version The file format version
+   * @param channel The channel
+   *
+   * @return A writer
+   *
+   * @throws EoException On errors
+   */
+
+  public EoFileWriterType forChannel(
+    final URI uri,
+    final long fileTag,
+    final long endTag,
+    final Version version,
+    final SeekableByteChannel channel)
+    throws EoException
+  {
+    return this.open(
+      uri,
+      fileTag,
+      endTag,
+      version,
+      EoAlignment.ALIGNMENT_DEFAULT,
+      Map.of(),
+      OptionalLong.empty(),
+      channel
+    );
+  }
+
+  /**
+   * Open a writer for the given channel. The file tag, end tag, version,
+   * and section alignment are taken from the given file description. The
+   * file header is written immediately at the start of the channel.
+   *
+   * @param uri         The URI for diagnostic purposes
+   * @param description The file description
+   * @param channel     The channel
+   *
+   * @return A writer
+   *
+   * @throws EoException On errors
+   */
+
+  public EoFileWriterType forChannel(
+    final URI uri,
+    final EoFileDescription description,
+    final SeekableByteChannel channel)
+    throws EoException
+  {
+    Objects.requireNonNull(description, "description");
+
+    return this.open(
+      uri,
+      description.fileTag(),
+      description.endTag(),
+      Version.of(description.versionMajor(), description.versionMinor(), 0),
+      description.alignment(),
+      EoSectionEncodings.encodedSections(Optional.of(description)),
+      description.checksumTag(),
+      channel
+    );
+  }
+
+  /**
+   * Open a writer for the given file with the given section alignment.
+   *
+   * @param file      The file
+   * @param fileTag   The file tag
+   * @param endTag    The end tag
+   * @param version   The file format version
+   * @param alignment The section alignment
+   *
+   * @return A writer
+   *
+   * @throws EoException On errors
+   */
+
+  EoFileWriterType forFileAligned(
+    final Path file,
+    final long fileTag,
+    final long endTag,
+    final Version version,
+    final int alignment)
+    throws EoException
+  {
+    try {
+      return this.open(
+        file.toUri(),
+        fileTag,
+        endTag,
+        version,
+        alignment,
+        Map.of(),
+        OptionalLong.empty(),
+        FileChannel.open(file, CREATE, TRUNCATE_EXISTING, WRITE, READ)
+      );
+    } catch (final IOException e) {
+      throw EoException.wrap(e);
+    }
+  }
+
+  private EoFileWriterType open(
+    final URI uri,
+    final long fileTag,
+    final long endTag,
+    final Version version,
+    final int alignment,
+    final Map<Long, EoFileSectionDescription> encoded,
+    final OptionalLong checksumTag,
+    final SeekableByteChannel channel)
+    throws EoException
+  {
+    Objects.requireNonNull(uri, "uri");
+    Objects.requireNonNull(version, "version");
+    Objects.requireNonNull(channel, "channel");
+
+    Preconditions.checkPrecondition(
+      fileTag != endTag,
+      "File tag cannot equal end tag"
+    );
+
+    final var writer =
+      new EoFileWriter(
+        uri,
+        fileTag,
+        endTag,
+        alignment,
+        encoded,
+        checksumTag,
+        channel
+      );
+
+    try {
+      writer.start(version);
+      return writer;
+    } catch (final IOException e) {
+      try {
+        channel.close();
+      } catch (final IOException x) {
+        e.addSuppressed(x);
+      }
+      throw EoException.wrap(e);
+    }
+  }
+
+  /**
+   * Open a writer for the given file. The file is created if it does not
+   * exist, and truncated if it does.
+   *
+   * @param file    The file
+   * @param fileTag The file tag
+   * @param endTag  The end tag
+   * @param version The file format version
+   *
+   * @return A writer
+   *
+   * @throws EoException On errors
+   */
+
+  public EoFileWriterType forFile(
+    final Path file,
+    final long fileTag,
+    final long endTag,
+    final Version version)
+    throws EoException
+  {
+    try {
+      return this.forChannel(
+        file.toUri(),
+        fileTag,
+        endTag,
+        version,
+        FileChannel.open(file, CREATE, TRUNCATE_EXISTING, WRITE, READ)
+      );
+    } catch (final IOException e) {
+      throw EoException.wrap(e);
+    }
+  }
+
+  /**
+   * Open a writer for the given file. The file tag, end tag, version,
+   * and section alignment are taken from the given file description. The
+   * file is created if it does not exist, and truncated if it does.
+   *
+   * @param file        The file
+   * @param description The file description
+   *
+   * @return A writer
+   *
+   * @throws EoException On errors
+   */
+
+  public EoFileWriterType forFile(
+    final Path file,
+    final EoFileDescription description)
+    throws EoException
+  {
+    try {
+      return this.forChannel(
+        file.toUri(),
+        description,
+        FileChannel.open(file, CREATE, TRUNCATE_EXISTING, WRITE, READ)
+      );
+    } catch (final IOException e) {
+      throw EoException.wrap(e);
+    }
+  }
+
+  private static final class EoFileWriter
+    implements EoFileWriterType
+  {
+    private final URI uri;
+    private final long fileTag;
+    private final long endTag;
+    private final int alignment;
+    private final Map<Long, EoFileSectionDescription> encoded;
+    private final OptionalLong checksumTag;
+    private final LinkedHashMap<Long, Integer> checksums;
+    private final SeekableByteChannel channel;
+    private final ByteBuffer header;
+    private Deflater deflater;
+    private SectionChannel section;
+    private long position;
+    private boolean closed;
+
+    EoFileWriter(
+      final URI inUri,
+      final long inFileTag,
+      final long inEndTag,
+      final int inAlignment,
+      final Map<Long, EoFileSectionDescription> inEncoded,
+      final OptionalLong inChecksumTag,
+      final SeekableByteChannel inChannel)
+    {
+      this.uri =
+        Objects.requireNonNull(inUri, "uri");
+      this.fileTag =
+        inFileTag;
+      this.endTag =
+        inEndTag;
+      this.alignment =
+        inAlignment;
+      this.encoded =
+        Objects.requireNonNull(inEncoded, "encoded");
+      this.checksumTag =
+        Objects.requireNonNull(inChecksumTag, "checksumTag");
+      this.checksums =
+        new LinkedHashMap<>();
+      this.channel =
+        Objects.requireNonNull(inChannel, "channel");
+      this.header =
+        ByteBuffer.allocate(16);
+    }
+
+    void start(
+      final Version version)
+      throws IOException
+    {
+      this.header.clear();
+      this.header.putLong(this.fileTag);
+      this.header.putInt(version.major());
+      this.header.putInt(version.minor());
+      this.header.flip();
+      this.writeFully(0L, this.header);
+      this.position = this.padTo(16L);
+    }
+
+    private long padTo(
+      final long end)
+      throws IOException
+    {
+      final var next =
+        EoAlignment.nextSectionOffset(end, this.alignment);
+
+      if (next != end) {
+        this.writeFully(end, ByteBuffer.allocate((int) (next - end)));
+      }
+      return next;
+    }
+
+    private void writeFully(
+      final long offset,
+      final ByteBuffer data)
+      throws IOException
+    {
+      this.channel.position(offset);
+      while (data.hasRemaining()) {
+        this.channel.write(data);
+      }
+    }
+
+    private void writeSectionHeader(
+      final long offset,
+      final long tag,
+      final long size)
+      throws IOException
+    {
+      this.header.clear();
+      this.header.putLong(tag);
+      this.header.putLong(size);
+      this.header.flip();
+      this.writeFully(offset, this.header);
+    }
+
+    @Override
+    public URI uri()
+    {
+      return this.uri;
+    }
+
+    @Override
+    public long position()
+    {
+      return this.position;
+    }
+
+    @Override
+    public EoSectionEncoding encodingOf(
+      final long tag)
+    {
+      final var description = this.encoded.get(Long.valueOf(tag));
+      if (description == null) {
+        return EoSectionEncoding.RAW;
+      }
+      return description.encoding();
+    }
+
+    @Override
+    public WritableByteChannel createSection(
+      final long tag)
+      throws EoException
+    {
+      final var stored = this.beginSection(tag);
+      try {
+        return switch (this.encodingOf(tag)) {
+          case RAW -> stored;
+          case DEFLATE -> new DeflatingChannel(stored, this.deflater());
+          case DEFLATE_CHUNKED -> new ChunkedDeflatingChannel(
+            stored,
+            this.deflater(),
+            this.encoded.get(Long.valueOf(tag)).chunkSize()
+          );
+        };
+      } catch (final IOException e) {
+        this.section = null;
+        throw EoException.wrap(e);
+      }
+    }
+
+    private Deflater deflater()
+    {
+      if (this.deflater == null) {
+        this.deflater = new Deflater();
+      }
+      this.deflater.reset();
+      return this.deflater;
+    }
+
+    private SectionChannel beginSection(
+      final long tag)
+      throws EoException
+    {
+      this.checkWritable();
+
+      Preconditions.checkPrecondition(
+        tag != this.endTag,
+        "The end section is written by the writer"
+      );
+      Preconditions.checkPrecondition(
+        this.checksumTag.isEmpty() || tag != this.checksumTag.getAsLong(),
+        "The checksum section is written by the writer"
+      );
+
+      return this.openSection(tag);
+    }
+
+    private SectionChannel openSection(
+      final long tag)
+      throws EoException
+    {
+      try {
+        this.writeSectionHeader(this.position, tag, 0L);
+      } catch (final IOException e) {
+        throw EoException.wrap(e);
+      }
+
+      this.section = new SectionChannel(this.position);
+      return this.section;
+    }
+
+    @Override
+    public void writeSection(
+      final long tag,
+      final ByteBuffer data)
+      throws EoException
+    {
+      Objects.requireNonNull(data, "data");
+
+      try (final var output = this.createSection(tag)) {
+        while (data.hasRemaining()) {
+          output.write(data);
+        }
+      } catch (final IOException e) {
+        throw EoException.wrap(e);
+      }
+    }
+
+    @Override
+    public void copySection(
+      final long tag,
+      final SeekableByteChannel source)
+      throws EoException
+    {
+      Objects.requireNonNull(source, "source");
+
+      try (final var output = this.beginSection(tag)) {
+        final var expected = source.size();
+        source.position(0L);
+
+        long copied = 0L;
+        if (EoFileChannelSubrange.unwrap(source)
+              instanceof final EoFileChannelSubrange subrange) {
+          copied = output.transferFrom(subrange);
+        } else {
+          final var buffer = ByteBuffer.allocate(COPY_BUFFER_SIZE);
+          while (source.read(buffer) != -1) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+              copied += output.write(buffer);
+            }
+            buffer.clear();
+          }
+        }
+
+        if (copied != expected) {
+          throw this.errorCopyShort(tag, output.offset, expected, copied);
+        }
+      } catch (final IOException e) {
+        throw EoException.wrap(e);
+      }
+    }
+
+    private void checkWritable()
+      throws EoException
+    {
+      if (this.closed) {
+        throw this.error("Writer is closed.", "error-writer-closed");
+      }
+      if (this.section != null) {
+        throw this.error(
+          "A section is already being written.",
+          "error-writer-section-open"
+        );
+      }
+    }
+
+    private EoException errorCopyShort(
+      final long tag,
+      final long offset,
+      final long expected,
+      final long copied)
+    {
+      return new EoException(
+        "The source channel provided fewer bytes than its declared size.",
+        "error-section-copy-short",
+        Map.ofEntries(
+          Map.entry("File", this.uri.toString()),
+          Map.entry("Tag", "0x" + Long.toUnsignedString(tag, 16)),
+          Map.entry("Offset", "0x" + Long.toUnsignedString(offset, 16)),
+          Map.entry("Size", Long.toUnsignedString(expected)),
+          Map.entry("Copied", Long.toUnsignedString(copied))
+        ),
+        Optional.empty()
+      );
+    }
+
+    private EoException error(
+      final String message,
+      final String errorCode)
+    {
+      return new EoException(
+        message,
+        errorCode,
+        Map.of("File", this.uri.toString()),
+        Optional.empty()
+      );
+    }
+
+    @Override
+    public void close()
+      throws EoException
+    {
+      if (this.closed) {
+        return;
+      }
+
+      try {
+        if (this.section != null) {
+          throw this.error(
+            "A section is still being written.",
+            "error-writer-section-open"
+          );
+        }
+        if (this.checksumTag.isPresent()) {
+          this.writeChecksums(this.checksumTag.getAsLong());
+        }
+        this.writeSectionHeader(this.position, this.endTag, 0L);
+        this.position += 16L;
+        this.channel.truncate(this.position);
+      } catch (final IOException e) {
+        throw EoException.wrap(e);
+      } finally {
+        this.closed = true;
+        if (this.deflater != null) {
+          this.deflater.end();
+        }
+        try {
+          this.channel.close();
+        } catch (final IOException e) {
+          throw EoException.wrap(e);
+        }
+      }
+    }
+
+    private void writeChecksums(
+      final long tag)
+      throws IOException, EoException
+    {
+      final var data = EoChecksums.serialize(this.checksums);
+      try (final var output = this.openSection(tag)) {
+        while (data.hasRemaining()) {
+          output.write(data);
+        }
+      }
+    }
+
+    private int checksumOf(
+      final long offset,
+      final long size)
+      throws IOException
+    {
+      final var crc = new CRC32C();
+      final var buffer = ByteBuffer.allocate(COPY_BUFFER_SIZE);
+      var position = offset;
+      final var end = offset + size;
+      while (position < end) {
+        buffer.clear();
+        buffer.limit((int) Math.min(buffer.capacity(), end - position));
+        this.channel.position(position);
+        final var count = this.channel.read(buffer);
+        if (count < 0) {
+          throw new IOException("Unexpected end of section data.");
+        }
+        crc.update(buffer.flip());
+        position += count;
+      }
+      return (int) crc.getValue();
+    }
+
+    private final class SectionChannel
+      implements WritableByteChannel
+    {
+      private final long offset;
+      private long written;
+      private boolean open;
+
+      SectionChannel(
+        final long inOffset)
+      {
+        this.offset = inOffset;
+        this.open = true;
+      }
+
+      @Override
+      public int write(
+        final ByteBuffer src)
+        throws IOException
+      {
+        if (!this.open) {
+          throw new ClosedChannelException();
+        }
+
+        final var channel = EoFileWriter.this.channel;
+        channel.position(this.offset + 16L + this.written);
+        final var count = channel.write(src);
+        this.written += count;
+        return count;
+      }
+
+      void patch(
+        final long position,
+        final ByteBuffer data)
+        throws IOException
+      {
+        EoFileWriter.this.writeFully(this.offset + 16L + position, data);
+      }
+
+      long transferFrom(
+        final EoFileChannelSubrange source)
+        throws IOException
+      {
+        final var channel = EoFileWriter.this.channel;
+        channel.position(this.offset + 16L + this.written);
+        final var count = source.transferTo(channel);
+        this.written += count;
+        return count;
+      }
+
+      @Override
+      public boolean isOpen()
+      {
+        return this.open;
+      }
+
+      @Override
+      public void close()
+        throws IOException
+      {
+        if (!this.open) {
+          return;
+        }
+
+        this.open = false;
+        EoFileWriter.this.section = null;
+
+        final var aligned =
+          EoFileWriter.this.padTo(this.offset + 16L + this.written);
+
+        if (EoFileWriter.this.checksumTag.isPresent()) {
+          EoFileWriter.this.checksums.put(
+            Long.valueOf(this.offset),
+            Integer.valueOf(
+              EoFileWriter.this.checksumOf(this.offset + 16L, this.written))
+          );
+        }
+
+        EoFileWriter.this.header.clear();
+        EoFileWriter.this.header.putLong(this.written);
+        EoFileWriter.this.header.flip();
+        EoFileWriter.this.header.limit(8);
+        EoFileWriter.this.writeFully(
+          this.offset + 8L,
+          EoFileWriter.this.header
+        );
+        EoFileWriter.this.position = aligned;
+      }
+    }
+
+    /**
+     * A channel that compresses data written to it into a section stored
+     * with the {@link EoSectionEncoding#DEFLATE} encoding.
+     */
+
+    private static final class DeflatingChannel
+      implements WritableByteChannel
+    {
+      private final SectionChannel stored;
+      private final Deflater deflater;
+      private final ByteBuffer output;
+      private long uncompressed;
+
+      DeflatingChannel(
+        final SectionChannel inStored,
+        final Deflater inDeflater)
+        throws IOException
+      {
+        this.stored =
+          Objects.requireNonNull(inStored, "stored");
+        this.deflater =
+          Objects.requireNonNull(inDeflater, "deflater");
+        this.output =
+          ByteBuffer.allocate(COPY_BUFFER_SIZE);
+
+        /*
+         * Reserve space for the uncompressed size, which is written when
+         * the channel is closed.
+         */
+
+        final var size = ByteBuffer.allocate(8);
+        while (size.hasRemaining()) {
+          this.stored.write(size);
+        }
+      }
+
+      @Override
+      public int write(
+        final ByteBuffer src)
+        throws IOException
+      {
+        if (!this.stored.isOpen()) {
+          throw new ClosedChannelException();
+        }
+
+        final var count = src.remaining();
+        this.deflater.setInput(src);
+        while (!this.deflater.needsInput()) {
+          this.drain();
+        }
+        this.uncompressed += count;
+        return count;
+      }
+
+      private void drain()
+        throws IOException
+      {
+        this.output.clear();
+        this.deflater.deflate(this.output);
+        this.output.flip();
+        while (this.output.hasRemaining()) {
+          this.stored.write(this.output);
+        }
+      }
+
+      @Override
+      public boolean isOpen()
+      {
+        return this.stored.isOpen();
+      }
+
+      @Override
+      public void close()
+        throws IOException
+      {
+        if (!this.stored.isOpen()) {
+          return;
+        }
+
+        try {
+          this.deflater.finish();
+          while (!this.deflater.finished()) {
+            this.drain();
+          }
+          this.stored.patch(
+            0L,
+            ByteBuffer.allocate(8).putLong(0, this.uncompressed)
+          );
+        } finally {
+          this.stored.close();
+        }
+      }
+    }
+
+    /**
+     * A channel that compresses data written to it into a section stored
+     * with the {@link EoSectionEncoding#DEFLATE_CHUNKED} encoding.
+     */
+
+    private static final class ChunkedDeflatingChannel
+      implements WritableByteChannel
+    {
+      private final SectionChannel stored;
+      private final Deflater deflater;
+      private final int chunkSize;
+      private final ByteBuffer chunk;
+      private final ByteBuffer output;
+      private final ArrayList<Long> offsets;
+      private long uncompressed;
+
+      ChunkedDeflatingChannel(
+        final SectionChannel inStored,
+        final Deflater inDeflater,
+        final int inChunkSize)
+        throws IOException
+      {
+        Preconditions.checkPrecondition(
+          EoChunkedSection.isValidChunkSize(inChunkSize),
+          "Chunk size must be a power of two in the range [4096, 16777216]"
+        );
+
+        this.stored =
+          Objects.requireNonNull(inStored, "stored");
+        this.deflater =
+          Objects.requireNonNull(inDeflater, "deflater");
+        this.chunkSize =
+          inChunkSize;
+        this.chunk =
+          ByteBuffer.allocate(inChunkSize);
+        this.output =
+          ByteBuffer.allocate(COPY_BUFFER_SIZE);
+        this.offsets =
+          new ArrayList<>();
+
+        /*
+         * Reserve space for the header, which is written when the channel
+         * is closed.
+         */
+
+        final var header = ByteBuffer.allocate(EoChunkedSection.HEADER_SIZE);
+        while (header.hasRemaining()) {
+          this.stored.write(header);
+        }
+      }
+
+      @Override
+      public int write(
+        final ByteBuffer src)
+        throws IOException
+      {
+        if (!this.stored.isOpen()) {
+          throw new ClosedChannelException();
+        }
+
+        final var count = src.remaining();
+        while (src.hasRemaining()) {
+          final var length = Math.min(src.remaining(), this.chunk.remaining());
+          this.chunk.put(this.chunk.position(), src, src.position(), length);
+          this.chunk.position(this.chunk.position() + length);
+          src.position(src.position() + length);
+          if (!this.chunk.hasRemaining()) {
+            this.compressChunk();
+          }
+        }
+        this.uncompressed += count;
+        return count;
+      }
+
+      private void compressChunk()
+        throws IOException
+      {
+        this.offsets.add(Long.valueOf(this.stored.written));
+
+        this.chunk.flip();
+        this.deflater.reset();
+        this.deflater.setInput(this.chunk);
+        this.deflater.finish();
+        while (!this.deflater.finished()) {
+          this.output.clear();
+          this.deflater.deflate(this.output);
+          this.output.flip();
+          while (this.output.hasRemaining()) {
+            this.stored.write(this.output);
+          }
+        }
+        this.chunk.clear();
+      }
+
+      @Override
+      public boolean isOpen()
+      {
+        return this.stored.isOpen();
+      }
+
+      @Override
+      public void close()
+        throws IOException
+      {
+        if (!this.stored.isOpen()) {
+          return;
+        }
+
+        try {
+          if (this.chunk.position() > 0) {
+            this.compressChunk();
+          }
+          this.offsets.add(Long.valueOf(this.stored.written));
+
+          final var table = ByteBuffer.allocate(this.offsets.size() * 8);
+          for (final var offset : this.offsets) {
+            table.putLong(offset.longValue());
+          }
+          table.flip();
+          while (table.hasRemaining()) {
+            this.stored.write(table);
+          }
+
+          final var header = ByteBuffer.allocate(EoChunkedSection.HEADER_SIZE);
+          header.putLong(this.uncompressed);
+          header.putInt(this.chunkSize);
+          header.putInt(this.offsets.size() - 1);
+          this.stored.patch(0L, header.flip());
+        } finally {
+          this.stored.close();
+        }
+      }
+    }
+  }
+}
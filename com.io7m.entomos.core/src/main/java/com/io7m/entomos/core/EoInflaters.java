@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.Inflater;
+
+/**
+ * A bounded pool of inflaters shared by all decompressing channels.
+ * Inflaters hold native memory, and so are reused rather than being left
+ * for the garbage collector.
+ */
+
+final class EoInflaters
+{
+  private static final int RETAINED = 64;
+  private static final ReentrantLock LOCK = new ReentrantLock();
+  private static final ArrayDeque<Inflater> INFLATERS = new ArrayDeque<>();
+
+  private EoInflaters()
+  {
+
+  }
+
+  /**
+   * @return An inflater from the pool, or a new inflater
+   */
+
+  static Inflater acquire()
+  {
+    LOCK.lock();
+    try {
+      final var existing = INFLATERS.poll();
+      if (existing != null) {
+        return existing;
+      }
+    } finally {
+      LOCK.unlock();
+    }
+    return new Inflater();
+  }
+
+  /**
+   * Return an inflater to the pool. The inflater is released if the pool
+   * is full.
+   *
+   * @param inflater The inflater
+   */
+
+  static void release(
+    final Inflater inflater)
+  {
+    inflater.reset();
+
+    LOCK.lock();
+    try {
+      if (INFLATERS.size() < RETAINED) {
+        INFLATERS.push(inflater);
+        return;
+      }
+    } finally {
+      LOCK.unlock();
+    }
+    inflater.end();
+  }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Objects;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * A read-only channel that decompresses a section stored with the
+ * {@link EoSectionEncoding#DEFLATE} encoding. The channel reports the
+ * uncompressed size of the data, and positions are given in terms of the
+ * uncompressed data. Seeking forwards decompresses and discards data;
+ * seeking backwards restarts decompression from the start of the section.
+ * Closing this channel closes the underlying channel.
+ */
+
+final class EoInflatingChannel
+  implements SeekableByteChannel
+{
+  private final SeekableByteChannel source;
+  private final long size;
+  private final ByteBuffer input;
+  private Inflater inflater;
+  private ByteBuffer discard;
+  private long position;
+  private long decoded;
+
+  private EoInflatingChannel(
+    final SeekableByteChannel inSource,
+    final long inSize)
+  {
+    this.source =
+      Objects.requireNonNull(inSource, "source");
+    this.size =
+      inSize;
+    this.input =
+      ByteBuffer.allocate(8192).limit(0);
+    this.inflater =
+      EoInflaters.acquire();
+  }
+
+  /**
+   * Open a decompressing channel over the stored data of a section.
+   *
+   * @param source The stored section data
+   *
+   * @return A channel
+   *
+   * @throws IOException On errors
+   */
+
+  static EoInflatingChannel open(
+    final SeekableByteChannel source)
+    throws IOException
+  {
+    final var sizeBuffer = ByteBuffer.allocate(8);
+    source.position(0L);
+    while (sizeBuffer.hasRemaining()) {
+      if (source.read(sizeBuffer) < 0) {
+        throw new IOException(
+          "Compressed section is too short to contain a size.");
+      }
+    }
+
+    final var uncompressed = sizeBuffer.flip().getLong();
+    if (uncompressed < 0L) {
+      throw new IOException(
+        "Compressed section has a negative uncompressed size.");
+    }
+    return new EoInflatingChannel(source, uncompressed);
+  }
+
+  @Override
+  public int read(
+    final ByteBuffer dst)
+    throws IOException
+  {
+    this.checkOpen();
+
+    if (this.position >= this.size) {
+      return -1;
+    }
+    if (this.position < this.decoded) {
+      this.restart();
+    }
+
+    while (this.decoded < this.position) {
+      if (this.discard == null) {
+        this.discard = ByteBuffer.allocate(8192);
+      }
+      this.discard.clear();
+      final var skip = this.position - this.decoded;
+      if (skip < this.discard.capacity()) {
+        this.discard.limit((int) skip);
+      }
+      this.decoded += this.inflateInto(this.discard);
+    }
+
+    final var remaining = this.size - this.position;
+    final ByteBuffer target;
+    if (dst.remaining() > remaining) {
+      target = dst.slice(dst.position(), (int) remaining);
+    } else {
+      target = dst;
+    }
+
+    final var count = this.inflateInto(target);
+    if (target != dst) {
+      dst.position(dst.position() + count);
+    }
+    this.decoded += count;
+    this.position += count;
+    return count;
+  }
+
+  private int inflateInto(
+    final ByteBuffer target)
+    throws IOException
+  {
+    if (!target.hasRemaining()) {
+      return 0;
+    }
+
+    while (true) {
+      if (this.inflater.finished()) {
+        throw new IOException(
+          "Compressed section ended before the declared size was reached.");
+      }
+
+      if (this.inflater.needsInput()) {
+        this.input.clear();
+        final var count = this.source.read(this.input);
+        this.input.flip();
+        if (count < 0) {
+          throw new IOException("Compressed section data is truncated.");
+        }
+        this.inflater.setInput(this.input);
+        continue;
+      }
+
+      if (this.inflater.needsDictionary()) {
+        throw new IOException(
+          "Compressed section data requires a preset dictionary.");
+      }
+
+      try {
+        final var count = this.inflater.inflate(target);
+        if (count > 0) {
+          return count;
+        }
+      } catch (final DataFormatException e) {
+        throw new IOException(e);
+      }
+    }
+  }
+
+  private void restart()
+    throws IOException
+  {
+    this.inflater.reset();
+    this.input.clear().limit(0);
+    this.source.position(8L);
+    this.decoded = 0L;
+  }
+
+  @Override
+  public int write(
+    final ByteBuffer src)
+  {
+    throw new NonWritableChannelException();
+  }
+
+  @Override
+  public long position()
+    throws ClosedChannelException
+  {
+    this.checkOpen();
+    return this.position;
+  }
+
+  @Override
+  public SeekableByteChannel position(
+    final long newPosition)
+    throws ClosedChannelException
+  {
+    this.checkOpen();
+    if (newPosition < 0L) {
+      throw new IllegalArgumentException("Position must be non-negative");
+    }
+    this.position = newPosition;
+    return this;
+  }
+
+  @Override
+  public long size()
+    throws ClosedChannelException
+  {
+    this.checkOpen();
+    return this.size;
+  }
+
+  @Override
+  public SeekableByteChannel truncate(
+    final long newSize)
+  {
+    throw new NonWritableChannelException();
+  }
+
+  @Override
+  public boolean isOpen()
+  {
+    return this.inflater != null && this.source.isOpen();
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    if (this.inflater != null) {
+      EoInflaters.release(this.inflater);
+      this.inflater = null;
+      this.source.close();
+    }
+  }
+
+  private void checkOpen()
+    throws ClosedChannelException
+  {
+    if (!this.isOpen()) {
+      throw new ClosedChannelException();
+    }
+  }
+}
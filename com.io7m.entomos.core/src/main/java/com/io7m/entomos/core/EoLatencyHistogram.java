@@ -0,0 +1,120 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A latency histogram with fixed, exponentially sized buckets. Bucket
+ * {@code i} counts durations no greater than {@code 2^i} microseconds;
+ * the final bucket counts all longer durations.
+ *
+ * <p>Instances of this class are safe for use from multiple threads.</p>
+ */
+
+public final class EoLatencyHistogram
+{
+  private static final int BUCKETS = 32;
+
+  private final LongAdder[] counts;
+
+  /**
+   * A latency histogram with fixed, exponentially sized buckets.
+   */
+
+  public EoLatencyHistogram()
+  {
+    this.counts = new LongAdder[BUCKETS];
+    for (int index = 0; index < BUCKETS; ++index) {
+      this.counts[index] = new LongAdder();
+    }
+  }
+
+  /**
+   * Record a duration.
+   *
+   * @param durationNanos The duration in nanoseconds
+   */
+
+  public void record(
+    final long durationNanos)
+  {
+    this.counts[bucketOf(durationNanos)].increment();
+  }
+
+  private static int bucketOf(
+    final long durationNanos)
+  {
+    if (durationNanos <= 0L) {
+      return 0;
+    }
+    final var micros = ((durationNanos - 1L) / 1000L) + 1L;
+    final var bucket = 64 - Long.numberOfLeadingZeros(micros - 1L);
+    return Math.min(bucket, BUCKETS - 1);
+  }
+
+  /**
+   * @return The number of buckets
+   */
+
+  public int bucketCount()
+  {
+    return BUCKETS;
+  }
+
+  /**
+   * @param bucket The bucket index
+   *
+   * @return The inclusive upper bound of the bucket in nanoseconds, or
+   * {@link Long#MAX_VALUE} for the final bucket
+   */
+
+  public long bucketUpperBoundNanos(
+    final int bucket)
+  {
+    if (bucket >= BUCKETS - 1) {
+      return Long.MAX_VALUE;
+    }
+    return (1L << bucket) * 1000L;
+  }
+
+  /**
+   * @param bucket The bucket index
+   *
+   * @return The number of durations recorded in the bucket
+   */
+
+  public long bucketCountOf(
+    final int bucket)
+  {
+    return this.counts[bucket].sum();
+  }
+
+  /**
+   * @return The total number of durations recorded
+   */
+
+  public long total()
+  {
+    var sum = 0L;
+    for (final var count : this.counts) {
+      sum += count.sum();
+    }
+    return sum;
+  }
+}
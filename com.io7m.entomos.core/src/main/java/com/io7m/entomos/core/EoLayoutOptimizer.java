@@ -0,0 +1,267 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.ToLongFunction;
+
+/**
+ * Functions to reorder the sections of files so that frequently accessed
+ * sections are contiguous and close to the start of the file.
+ */
+
+public final class EoLayoutOptimizer
+{
+  private EoLayoutOptimizer()
+  {
+
+  }
+
+  /**
+   * Order sections by a per-tag priority. Sections with higher priorities
+   * are placed earlier in the file; sections with equal priorities (and
+   * sections with tags that have no priority, which are treated as having
+   * priority zero) retain their original relative order. Any ordering
+   * requirements declared in the file description are respected. The end
+   * section, and the checksum section if the description declares one, are
+   * excluded from the result.
+   *
+   * @param sections    The sections
+   * @param priorities  The priorities by tag
+   * @param description The file description, if any
+   *
+   * @return The sections in their new order
+   */
+
+  public static List<EoFileSection> orderByTagPriority(
+    final Collection<EoFileSection> sections,
+    final Map<Long, Long> priorities,
+    final Optional<EoFileDescription> description)
+  {
+    Objects.requireNonNull(priorities, "priorities");
+
+    return order(
+      sections,
+      s -> priorities.getOrDefault(s.tag(), 0L).longValue(),
+      description
+    );
+  }
+
+  /**
+   * Order sections by the time at which they were first accessed in the
+   * given trace. Sections accessed earlier are placed earlier in the
+   * file; sections that do not appear in the trace are placed after all
+   * sections that do, in their original relative order. Any ordering
+   * requirements declared in the file description are respected. The end
+   * section, and the checksum section if the description declares one, are
+   * excluded from the result.
+   *
+   * @param sections    The sections
+   * @param file        The file to which the sections belong
+   * @param trace       The access trace
+   * @param description The file description, if any
+   *
+   * @return The sections in their new order
+   *
+   * @see EoAccessTracer
+   */
+
+  public static List<EoFileSection> orderByTrace(
+    final Collection<EoFileSection> sections,
+    final URI file,
+    final List<EoAccessTraceEntry> trace,
+    final Optional<EoFileDescription> description)
+  {
+    Objects.requireNonNull(file, "file");
+    Objects.requireNonNull(trace, "trace");
+
+    final var firstAccess = new HashMap<Long, Long>();
+    for (final var entry : trace) {
+      if (entry.file().equals(file)) {
+        firstAccess.merge(entry.sectionOffset(), entry.timeNanos(), Math::min);
+      }
+    }
+
+    final var byTime =
+      firstAccess.entrySet()
+        .stream()
+        .sorted(Map.Entry.comparingByValue())
+        .map(Map.Entry::getKey)
+        .toList();
+
+    final var rank = new HashMap<Long, Long>(byTime.size());
+    for (int index = 0; index < byTime.size(); ++index) {
+      rank.put(byTime.get(index), (long) (byTime.size() - index));
+    }
+
+    return order(
+      sections,
+      s -> rank.getOrDefault(s.offset(), 0L).longValue(),
+      description
+    );
+  }
+
+  private static List<EoFileSection> order(
+    final Collection<EoFileSection> sections,
+    final ToLongFunction<EoFileSection> priority,
+    final Optional<EoFileDescription> description)
+  {
+    Objects.requireNonNull(sections, "sections");
+    Objects.requireNonNull(description, "description");
+
+    final var sorted = new ArrayList<>(sections);
+    sorted.sort(EoFileSection.EO_OFFSET_COMPARATOR);
+
+    final var endTag =
+      description.map(EoFileDescription::endTag)
+        .orElseGet(() -> sorted.isEmpty() ? 0L : sorted.getLast().tag());
+    sorted.removeIf(s -> s.tag() == endTag);
+
+    /*
+     * Checksum sections are regenerated by writers, as the checksums are
+     * keyed by section offsets that change when sections are reordered.
+     */
+
+    if (description.isPresent()) {
+      final var checksumTag = description.get().checksumTag();
+      if (checksumTag.isPresent()) {
+        sorted.removeIf(s -> s.tag() == checksumTag.getAsLong());
+      }
+    }
+
+    final var orderings =
+      description.map(EoFileDescription::sectionByTag).orElse(null);
+
+    final var firsts = new ArrayList<EoFileSection>();
+    final var lasts = new ArrayList<EoFileSection>();
+    final var middles = new ArrayList<EoFileSection>();
+
+    for (final var section : sorted) {
+      final var ordering =
+        orderingOf(orderings, section.tag());
+      switch (ordering) {
+        case MUST_BE_FIRST -> firsts.add(section);
+        case MUST_BE_LAST -> lasts.add(section);
+        case ANY_ORDER -> middles.add(section);
+      }
+    }
+
+    middles.sort(
+      Comparator.comparingLong(priority).reversed()
+    );
+
+    final var results = new ArrayList<EoFileSection>(sorted.size());
+    results.addAll(firsts);
+    results.addAll(middles);
+    results.addAll(lasts);
+    return List.copyOf(results);
+  }
+
+  private static EoSectionOrdering orderingOf(
+    final Map<Long, EoFileSectionDescription> orderings,
+    final long tag)
+  {
+    if (orderings == null) {
+      return EoSectionOrdering.ANY_ORDER;
+    }
+    final var section = orderings.get(tag);
+    if (section == null) {
+      return EoSectionOrdering.ANY_ORDER;
+    }
+    return section.ordering();
+  }
+
+  /**
+   * Rewrite the sections of a file in the given order. Section data is
+   * copied without passing through the Java heap where the reader and
+   * writer permit. If padding is specified, filler sections are inserted
+   * so that the data of each sufficiently large section begins on a page
+   * boundary; no filler is inserted ahead of the first section written,
+   * so that sections required to be first remain first.
+   *
+   * @param reader   The reader
+   * @param sections The sections, in the order in which they are written
+   * @param padding  The padding specification, if any
+   * @param writer   The writer
+   *
+   * @throws EoException On errors
+   */
+
+  public static void rewrite(
+    final EoFileReaderType reader,
+    final List<EoFileSection> sections,
+    final Optional<EoLayoutPadding> padding,
+    final EoFileWriterType writer)
+    throws EoException
+  {
+    Objects.requireNonNull(reader, "reader");
+    Objects.requireNonNull(sections, "sections");
+    Objects.requireNonNull(padding, "padding");
+    Objects.requireNonNull(writer, "writer");
+
+    var first = true;
+    for (final var section : sections) {
+      if (!first && padding.isPresent()) {
+        pad(writer, section, padding.get());
+      }
+      writer.copySection(reader, section);
+      first = false;
+    }
+  }
+
+  private static void pad(
+    final EoFileWriterType writer,
+    final EoFileSection section,
+    final EoLayoutPadding padding)
+    throws EoException
+  {
+    if (Long.compareUnsigned(section.dataSize(), padding.threshold()) < 0) {
+      return;
+    }
+
+    final var page = padding.pageSize();
+    final var position = writer.position();
+    if (((position + 16L) & (page - 1L)) == 0L) {
+      return;
+    }
+
+    /*
+     * The filler section occupies at least its own 16 byte header. The
+     * next section header must then be placed such that its data offset
+     * lands on a page boundary.
+     */
+
+    final var minimum = position + 32L;
+    final var nextData = (minimum + (page - 1L)) & ~(page - 1L);
+    final var fillerSize = (nextData - 16L) - (position + 16L);
+
+    writer.writeSection(
+      padding.fillerTag(),
+      ByteBuffer.allocate(Math.toIntExact(fillerSize))
+    );
+  }
+}
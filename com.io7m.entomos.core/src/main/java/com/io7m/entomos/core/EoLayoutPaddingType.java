@@ -0,0 +1,74 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import org.immutables.value.Value;
+
+/**
+ * A specification of how large sections should be aligned to page
+ * boundaries when rewriting a file. Alignment is achieved by inserting
+ * filler sections ahead of large sections; the filler section tag must
+ * therefore be one that readers of the file will accept and ignore.
+ */
+
+@ImmutablesStyleType
+@Value.Immutable
+public interface EoLayoutPaddingType
+{
+  /**
+   * @return The tag used for filler sections
+   */
+
+  long fillerTag();
+
+  /**
+   * @return The page size to which section data is aligned
+   */
+
+  @Value.Default
+  default long pageSize()
+  {
+    return 4096L;
+  }
+
+  /**
+   * @return The minimum data size of sections that will be page-aligned
+   */
+
+  @Value.Default
+  default long threshold()
+  {
+    return this.pageSize();
+  }
+
+  /**
+   * Check preconditions for the type.
+   */
+
+  @Value.Check
+  default void checkPreconditions()
+  {
+    final var size = this.pageSize();
+    if (size < 16L || Long.bitCount(size) != 1) {
+      throw new IllegalArgumentException(
+        "Page size must be a power of two not less than 16"
+      );
+    }
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A metrics listener that accumulates measurements in memory using striped
+ * counters. The accumulated values can be read at any time and exported to
+ * an external monitoring system.
+ *
+ * <p>Instances of this class are safe for use from multiple threads.</p>
+ */
+
+public final class EoMetrics
+  implements EoMetricsType
+{
+  private final LongAdder opens;
+  private final LongAdder sectionsEnumerated;
+  private final EoLatencyHistogram openLatency;
+  private final ConcurrentHashMap<String, LongAdder> openFailures;
+  private final ConcurrentHashMap<String, LongAdder> validationFailures;
+  private final ConcurrentHashMap<Long, LongAdder> bytesRead;
+
+  /**
+   * A metrics listener that accumulates measurements in memory.
+   */
+
+  public EoMetrics()
+  {
+    this.opens =
+      new LongAdder();
+    this.sectionsEnumerated =
+      new LongAdder();
+    this.openLatency =
+      new EoLatencyHistogram();
+    this.openFailures =
+      new ConcurrentHashMap<>();
+    this.validationFailures =
+      new ConcurrentHashMap<>();
+    this.bytesRead =
+      new ConcurrentHashMap<>();
+  }
+
+  @Override
+  public void onFileOpened(
+    final URI uri,
+    final long durationNanos,
+    final long sectionCount)
+  {
+    this.opens.increment();
+    this.sectionsEnumerated.add(sectionCount);
+    this.openLatency.record(durationNanos);
+  }
+
+  @Override
+  public void onFileOpenFailed(
+    final URI uri,
+    final EoException error)
+  {
+    this.openFailures.computeIfAbsent(error.errorCode(), k -> new LongAdder())
+      .increment();
+  }
+
+  @Override
+  public void onValidationFailed(
+    final URI uri,
+    final EoException error)
+  {
+    this.validationFailures.computeIfAbsent(error.errorCode(), k -> new LongAdder())
+      .increment();
+  }
+
+  @Override
+  public void onSectionRead(
+    final URI uri,
+    final long tag,
+    final long bytes)
+  {
+    this.bytesRead.computeIfAbsent(Long.valueOf(tag), k -> new LongAdder())
+      .add(bytes);
+  }
+
+  /**
+   * @return The number of files successfully opened
+   */
+
+  public long opens()
+  {
+    return this.opens.sum();
+  }
+
+  /**
+   * @return The total number of sections enumerated
+   */
+
+  public long sectionsEnumerated()
+  {
+    return this.sectionsEnumerated.sum();
+  }
+
+  /**
+   * @return The histogram of file open latencies
+   */
+
+  public EoLatencyHistogram openLatency()
+  {
+    return this.openLatency;
+  }
+
+  /**
+   * @return A snapshot of the number of failed opens by error code
+   */
+
+  public Map<String, Long> openFailures()
+  {
+    return snapshot(this.openFailures);
+  }
+
+  /**
+   * @return A snapshot of the number of validation failures by error code
+   */
+
+  public Map<String, Long> validationFailures()
+  {
+    return snapshot(this.validationFailures);
+  }
+
+  /**
+   * @return A snapshot of the number of bytes read by section tag
+   */
+
+  public Map<Long, Long> bytesReadByTag()
+  {
+    return snapshot(this.bytesRead);
+  }
+
+  private static <K> Map<K, Long> snapshot(
+    final Map<K, LongAdder> counters)
+  {
+    final var result = new TreeMap<K, Long>();
+    for (final var entry : counters.entrySet()) {
+      result.put(entry.getKey(), Long.valueOf(entry.getValue().sum()));
+    }
+    return result;
+  }
+}
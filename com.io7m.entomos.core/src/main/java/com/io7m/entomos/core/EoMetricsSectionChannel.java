@@ -0,0 +1,152 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Objects;
+
+/**
+ * A section data channel that reports the bytes read from it to a metrics
+ * listener.
+ */
+
+final class EoMetricsSectionChannel
+  implements SeekableByteChannel
+{
+  private final SeekableByteChannel delegate;
+  private final EoMetricsType metrics;
+  private final URI uri;
+  private final long tag;
+
+  EoMetricsSectionChannel(
+    final SeekableByteChannel inDelegate,
+    final EoMetricsType inMetrics,
+    final URI inUri,
+    final long inTag)
+  {
+    this.delegate =
+      Objects.requireNonNull(inDelegate, "delegate");
+    this.metrics =
+      Objects.requireNonNull(inMetrics, "metrics");
+    this.uri =
+      Objects.requireNonNull(inUri, "uri");
+    this.tag =
+      inTag;
+  }
+
+  /**
+   * Wrap the given channel unless the metrics listener ignores all
+   * measurements.
+   *
+   * @param channel The channel
+   * @param metrics The metrics listener
+   * @param uri     The file URI
+   * @param section The section
+   *
+   * @return The channel, possibly wrapped
+   */
+
+  static SeekableByteChannel wrap(
+    final SeekableByteChannel channel,
+    final EoMetricsType metrics,
+    final URI uri,
+    final EoFileSection section)
+  {
+    if (metrics == EoMetricsNone.NONE) {
+      return channel;
+    }
+    return new EoMetricsSectionChannel(channel, metrics, uri, section.tag());
+  }
+
+  /**
+   * @return The underlying channel
+   */
+
+  SeekableByteChannel delegate()
+  {
+    return this.delegate;
+  }
+
+  @Override
+  public int read(
+    final ByteBuffer dst)
+    throws IOException
+  {
+    final var count = this.delegate.read(dst);
+    if (count > 0) {
+      this.metrics.onSectionRead(this.uri, this.tag, count);
+    }
+    return count;
+  }
+
+  @Override
+  public int write(
+    final ByteBuffer src)
+    throws IOException
+  {
+    return this.delegate.write(src);
+  }
+
+  @Override
+  public long position()
+    throws IOException
+  {
+    return this.delegate.position();
+  }
+
+  @Override
+  public SeekableByteChannel position(
+    final long newPosition)
+    throws IOException
+  {
+    this.delegate.position(newPosition);
+    return this;
+  }
+
+  @Override
+  public long size()
+    throws IOException
+  {
+    return this.delegate.size();
+  }
+
+  @Override
+  public SeekableByteChannel truncate(
+    final long size)
+    throws IOException
+  {
+    this.delegate.truncate(size);
+    return this;
+  }
+
+  @Override
+  public boolean isOpen()
+  {
+    return this.delegate.isOpen();
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    this.delegate.close();
+  }
+}
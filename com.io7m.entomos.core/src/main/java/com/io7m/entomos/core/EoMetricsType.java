@@ -0,0 +1,99 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import java.net.URI;
+
+/**
+ * A listener that receives measurements from readers. Implementations are
+ * called synchronously on the threads performing I/O, and so must be fast
+ * and safe for use from multiple threads. All methods do nothing by
+ * default.
+ */
+
+public interface EoMetricsType
+{
+  /**
+   * @return A listener that ignores all measurements
+   */
+
+  static EoMetricsType none()
+  {
+    return EoMetricsNone.NONE;
+  }
+
+  /**
+   * A file was opened and its sections enumerated.
+   *
+   * @param uri           The file URI
+   * @param durationNanos The time taken to open the file
+   * @param sectionCount  The number of sections enumerated
+   */
+
+  default void onFileOpened(
+    final URI uri,
+    final long durationNanos,
+    final long sectionCount)
+  {
+
+  }
+
+  /**
+   * A file could not be opened.
+   *
+   * @param uri   The file URI
+   * @param error The error
+   */
+
+  default void onFileOpenFailed(
+    final URI uri,
+    final EoException error)
+  {
+
+  }
+
+  /**
+   * A file failed validation.
+   *
+   * @param uri   The file URI
+   * @param error The error
+   */
+
+  default void onValidationFailed(
+    final URI uri,
+    final EoException error)
+  {
+
+  }
+
+  /**
+   * Data was read from a section.
+   *
+   * @param uri   The file URI
+   * @param tag   The section tag
+   * @param bytes The number of bytes read
+   */
+
+  default void onSectionRead(
+    final URI uri,
+    final long tag,
+    final long bytes)
+  {
+
+  }
+}
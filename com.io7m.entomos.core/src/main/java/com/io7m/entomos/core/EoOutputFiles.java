@@ -0,0 +1,132 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.entomos.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Functions to safely produce output files from input files.
+ */
+
+final class EoOutputFiles
+{
+  private EoOutputFiles()
+  {
+
+  }
+
+  /**
+   * A function that writes the contents of a file.
+   */
+
+  @FunctionalInterface
+  interface WriterType
+  {
+    /**
+     * Write the contents of the given file.
+     *
+     * @param file The file
+     *
+     * @throws IOException On I/O errors
+     * @throws EoException On errors
+     */
+
+    void write(Path file)
+      throws IOException, EoException;
+  }
+
+  /**
+   * Check that an output file is not the same file as any of the given
+   * input files.
+   *
+   * @param output The output file
+   * @param inputs The input files
+   *
+   * @throws EoException If the output file is an input file
+   */
+
+  static void checkNotInput(
+    final Path output,
+    final Collection<Path> inputs)
+    throws EoException
+  {
+    if (!Files.exists(output)) {
+      return;
+    }
+
+    try {
+      for (final var input : inputs) {
+        if (Files.exists(input) && Files.isSameFile(output, input)) {
+          throw new EoException(
+            "The output file must not be one of the input files.",
+            "error-output-is-input",
+            Map.ofEntries(
+              Map.entry("File", output.toString()),
+              Map.entry("Input", input.toString())
+            ),
+            Optional.empty()
+          );
+        }
+      }
+    } catch (final IOException e) {
+      throw EoException.wrap(e);
+    }
+  }
+
+  /**
+   * Write a file by writing a temporary file in the same directory and
+   * then atomically moving it into place. If writing fails, the temporary
+   * file is deleted and any existing file is left untouched.
+   *
+   * @param output The output file
+   * @param writer The function that writes the file contents
+   *
+   * @throws EoException On errors
+   */
+
+  static void replace(
+    final Path output,
+    final WriterType writer)
+    throws EoException
+  {
+    try {
+      final var directory =
+        output.toAbsolutePath().getParent();
+      final var name =
+        output.getFileName().toString();
+      final var temporary =
+        Files.createTempFile(directory, name, ".tmp");
+
+      try {
+        writer.write(temporary);
+        Files.move(temporary, output, ATOMIC_MOVE, REPLACE_EXISTING);
+      } finally {
+        Files.deleteIfExists(temporary);
+      }
+    } catch (final IOException e) {
+      throw EoException.wrap(e);
+    }
+  }
+}
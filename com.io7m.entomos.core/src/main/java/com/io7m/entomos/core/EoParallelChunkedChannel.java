@@ -0,0 +1,258 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * A read-only channel that decompresses a section stored with the
+ * {@link EoSectionEncoding#DEFLATE_CHUNKED} encoding, decompressing up to
+ * a fixed number of chunks ahead of the current position concurrently on
+ * an executor. Compressed data is read on the calling thread, and so the
+ * underlying channel is never accessed concurrently. Bytes are always
+ * delivered in order. Repositioning the channel discards any chunks
+ * decompressed ahead that are no longer needed. Closing this channel
+ * closes the underlying channel.
+ */
+
+final class EoParallelChunkedChannel
+  implements SeekableByteChannel
+{
+  private final SeekableByteChannel stored;
+  private final EoChunkedSection index;
+  private final Executor executor;
+  private final int inFlight;
+  private final ArrayDeque<Pending> pending;
+  private int nextScheduled;
+  private int currentChunk;
+  private ByteBuffer current;
+  private long position;
+  private boolean closed;
+
+  private record Pending(
+    int chunk,
+    CompletableFuture<ByteBuffer> future)
+  {
+
+  }
+
+  EoParallelChunkedChannel(
+    final SeekableByteChannel inStored,
+    final EoChunkedSection inIndex,
+    final Executor inExecutor,
+    final int inInFlight)
+  {
+    this.stored =
+      Objects.requireNonNull(inStored, "stored");
+    this.index =
+      Objects.requireNonNull(inIndex, "index");
+    this.executor =
+      Objects.requireNonNull(inExecutor, "executor");
+    this.inFlight =
+      inInFlight;
+    this.pending =
+      new ArrayDeque<>(inInFlight);
+    this.currentChunk =
+      -1;
+  }
+
+  private ByteBuffer chunk(
+    final int chunk)
+    throws IOException
+  {
+    if (chunk == this.currentChunk) {
+      return this.current;
+    }
+
+    /*
+     * Discard any chunks decompressed ahead that precede the requested
+     * chunk. If the requested chunk is not scheduled at all, discard
+     * everything and start scheduling from the requested chunk.
+     */
+
+    if (chunk < this.nextScheduled - this.pending.size()
+        || chunk >= this.nextScheduled) {
+      this.discardPending();
+      this.nextScheduled = chunk;
+    }
+    while (!this.pending.isEmpty() && this.pending.peek().chunk < chunk) {
+      this.pending.poll().future.cancel(false);
+    }
+
+    this.schedule();
+    final var next = this.pending.poll();
+    this.schedule();
+
+    this.current = await(next.future);
+    this.currentChunk = chunk;
+    return this.current;
+  }
+
+  private static ByteBuffer await(
+    final CompletableFuture<ByteBuffer> future)
+    throws IOException
+  {
+    try {
+      return future.join();
+    } catch (final CompletionException e) {
+      if (e.getCause() instanceof final UncheckedIOException x) {
+        throw x.getCause();
+      }
+      throw new IOException(e.getCause());
+    } catch (final CancellationException e) {
+      throw new IOException(e);
+    }
+  }
+
+  private void schedule()
+    throws IOException
+  {
+    final var count = this.index.chunkCount();
+    while (this.pending.size() < this.inFlight && this.nextScheduled < count) {
+      final var chunk = this.nextScheduled;
+      final var compressed = this.index.readCompressed(this.stored, chunk);
+      final var length = this.index.chunkLength(chunk);
+
+      final var future =
+        CompletableFuture.supplyAsync(() -> {
+          try {
+            return EoChunkedSection.inflate(compressed, length);
+          } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        }, this.executor);
+
+      this.pending.add(new Pending(chunk, future));
+      this.nextScheduled += 1;
+    }
+  }
+
+  private void discardPending()
+  {
+    while (!this.pending.isEmpty()) {
+      this.pending.poll().future.cancel(false);
+    }
+  }
+
+  @Override
+  public int read(
+    final ByteBuffer dst)
+    throws IOException
+  {
+    this.checkOpen();
+
+    final var size = this.index.size();
+    if (this.position >= size) {
+      return -1;
+    }
+
+    final var chunkSize = this.index.chunkSize();
+    var total = 0;
+    while (dst.hasRemaining() && this.position < size) {
+      final var chunk = (int) (this.position / chunkSize);
+      final var within = (int) (this.position % chunkSize);
+      final var data = this.chunk(chunk);
+      final var count = Math.min(dst.remaining(), data.limit() - within);
+      dst.put(dst.position(), data, within, count);
+      dst.position(dst.position() + count);
+      this.position += count;
+      total += count;
+    }
+    return total;
+  }
+
+  @Override
+  public int write(
+    final ByteBuffer src)
+  {
+    throw new NonWritableChannelException();
+  }
+
+  @Override
+  public long position()
+    throws ClosedChannelException
+  {
+    this.checkOpen();
+    return this.position;
+  }
+
+  @Override
+  public SeekableByteChannel position(
+    final long newPosition)
+    throws ClosedChannelException
+  {
+    this.checkOpen();
+    if (newPosition < 0L) {
+      throw new IllegalArgumentException("Position must be non-negative");
+    }
+    this.position = newPosition;
+    return this;
+  }
+
+  @Override
+  public long size()
+    throws ClosedChannelException
+  {
+    this.checkOpen();
+    return this.index.size();
+  }
+
+  @Override
+  public SeekableByteChannel truncate(
+    final long newSize)
+  {
+    throw new NonWritableChannelException();
+  }
+
+  @Override
+  public boolean isOpen()
+  {
+    return !this.closed && this.stored.isOpen();
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    if (!this.closed) {
+      this.closed = true;
+      this.discardPending();
+      this.current = null;
+      this.stored.close();
+    }
+  }
+
+  private void checkOpen()
+    throws ClosedChannelException
+  {
+    if (!this.isOpen()) {
+      throw new ClosedChannelException();
+    }
+  }
+}
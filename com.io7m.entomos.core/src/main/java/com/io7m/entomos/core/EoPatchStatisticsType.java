@@ -0,0 +1,54 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import org.immutables.value.Value;
+
+/**
+ * Statistics describing a patch produced by {@link EoFileSync}.
+ */
+
+@ImmutablesStyleType
+@Value.Immutable
+public interface EoPatchStatisticsType
+{
+  /**
+   * @return The number of sections copied from the base file
+   */
+
+  long sectionsReused();
+
+  /**
+   * @return The number of sections whose data is carried in the patch
+   */
+
+  long sectionsSent();
+
+  /**
+   * @return The number of bytes of section data copied from the base file
+   */
+
+  long bytesReused();
+
+  /**
+   * @return The number of bytes of section data carried in the patch
+   */
+
+  long bytesSent();
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import com.io7m.jaffirm.core.Preconditions;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A section cache that holds section data on the Java heap, evicting the
+ * least recently used sections when the configured byte budget is exceeded.
+ */
+
+public final class EoSectionCacheHeap
+  implements EoSectionCacheType
+{
+  private final long maximumBytes;
+  private final ReentrantLock lock;
+  private final LinkedHashMap<Key, ByteBuffer> entries;
+  private final LongAdder hits;
+  private final LongAdder misses;
+  private final LongAdder evictions;
+  private long bytesUsed;
+
+  /**
+   * A section cache that holds section data on the Java heap, evicting the
+   * least recently used sections when the configured byte budget is exceeded.
+   *
+   * @param inMaximumBytes The maximum number of bytes of section data to hold
+   */
+
+  public EoSectionCacheHeap(
+    final long inMaximumBytes)
+  {
+    Preconditions.checkPrecondition(
+      inMaximumBytes > 0L,
+      "Maximum bytes must be positive"
+    );
+
+    this.maximumBytes =
+      inMaximumBytes;
+    this.lock =
+      new ReentrantLock();
+    this.entries =
+      new LinkedHashMap<>(16, 0.75f, true);
+    this.hits =
+      new LongAdder();
+    this.misses =
+      new LongAdder();
+    this.evictions =
+      new LongAdder();
+    this.bytesUsed =
+      0L;
+  }
+
+  private record Key(
+    URI file,
+    long offset)
+  {
+
+  }
+
+  @Override
+  public EoSectionCacheLeaseType get(
+    final URI file,
+    final EoFileSection section,
+    final EoSectionLoaderType loader)
+    throws EoException
+  {
+    Objects.requireNonNull(file, "file");
+    Objects.requireNonNull(section, "section");
+    Objects.requireNonNull(loader, "loader");
+
+    final var size = section.dataSize();
+    Preconditions.checkPrecondition(
+      Long.compareUnsigned(size, this.maximumEntrySize()) <= 0,
+      "Section size must not exceed the maximum entry size"
+    );
+
+    final var key = new Key(file, section.offset());
+    this.lock.lock();
+    try {
+      final var existing = this.entries.get(key);
+      if (existing != null) {
+        this.hits.increment();
+        return new Lease(existing.asReadOnlyBuffer());
+      }
+    } finally {
+      this.lock.unlock();
+    }
+
+    this.misses.increment();
+
+    final var data = ByteBuffer.allocate((int) size);
+    loader.load(data);
+    if (data.hasRemaining()) {
+      throw errorShortLoad(file, section, data);
+    }
+    data.rewind();
+
+    this.lock.lock();
+    try {
+      final var existing = this.entries.putIfAbsent(key, data);
+      if (existing != null) {
+        return new Lease(existing.asReadOnlyBuffer());
+      }
+      this.bytesUsed += size;
+      this.evict();
+    } finally {
+      this.lock.unlock();
+    }
+    return new Lease(data.asReadOnlyBuffer());
+  }
+
+  static EoException errorShortLoad(
+    final URI file,
+    final EoFileSection section,
+    final ByteBuffer data)
+  {
+    final var tag =
+      "0x" + Long.toUnsignedString(section.tag(), 16);
+    final var offset =
+      "0x" + Long.toUnsignedString(section.offset(), 16);
+
+    return new EoException(
+      "Section data was shorter than the declared section size.",
+      "error-section-data-truncated",
+      Map.ofEntries(
+        Map.entry("File", file.toString()),
+        Map.entry("Tag", tag),
+        Map.entry("Offset", offset),
+        Map.entry("Size", Long.toUnsignedString(section.dataSize())),
+        Map.entry("Received", Integer.toUnsignedString(data.position()))
+      ),
+      Optional.empty()
+    );
+  }
+
+  private void evict()
+  {
+    final var iter = this.entries.entrySet().iterator();
+    while (this.bytesUsed > this.maximumBytes && iter.hasNext()) {
+      final var eldest = iter.next();
+      this.bytesUsed -= eldest.getValue().capacity();
+      iter.remove();
+      this.evictions.increment();
+    }
+  }
+
+  @Override
+  public long maximumEntrySize()
+  {
+    return Math.min(this.maximumBytes, Integer.MAX_VALUE - 8L);
+  }
+
+  @Override
+  public void invalidate(
+    final URI file)
+  {
+    Objects.requireNonNull(file, "file");
+
+    this.lock.lock();
+    try {
+      final var iter = this.entries.entrySet().iterator();
+      while (iter.hasNext()) {
+        final var entry = iter.next();
+        if (entry.getKey().file().equals(file)) {
+          this.bytesUsed -= entry.getValue().capacity();
+          iter.remove();
+        }
+      }
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public void clear()
+  {
+    this.lock.lock();
+    try {
+      this.entries.clear();
+      this.bytesUsed = 0L;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public EoSectionCacheStatistics statistics()
+  {
+    this.lock.lock();
+    try {
+      return EoSectionCacheStatistics.builder()
+        .setHits(this.hits.sum())
+        .setMisses(this.misses.sum())
+        .setEvictions(this.evictions.sum())
+        .setEntries(this.entries.size())
+        .setBytesUsed(this.bytesUsed)
+        .setBytesMaximum(this.maximumBytes)
+        .build();
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  private record Lease(
+    ByteBuffer data)
+    implements EoSectionCacheLeaseType
+  {
+    @Override
+    public void close()
+    {
+      // Heap buffers are reclaimed by the garbage collector.
+    }
+  }
+}
@@ -0,0 +1,499 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import com.io7m.jaffirm.core.Preconditions;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A section cache that holds section data outside of the Java heap.
+ *
+ * <p>Memory is reserved from the operating system in fixed-size direct
+ * slabs. Each slab is divided into blocks of a single power-of-two size
+ * class, and each cached section occupies exactly one block. When the
+ * byte budget is exhausted, the least recently used sections that are not
+ * currently leased are evicted, and slabs that become empty are returned
+ * to a shared pool for reuse by any size class. Sections larger than the
+ * slab size are never cached.</p>
+ *
+ * <p>Readers are handed read-only views of cached memory. A block is not
+ * reused until every lease on it has been closed, so a view remains valid
+ * even if its section is evicted or invalidated in the meantime.</p>
+ */
+
+public final class EoSectionCacheOffHeap
+  implements EoSectionCacheType
+{
+  /**
+   * The default slab size.
+   */
+
+  public static final int DEFAULT_SLAB_SIZE = 1024 * 1024;
+
+  private static final int MINIMUM_BLOCK_SHIFT = 6;
+
+  private final int slabSize;
+  private final int maximumSlabs;
+  private final ReentrantLock lock;
+  private final LinkedHashMap<Key, Entry> entries;
+  private final List<ArrayDeque<Slab>> slabsWithSpace;
+  private final ArrayDeque<ByteBuffer> slabsFree;
+  private final LongAdder hits;
+  private final LongAdder misses;
+  private final LongAdder evictions;
+  private int slabsAllocated;
+  private long bytesUsed;
+
+  /**
+   * A section cache that holds section data outside of the Java heap,
+   * using slabs of {@link #DEFAULT_SLAB_SIZE} bytes.
+   *
+   * @param inMaximumBytes The maximum number of bytes of memory to reserve
+   */
+
+  public EoSectionCacheOffHeap(
+    final long inMaximumBytes)
+  {
+    this(inMaximumBytes, DEFAULT_SLAB_SIZE);
+  }
+
+  /**
+   * A section cache that holds section data outside of the Java heap.
+   *
+   * @param inMaximumBytes The maximum number of bytes of memory to reserve
+   * @param inSlabSize     The size of each slab; must be a power of two
+   */
+
+  public EoSectionCacheOffHeap(
+    final long inMaximumBytes,
+    final int inSlabSize)
+  {
+    Preconditions.checkPrecondition(
+      Integer.bitCount(inSlabSize) == 1
+      && inSlabSize >= (1 << MINIMUM_BLOCK_SHIFT),
+      "Slab size must be a power of two no smaller than the minimum block size"
+    );
+    Preconditions.checkPrecondition(
+      inMaximumBytes >= inSlabSize,
+      "Maximum bytes must be at least the slab size"
+    );
+
+    this.slabSize =
+      inSlabSize;
+    this.maximumSlabs =
+      (int) Math.min(Integer.MAX_VALUE, inMaximumBytes / inSlabSize);
+    this.lock =
+      new ReentrantLock();
+    this.entries =
+      new LinkedHashMap<>(16, 0.75f, true);
+
+    final var classes =
+      Integer.numberOfTrailingZeros(inSlabSize) - MINIMUM_BLOCK_SHIFT + 1;
+    this.slabsWithSpace =
+      new ArrayList<>(classes);
+    for (int index = 0; index < classes; ++index) {
+      this.slabsWithSpace.add(new ArrayDeque<>());
+    }
+
+    this.slabsFree =
+      new ArrayDeque<>();
+    this.hits =
+      new LongAdder();
+    this.misses =
+      new LongAdder();
+    this.evictions =
+      new LongAdder();
+  }
+
+  private record Key(
+    URI file,
+    long offset)
+  {
+
+  }
+
+  private static final class Slab
+  {
+    private final ByteBuffer memory;
+    private final int sizeClass;
+    private final int blockSize;
+    private final int[] free;
+    private int freeCount;
+
+    Slab(
+      final ByteBuffer inMemory,
+      final int inSizeClass)
+    {
+      this.memory = inMemory;
+      this.sizeClass = inSizeClass;
+      this.blockSize = 1 << (inSizeClass + MINIMUM_BLOCK_SHIFT);
+
+      final var count = inMemory.capacity() / this.blockSize;
+      this.free = new int[count];
+      for (int index = 0; index < count; ++index) {
+        this.free[index] = count - 1 - index;
+      }
+      this.freeCount = count;
+    }
+
+    boolean isFull()
+    {
+      return this.freeCount == 0;
+    }
+
+    boolean isEmpty()
+    {
+      return this.freeCount == this.free.length;
+    }
+  }
+
+  private record Block(
+    Slab slab,
+    int index)
+  {
+    ByteBuffer view(
+      final int size)
+    {
+      return this.slab.memory.slice(this.index * this.slab.blockSize, size);
+    }
+  }
+
+  private static final class Entry
+  {
+    private final Key key;
+    private final Block block;
+    private final ByteBuffer view;
+    private int leases;
+    private boolean dead;
+
+    Entry(
+      final Key inKey,
+      final Block inBlock,
+      final int size)
+    {
+      this.key = inKey;
+      this.block = inBlock;
+      this.view = inBlock.view(size).asReadOnlyBuffer();
+    }
+  }
+
+  private final class Lease
+    implements EoSectionCacheLeaseType
+  {
+    private final Entry entry;
+    private final ByteBuffer data;
+    private final AtomicBoolean closed;
+
+    Lease(
+      final Entry inEntry)
+    {
+      this.entry = inEntry;
+      this.data = inEntry.view.duplicate();
+      this.closed = new AtomicBoolean(false);
+    }
+
+    @Override
+    public ByteBuffer data()
+    {
+      return this.data;
+    }
+
+    @Override
+    public void close()
+    {
+      if (this.closed.compareAndSet(false, true)) {
+        EoSectionCacheOffHeap.this.release(this.entry);
+      }
+    }
+  }
+
+  private record LeaseUncached(
+    ByteBuffer data)
+    implements EoSectionCacheLeaseType
+  {
+    @Override
+    public void close()
+    {
+      // Heap buffers are reclaimed by the garbage collector.
+    }
+  }
+
+  @Override
+  public EoSectionCacheLeaseType get(
+    final URI file,
+    final EoFileSection section,
+    final EoSectionLoaderType loader)
+    throws EoException
+  {
+    Objects.requireNonNull(file, "file");
+    Objects.requireNonNull(section, "section");
+    Objects.requireNonNull(loader, "loader");
+
+    final var sizeLong = section.dataSize();
+    Preconditions.checkPrecondition(
+      Long.compareUnsigned(sizeLong, this.maximumEntrySize()) <= 0,
+      "Section size must not exceed the maximum entry size"
+    );
+
+    final var size = (int) sizeLong;
+    final var key = new Key(file, section.offset());
+    final Entry pending;
+
+    this.lock.lock();
+    try {
+      final var existing = this.entries.get(key);
+      if (existing != null) {
+        this.hits.increment();
+        existing.leases += 1;
+        return new Lease(existing);
+      }
+
+      this.misses.increment();
+      final var block = this.allocate(sizeClassOf(size));
+      if (block == null) {
+        pending = null;
+      } else {
+        pending = new Entry(key, block, size);
+        pending.leases = 1;
+      }
+    } finally {
+      this.lock.unlock();
+    }
+
+    /*
+     * Every block is pinned by an outstanding lease. Serve the data from
+     * the heap without caching it.
+     */
+
+    if (pending == null) {
+      final var data = ByteBuffer.allocate(size);
+      loadFully(file, section, loader, data);
+      return new LeaseUncached(data.asReadOnlyBuffer());
+    }
+
+    try {
+      loadFully(file, section, loader, pending.block.view(size));
+    } catch (final EoException | RuntimeException e) {
+      this.lock.lock();
+      try {
+        this.free(pending.block);
+      } finally {
+        this.lock.unlock();
+      }
+      throw e;
+    }
+
+    this.lock.lock();
+    try {
+      final var existing = this.entries.get(key);
+      if (existing != null) {
+        this.free(pending.block);
+        existing.leases += 1;
+        return new Lease(existing);
+      }
+      this.entries.put(key, pending);
+      this.bytesUsed += size;
+      return new Lease(pending);
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  private static void loadFully(
+    final URI file,
+    final EoFileSection section,
+    final EoSectionLoaderType loader,
+    final ByteBuffer target)
+    throws EoException
+  {
+    loader.load(target);
+    if (target.hasRemaining()) {
+      throw EoSectionCacheHeap.errorShortLoad(file, section, target);
+    }
+  }
+
+  private static int sizeClassOf(
+    final int size)
+  {
+    final var shift =
+      32 - Integer.numberOfLeadingZeros(Math.max(size - 1, 1));
+    return Math.max(shift, MINIMUM_BLOCK_SHIFT) - MINIMUM_BLOCK_SHIFT;
+  }
+
+  private Block allocate(
+    final int sizeClass)
+  {
+    final var slabs = this.slabsWithSpace.get(sizeClass);
+
+    while (true) {
+      final var slab = slabs.peek();
+      if (slab != null) {
+        slab.freeCount -= 1;
+        final var index = slab.free[slab.freeCount];
+        if (slab.isFull()) {
+          slabs.poll();
+        }
+        return new Block(slab, index);
+      }
+
+      var memory = this.slabsFree.poll();
+      if (memory == null && this.slabsAllocated < this.maximumSlabs) {
+        memory = ByteBuffer.allocateDirect(this.slabSize);
+        this.slabsAllocated += 1;
+      }
+      if (memory != null) {
+        slabs.push(new Slab(memory, sizeClass));
+        continue;
+      }
+
+      if (!this.evictOne()) {
+        return null;
+      }
+    }
+  }
+
+  private void free(
+    final Block block)
+  {
+    final var slab = block.slab;
+    final var slabs = this.slabsWithSpace.get(slab.sizeClass);
+    final var wasFull = slab.isFull();
+
+    slab.free[slab.freeCount] = block.index;
+    slab.freeCount += 1;
+
+    if (slab.isEmpty()) {
+      slabs.remove(slab);
+      this.slabsFree.push(slab.memory);
+    } else if (wasFull) {
+      slabs.push(slab);
+    }
+  }
+
+  private boolean evictOne()
+  {
+    final var iter = this.entries.values().iterator();
+    while (iter.hasNext()) {
+      final var entry = iter.next();
+      if (entry.leases == 0) {
+        iter.remove();
+        this.bytesUsed -= entry.view.capacity();
+        this.free(entry.block);
+        this.evictions.increment();
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void release(
+    final Entry entry)
+  {
+    this.lock.lock();
+    try {
+      entry.leases -= 1;
+      if (entry.dead && entry.leases == 0) {
+        this.free(entry.block);
+      }
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  private void remove(
+    final Entry entry)
+  {
+    this.bytesUsed -= entry.view.capacity();
+    if (entry.leases == 0) {
+      this.free(entry.block);
+    } else {
+      entry.dead = true;
+    }
+  }
+
+  @Override
+  public long maximumEntrySize()
+  {
+    return this.slabSize;
+  }
+
+  @Override
+  public void invalidate(
+    final URI file)
+  {
+    Objects.requireNonNull(file, "file");
+
+    this.lock.lock();
+    try {
+      final var iter = this.entries.values().iterator();
+      while (iter.hasNext()) {
+        final var entry = iter.next();
+        if (entry.key.file().equals(file)) {
+          iter.remove();
+          this.remove(entry);
+        }
+      }
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public void clear()
+  {
+    this.lock.lock();
+    try {
+      final var iter = this.entries.values().iterator();
+      while (iter.hasNext()) {
+        final var entry = iter.next();
+        iter.remove();
+        this.remove(entry);
+      }
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public EoSectionCacheStatistics statistics()
+  {
+    this.lock.lock();
+    try {
+      return EoSectionCacheStatistics.builder()
+        .setHits(this.hits.sum())
+        .setMisses(this.misses.sum())
+        .setEvictions(this.evictions.sum())
+        .setEntries(this.entries.size())
+        .setBytesUsed(this.bytesUsed)
+        .setBytesMaximum((long) this.maximumSlabs * (long) this.slabSize)
+        .build();
+    } finally {
+      this.lock.unlock();
+    }
+  }
+}
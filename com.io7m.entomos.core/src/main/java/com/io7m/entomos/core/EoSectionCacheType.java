@@ -0,0 +1,81 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import java.net.URI;
+
+/**
+ * A cache of section data, shared between any number of readers.
+ *
+ * <p>Sections are identified by the URI of the file in which they appear,
+ * and the offset of the section within that file. Files are assumed to be
+ * immutable for as long as data is held in the cache; callers that modify
+ * files must call {@link #invalidate(URI)}.</p>
+ *
+ * <p>Implementations of this interface are required to be safe for use from
+ * multiple threads.</p>
+ */
+
+public interface EoSectionCacheType
+{
+  /**
+   * Retrieve the data for the given section, loading it with the given
+   * loader if it is not already present in the cache. The returned lease
+   * must be closed when the caller has finished with the data.
+   *
+   * @param file    The file URI
+   * @param section The section
+   * @param loader  The loader used to fetch data on a cache miss
+   *
+   * @return A lease on the section data
+   *
+   * @throws EoException On errors
+   */
+
+  EoSectionCacheLeaseType get(
+    URI file,
+    EoFileSection section,
+    EoSectionLoaderType loader)
+    throws EoException;
+
+  /**
+   * @return The size of the largest section that the cache will accept
+   */
+
+  long maximumEntrySize();
+
+  /**
+   * Remove all cached sections for the given file.
+   *
+   * @param file The file URI
+   */
+
+  void invalidate(URI file);
+
+  /**
+   * Remove all cached sections.
+   */
+
+  void clear();
+
+  /**
+   * @return A snapshot of the current cache statistics
+   */
+
+  EoSectionCacheStatistics statistics();
+}
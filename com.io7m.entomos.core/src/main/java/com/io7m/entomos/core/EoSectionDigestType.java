@@ -0,0 +1,84 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import org.immutables.value.Value;
+
+import java.util.Optional;
+
+/**
+ * The digest of the stored data of a single section.
+ */
+
+@ImmutablesStyleType
+@Value.Immutable
+public interface EoSectionDigestType
+{
+  /**
+   * @return The section
+   */
+
+  EoFileSection section();
+
+  /**
+   * @return The digest algorithm
+   */
+
+  EoDigestAlgorithm algorithm();
+
+  /**
+   * @return The computed digest as lowercase hexadecimal
+   */
+
+  String digest();
+
+  /**
+   * @return The expected digest as lowercase hexadecimal, if any
+   */
+
+  Optional<String> expected();
+
+  /**
+   * @return {@code true} if an expected digest was required for the section
+   */
+
+  @Value.Default
+  default boolean expectedRequired()
+  {
+    return false;
+  }
+
+  /**
+   * @return The verification status
+   */
+
+  @Value.Derived
+  default EoVerificationStatus status()
+  {
+    return this.expected()
+      .map(e -> e.equals(this.digest())
+        ? EoVerificationStatus.VERIFIED
+        : EoVerificationStatus.MISMATCH)
+      .orElse(
+        this.expectedRequired()
+          ? EoVerificationStatus.MISSING
+          : EoVerificationStatus.UNCHECKED
+      );
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+/**
+ * The encoding of the data within a section.
+ */
+
+public enum EoSectionEncoding
+{
+  /**
+   * The section data is stored as-is.
+   */
+
+  RAW,
+
+  /**
+   * The section data is compressed as a single zlib stream, preceded by
+   * the 64-bit big-endian size of the uncompressed data. Readers that
+   * decode the section can only seek forwards efficiently; seeking
+   * backwards restarts decompression from the start of the section.
+   */
+
+  DEFLATE,
+
+  /**
+   * The section data is divided into fixed-size chunks that are each
+   * compressed as an independent zlib stream. The section begins with the
+   * 64-bit big-endian size of the uncompressed data, the 32-bit chunk size,
+   * and the 32-bit chunk count, and ends with a table of 64-bit offsets of
+   * each chunk relative to the start of the section data, terminated by the
+   * offset of the table itself. Readers that decode the section can seek
+   * to any position, decompressing only the chunks that are read.
+   */
+
+  DEFLATE_CHUNKED
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.SeekableByteChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Functions over section encodings.
+ */
+
+final class EoSectionEncodings
+{
+  private EoSectionEncodings()
+  {
+
+  }
+
+  /**
+   * Determine the descriptions of all sections declared in a file
+   * description that are not {@link EoSectionEncoding#RAW}.
+   *
+   * @param description The description
+   *
+   * @return The encoded section descriptions by tag
+   */
+
+  static Map<Long, EoFileSectionDescription> encodedSections(
+    final Optional<EoFileDescription> description)
+  {
+    final var results = new HashMap<Long, EoFileSectionDescription>();
+    description.ifPresent(d -> {
+      for (final var section : d.sections()) {
+        if (section.encoding() != EoSectionEncoding.RAW) {
+          results.put(Long.valueOf(section.tag()), section);
+        }
+      }
+    });
+    return Map.copyOf(results);
+  }
+
+  /**
+   * Decode the stored data of a section. The returned channel takes
+   * ownership of the stored channel.
+   *
+   * @param uri      The file
+   * @param section  The section
+   * @param encoding The section encoding
+   * @param stored   The stored section data
+   * @param chunks   The cache of decompressed chunks
+   *
+   * @return A channel exposing the decoded data
+   *
+   * @throws EoException On errors
+   */
+
+  static SeekableByteChannel decode(
+    final URI uri,
+    final EoFileSection section,
+    final EoSectionEncoding encoding,
+    final SeekableByteChannel stored,
+    final EoChunkCache chunks)
+    throws EoException
+  {
+    try {
+      return switch (encoding) {
+        case RAW -> stored;
+        case DEFLATE -> EoInflatingChannel.open(stored);
+        case DEFLATE_CHUNKED -> EoChunkedChannel.open(stored, chunks, section);
+      };
+    } catch (final IOException e) {
+      try {
+        stored.close();
+      } catch (final IOException x) {
+        e.addSuppressed(x);
+      }
+      throw errorDecode(uri, section, encoding, e);
+    }
+  }
+
+  static EoException errorDecode(
+    final URI uri,
+    final EoFileSection section,
+    final EoSectionEncoding encoding,
+    final Exception cause)
+  {
+    return new EoException(
+      "Section data could not be decoded.",
+      cause,
+      "error-section-decode",
+      Map.ofEntries(
+        Map.entry("File", uri.toString()),
+        Map.entry("Offset", Long.toUnsignedString(section.offset())),
+        Map.entry("Tag", "0x" + Long.toUnsignedString(section.tag(), 16)),
+        Map.entry("Encoding", encoding.name())
+      ),
+      Optional.empty()
+    );
+  }
+}
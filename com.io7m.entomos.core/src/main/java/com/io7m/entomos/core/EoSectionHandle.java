@@ -0,0 +1,110 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Objects;
+
+/**
+ * A handle to a section within an open file.
+ *
+ * @see EoFileReaderType#sectionStream()
+ */
+
+public final class EoSectionHandle
+{
+  private final EoFileReaderType reader;
+  private final EoFileSection section;
+
+  EoSectionHandle(
+    final EoFileReaderType inReader,
+    final EoFileSection inSection)
+  {
+    this.reader =
+      Objects.requireNonNull(inReader, "reader");
+    this.section =
+      Objects.requireNonNull(inSection, "section");
+  }
+
+  /**
+   * @return The section
+   */
+
+  public EoFileSection section()
+  {
+    return this.section;
+  }
+
+  /**
+   * @return A byte channel for the section data
+   *
+   * @throws EoException On errors
+   * @see EoFileReaderType#dataChannel(EoFileSection)
+   */
+
+  public SeekableByteChannel dataChannel()
+    throws EoException
+  {
+    return this.reader.dataChannel(this.section);
+  }
+
+  /**
+   * Read the section data in full.
+   *
+   * @return A read-only buffer containing the section data
+   *
+   * @throws EoException On errors
+   */
+
+  public ByteBuffer data()
+    throws EoException
+  {
+    return readFully(this.reader, this.section);
+  }
+
+  static ByteBuffer readFully(
+    final EoFileReaderType reader,
+    final EoFileSection section)
+    throws EoException
+  {
+    try (final var channel = reader.dataChannel(section)) {
+      final var buffer =
+        ByteBuffer.allocate(Math.toIntExact(channel.size()));
+
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer) == -1) {
+          throw EoSectionCacheHeap.errorShortLoad(
+            reader.uri(),
+            section,
+            buffer
+          );
+        }
+      }
+      return buffer.flip().asReadOnlyBuffer();
+    } catch (final Exception e) {
+      throw EoException.wrap(e);
+    }
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[EoSectionHandle %s]".formatted(this.section);
+  }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A publisher of the data of sections within a file. Sections are read
+ * only when subscribers signal demand for them, so a slow subscriber
+ * throttles reads from the file rather than causing data to be buffered.
+ * Each subscriber receives every section, in order, through its own
+ * subscription; sections are read on the given executor.
+ *
+ * <p>The publisher does not take ownership of the reader, which must remain
+ * open until all subscriptions have completed or been cancelled. If there
+ * is more than one subscriber, the reader must permit data channels to be
+ * used concurrently from different threads, as is the case for readers
+ * opened over a {@link java.nio.channels.FileChannel}.</p>
+ */
+
+public final class EoSectionPublisher
+  implements Flow.Publisher<EoSectionData>
+{
+  private final EoFileReaderType reader;
+  private final List<EoFileSection> sections;
+  private final Executor executor;
+
+  /**
+   * A publisher of the data of all sections within a file except for the
+   * end section. Sections are read on virtual threads.
+   *
+   * @param inReader The reader
+   */
+
+  public EoSectionPublisher(
+    final EoFileReaderType inReader)
+  {
+    this(
+      inReader,
+      withoutEnd(inReader),
+      command -> Thread.ofVirtual().start(command)
+    );
+  }
+
+  /**
+   * A publisher of the data of the given sections within a file.
+   *
+   * @param inReader   The reader
+   * @param inSections The sections, in the order in which they are
+   *                   published
+   * @param inExecutor The executor on which sections are read
+   */
+
+  public EoSectionPublisher(
+    final EoFileReaderType inReader,
+    final List<EoFileSection> inSections,
+    final Executor inExecutor)
+  {
+    this.reader =
+      Objects.requireNonNull(inReader, "reader");
+    this.sections =
+      List.copyOf(inSections);
+    this.executor =
+      Objects.requireNonNull(inExecutor, "executor");
+  }
+
+  private static List<EoFileSection> withoutEnd(
+    final EoFileReaderType reader)
+  {
+    final var all = reader.sections();
+    return new ArrayList<>(all.headSet(all.last()));
+  }
+
+  @Override
+  public void subscribe(
+    final Flow.Subscriber<? super EoSectionData> subscriber)
+  {
+    Objects.requireNonNull(subscriber, "subscriber");
+
+    final var subscription = new Subscription(subscriber);
+    subscriber.onSubscribe(subscription);
+    subscription.schedule();
+  }
+
+  private static EoSectionData readSection(
+    final EoFileReaderType reader,
+    final EoFileSection section)
+    throws EoException
+  {
+    return EoSectionData.builder()
+      .setSection(section)
+      .setData(EoSectionHandle.readFully(reader, section))
+      .build();
+  }
+
+  private final class Subscription
+    implements Flow.Subscription, Runnable
+  {
+    private final Flow.Subscriber<? super EoSectionData> subscriber;
+    private final AtomicLong demand;
+    private final AtomicInteger work;
+    private volatile boolean cancelled;
+    private volatile Throwable badRequest;
+    private int index;
+    private boolean done;
+
+    Subscription(
+      final Flow.Subscriber<? super EoSectionData> inSubscriber)
+    {
+      this.subscriber = inSubscriber;
+      this.demand = new AtomicLong(0L);
+      this.work = new AtomicInteger(0);
+    }
+
+    @Override
+    public void request(
+      final long n)
+    {
+      if (n <= 0L) {
+        this.badRequest = new IllegalArgumentException(
+          "Requested count %d must be positive".formatted(n)
+        );
+      } else {
+        this.demand.getAndAccumulate(n, (x, y) -> {
+          final var sum = x + y;
+          return sum < 0L ? Long.MAX_VALUE : sum;
+        });
+      }
+      this.schedule();
+    }
+
+    @Override
+    public void cancel()
+    {
+      this.cancelled = true;
+    }
+
+    void schedule()
+    {
+      if (this.work.getAndIncrement() == 0) {
+        EoSectionPublisher.this.executor.execute(this);
+      }
+    }
+
+    @Override
+    public void run()
+    {
+      var missed = 1;
+      while (true) {
+        this.drain();
+        missed = this.work.addAndGet(-missed);
+        if (missed == 0) {
+          return;
+        }
+      }
+    }
+
+    private void drain()
+    {
+      final var sectionList = EoSectionPublisher.this.sections;
+
+      while (!this.done && !this.cancelled) {
+        final var error = this.badRequest;
+        if (error != null) {
+          this.done = true;
+          this.subscriber.onError(error);
+          return;
+        }
+
+        if (this.index == sectionList.size()) {
+          this.done = true;
+          this.subscriber.onComplete();
+          return;
+        }
+
+        if (this.demand.get() == 0L) {
+          return;
+        }
+
+        final EoSectionData item;
+        try {
+          item = readSection(
+            EoSectionPublisher.this.reader,
+            sectionList.get(this.index)
+          );
+        } catch (final Throwable e) {
+          this.done = true;
+          this.subscriber.onError(e);
+          return;
+        }
+
+        this.index += 1;
+        this.demand.decrementAndGet();
+        this.subscriber.onNext(item);
+      }
+    }
+  }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.entomos.core;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * A function that transforms the data of a section during a conversion
+ * between file format versions.
+ *
+ * @see EoFileConverter
+ */
+
+@FunctionalInterface
+public interface EoSectionTransformType
+{
+  /**
+   * Transform the data of a section. The source channel yields the decoded
+   * data of the section, and data written to the target channel is encoded
+   * according to the target file description. Implementations are expected
+   * to stream data between the channels rather than buffering the whole
+   * section.
+   *
+   * @param section The source section
+   * @param source  The source data
+   * @param target  The target data
+   *
+   * @throws IOException On I/O errors
+   * @throws EoException On errors
+   */
+
+  void transform(
+    EoFileSection section,
+    ReadableByteChannel source,
+    WritableByteChannel target)
+    throws IOException, EoException;
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import com.io7m.verona.core.Version;
+
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * A visitor of the contents of a file read as a stream.
+ *
+ * @see EoFileStreamReaders
+ */
+
+public interface EoStreamVisitorType
+{
+  /**
+   * The file header has been read.
+   *
+   * @param fileTag The file tag
+   * @param version The file format version
+   *
+   * @throws EoException On errors
+   */
+
+  default void onFileStart(
+    final long fileTag,
+    final Version version)
+    throws EoException
+  {
+
+  }
+
+  /**
+   * A section has been encountered. The given channel yields exactly the
+   * data of the section, and is only valid until this method returns; any
+   * data not read by the visitor is skipped. The end section is not passed
+   * to this method.
+   *
+   * @param section The section
+   * @param data    The section data
+   *
+   * @throws EoException On errors
+   */
+
+  void onSection(
+    EoFileSection section,
+    ReadableByteChannel data)
+    throws EoException;
+
+  /**
+   * The end section has been read. No further data is consumed from the
+   * stream.
+   *
+   * @param section The end section
+   *
+   * @throws EoException On errors
+   */
+
+  default void onFileEnd(
+    final EoFileSection section)
+    throws EoException
+  {
+
+  }
+}
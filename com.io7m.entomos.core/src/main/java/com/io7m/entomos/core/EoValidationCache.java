@@ -0,0 +1,175 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import com.io7m.jaffirm.core.Preconditions;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded in-memory record of files that have passed validation. A file
+ * is identified by its path, file key, size, and modification time, along
+ * with the set of format descriptions against which it was validated. When
+ * a checked reader reopens an unchanged file that has already been validated
+ * against the same descriptions, validation is skipped entirely.
+ *
+ * <p>Instances of this class are safe for use from multiple threads.</p>
+ */
+
+public final class EoValidationCache
+{
+  private final int maximumEntries;
+  private final ReentrantLock lock;
+  private final LinkedHashMap<Key, Boolean> entries;
+
+  /**
+   * A bounded in-memory record of files that have passed validation.
+   *
+   * @param inMaximumEntries The maximum number of files to remember
+   */
+
+  public EoValidationCache(
+    final int inMaximumEntries)
+  {
+    Preconditions.checkPrecondition(
+      inMaximumEntries > 0,
+      "Maximum entries must be positive"
+    );
+
+    this.maximumEntries =
+      inMaximumEntries;
+    this.lock =
+      new ReentrantLock();
+    this.entries =
+      new LinkedHashMap<>(16, 0.75f, true)
+      {
+        @Override
+        protected boolean removeEldestEntry(
+          final Map.Entry<Key, Boolean> eldest)
+        {
+          return this.size() > EoValidationCache.this.maximumEntries;
+        }
+      };
+  }
+
+  private record Key(
+    Path file,
+    Object fileKey,
+    long size,
+    FileTime lastModified,
+    EoFileVersionsDescription versions)
+  {
+
+  }
+
+  private static Key keyOf(
+    final Path file,
+    final BasicFileAttributes attributes,
+    final EoFileVersionsDescription versions)
+  {
+    return new Key(
+      file.toAbsolutePath().normalize(),
+      attributes.fileKey(),
+      attributes.size(),
+      attributes.lastModifiedTime(),
+      versions
+    );
+  }
+
+  boolean isValidated(
+    final Path file,
+    final BasicFileAttributes attributes,
+    final EoFileVersionsDescription versions)
+  {
+    final var key = keyOf(file, attributes, versions);
+    this.lock.lock();
+    try {
+      return this.entries.containsKey(key);
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  void markValidated(
+    final Path file,
+    final BasicFileAttributes attributes,
+    final EoFileVersionsDescription versions)
+  {
+    final var key = keyOf(file, attributes, versions);
+    this.lock.lock();
+    try {
+      this.entries.put(key, Boolean.TRUE);
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Forget all validation results for the given file.
+   *
+   * @param file The file
+   */
+
+  public void invalidate(
+    final Path file)
+  {
+    Objects.requireNonNull(file, "file");
+
+    final var normalized = file.toAbsolutePath().normalize();
+    this.lock.lock();
+    try {
+      this.entries.keySet().removeIf(k -> k.file().equals(normalized));
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Forget all validation results.
+   */
+
+  public void clear()
+  {
+    this.lock.lock();
+    try {
+      this.entries.clear();
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * @return The number of validation results currently held
+   */
+
+  public int size()
+  {
+    this.lock.lock();
+    try {
+      return this.entries.size();
+    } finally {
+      this.lock.unlock();
+    }
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import org.immutables.value.Value;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The result of verifying a file.
+ */
+
+@ImmutablesStyleType
+@Value.Immutable
+public interface EoVerificationReportType
+{
+  /**
+   * @return The file
+   */
+
+  URI file();
+
+  /**
+   * @return The digest algorithm
+   */
+
+  EoDigestAlgorithm algorithm();
+
+  /**
+   * @return The digests of all sections other than the end section, in
+   * file order
+   */
+
+  List<EoSectionDigest> sections();
+
+  /**
+   * @return The total number of bytes of section data digested
+   */
+
+  long bytes();
+
+  /**
+   * @return The time taken to digest all sections
+   */
+
+  Duration elapsed();
+
+  /**
+   * @return The throughput in bytes per second
+   */
+
+  @Value.Lazy
+  default double bytesPerSecond()
+  {
+    final var nanos = Math.max(1L, this.elapsed().toNanos());
+    return (double) this.bytes() / ((double) nanos / 1_000_000_000.0);
+  }
+
+  /**
+   * @return {@code true} if no section failed verification
+   */
+
+  @Value.Lazy
+  default boolean succeeded()
+  {
+    return this.sections()
+      .stream()
+      .noneMatch(s -> s.status() == EoVerificationStatus.MISMATCH
+                      || s.status() == EoVerificationStatus.MISSING);
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.core;
+
+/**
+ * The result of verifying a single section.
+ */
+
+public enum EoVerificationStatus
+{
+  /**
+   * The section digest matched the expected digest.
+   */
+
+  VERIFIED,
+
+  /**
+   * The section digest did not match the expected digest.
+   */
+
+  MISMATCH,
+
+  /**
+   * The file has a checksum section, but the checksum section has no
+   * entry for the section. This indicates that the file has been truncated
+   * or tampered with.
+   */
+
+  MISSING,
+
+  /**
+   * No expected digest was available for the section. The computed digest
+   * is still reported.
+   */
+
+  UNCHECKED
+}
@@ -33,6 +33,8 @@ module com.io7m.entomos.core
   requires com.io7m.verona.core;
   requires com.io7m.wendover.core;
   requires com.io7m.jaffirm.core;
+  requires jdk.jfr;
+  requires jdk.unsupported;
 
   exports com.io7m.entomos.core;
 }
@@ -0,0 +1,246 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.tests;
+
+import com.io7m.entomos.core.EoAccessTracer;
+import com.io7m.entomos.core.EoException;
+import com.io7m.entomos.core.EoFileReadersIndexed;
+import com.io7m.entomos.core.EoFileReadersTraced;
+import com.io7m.entomos.core.EoFileReadersUnchecked;
+import com.io7m.jbssio.vanilla.BSSReaders;
+import com.io7m.jbssio.vanilla.BSSWriters;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_A;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_B;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_END;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_FILE;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class EoAccessTracerTest
+{
+  private static void writeFile(
+    final Path file)
+    throws Exception
+  {
+    try (final var channel = FileChannel.open(file, CREATE, WRITE)) {
+      try (final var writer =
+             new BSSWriters().createWriterFromChannel(
+               file.toUri(),
+               channel,
+               "File")) {
+        writer.writeU64BE(TAG_FILE);
+        writer.writeU32BE(1L);
+        writer.writeU32BE(0L);
+
+        writer.writeU64BE(TAG_A);
+        writer.writeU64BE(32L);
+        writer.writeBytes(new byte[32]);
+
+        writer.writeU64BE(TAG_B);
+        writer.writeU64BE(16L);
+        writer.writeBytes(new byte[16]);
+
+        writer.writeU64BE(TAG_END);
+        writer.writeU64BE(0L);
+      }
+    }
+  }
+
+  @Test
+  public void testTraceDumpRoundTrip(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file,0.bin");
+    writeFile(file);
+
+    final var tracer =
+      new EoAccessTracer(16);
+    final var readers =
+      new EoFileReadersTraced<>(
+        new EoFileReadersUnchecked(new BSSReaders()),
+        tracer
+      );
+
+    try (final var reader = readers.forFile(TAG_FILE, TAG_END, file, null)) {
+      final var sections = reader.sections();
+      final var sectionB =
+        sections.stream()
+          .filter(s -> s.tag() == TAG_B)
+          .findFirst()
+          .orElseThrow();
+      try (final var channel = reader.dataChannel(sectionB)) {
+        channel.read(ByteBuffer.allocate(16));
+      }
+      try (final var channel = reader.dataChannel(sections.first())) {
+        channel.read(ByteBuffer.allocate(8));
+        channel.read(ByteBuffer.allocate(100));
+      }
+    }
+
+    final var entries = tracer.snapshot();
+    assertEquals(3, entries.size());
+    assertEquals(TAG_B, entries.get(0).tag());
+    assertEquals(16L, entries.get(0).bytes());
+    assertEquals(TAG_A, entries.get(1).tag());
+    assertEquals(16L, entries.get(1).sectionOffset());
+    assertEquals(0L, entries.get(1).position());
+    assertEquals(8L, entries.get(2).position());
+    assertEquals(24L, entries.get(2).bytes());
+    assertEquals(file.toUri(), entries.get(2).file());
+
+    final var dump = directory.resolve("trace.csv");
+    tracer.dump(dump);
+    assertEquals(entries, EoAccessTracer.readDump(dump));
+  }
+
+  @Test
+  public void testBaseOpensFiles(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+    writeFile(file);
+
+    final var readers =
+      new EoFileReadersTraced<>(
+        new EoFileReadersIndexed<>(new EoFileReadersUnchecked()),
+        new EoAccessTracer(16)
+      );
+
+    try (final var reader = readers.forFile(TAG_FILE, TAG_END, file, null)) {
+      assertEquals(3, reader.sections().size());
+    }
+    assertTrue(Files.isRegularFile(EoFileReadersIndexed.sidecarOf(file)));
+  }
+
+  @Test
+  public void testRingOverwritesOldest(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+    writeFile(file);
+
+    final var tracer =
+      new EoAccessTracer(4);
+    final var readers =
+      new EoFileReadersTraced<>(
+        new EoFileReadersUnchecked(new BSSReaders()),
+        tracer
+      );
+
+    try (final var reader = readers.forFile(TAG_FILE, TAG_END, file, null)) {
+      try (final var channel = reader.dataChannel(reader.sections().first())) {
+        for (int index = 0; index < 10; ++index) {
+          channel.position(index);
+          channel.read(ByteBuffer.allocate(1));
+        }
+      }
+    }
+
+    final var entries = tracer.snapshot();
+    assertEquals(10L, tracer.recorded());
+    assertEquals(4, entries.size());
+    assertEquals(6L, entries.get(0).position());
+    assertEquals(9L, entries.get(3).position());
+  }
+
+  @Test
+  public void testConcurrentRecording(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+    writeFile(file);
+
+    final var tracer =
+      new EoAccessTracer(4);
+    final var readers =
+      new EoFileReadersTraced<>(new EoFileReadersUnchecked(), tracer);
+
+    try (final var reader = readers.forFile(TAG_FILE, TAG_END, file, null);
+         final var executor = Executors.newFixedThreadPool(4)) {
+      final var sectionA = reader.sections().first();
+      final var sectionB = reader.sections().higher(sectionA);
+      final var futures = new ArrayList<Future<?>>();
+
+      for (int thread = 0; thread < 4; ++thread) {
+        final var section = (thread % 2 == 0) ? sectionA : sectionB;
+        futures.add(executor.submit(() -> {
+          for (int index = 0; index < 2000; ++index) {
+            try (final var channel = reader.dataChannel(section)) {
+              channel.read(ByteBuffer.allocate(64));
+            }
+          }
+          return null;
+        }));
+      }
+
+      while (!futures.stream().allMatch(Future::isDone)) {
+        for (final var entry : tracer.snapshot()) {
+          if (entry.tag() == TAG_A) {
+            assertEquals(32L, entry.bytes());
+            assertEquals(sectionA.offset(), entry.sectionOffset());
+          } else {
+            assertEquals(TAG_B, entry.tag());
+            assertEquals(16L, entry.bytes());
+            assertEquals(sectionB.offset(), entry.sectionOffset());
+          }
+        }
+      }
+      for (final var future : futures) {
+        future.get();
+      }
+    }
+    assertEquals(8000L, tracer.recorded());
+  }
+
+  @Test
+  public void testMalformedDump(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var dump = directory.resolve("trace.csv");
+    Files.writeString(dump, "nonsense\n");
+
+    final var ex =
+      assertThrows(EoException.class, () -> EoAccessTracer.readDump(dump));
+    assertEquals("error-trace-malformed", ex.errorCode());
+  }
+
+  @Test
+  public void testCapacityPowerOfTwo()
+  {
+    assertThrows(Exception.class, () -> new EoAccessTracer(3));
+  }
+}
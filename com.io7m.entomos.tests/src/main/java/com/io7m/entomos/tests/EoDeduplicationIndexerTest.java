@@ -0,0 +1,144 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.tests;
+
+import com.io7m.entomos.core.EoDeduplicationIndexer;
+import com.io7m.entomos.core.EoFileReadersUnchecked;
+import com.io7m.entomos.core.EoFileWriters;
+import com.io7m.entomos.core.EoSectionLocation;
+import com.io7m.verona.core.Version;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_A;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_B;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_END;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_FILE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class EoDeduplicationIndexerTest
+{
+  private ForkJoinPool pool;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.pool = new ForkJoinPool(4);
+  }
+
+  @AfterEach
+  public void tearDown()
+  {
+    this.pool.shutdown();
+  }
+
+  private static void writeFile(
+    final Path file,
+    final String... texts)
+    throws Exception
+  {
+    try (final var writer =
+           new EoFileWriters()
+             .forFile(file, TAG_FILE, TAG_END, Version.of(1, 0, 0))) {
+      for (final var text : texts) {
+        writer.writeSection(TAG_A, ByteBuffer.wrap(text.getBytes(UTF_8)));
+      }
+      writer.writeSection(TAG_B, ByteBuffer.allocate(0));
+    }
+  }
+
+  @Test
+  public void testIndexDirectory(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var sub = Files.createDirectories(directory.resolve("sub"));
+    final var file0 = directory.resolve("file0.bin");
+    final var file1 = sub.resolve("file1.bin");
+    final var file2 = directory.resolve("file2.bin");
+
+    writeFile(file0, "Texture A", "Texture B");
+    writeFile(file1, "Texture B", "Texture C", "Texture B");
+    Files.writeString(file2, "Not an entomos file.");
+
+    final var indexer =
+      new EoDeduplicationIndexer<>(new EoFileReadersUnchecked(), this.pool);
+    final var index =
+      indexer.indexDirectory(directory, TAG_FILE, TAG_END, null);
+
+    assertEquals(3, index.sectionsByDigest().size());
+    assertEquals(1, index.duplicates().size());
+    assertEquals(45L, index.totalBytes());
+    assertEquals(18L, index.redundantBytes());
+    assertEquals(1, index.unreadable().size());
+    assertEquals(file2, index.unreadable().get(0));
+
+    final var group = index.duplicates().values().iterator().next();
+    assertEquals(3, group.size());
+    assertEquals(file0, group.get(0).file());
+    assertEquals(file1, group.get(1).file());
+    assertEquals(file1, group.get(2).file());
+
+    final var canonical = index.canonicalOf(group.get(2)).orElseThrow();
+    assertEquals(group.get(0), canonical);
+    assertEquals(
+      canonical,
+      index.canonicalOf(EoSectionLocation.of(file0, canonical.section()))
+        .orElseThrow()
+    );
+  }
+
+  @Test
+  public void testDistinctTags(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+
+    try (final var writer =
+           new EoFileWriters()
+             .forFile(file, TAG_FILE, TAG_END, Version.of(1, 0, 0))) {
+      writer.writeSection(TAG_A, ByteBuffer.wrap("Same".getBytes(UTF_8)));
+      writer.writeSection(TAG_B, ByteBuffer.wrap("Same".getBytes(UTF_8)));
+    }
+
+    final var indexer =
+      new EoDeduplicationIndexer<>(new EoFileReadersUnchecked(), this.pool);
+    final var index =
+      indexer.indexFiles(List.of(file), TAG_FILE, TAG_END, null);
+
+    assertEquals(2, index.sectionsByDigest().size());
+    assertEquals(0, index.duplicates().size());
+    assertEquals(0L, index.redundantBytes());
+    assertTrue(
+      index.sectionsByDigest()
+        .firstKey()
+        .startsWith("aaaaaaaaaaaaaaaa:RAW:")
+    );
+  }
+}
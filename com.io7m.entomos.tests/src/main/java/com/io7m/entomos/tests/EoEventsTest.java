@@ -0,0 +1,126 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.tests;
+
+import com.io7m.entomos.core.EoFileDescription;
+import com.io7m.entomos.core.EoFileReadersChecked;
+import com.io7m.entomos.core.EoFileSectionDescription;
+import com.io7m.entomos.core.EoFileVersionsDescription;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.io7m.entomos.core.EoSectionCardinality.ONE;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_A;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_END;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_FILE;
+import static com.io7m.entomos.tests.EoTestFixtures.writeSingleSectionFile;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class EoEventsTest
+{
+  private EoFileVersionsDescription formats;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.formats =
+      EoFileVersionsDescription.builder()
+        .addDescriptions(
+          EoFileDescription.builder()
+            .setVersionMajor(1)
+            .setVersionMinor(0)
+            .setFileTag(TAG_FILE)
+            .setEndTag(TAG_END)
+            .addSections(
+              EoFileSectionDescription.builder()
+                .setTag(TAG_A)
+                .setCardinality(ONE)
+                .build()
+            ).build()
+        ).build();
+  }
+
+  @Test
+  public void testEventsRecorded(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file =
+      directory.resolve("file.bin");
+    final var output =
+      directory.resolve("recording.jfr");
+
+    writeSingleSectionFile(file, TAG_A, 12L);
+
+    try (final var recording = new Recording()) {
+      recording.enable("com.io7m.entomos.FileOpened");
+      recording.enable("com.io7m.entomos.FileValidated");
+      recording.enable("com.io7m.entomos.SectionRead");
+      recording.start();
+
+      final var readers = new EoFileReadersChecked();
+      try (final var reader =
+             readers.forFile(TAG_FILE, TAG_END, file, this.formats)) {
+        try (final var channel =
+               reader.dataChannel(reader.sections().first())) {
+          channel.read(ByteBuffer.allocate(12));
+        }
+      }
+
+      recording.stop();
+      recording.dump(output);
+    }
+
+    final List<RecordedEvent> events =
+      RecordingFile.readAllEvents(output);
+
+    final var opened =
+      events.stream()
+        .filter(e -> e.getEventType().getName().equals("com.io7m.entomos.FileOpened"))
+        .toList();
+    assertEquals(1, opened.size());
+    assertEquals(2L, opened.get(0).getLong("sectionCount"));
+    assertEquals(48L, opened.get(0).getLong("headerBytesRead"));
+    assertEquals(file.toUri().toString(), opened.get(0).getString("uri"));
+
+    final var validated =
+      events.stream()
+        .filter(e -> e.getEventType().getName().equals("com.io7m.entomos.FileValidated"))
+        .toList();
+    assertEquals(1, validated.size());
+    assertEquals("1.0.0", validated.get(0).getString("descriptionVersion"));
+    assertTrue(validated.get(0).getBoolean("succeeded"));
+
+    final var reads =
+      events.stream()
+        .filter(e -> e.getEventType().getName().equals("com.io7m.entomos.SectionRead"))
+        .toList();
+    assertEquals(1, reads.size());
+    assertEquals(12L, reads.get(0).getLong("bytes"));
+    assertEquals(TAG_A, reads.get(0).getLong("tag"));
+  }
+}
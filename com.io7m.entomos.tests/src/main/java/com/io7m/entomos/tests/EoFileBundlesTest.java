@@ -0,0 +1,264 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.tests;
+
+import com.io7m.entomos.core.EoException;
+import com.io7m.entomos.core.EoFileBundles;
+import com.io7m.entomos.core.EoFileDescription;
+import com.io7m.entomos.core.EoFileReadersChecked;
+import com.io7m.entomos.core.EoFileSectionDescription;
+import com.io7m.entomos.core.EoFileVersionsDescription;
+import com.io7m.entomos.core.EoFileWriters;
+import com.io7m.entomos.core.EoSectionCardinality;
+import com.io7m.entomos.core.EoSectionEncoding;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_A;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_B;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_END;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_FILE;
+import static com.io7m.entomos.tests.EoTestFixtures.readText;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class EoFileBundlesTest
+{
+  private static final long TAG_CHECKSUMS =
+    0xCCCCCCCC_CCCCCCCCL;
+
+  private EoFileDescription description;
+  private EoFileVersionsDescription formats;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.description =
+      EoFileDescription.builder()
+        .setVersionMajor(1)
+        .setVersionMinor(0)
+        .setFileTag(TAG_FILE)
+        .setEndTag(TAG_END)
+        .setAlignment(64)
+        .setChecksumTag(TAG_CHECKSUMS)
+        .addSections(
+          EoFileSectionDescription.builder()
+            .setTag(TAG_A)
+            .setEncoding(EoSectionEncoding.DEFLATE)
+            .build(),
+          EoFileSectionDescription.builder()
+            .setTag(TAG_B)
+            .build()
+        ).build();
+
+    this.formats =
+      EoFileVersionsDescription.builder()
+        .addDescriptions(this.description)
+        .build();
+  }
+
+  private void writeFile(
+    final Path file,
+    final String... texts)
+    throws Exception
+  {
+    try (final var writer =
+           new EoFileWriters().forFile(file, this.description)) {
+      for (final var text : texts) {
+        final var tag = text.startsWith("B") ? TAG_B : TAG_A;
+        writer.writeSection(tag, ByteBuffer.wrap(text.getBytes(UTF_8)));
+      }
+    }
+  }
+
+  private List<String> readTexts(
+    final Path file)
+    throws Exception
+  {
+    final var results = new ArrayList<String>();
+    try (final var reader =
+           new EoFileReadersChecked()
+             .forFile(TAG_FILE, TAG_END, file, this.formats)) {
+      assertEquals(TAG_END, reader.sections().last().tag());
+      for (final var section : reader.sections()) {
+        assertEquals(0L, section.dataOffset() % 64L);
+        if (section.tag() == TAG_A || section.tag() == TAG_B) {
+          try (final var channel = reader.dataChannel(section)) {
+            results.add(readText(channel));
+          }
+        }
+      }
+    }
+    return results;
+  }
+
+  @Test
+  public void testMerge(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file0 = directory.resolve("file0.bin");
+    final var file1 = directory.resolve("file1.bin");
+    final var output = directory.resolve("output.bin");
+
+    this.writeFile(file0, "A 0", "B 0");
+    this.writeFile(file1, "B 1", "A 1");
+
+    new EoFileBundles().merge(
+      List.of(file0, file1),
+      this.description,
+      output,
+      true
+    );
+
+    assertEquals(List.of("A 0", "B 0", "B 1", "A 1"), this.readTexts(output));
+  }
+
+  @Test
+  public void testMergeInvalid(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file0 = directory.resolve("file0.bin");
+    final var file1 = directory.resolve("file1.bin");
+    final var output = directory.resolve("output.bin");
+
+    this.writeFile(file0, "A 0");
+    this.writeFile(file1, "A 1");
+
+    final var strict =
+      EoFileDescription.builder()
+        .from(this.description)
+        .setSections(List.of(
+          EoFileSectionDescription.builder()
+            .from(this.description.sections().get(0))
+            .setCardinality(EoSectionCardinality.ONE)
+            .build(),
+          this.description.sections().get(1)
+        ))
+        .build();
+
+    final var ex =
+      assertThrows(EoException.class, () -> {
+        new EoFileBundles().merge(List.of(file0, file1), strict, output, true);
+      });
+    assertEquals("error-section-tag-cardinality", ex.errorCode());
+    assertFalse(Files.exists(output));
+  }
+
+  @Test
+  public void testVersionMismatch(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file0 = directory.resolve("file0.bin");
+    final var file1 = directory.resolve("file1.bin");
+    final var output = directory.resolve("output.bin");
+
+    this.writeFile(file0, "A 0");
+    this.writeFile(file1, "A 1");
+
+    final var newer =
+      EoFileDescription.builder()
+        .from(this.description)
+        .setVersionMinor(1)
+        .build();
+
+    final var bundles = new EoFileBundles();
+    final var ex0 =
+      assertThrows(EoException.class, () -> {
+        bundles.merge(List.of(file0, file1), newer, output, true);
+      });
+    assertEquals("error-file-version-not-supported", ex0.errorCode());
+
+    final var ex1 =
+      assertThrows(EoException.class, () -> {
+        bundles.split(file0, newer, Map.of(Long.valueOf(TAG_A), output), true);
+      });
+    assertEquals("error-file-version-not-supported", ex1.errorCode());
+    assertFalse(Files.exists(output));
+  }
+
+  @Test
+  public void testOutputIsInput(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file0 = directory.resolve("file0.bin");
+    final var file1 = directory.resolve("file1.bin");
+
+    this.writeFile(file0, "A 0");
+    this.writeFile(file1, "A 1");
+
+    final var bundles = new EoFileBundles();
+    final var ex0 =
+      assertThrows(EoException.class, () -> {
+        bundles.merge(List.of(file0, file1), this.description, file1, true);
+      });
+    assertEquals("error-output-is-input", ex0.errorCode());
+
+    final var ex1 =
+      assertThrows(EoException.class, () -> {
+        bundles.split(
+          file0,
+          this.description,
+          Map.of(Long.valueOf(TAG_A), file0),
+          true
+        );
+      });
+    assertEquals("error-output-is-input", ex1.errorCode());
+
+    assertEquals(List.of("A 0"), this.readTexts(file0));
+    assertEquals(List.of("A 1"), this.readTexts(file1));
+  }
+
+  @Test
+  public void testSplit(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var input = directory.resolve("input.bin");
+    final var shardA = directory.resolve("a.bin");
+    final var shardB = directory.resolve("b.bin");
+
+    this.writeFile(input, "A 0", "B 0", "A 1", "B 1", "A 2");
+
+    final var written =
+      new EoFileBundles().split(
+        input,
+        this.description,
+        Map.of(Long.valueOf(TAG_A), shardA, Long.valueOf(TAG_B), shardB),
+        true
+      );
+
+    assertEquals(Set.of(shardA, shardB), written);
+    assertEquals(List.of("A 0", "A 1", "A 2"), this.readTexts(shardA));
+    assertEquals(List.of("B 0", "B 1"), this.readTexts(shardB));
+  }
+}
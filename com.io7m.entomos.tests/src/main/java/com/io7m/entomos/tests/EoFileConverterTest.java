@@ -0,0 +1,223 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.tests;
+
+import com.io7m.entomos.core.EoException;
+import com.io7m.entomos.core.EoFileConverter;
+import com.io7m.entomos.core.EoFileDescription;
+import com.io7m.entomos.core.EoFileReadersChecked;
+import com.io7m.entomos.core.EoFileSectionDescription;
+import com.io7m.entomos.core.EoFileVersionsDescription;
+import com.io7m.entomos.core.EoFileWriters;
+import com.io7m.entomos.core.EoSectionEncoding;
+import com.io7m.entomos.core.EoSectionTransformType;
+import com.io7m.verona.core.Version;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_A;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_B;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_END;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_FILE;
+import static com.io7m.entomos.tests.EoTestFixtures.readText;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class EoFileConverterTest
+{
+  private static final long TAG_CHECKSUMS =
+    0xCCCCCCCC_CCCCCCCCL;
+
+  private static final EoSectionTransformType UPPER_CASE =
+    (section, source, target) -> {
+      final var text = readText(source).toUpperCase();
+      target.write(ByteBuffer.wrap(text.getBytes(UTF_8)));
+    };
+
+  private EoFileDescription source;
+  private EoFileDescription target;
+
+  private static EoFileDescription description(
+    final int major,
+    final EoSectionEncoding encodingB)
+  {
+    return EoFileDescription.builder()
+      .setVersionMajor(major)
+      .setVersionMinor(0)
+      .setFileTag(TAG_FILE)
+      .setEndTag(TAG_END)
+      .setChecksumTag(TAG_CHECKSUMS)
+      .addSections(
+        EoFileSectionDescription.builder()
+          .setTag(TAG_A)
+          .build(),
+        EoFileSectionDescription.builder()
+          .setTag(TAG_B)
+          .setEncoding(encodingB)
+          .build()
+      ).build();
+  }
+
+  @BeforeEach
+  public void setup()
+  {
+    this.source = description(1, EoSectionEncoding.DEFLATE);
+    this.target = description(2, EoSectionEncoding.DEFLATE);
+  }
+
+  private void writeFile(
+    final Path file)
+    throws Exception
+  {
+    try (final var writer =
+           new EoFileWriters().forFile(file, this.source)) {
+      writer.writeSection(TAG_A, ByteBuffer.wrap("a 0".getBytes(UTF_8)));
+      writer.writeSection(TAG_B, ByteBuffer.wrap("b 0".getBytes(UTF_8)));
+      writer.writeSection(TAG_A, ByteBuffer.wrap("a 1".getBytes(UTF_8)));
+    }
+  }
+
+  private List<String> readTexts(
+    final Path file,
+    final EoFileDescription description)
+    throws Exception
+  {
+    final var results = new ArrayList<String>();
+    final var formats =
+      EoFileVersionsDescription.builder()
+        .addDescriptions(description)
+        .build();
+
+    try (final var reader =
+           new EoFileReadersChecked()
+             .forFile(TAG_FILE, TAG_END, file, formats)) {
+      assertEquals(
+        Version.of(description.versionMajor(), 0, 0),
+        reader.version()
+      );
+      for (final var section : reader.sections()) {
+        if (section.tag() == TAG_A || section.tag() == TAG_B) {
+          try (final var channel = reader.dataChannel(section)) {
+            results.add(readText(channel));
+          }
+        }
+      }
+    }
+    return results;
+  }
+
+  @Test
+  public void testConvert(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var input = directory.resolve("input.bin");
+    final var output = directory.resolve("output.bin");
+    this.writeFile(input);
+
+    final var statistics =
+      new EoFileConverter(
+        this.source,
+        this.target,
+        Map.of(Long.valueOf(TAG_A), UPPER_CASE)
+      ).convert(input, output);
+
+    assertEquals(1L, statistics.sectionsCopied());
+    assertEquals(2L, statistics.sectionsTransformed());
+    assertEquals(
+      List.of("A 0", "b 0", "A 1"),
+      this.readTexts(output, this.target)
+    );
+  }
+
+  @Test
+  public void testConvertEncodingChanged(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var input = directory.resolve("input.bin");
+    final var output = directory.resolve("output.bin");
+    this.writeFile(input);
+
+    final var raw = description(2, EoSectionEncoding.RAW);
+    final var statistics =
+      new EoFileConverter(this.source, raw, Map.of())
+        .convert(input, output);
+
+    assertEquals(3L, statistics.sectionsCopied());
+    assertEquals(0L, statistics.sectionsTransformed());
+    assertEquals(
+      List.of("a 0", "b 0", "a 1"),
+      this.readTexts(output, raw)
+    );
+  }
+
+  @Test
+  public void testConvertOutputIsInput(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var input = directory.resolve("input.bin");
+    this.writeFile(input);
+
+    final var ex =
+      assertThrows(EoException.class, () -> {
+        new EoFileConverter(this.source, this.target, Map.of())
+          .convert(input, input);
+      });
+    assertEquals("error-output-is-input", ex.errorCode());
+    assertEquals(
+      List.of("a 0", "b 0", "a 1"),
+      this.readTexts(input, this.source)
+    );
+  }
+
+  @Test
+  public void testConvertInvalid(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var input = directory.resolve("input.bin");
+    final var output = directory.resolve("output.bin");
+    this.writeFile(input);
+
+    final var withoutB =
+      EoFileDescription.builder()
+        .from(this.target)
+        .setSections(List.of(this.target.sections().get(0)))
+        .build();
+
+    final var ex =
+      assertThrows(EoException.class, () -> {
+        new EoFileConverter(this.source, withoutB, Map.of())
+          .convert(input, output);
+      });
+    assertEquals("error-section-tag-unknown", ex.errorCode());
+    assertFalse(Files.exists(output));
+  }
+}
@@ -192,4 +192,25 @@ public final class EoFileDescriptionTest
     SSLogging.logMDC(LOG, Level.DEBUG, EoException.wrap(ex));
     assertTrue(ex.getMessage().contains("The file tag and end tag must be different."));
   }
+
+  @Test
+  public void testAlignmentInvalid()
+  {
+    for (final var alignment : new int[]{0, 8, 24, 131072}) {
+      final var ex =
+        assertThrows(
+          IllegalArgumentException.class, () -> {
+            EoFileDescription.builder()
+              .setFileTag(0x0)
+              .setEndTag(0x1)
+              .setVersionMajor(1)
+              .setVersionMinor(0)
+              .setAlignment(alignment)
+              .build();
+          });
+
+      SSLogging.logMDC(LOG, Level.DEBUG, EoException.wrap(ex));
+      assertTrue(ex.getMessage().contains("The alignment must be a power of two"));
+    }
+  }
 }
@@ -0,0 +1,415 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.tests;
+
+import com.io7m.entomos.core.EoException;
+import com.io7m.entomos.core.EoFileIndex;
+import com.io7m.entomos.core.EoFileReaderIndexableFactoryType;
+import com.io7m.entomos.core.EoFileReaderPool;
+import com.io7m.entomos.core.EoFileReaderType;
+import com.io7m.entomos.core.EoFileSection;
+import com.io7m.entomos.core.EoFileReadersUnchecked;
+import com.io7m.verona.core.Version;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URI;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_A;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_END;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_FILE;
+import static com.io7m.entomos.tests.EoTestFixtures.writeSingleSectionFile;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class EoFileReaderPoolTest
+{
+  private static final class CountingReaders
+    implements EoFileReaderIndexableFactoryType<Void>
+  {
+    private final EoFileReadersUnchecked base =
+      new EoFileReadersUnchecked();
+    private final AtomicInteger opened =
+      new AtomicInteger();
+    private final AtomicInteger openedFromIndex =
+      new AtomicInteger();
+
+    @Override
+    public EoFileReaderType forChannel(
+      final URI uri,
+      final long fileTag,
+      final long endTag,
+      final SeekableByteChannel channel,
+      final Void parameters)
+      throws EoException
+    {
+      this.opened.incrementAndGet();
+      return this.base.forChannel(uri, fileTag, endTag, channel, parameters);
+    }
+
+    @Override
+    public EoFileReaderType forIndex(
+      final URI uri,
+      final SeekableByteChannel channel,
+      final EoFileIndex index,
+      final Void parameters)
+      throws EoException
+    {
+      this.openedFromIndex.incrementAndGet();
+      return this.base.forIndex(uri, channel, index, parameters);
+    }
+
+    @Override
+    public long fingerprint(
+      final Void parameters)
+    {
+      return this.base.fingerprint(parameters);
+    }
+  }
+
+  private static final class FailingCloseReaders
+    implements EoFileReaderIndexableFactoryType<Void>
+  {
+    private final EoFileReadersUnchecked base =
+      new EoFileReadersUnchecked();
+
+    @Override
+    public EoFileReaderType forChannel(
+      final URI uri,
+      final long fileTag,
+      final long endTag,
+      final SeekableByteChannel channel,
+      final Void parameters)
+      throws EoException
+    {
+      return new FailingCloseReader(
+        this.base.forChannel(uri, fileTag, endTag, channel, parameters)
+      );
+    }
+
+    @Override
+    public EoFileReaderType forIndex(
+      final URI uri,
+      final SeekableByteChannel channel,
+      final EoFileIndex index,
+      final Void parameters)
+      throws EoException
+    {
+      return new FailingCloseReader(
+        this.base.forIndex(uri, channel, index, parameters)
+      );
+    }
+
+    @Override
+    public long fingerprint(
+      final Void parameters)
+    {
+      return this.base.fingerprint(parameters);
+    }
+  }
+
+  private record FailingCloseReader(
+    EoFileReaderType reader)
+    implements EoFileReaderType
+  {
+    @Override
+    public NavigableSet<EoFileSection> sections()
+    {
+      return this.reader.sections();
+    }
+
+    @Override
+    public URI uri()
+    {
+      return this.reader.uri();
+    }
+
+    @Override
+    public long fileTag()
+    {
+      return this.reader.fileTag();
+    }
+
+    @Override
+    public Version version()
+    {
+      return this.reader.version();
+    }
+
+    @Override
+    public SeekableByteChannel dataChannel(
+      final EoFileSection section)
+      throws EoException
+    {
+      return this.reader.dataChannel(section);
+    }
+
+    @Override
+    public void close()
+      throws EoException
+    {
+      this.reader.close();
+      throw new EoException(
+        "Close failed.",
+        "error-close",
+        Map.of(),
+        Optional.empty()
+      );
+    }
+  }
+
+  private static void awaitWaiting(
+    final EoFileReaderPool<?> pool,
+    final int count)
+  {
+    while (pool.waiting() < count) {
+      Thread.onSpinWait();
+    }
+  }
+
+  @Test
+  public void testReopenFromIndex(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file0 =
+      directory.resolve("file0.bin");
+    final var file1 =
+      directory.resolve("file1.bin");
+
+    writeSingleSectionFile(file0, TAG_A, 12L);
+    writeSingleSectionFile(file1, TAG_A, 12L);
+
+    final var readers = new CountingReaders();
+    try (final var pool = new EoFileReaderPool<>(readers, 1)) {
+
+      try (final var r0 = pool.acquire(TAG_FILE, TAG_END, file0, null)) {
+        try (final var r1 = pool.acquire(TAG_FILE, TAG_END, file0, null)) {
+          assertEquals(2, r0.sections().size());
+          assertEquals(2, r1.sections().size());
+          assertEquals(1, pool.openFiles());
+        }
+      }
+
+      try (final var r1 = pool.acquire(TAG_FILE, TAG_END, file1, null)) {
+        assertEquals(2, r1.sections().size());
+        assertEquals(1, pool.openFiles());
+        assertEquals(2, pool.indexedFiles());
+      }
+
+      try (final var r0 = pool.acquire(TAG_FILE, TAG_END, file0, null)) {
+        assertEquals(2, r0.sections().size());
+        assertEquals(TAG_A, r0.sections().first().tag());
+        assertEquals(1, pool.openFiles());
+      }
+
+      assertEquals(2, readers.opened.get());
+      assertEquals(1, readers.openedFromIndex.get());
+    }
+  }
+
+  @Test
+  public void testEvictionCloseFailure(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file0 =
+      directory.resolve("file0.bin");
+    final var file1 =
+      directory.resolve("file1.bin");
+
+    writeSingleSectionFile(file0, TAG_A, 12L);
+    writeSingleSectionFile(file1, TAG_A, 12L);
+
+    /*
+     * A failure to close an evicted reader does not fail the acquisition
+     * that evicted it.
+     */
+
+    final var pool = new EoFileReaderPool<>(new FailingCloseReaders(), 1);
+    try (final var r0 = pool.acquire(TAG_FILE, TAG_END, file0, null)) {
+      assertEquals(2, r0.sections().size());
+    }
+    try (final var r1 = pool.acquire(TAG_FILE, TAG_END, file1, null)) {
+      assertEquals(2, r1.sections().size());
+      assertEquals(1, pool.openFiles());
+    }
+
+    final var ex = assertThrows(EoException.class, pool::close);
+    assertEquals("error-close", ex.errorCode());
+  }
+
+  @Test
+  public void testReopenChanged(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file0 =
+      directory.resolve("file0.bin");
+    final var file1 =
+      directory.resolve("file1.bin");
+
+    writeSingleSectionFile(file0, TAG_A, 12L);
+    writeSingleSectionFile(file1, TAG_A, 12L);
+
+    final var readers = new CountingReaders();
+    try (final var pool = new EoFileReaderPool<>(readers, 1)) {
+      try (final var r0 = pool.acquire(TAG_FILE, TAG_END, file0, null)) {
+        assertEquals(12L, r0.sections().first().dataSize());
+      }
+      try (final var r1 = pool.acquire(TAG_FILE, TAG_END, file1, null)) {
+        assertEquals(1, pool.openFiles());
+      }
+
+      /*
+       * Rewrite the first file; the retained index no longer matches the
+       * file, and so the file is enumerated again.
+       */
+
+      writeSingleSectionFile(file0, TAG_A, 100L);
+
+      try (final var r0 = pool.acquire(TAG_FILE, TAG_END, file0, null)) {
+        assertEquals(100L, r0.sections().first().dataSize());
+      }
+
+      assertEquals(3, readers.opened.get());
+      assertEquals(0, readers.openedFromIndex.get());
+    }
+  }
+
+  @Test
+  @Timeout(value = 10L, unit = TimeUnit.SECONDS)
+  public void testWaitersShareReader(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file0 =
+      directory.resolve("file0.bin");
+    final var file1 =
+      directory.resolve("file1.bin");
+
+    writeSingleSectionFile(file0, TAG_A, 12L);
+    writeSingleSectionFile(file1, TAG_A, 12L);
+
+    final var readers = new CountingReaders();
+    try (final var pool = new EoFileReaderPool<>(readers, 1)) {
+      final var r0 =
+        pool.acquire(TAG_FILE, TAG_END, file0, null);
+      final var started =
+        new CountDownLatch(1);
+      final var release =
+        new CountDownLatch(1);
+
+      final Supplier<Integer> task = () -> {
+        try (final var r1 = pool.acquire(TAG_FILE, TAG_END, file1, null)) {
+          started.countDown();
+          release.await();
+          return Integer.valueOf(r1.sections().size());
+        } catch (final EoException e) {
+          throw new IllegalStateException(e);
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IllegalStateException(e);
+        }
+      };
+
+      final var future0 = CompletableFuture.supplyAsync(task);
+      final var future1 = CompletableFuture.supplyAsync(task);
+
+      awaitWaiting(pool, 2);
+      r0.close();
+      started.await();
+      assertEquals(1, pool.openFiles());
+      release.countDown();
+
+      assertEquals(2, future0.get());
+      assertEquals(2, future1.get());
+      assertEquals(1, pool.openFiles());
+      assertEquals(2, readers.opened.get());
+    }
+  }
+
+  @Test
+  @Timeout(value = 10L, unit = TimeUnit.SECONDS)
+  public void testBudgetBlocks(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file0 =
+      directory.resolve("file0.bin");
+    final var file1 =
+      directory.resolve("file1.bin");
+
+    writeSingleSectionFile(file0, TAG_A, 12L);
+    writeSingleSectionFile(file1, TAG_A, 12L);
+
+    try (final var pool =
+           new EoFileReaderPool<>(new EoFileReadersUnchecked(), 1)) {
+
+      final var r0 =
+        pool.acquire(TAG_FILE, TAG_END, file0, null);
+
+      final var future =
+        CompletableFuture.supplyAsync(() -> {
+          try (final var r1 = pool.acquire(TAG_FILE, TAG_END, file1, null)) {
+            return r1.sections().size();
+          } catch (final EoException e) {
+            throw new IllegalStateException(e);
+          }
+        });
+
+      awaitWaiting(pool, 1);
+      assertFalse(future.isDone());
+      r0.close();
+      assertEquals(2, future.get());
+    }
+  }
+
+  @Test
+  public void testClosed(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file0 =
+      directory.resolve("file0.bin");
+
+    writeSingleSectionFile(file0, TAG_A, 12L);
+
+    final var pool =
+      new EoFileReaderPool<>(new EoFileReadersUnchecked(), 1);
+    pool.close();
+
+    final var ex =
+      assertThrows(EoException.class, () -> {
+        pool.acquire(TAG_FILE, TAG_END, file0, null);
+      });
+    assertEquals("error-pool-closed", ex.errorCode());
+  }
+}
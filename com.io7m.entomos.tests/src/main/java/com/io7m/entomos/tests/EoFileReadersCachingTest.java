@@ -0,0 +1,201 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.tests;
+
+import com.io7m.entomos.core.EoFileReadersCaching;
+import com.io7m.entomos.core.EoFileReadersIndexed;
+import com.io7m.entomos.core.EoFileReadersUnchecked;
+import com.io7m.entomos.core.EoSectionCacheHeap;
+import com.io7m.jbssio.vanilla.BSSWriters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_A;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_B;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_END;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_FILE;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class EoFileReadersCachingTest
+{
+  private BSSWriters bssWriters;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.bssWriters =
+      new BSSWriters();
+  }
+
+  private void writeFile(
+    final Path file)
+    throws Exception
+  {
+    try (final var channel = FileChannel.open(file, CREATE, WRITE)) {
+      try (final var writer =
+             this.bssWriters.createWriterFromChannel(
+               file.toUri(),
+               channel,
+               "File")) {
+        writer.writeU64BE(TAG_FILE);
+        writer.writeU32BE(1L);
+        writer.writeU32BE(0L);
+
+        {
+          final var data = new byte[16];
+          for (int index = 0; index < 16; ++index) {
+            data[index] = (byte) index;
+          }
+          writer.writeU64BE(TAG_A);
+          writer.writeU64BE(12L);
+          writer.writeBytes(data);
+        }
+
+        writer.writeU64BE(TAG_B);
+        writer.writeU64BE(16L);
+        writer.writeBytes(new byte[16]);
+
+        writer.writeU64BE(TAG_END);
+        writer.writeU64BE(0L);
+      }
+    }
+  }
+
+  private static byte[] readAll(
+    final SeekableByteChannel channel)
+    throws Exception
+  {
+    final var data = new byte[(int) channel.size()];
+    final var buffer = ByteBuffer.wrap(data);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer) < 0) {
+        break;
+      }
+    }
+    return data;
+  }
+
+  @Test
+  public void testBaseOpensFiles(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file =
+      directory.resolve("file.bin");
+
+    this.writeFile(file);
+
+    final var readers =
+      new EoFileReadersCaching<>(
+        new EoFileReadersIndexed<>(new EoFileReadersUnchecked()),
+        new EoSectionCacheHeap(1024L)
+      );
+
+    try (final var reader = readers.forFile(TAG_FILE, TAG_END, file, null)) {
+      assertEquals(3, reader.sections().size());
+    }
+    assertTrue(Files.isRegularFile(EoFileReadersIndexed.sidecarOf(file)));
+  }
+
+  @Test
+  public void testCacheHits(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file =
+      directory.resolve("file.bin");
+
+    this.writeFile(file);
+
+    final var cache =
+      new EoSectionCacheHeap(1024L);
+    final var readers =
+      new EoFileReadersCaching<>(new EoFileReadersUnchecked(), cache);
+
+    final var expected = new byte[12];
+    for (int index = 0; index < 12; ++index) {
+      expected[index] = (byte) index;
+    }
+
+    for (int attempt = 0; attempt < 3; ++attempt) {
+      try (final var reader = readers.forFile(TAG_FILE, TAG_END, file, null)) {
+        final var s0 = reader.sections().first();
+        try (final var channel = reader.dataChannel(s0)) {
+          assertEquals(12L, channel.size());
+          assertArrayEquals(expected, readAll(channel));
+        }
+      }
+    }
+
+    final var stats = cache.statistics();
+    assertEquals(1L, stats.misses());
+    assertEquals(2L, stats.hits());
+    assertEquals(1L, stats.entries());
+    assertEquals(12L, stats.bytesUsed());
+
+    cache.invalidate(file.toUri());
+    assertEquals(0L, cache.statistics().entries());
+    assertEquals(0L, cache.statistics().bytesUsed());
+  }
+
+  @Test
+  public void testCacheEviction(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file =
+      directory.resolve("file.bin");
+
+    this.writeFile(file);
+
+    final var cache =
+      new EoSectionCacheHeap(20L);
+    final var readers =
+      new EoFileReadersCaching<>(new EoFileReadersUnchecked(), cache);
+
+    try (final var reader = readers.forFile(TAG_FILE, TAG_END, file, null)) {
+      final var iter = reader.sections().iterator();
+      final var s0 = iter.next();
+      final var s1 = iter.next();
+
+      try (final var channel = reader.dataChannel(s0)) {
+        assertEquals(12, readAll(channel).length);
+      }
+      try (final var channel = reader.dataChannel(s1)) {
+        assertEquals(16, readAll(channel).length);
+      }
+    }
+
+    final var stats = cache.statistics();
+    assertEquals(2L, stats.misses());
+    assertEquals(1L, stats.evictions());
+    assertEquals(1L, stats.entries());
+    assertEquals(16L, stats.bytesUsed());
+  }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.tests;
+
+import com.io7m.entomos.core.EoAlignedBufferPool;
+import com.io7m.entomos.core.EoDirectIOPolicy;
+import com.io7m.entomos.core.EoException;
+import com.io7m.entomos.core.EoFileDescription;
+import com.io7m.entomos.core.EoFileReadersChecked;
+import com.io7m.entomos.core.EoFileReadersDirect;
+import com.io7m.entomos.core.EoFileSection;
+import com.io7m.entomos.core.EoFileSectionDescription;
+import com.io7m.entomos.core.EoFileVersionsDescription;
+import com.io7m.entomos.core.EoFileWriters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_A;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_END;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_FILE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class EoFileReadersDirectTest
+{
+  private static final int[] SIZES = {10, 5000, 70_001, 3};
+
+  private EoFileDescription description;
+  private EoFileVersionsDescription formats;
+  private byte[][] contents;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.description =
+      EoFileDescription.builder()
+        .setVersionMajor(1)
+        .setVersionMinor(0)
+        .setFileTag(TAG_FILE)
+        .setEndTag(TAG_END)
+        .addSections(
+          EoFileSectionDescription.builder()
+            .setTag(TAG_A)
+            .build()
+        ).build();
+
+    this.formats =
+      EoFileVersionsDescription.builder()
+        .addDescriptions(this.description)
+        .build();
+
+    final var random = new Random(0x1234L);
+    this.contents = new byte[SIZES.length][];
+    for (int index = 0; index < SIZES.length; ++index) {
+      this.contents[index] = new byte[SIZES[index]];
+      random.nextBytes(this.contents[index]);
+    }
+  }
+
+  private void writeFile(
+    final Path file)
+    throws Exception
+  {
+    try (final var writer =
+           new EoFileWriters().forFile(file, this.description)) {
+      for (final var data : this.contents) {
+        writer.writeSection(TAG_A, ByteBuffer.wrap(data));
+      }
+    }
+  }
+
+  private static byte[] readRange(
+    final SeekableByteChannel channel,
+    final long position,
+    final int length)
+    throws Exception
+  {
+    final var buffer = ByteBuffer.allocate(length);
+    channel.position(position);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer) == -1) {
+        break;
+      }
+    }
+    return Arrays.copyOf(buffer.array(), buffer.position());
+  }
+
+  @Test
+  public void testReadSections(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+    this.writeFile(file);
+
+    final var readers =
+      new EoFileReadersDirect<>(
+        new EoFileReadersChecked(),
+        EoDirectIOPolicy.DIRECT_PREFERRED
+      );
+
+    try (final var reader =
+           readers.forFile(TAG_FILE, TAG_END, file, this.formats)) {
+      final var sections =
+        reader.sections()
+          .stream()
+          .filter(s -> s.tag() == TAG_A)
+          .toList();
+
+      assertEquals(SIZES.length, sections.size());
+      for (int index = 0; index < SIZES.length; ++index) {
+        final var expected = this.contents[index];
+        try (final var channel = reader.dataChannel(sections.get(index))) {
+          assertArrayEquals(expected, readRange(channel, 0L, expected.length));
+
+          final var middle = expected.length / 3;
+          final var length = Math.min(700, expected.length - middle);
+          assertArrayEquals(
+            Arrays.copyOfRange(expected, middle, middle + length),
+            readRange(channel, middle, length)
+          );
+
+          assertEquals(
+            0,
+            readRange(channel, expected.length, 10).length
+          );
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testReadSectionsConcurrently(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+    this.writeFile(file);
+
+    final var readers =
+      new EoFileReadersDirect<>(
+        new EoFileReadersChecked(),
+        EoDirectIOPolicy.DIRECT_PREFERRED
+      );
+
+    try (final var reader =
+           readers.forFile(TAG_FILE, TAG_END, file, this.formats);
+         final var executor =
+           Executors.newVirtualThreadPerTaskExecutor()) {
+      final var sections =
+        reader.sections()
+          .stream()
+          .filter(s -> s.tag() == TAG_A)
+          .toList();
+
+      final var futures = new ArrayList<Future<?>>();
+      for (int round = 0; round < 8; ++round) {
+        for (int index = 0; index < SIZES.length; ++index) {
+          final EoFileSection section = sections.get(index);
+          final var expected = this.contents[index];
+          futures.add(executor.submit(() -> {
+            try (final var channel = reader.dataChannel(section)) {
+              assertArrayEquals(
+                expected,
+                readRange(channel, 0L, expected.length)
+              );
+            }
+            return null;
+          }));
+        }
+      }
+
+      for (final var future : futures) {
+        future.get();
+      }
+    }
+  }
+
+  @Test
+  public void testDirectRequired(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+    this.writeFile(file);
+
+    final var readers =
+      new EoFileReadersDirect<>(
+        new EoFileReadersChecked(),
+        EoDirectIOPolicy.DIRECT_REQUIRED
+      );
+
+    try (final var reader =
+           readers.forFile(TAG_FILE, TAG_END, file, this.formats)) {
+      assertEquals(SIZES.length + 1, reader.sections().size());
+    } catch (final EoException e) {
+      assertEquals("error-direct-io-unsupported", e.errorCode());
+    }
+  }
+
+  @Test
+  public void testBufferPool()
+  {
+    final var pool = new EoAlignedBufferPool(4096, 8192, 1);
+
+    final var b0 = pool.acquire();
+    final var b1 = pool.acquire();
+    assertTrue(b0.isDirect());
+    assertEquals(8192, b0.capacity());
+    assertEquals(0, b0.alignmentOffset(0, 4096));
+    assertEquals(0, b1.alignmentOffset(0, 4096));
+
+    pool.release(b0);
+    pool.release(b1);
+    assertEquals(1, pool.retained());
+    assertEquals(b0, pool.acquire());
+    assertEquals(0, pool.retained());
+  }
+}
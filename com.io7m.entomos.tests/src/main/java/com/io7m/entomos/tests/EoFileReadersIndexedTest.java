@@ -0,0 +1,236 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.tests;
+
+import com.io7m.entomos.core.EoException;
+import com.io7m.entomos.core.EoFileDescription;
+import com.io7m.entomos.core.EoFileReadersChecked;
+import com.io7m.entomos.core.EoFileReadersIndexed;
+import com.io7m.entomos.core.EoFileReadersUnchecked;
+import com.io7m.entomos.core.EoFileSectionDescription;
+import com.io7m.entomos.core.EoFileVersionsDescription;
+import com.io7m.entomos.core.EoMetricsType;
+import com.io7m.jbssio.vanilla.BSSReaders;
+import com.io7m.seltzer.slf4j.SSLogging;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.io7m.entomos.core.EoSectionCardinality.ONE;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_A;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_B;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_END;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_FILE;
+import static com.io7m.entomos.tests.EoTestFixtures.writeSingleSectionFile;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class EoFileReadersIndexedTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(EoFileReadersIndexedTest.class);
+
+  private EoFileVersionsDescription formats;
+  private EoFileReadersChecked checked;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.checked =
+      new EoFileReadersChecked();
+
+    this.formats =
+      EoFileVersionsDescription.builder()
+        .addDescriptions(
+          EoFileDescription.builder()
+            .setVersionMajor(1)
+            .setVersionMinor(0)
+            .setFileTag(TAG_FILE)
+            .setEndTag(TAG_END)
+            .addSections(
+              EoFileSectionDescription.builder()
+                .setTag(TAG_A)
+                .setCardinality(ONE)
+                .build()
+            ).build()
+        ).build();
+  }
+
+  @Test
+  public void testSidecarUsed(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file =
+      directory.resolve("file.bin");
+    final var sidecar =
+      EoFileReadersIndexed.sidecarOf(file);
+
+    writeSingleSectionFile(file, TAG_A, 12L);
+
+    final var readers =
+      new EoFileReadersIndexed<>(this.checked);
+
+    final var time = Files.getLastModifiedTime(file);
+    try (final var reader =
+           readers.forFile(TAG_FILE, TAG_END, file, this.formats)) {
+      assertEquals(2, reader.sections().size());
+    }
+    assertTrue(Files.isRegularFile(sidecar));
+
+    /*
+     * Replace the file with one that would fail validation, preserving
+     * the size and modification time. The sidecar is trusted.
+     */
+
+    writeSingleSectionFile(file, TAG_B, 12L);
+    Files.setLastModifiedTime(file, time);
+
+    try (final var reader =
+           readers.forFile(TAG_FILE, TAG_END, file, this.formats)) {
+      assertEquals(TAG_A, reader.sections().first().tag());
+    }
+
+    /*
+     * Once the modification time changes, the file is validated again.
+     */
+
+    Files.setLastModifiedTime(
+      file,
+      FileTime.fromMillis(time.toMillis() + 10_000L)
+    );
+
+    final var ex =
+      assertThrows(EoException.class, () -> {
+        readers.forFile(TAG_FILE, TAG_END, file, this.formats);
+      });
+    SSLogging.logMDC(LOG, Level.DEBUG, ex);
+    assertEquals("error-section-tag-unknown", ex.errorCode());
+  }
+
+  @Test
+  public void testSidecarFingerprint(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file =
+      directory.resolve("file.bin");
+
+    writeSingleSectionFile(file, TAG_B, 12L);
+
+    final var unchecked =
+      new EoFileReadersIndexed<>(new EoFileReadersUnchecked());
+
+    try (final var reader = unchecked.forFile(TAG_FILE, TAG_END, file, null)) {
+      assertEquals(TAG_B, reader.sections().first().tag());
+    }
+
+    /*
+     * A sidecar written by an unchecked reader does not allow a checked
+     * reader to skip validation.
+     */
+
+    final var readers =
+      new EoFileReadersIndexed<>(this.checked);
+
+    final var ex =
+      assertThrows(EoException.class, () -> {
+        readers.forFile(TAG_FILE, TAG_END, file, this.formats);
+      });
+    assertEquals("error-section-tag-unknown", ex.errorCode());
+  }
+
+  @Test
+  public void testSidecarAlignment(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file =
+      directory.resolve("file.bin");
+    final var sidecar =
+      EoFileReadersIndexed.sidecarOf(file);
+
+    writeSingleSectionFile(file, TAG_B, 12L);
+
+    /*
+     * Readers using different alignments find section headers in
+     * different places, and so must not share sidecars.
+     */
+
+    final var aligned =
+      new EoFileReadersUnchecked(new BSSReaders(), EoMetricsType.none(), 4096);
+
+    assertNotEquals(
+      new EoFileReadersUnchecked().fingerprint(null),
+      aligned.fingerprint(null)
+    );
+
+    final var readers =
+      new EoFileReadersIndexed<>(new EoFileReadersUnchecked());
+    try (final var reader = readers.forFile(TAG_FILE, TAG_END, file, null)) {
+      assertEquals(TAG_B, reader.sections().first().tag());
+    }
+
+    try (final var stream = Files.list(directory)) {
+      assertEquals(Set.of(file, sidecar), stream.collect(Collectors.toSet()));
+    }
+  }
+
+  @Test
+  public void testSidecarCorrupt(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file =
+      directory.resolve("file.bin");
+    final var sidecar =
+      EoFileReadersIndexed.sidecarOf(file);
+
+    writeSingleSectionFile(file, TAG_A, 12L);
+
+    final var readers =
+      new EoFileReadersIndexed<>(this.checked);
+
+    try (final var reader =
+           readers.forFile(TAG_FILE, TAG_END, file, this.formats)) {
+      assertEquals(2, reader.sections().size());
+    }
+
+    final var bytes = Files.readAllBytes(sidecar);
+    bytes[40] = (byte) ~bytes[40];
+    Files.write(sidecar, bytes);
+
+    try (final var reader =
+           readers.forFile(TAG_FILE, TAG_END, file, this.formats)) {
+      assertEquals(2, reader.sections().size());
+    }
+
+    assertNotEquals(bytes[40], Files.readAllBytes(sidecar)[40]);
+  }
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.tests;
+
+import com.io7m.entomos.core.EoException;
+import com.io7m.entomos.core.EoFileDescription;
+import com.io7m.entomos.core.EoFileReaderType;
+import com.io7m.entomos.core.EoFileReadersChecked;
+import com.io7m.entomos.core.EoFileReadersUnchecked;
+import com.io7m.entomos.core.EoFileSection;
+import com.io7m.entomos.core.EoFileSectionDescription;
+import com.io7m.entomos.core.EoFileVersionsDescription;
+import com.io7m.entomos.core.EoFileWriters;
+import com.io7m.entomos.core.EoSectionEncoding;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_END;
+import static com.io7m.entomos.tests.EoTestFixtures.readText;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class EoFileReadersNestedTest
+{
+  private static final long TAG_OUTER =
+    0x10101010_20202020L;
+  private static final long TAG_INNER =
+    0x30303030_40404040L;
+  private static final long TAG_FILE =
+    0xAAAAAAAA_AAAAAAAAL;
+  private static final long TAG_TEXT =
+    0xBBBBBBBB_BBBBBBBBL;
+
+  private static EoFileDescription description(
+    final long fileTag,
+    final EoSectionEncoding encoding)
+  {
+    return EoFileDescription.builder()
+      .setVersionMajor(1)
+      .setVersionMinor(0)
+      .setFileTag(fileTag)
+      .setEndTag(TAG_END)
+      .setAlignment(64)
+      .addSections(
+        EoFileSectionDescription.builder()
+          .setTag(TAG_FILE)
+          .setEncoding(encoding)
+          .build(),
+        EoFileSectionDescription.builder()
+          .setTag(TAG_TEXT)
+          .build()
+      ).build();
+  }
+
+  private static EoFileVersionsDescription versions(
+    final EoFileDescription description)
+  {
+    return EoFileVersionsDescription.builder()
+      .addDescriptions(description)
+      .build();
+  }
+
+  private static void writeFile(
+    final Path file,
+    final EoFileDescription description,
+    final List<Path> files,
+    final String... texts)
+    throws Exception
+  {
+    try (final var writer =
+           new EoFileWriters().forFile(file, description)) {
+      for (final var nested : files) {
+        final var data = Files.readAllBytes(nested);
+        writer.writeSection(TAG_FILE, ByteBuffer.wrap(data));
+      }
+      for (final var text : texts) {
+        writer.writeSection(TAG_TEXT, ByteBuffer.wrap(text.getBytes(UTF_8)));
+      }
+    }
+  }
+
+  private static List<EoFileSection> sectionsOf(
+    final EoFileReaderType reader,
+    final long tag)
+  {
+    return reader.sections()
+      .stream()
+      .filter(s -> s.tag() == tag)
+      .toList();
+  }
+
+  private static List<String> textsOf(
+    final EoFileReaderType reader)
+    throws Exception
+  {
+    final var results = new ArrayList<String>();
+    for (final var section : sectionsOf(reader, TAG_TEXT)) {
+      try (final var channel = reader.dataChannel(section)) {
+        results.add(readText(channel));
+      }
+    }
+    return results;
+  }
+
+  @Test
+  public void testNestedUnchecked(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var inner = directory.resolve("inner.bin");
+    final var outer = directory.resolve("outer.bin");
+    final var innerFormat = description(TAG_INNER, EoSectionEncoding.RAW);
+    final var outerFormat = description(TAG_OUTER, EoSectionEncoding.RAW);
+
+    writeFile(inner, innerFormat, List.of(), "x", "y");
+    writeFile(outer, outerFormat, List.of(inner), "z");
+
+    final var readers = new EoFileReadersUnchecked();
+    try (final var parent =
+           readers.forFile(TAG_OUTER, TAG_END, outer, null)) {
+      final var section = sectionsOf(parent, TAG_FILE).get(0);
+
+      try (final var nested =
+             readers.forSection(
+               URI.create("urn:nested"),
+               TAG_INNER,
+               TAG_END,
+               parent,
+               section,
+               null)) {
+        final var standalone =
+          readers.forFile(TAG_INNER, TAG_END, inner, null);
+        try (standalone) {
+          assertEquals(standalone.sections(), nested.sections());
+        }
+
+        assertEquals(List.of("x", "y"), textsOf(nested));
+        try (final var channel =
+               nested.dataChannel(sectionsOf(nested, TAG_TEXT).get(0))) {
+          assertEquals(
+            "EoFileChannelSubrange",
+            channel.getClass().getSimpleName()
+          );
+        }
+      }
+      assertEquals(List.of("z"), textsOf(parent));
+    }
+  }
+
+  @Test
+  public void testNestedOutOfBounds(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var inner = directory.resolve("inner.bin");
+    final var outer = directory.resolve("outer.bin");
+    final var innerFormat = description(TAG_INNER, EoSectionEncoding.RAW);
+    final var outerFormat = description(TAG_OUTER, EoSectionEncoding.RAW);
+
+    /*
+     * Claim that the end section of the nested file holds far more data
+     * than the nested file contains.
+     */
+
+    writeFile(inner, innerFormat, List.of(), "x");
+    final var bytes = Files.readAllBytes(inner);
+    ByteBuffer.wrap(bytes).putLong(bytes.length - 8, 1000L);
+    Files.write(inner, bytes);
+
+    writeFile(outer, outerFormat, List.of(inner), "secret");
+
+    final var readers = new EoFileReadersUnchecked();
+    try (final var parent =
+           readers.forFile(TAG_OUTER, TAG_END, outer, null);
+         final var nested =
+           readers.forSection(
+             URI.create("urn:nested"),
+             TAG_INNER,
+             TAG_END,
+             parent,
+             sectionsOf(parent, TAG_FILE).get(0),
+             null)) {
+      final var end = nested.sections().last();
+      assertEquals(1000L, end.dataSize());
+
+      final var ex =
+        assertThrows(EoException.class, () -> nested.dataChannel(end));
+      assertEquals("error-section-out-of-bounds", ex.errorCode());
+    }
+  }
+
+  @Test
+  public void testNestedCheckedDeep(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file0 = directory.resolve("file0.bin");
+    final var file1 = directory.resolve("file1.bin");
+    final var file2 = directory.resolve("file2.bin");
+    final var innerFormat = description(TAG_INNER, EoSectionEncoding.RAW);
+    final var outerFormat = description(TAG_OUTER, EoSectionEncoding.RAW);
+
+    writeFile(file0, innerFormat, List.of(), "deepest");
+    writeFile(file1, innerFormat, List.of(file0), "middle");
+    writeFile(file2, outerFormat, List.of(file1), "top");
+
+    final var readers = new EoFileReadersChecked();
+    final var uri = URI.create("urn:nested");
+    try (final var top =
+           readers.forFile(TAG_OUTER, TAG_END, file2, versions(outerFormat));
+         final var middle =
+           readers.forSection(
+             uri,
+             TAG_INNER,
+             TAG_END,
+             top,
+             sectionsOf(top, TAG_FILE).get(0),
+             versions(innerFormat));
+         final var deepest =
+           readers.forSection(
+             uri,
+             TAG_INNER,
+             TAG_END,
+             middle,
+             sectionsOf(middle, TAG_FILE).get(0),
+             versions(innerFormat))) {
+      assertEquals(List.of("top"), textsOf(top));
+      assertEquals(List.of("middle"), textsOf(middle));
+      assertEquals(List.of("deepest"), textsOf(deepest));
+    }
+  }
+
+  @Test
+  public void testNestedCompressed(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var inner = directory.resolve("inner.bin");
+    final var outer = directory.resolve("outer.bin");
+    final var innerFormat = description(TAG_INNER, EoSectionEncoding.RAW);
+    final var outerFormat =
+      description(TAG_OUTER, EoSectionEncoding.DEFLATE);
+
+    writeFile(inner, innerFormat, List.of(), "x", "y", "z");
+    writeFile(outer, outerFormat, List.of(inner));
+
+    final var readers = new EoFileReadersChecked();
+    try (final var parent =
+           readers.forFile(TAG_OUTER, TAG_END, outer, versions(outerFormat));
+         final var nested =
+           readers.forSection(
+             URI.create("urn:nested"),
+             TAG_INNER,
+             TAG_END,
+             parent,
+             sectionsOf(parent, TAG_FILE).get(0),
+             versions(innerFormat))) {
+      assertEquals(List.of("x", "y", "z"), textsOf(nested));
+    }
+  }
+}
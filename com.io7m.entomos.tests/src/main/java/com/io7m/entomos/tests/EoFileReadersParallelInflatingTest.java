@@ -0,0 +1,218 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.tests;
+
+import com.io7m.entomos.core.EoFileDescription;
+import com.io7m.entomos.core.EoFileReadersChecked;
+import com.io7m.entomos.core.EoFileReadersIndexed;
+import com.io7m.entomos.core.EoFileReadersParallelInflating;
+import com.io7m.entomos.core.EoFileSectionDescription;
+import com.io7m.entomos.core.EoFileVersionsDescription;
+import com.io7m.entomos.core.EoFileWriters;
+import com.io7m.entomos.core.EoSectionEncoding;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_A;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_B;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_END;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_FILE;
+import static com.io7m.entomos.tests.EoTestFixtures.readAll;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class EoFileReadersParallelInflatingTest
+{
+  private EoFileDescription description;
+  private EoFileVersionsDescription formats;
+  private ForkJoinPool pool;
+  private byte[] data;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.description =
+      EoFileDescription.builder()
+        .setVersionMajor(1)
+        .setVersionMinor(0)
+        .setFileTag(TAG_FILE)
+        .setEndTag(TAG_END)
+        .addSections(
+          EoFileSectionDescription.builder()
+            .setTag(TAG_A)
+            .setEncoding(EoSectionEncoding.DEFLATE_CHUNKED)
+            .setChunkSize(4096)
+            .build(),
+          EoFileSectionDescription.builder()
+            .setTag(TAG_B)
+            .build()
+        ).build();
+
+    this.formats =
+      EoFileVersionsDescription.builder()
+        .addDescriptions(this.description)
+        .build();
+
+    this.pool = new ForkJoinPool(4);
+
+    final var random = new Random(0x5eed);
+    this.data = new byte[1_000_003];
+    for (int index = 0; index < this.data.length; ++index) {
+      this.data[index] = (byte) (random.nextInt(4) + (index / 4096));
+    }
+  }
+
+  @AfterEach
+  public void tearDown()
+  {
+    this.pool.shutdown();
+  }
+
+  private void writeFile(
+    final Path file)
+    throws Exception
+  {
+    try (final var writer =
+           new EoFileWriters().forFile(file, this.description)) {
+      writer.writeSection(TAG_A, ByteBuffer.wrap(this.data));
+      writer.writeSection(TAG_B, ByteBuffer.wrap(new byte[]{1, 2, 3}));
+    }
+  }
+
+  private EoFileReadersParallelInflating<EoFileVersionsDescription> readers()
+  {
+    return new EoFileReadersParallelInflating<>(
+      new EoFileReadersChecked(),
+      this.pool,
+      8
+    );
+  }
+
+  @Test
+  public void testBaseOpensFiles(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+    this.writeFile(file);
+
+    final var readers =
+      new EoFileReadersParallelInflating<>(
+        new EoFileReadersIndexed<>(new EoFileReadersChecked()),
+        this.pool,
+        8
+      );
+
+    try (final var reader =
+           readers.forFile(TAG_FILE, TAG_END, file, this.formats)) {
+      try (final var channel = reader.dataChannel(reader.sections().first())) {
+        assertArrayEquals(this.data, readAll(channel));
+      }
+    }
+    assertTrue(Files.isRegularFile(EoFileReadersIndexed.sidecarOf(file)));
+  }
+
+  @Test
+  public void testSequential(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+    this.writeFile(file);
+
+    try (final var reader =
+           this.readers().forFile(TAG_FILE, TAG_END, file, this.formats)) {
+      final var sections = reader.sections().stream().toList();
+
+      try (final var channel = reader.dataChannel(sections.get(0))) {
+        assertEquals(this.data.length, channel.size());
+        assertArrayEquals(this.data, readAll(channel));
+      }
+      try (final var channel = reader.dataChannel(sections.get(1))) {
+        assertArrayEquals(new byte[]{1, 2, 3}, readAll(channel));
+      }
+    }
+  }
+
+  @Test
+  public void testRandomAccess(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+    this.writeFile(file);
+
+    final var random = new Random(0x5eed);
+    try (final var reader =
+           this.readers().forFile(TAG_FILE, TAG_END, file, this.formats)) {
+      final var section = reader.sections().first();
+      try (final var channel = reader.dataChannel(section)) {
+        for (int index = 0; index < 200; ++index) {
+          final var position = random.nextInt(this.data.length);
+          final var buffer = ByteBuffer.allocate(random.nextInt(1, 20_000));
+          channel.position(position);
+          final var count = channel.read(buffer);
+
+          assertEquals(
+            Math.min(buffer.capacity(), this.data.length - position),
+            count
+          );
+          assertArrayEquals(
+            Arrays.copyOfRange(this.data, position, position + count),
+            Arrays.copyOf(buffer.array(), count)
+          );
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testCorruptChunk(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+    this.writeFile(file);
+
+    try (final var channel = FileChannel.open(file, WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[32]), 16L + 16L + 16L + 2L);
+    }
+
+    try (final var reader =
+           this.readers().forFile(TAG_FILE, TAG_END, file, this.formats)) {
+      final var section = reader.sections().first();
+      try (final var channel = reader.dataChannel(section)) {
+        assertThrows(IOException.class, () -> readAll(channel));
+      }
+    }
+  }
+}
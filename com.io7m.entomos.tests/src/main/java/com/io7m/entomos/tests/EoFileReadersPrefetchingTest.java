@@ -0,0 +1,247 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.tests;
+
+import com.io7m.entomos.core.EoException;
+import com.io7m.entomos.core.EoFileReaderType;
+import com.io7m.entomos.core.EoFileReadersIndexed;
+import com.io7m.entomos.core.EoFileReadersPrefetching;
+import com.io7m.entomos.core.EoFileReadersUnchecked;
+import com.io7m.entomos.core.EoFileSection;
+import com.io7m.entomos.core.EoFileWriters;
+import com.io7m.verona.core.Version;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_A;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_END;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_FILE;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class EoFileReadersPrefetchingTest
+{
+  private byte[][] contents;
+  private Path file;
+
+  @BeforeEach
+  public void setup(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var random = new Random(0x5678L);
+    this.contents = new byte[10][];
+    for (int index = 0; index < this.contents.length; ++index) {
+      this.contents[index] = new byte[1000 * (index + 1)];
+      random.nextBytes(this.contents[index]);
+    }
+
+    this.file = directory.resolve("file.bin");
+    try (final var writer =
+           new EoFileWriters()
+             .forFile(this.file, TAG_FILE, TAG_END, Version.of(1, 0, 0))) {
+      for (final var data : this.contents) {
+        writer.writeSection(TAG_A, ByteBuffer.wrap(data));
+      }
+    }
+  }
+
+  private static byte[] readAll(
+    final EoFileReaderType reader,
+    final EoFileSection section)
+    throws Exception
+  {
+    try (final var channel = reader.dataChannel(section)) {
+      final var buffer = ByteBuffer.allocate((int) section.dataSize());
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer) == -1) {
+          break;
+        }
+      }
+      return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+  }
+
+  private static List<EoFileSection> dataSections(
+    final EoFileReaderType reader)
+  {
+    return reader.sections()
+      .stream()
+      .filter(s -> s.tag() == TAG_A)
+      .toList();
+  }
+
+  @Test
+  public void testBaseOpensFiles()
+    throws Exception
+  {
+    final var readers =
+      new EoFileReadersPrefetching<>(
+        new EoFileReadersIndexed<>(new EoFileReadersUnchecked()),
+        3,
+        20_000L
+      );
+
+    try (final var reader =
+           readers.forFile(TAG_FILE, TAG_END, this.file, null)) {
+      assertArrayEquals(
+        this.contents[0],
+        readAll(reader, dataSections(reader).get(0))
+      );
+    }
+    assertTrue(
+      Files.isRegularFile(EoFileReadersIndexed.sidecarOf(this.file))
+    );
+  }
+
+  @Test
+  public void testFileOrder()
+    throws Exception
+  {
+    final var readers =
+      new EoFileReadersPrefetching<>(
+        new EoFileReadersUnchecked(),
+        3,
+        20_000L
+      );
+
+    try (final var reader =
+           readers.forFile(TAG_FILE, TAG_END, this.file, null)) {
+      final var sections = dataSections(reader);
+      for (int index = 0; index < sections.size(); ++index) {
+        assertArrayEquals(
+          this.contents[index],
+          readAll(reader, sections.get(index))
+        );
+      }
+    }
+  }
+
+  @Test
+  public void testPlannedOrder()
+    throws Exception
+  {
+    final var base =
+      new EoFileReadersUnchecked()
+        .forFile(TAG_FILE, TAG_END, this.file, null);
+
+    final var plan = new ArrayList<>(dataSections(base));
+    Collections.reverse(plan);
+
+    try (final var reader =
+           EoFileReadersPrefetching.prefetch(base, plan, 4, 9_000L)) {
+      final var sections = dataSections(reader);
+      for (int index = sections.size() - 1; index >= 0; --index) {
+        assertArrayEquals(
+          this.contents[index],
+          readAll(reader, sections.get(index))
+        );
+      }
+    }
+  }
+
+  @Test
+  public void testShortRead()
+    throws Exception
+  {
+    final var base =
+      new EoFileReadersUnchecked()
+        .forFile(TAG_FILE, TAG_END, this.file, null);
+
+    final var last = dataSections(base).getLast();
+    try (final var channel = FileChannel.open(this.file, WRITE)) {
+      channel.truncate(last.dataOffset() + 10L);
+    }
+
+    try (final var reader =
+           EoFileReadersPrefetching.prefetch(base, List.of(last), 1, 20_000L)) {
+      final var ex =
+        assertThrows(EoException.class, () -> reader.dataChannel(last));
+      assertEquals("error-section-data-truncated", ex.errorCode());
+    }
+  }
+
+  @Test
+  public void testSkippingAndRevisiting()
+    throws Exception
+  {
+    final var readers =
+      new EoFileReadersPrefetching<>(
+        new EoFileReadersUnchecked(),
+        2,
+        100_000L
+      );
+
+    try (final var reader =
+           readers.forFile(TAG_FILE, TAG_END, this.file, null)) {
+      final var sections = dataSections(reader);
+      assertArrayEquals(this.contents[5], readAll(reader, sections.get(5)));
+      assertArrayEquals(this.contents[0], readAll(reader, sections.get(0)));
+      assertArrayEquals(this.contents[5], readAll(reader, sections.get(5)));
+      assertArrayEquals(this.contents[9], readAll(reader, sections.get(9)));
+    }
+  }
+
+  @Test
+  public void testHeldChannelsDoNotDeadlock()
+  {
+    assertTimeoutPreemptively(Duration.ofSeconds(10L), () -> {
+      final var readers =
+        new EoFileReadersPrefetching<>(
+          new EoFileReadersUnchecked(),
+          1,
+          100_000L
+        );
+
+      try (final var reader =
+             readers.forFile(TAG_FILE, TAG_END, this.file, null)) {
+        final var sections = dataSections(reader);
+        final var held = new ArrayList<SeekableByteChannel>();
+        for (int index = 0; index < sections.size(); ++index) {
+          held.add(reader.dataChannel(sections.get(index)));
+        }
+        for (int index = 0; index < sections.size(); ++index) {
+          final var channel = held.get(index);
+          final var buffer = ByteBuffer.allocate(this.contents[index].length);
+          while (buffer.hasRemaining()) {
+            channel.read(buffer);
+          }
+          assertArrayEquals(this.contents[index], buffer.array());
+          channel.close();
+        }
+      }
+    });
+  }
+}
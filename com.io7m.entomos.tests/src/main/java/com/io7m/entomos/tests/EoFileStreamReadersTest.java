@@ -0,0 +1,292 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.tests;
+
+import com.io7m.entomos.core.EoException;
+import com.io7m.entomos.core.EoFileDescription;
+import com.io7m.entomos.core.EoFileReadersUnchecked;
+import com.io7m.entomos.core.EoFileSection;
+import com.io7m.entomos.core.EoFileStreamReaders;
+import com.io7m.entomos.core.EoFileWriters;
+import com.io7m.entomos.core.EoMetricsType;
+import com.io7m.entomos.core.EoStreamVisitorType;
+import com.io7m.jbssio.vanilla.BSSReaders;
+import com.io7m.verona.core.Version;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.io7m.entomos.core.EoSectionsUnknown.UNKNOWN_SECTIONS_PERMITTED;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_A;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_B;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_END;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_FILE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class EoFileStreamReadersTest
+{
+  private static final URI URI_STREAM =
+    URI.create("urn:stream");
+
+  private static final class Recorder
+    implements EoStreamVisitorType
+  {
+    private final List<EoFileSection> sections = new ArrayList<>();
+    private final List<byte[]> data = new ArrayList<>();
+    private Version version;
+    private EoFileSection end;
+
+    @Override
+    public void onFileStart(
+      final long fileTag,
+      final Version inVersion)
+    {
+      this.version = inVersion;
+    }
+
+    @Override
+    public void onSection(
+      final EoFileSection section,
+      final ReadableByteChannel channel)
+      throws EoException
+    {
+      this.sections.add(section);
+
+      /*
+       * Only read the first few bytes of each section; the rest must be
+       * skipped by the stream reader.
+       */
+
+      final var buffer = ByteBuffer.allocate(4);
+      try {
+        while (buffer.hasRemaining()) {
+          if (channel.read(buffer) == -1) {
+            break;
+          }
+        }
+      } catch (final Exception e) {
+        throw EoException.wrap(e);
+      }
+      this.data.add(Arrays.copyOf(buffer.array(), buffer.position()));
+    }
+
+    @Override
+    public void onFileEnd(
+      final EoFileSection section)
+    {
+      this.end = section;
+    }
+  }
+
+  private static void writeFile(
+    final Path file,
+    final int alignment)
+    throws Exception
+  {
+    final var description =
+      EoFileDescription.builder()
+        .setVersionMajor(2)
+        .setVersionMinor(1)
+        .setFileTag(TAG_FILE)
+        .setEndTag(TAG_END)
+        .setAlignment(alignment)
+        .setSectionsUnknown(UNKNOWN_SECTIONS_PERMITTED)
+        .build();
+
+    try (final var writer = new EoFileWriters().forFile(file, description)) {
+      writer.writeSection(
+        TAG_A,
+        ByteBuffer.wrap("Hello, world.".getBytes(UTF_8))
+      );
+      writer.writeSection(TAG_B, ByteBuffer.wrap(new byte[0]));
+      writer.writeSection(TAG_A, ByteBuffer.wrap(new byte[10_000]));
+      writer.writeSection(TAG_B, ByteBuffer.wrap("xy".getBytes(UTF_8)));
+    }
+  }
+
+  @Test
+  public void testStreamMatchesReader(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    for (final var alignment : new int[]{16, 4096}) {
+      final var file = directory.resolve("file-" + alignment + ".bin");
+      writeFile(file, alignment);
+
+      final var recorder = new Recorder();
+      try (final var stream = Files.newInputStream(file)) {
+        new EoFileStreamReaders(alignment)
+          .visit(URI_STREAM, TAG_FILE, TAG_END, stream, recorder);
+      }
+
+      final var readers =
+        new EoFileReadersUnchecked(
+          new BSSReaders(),
+          EoMetricsType.none(),
+          alignment
+        );
+
+      try (final var reader =
+             readers.forFile(TAG_FILE, TAG_END, file, null)) {
+        final var expected = new ArrayList<>(reader.sections());
+        assertEquals(expected.removeLast(), recorder.end);
+        assertEquals(expected, recorder.sections);
+      }
+
+      assertEquals(Version.of(2, 1, 0), recorder.version);
+      assertArrayEquals("Hell".getBytes(UTF_8), recorder.data.get(0));
+      assertArrayEquals(new byte[0], recorder.data.get(1));
+      assertArrayEquals("xy".getBytes(UTF_8), recorder.data.get(3));
+    }
+  }
+
+  @Test
+  public void testTrailingDataUnread(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+    writeFile(file, 16);
+
+    final var bytes = Files.readAllBytes(file);
+    final var withTrailer = Arrays.copyOf(bytes, bytes.length + 3);
+    final var stream = new ByteArrayInputStream(withTrailer);
+
+    new EoFileStreamReaders()
+      .visit(URI_STREAM, TAG_FILE, TAG_END, stream, new Recorder());
+
+    assertEquals(3, stream.available());
+  }
+
+  @Test
+  public void testTruncated(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+    writeFile(file, 16);
+
+    final var bytes = Files.readAllBytes(file);
+    final var truncated = Arrays.copyOf(bytes, bytes.length - 16);
+
+    final var ex =
+      assertThrows(EoException.class, () -> {
+        new EoFileStreamReaders()
+          .visit(
+            URI_STREAM,
+            TAG_FILE,
+            TAG_END,
+            new ByteArrayInputStream(truncated),
+            new Recorder()
+          );
+      });
+
+    assertEquals("error-file-end-missing", ex.errorCode());
+  }
+
+  @Test
+  public void testSectionTruncated(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+    writeFile(file, 16);
+
+    final EoFileSection section;
+    try (final var reader =
+           new EoFileReadersUnchecked()
+             .forFile(TAG_FILE, TAG_END, file, null)) {
+      section = new ArrayList<>(reader.sections()).get(2);
+    }
+
+    final var bytes = Files.readAllBytes(file);
+    final var truncated =
+      Arrays.copyOf(bytes, (int) section.dataOffset() + 100);
+
+    final EoStreamVisitorType readAll = (unused, channel) -> {
+      try {
+        Channels.newInputStream(channel)
+          .transferTo(OutputStream.nullOutputStream());
+      } catch (final IOException e) {
+        throw EoException.wrap(e);
+      }
+    };
+
+    for (final var visitor : List.of(new Recorder(), readAll)) {
+      final var ex =
+        assertThrows(EoException.class, () -> {
+          new EoFileStreamReaders()
+            .visit(
+              URI_STREAM,
+              TAG_FILE,
+              TAG_END,
+              new ByteArrayInputStream(truncated),
+              visitor
+            );
+        });
+
+      assertEquals("error-section-data-truncated", ex.errorCode());
+      assertEquals(
+        "0x" + Long.toUnsignedString(section.offset(), 16),
+        ex.attributes().get("Offset")
+      );
+      assertEquals(
+        "0x" + Long.toUnsignedString(TAG_A, 16),
+        ex.attributes().get("Tag")
+      );
+    }
+  }
+
+  @Test
+  public void testWrongFileTag(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+    writeFile(file, 16);
+
+    final var ex =
+      assertThrows(EoException.class, () -> {
+        new EoFileStreamReaders()
+          .visit(
+            URI_STREAM,
+            TAG_A,
+            TAG_END,
+            new ByteArrayInputStream(Files.readAllBytes(file)),
+            new Recorder()
+          );
+      });
+
+    assertEquals("error-file-tag-incorrect", ex.errorCode());
+  }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.tests;
+
+import com.io7m.entomos.core.EoException;
+import com.io7m.entomos.core.EoFileSync;
+import com.io7m.entomos.core.EoFileWriters;
+import com.io7m.verona.core.Version;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_A;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_B;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_END;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_FILE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class EoFileSyncTest
+{
+  private static void writeFile(
+    final Path file,
+    final Version version,
+    final String... texts)
+    throws Exception
+  {
+    try (final var writer =
+           new EoFileWriters().forFile(file, TAG_FILE, TAG_END, version)) {
+      for (final var text : texts) {
+        final var tag = text.startsWith("B") ? TAG_B : TAG_A;
+        writer.writeSection(tag, ByteBuffer.wrap(text.getBytes(UTF_8)));
+      }
+    }
+  }
+
+  @Test
+  public void testPatchApply(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var base = directory.resolve("base.bin");
+    final var target = directory.resolve("target.bin");
+    final var patch = directory.resolve("patch.bin");
+    final var output = directory.resolve("output.bin");
+
+    final var large = "B".repeat(100_000);
+    writeFile(base, Version.of(1, 0, 0), "A one", large, "A two");
+    writeFile(target, Version.of(1, 1, 0), "A one", "A changed", large, "B");
+
+    final var sync = new EoFileSync();
+    final var statistics =
+      sync.createPatch(
+        sync.signature(base, TAG_FILE, TAG_END),
+        target,
+        TAG_FILE,
+        TAG_END,
+        patch
+      );
+
+    assertEquals(2L, statistics.sectionsReused());
+    assertEquals(2L, statistics.sectionsSent());
+    assertEquals(100_005L, statistics.bytesReused());
+    assertEquals(10L, statistics.bytesSent());
+    assertTrue(Files.size(patch) < 1000L);
+
+    sync.applyPatch(base, patch, output);
+    assertArrayEquals(Files.readAllBytes(target), Files.readAllBytes(output));
+  }
+
+  @Test
+  public void testPatchMalformed(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var base = directory.resolve("base.bin");
+    final var patch = directory.resolve("patch.bin");
+    final var output = directory.resolve("output.bin");
+
+    writeFile(base, Version.of(1, 0, 0), "A one");
+
+    try (final var writer =
+           new EoFileWriters()
+             .forFile(
+               patch,
+               EoFileSync.PATCH_FILE_TAG,
+               EoFileSync.PATCH_END_TAG,
+               Version.of(1, 0, 0))) {
+      writer.writeSection(EoFileSync.PATCH_DATA_TAG, ByteBuffer.allocate(4));
+    }
+
+    final var ex =
+      assertThrows(EoException.class, () -> {
+        new EoFileSync().applyPatch(base, patch, output);
+      });
+    assertEquals("error-patch-malformed", ex.errorCode());
+  }
+
+  @Test
+  public void testPatchOutputIsInput(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var base = directory.resolve("base.bin");
+    final var target = directory.resolve("target.bin");
+    final var patch = directory.resolve("patch.bin");
+
+    writeFile(base, Version.of(1, 0, 0), "A one");
+    writeFile(target, Version.of(1, 0, 0), "A two");
+
+    final var sync = new EoFileSync();
+    sync.createPatch(
+      sync.signature(base, TAG_FILE, TAG_END),
+      target,
+      TAG_FILE,
+      TAG_END,
+      patch
+    );
+
+    final var baseBytes = Files.readAllBytes(base);
+    final var patchBytes = Files.readAllBytes(patch);
+
+    final var ex0 =
+      assertThrows(EoException.class, () -> {
+        sync.applyPatch(base, patch, base);
+      });
+    assertEquals("error-output-is-input", ex0.errorCode());
+
+    final var ex1 =
+      assertThrows(EoException.class, () -> {
+        sync.applyPatch(base, patch, patch);
+      });
+    assertEquals("error-output-is-input", ex1.errorCode());
+
+    final var targetBytes = Files.readAllBytes(target);
+    final var ex2 =
+      assertThrows(EoException.class, () -> {
+        sync.createPatch(
+          sync.signature(base, TAG_FILE, TAG_END),
+          target,
+          TAG_FILE,
+          TAG_END,
+          target
+        );
+      });
+    assertEquals("error-output-is-input", ex2.errorCode());
+
+    assertArrayEquals(baseBytes, Files.readAllBytes(base));
+    assertArrayEquals(patchBytes, Files.readAllBytes(patch));
+    assertArrayEquals(targetBytes, Files.readAllBytes(target));
+  }
+
+  @Test
+  public void testPatchAlignmentInvalid(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var base = directory.resolve("base.bin");
+    final var patch = directory.resolve("patch.bin");
+    final var output = directory.resolve("output.bin");
+
+    writeFile(base, Version.of(1, 0, 0), "A one");
+
+    final var layout = ByteBuffer.allocate(32);
+    layout.putLong(TAG_FILE);
+    layout.putLong(TAG_END);
+    layout.putInt(1);
+    layout.putInt(0);
+    layout.putInt(3);
+    layout.putInt(0);
+
+    try (final var writer =
+           new EoFileWriters()
+             .forFile(
+               patch,
+               EoFileSync.PATCH_FILE_TAG,
+               EoFileSync.PATCH_END_TAG,
+               Version.of(1, 0, 0))) {
+      writer.writeSection(EoFileSync.PATCH_LAYOUT_TAG, layout.flip());
+    }
+
+    final var ex =
+      assertThrows(EoException.class, () -> {
+        new EoFileSync().applyPatch(base, patch, output);
+      });
+    assertEquals("error-patch-malformed", ex.errorCode());
+    assertFalse(Files.exists(output));
+  }
+
+  @Test
+  public void testSyncDirectory(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var source = Files.createDirectories(directory.resolve("source"));
+    final var replica = Files.createDirectories(directory.resolve("replica"));
+
+    writeFile(source.resolve("x.bin"), Version.of(1, 0, 0), "A x", "B x");
+    writeFile(source.resolve("y.bin"), Version.of(1, 0, 0), "A y");
+    writeFile(replica.resolve("x.bin"), Version.of(1, 0, 0), "A x", "B old");
+
+    final var results =
+      new EoFileSync().syncDirectory(source, replica, TAG_FILE, TAG_END);
+
+    assertEquals(1, results.size());
+    assertEquals(1L, results.get(Path.of("x.bin")).sectionsReused());
+    assertEquals(1L, results.get(Path.of("x.bin")).sectionsSent());
+
+    for (final var name : new String[]{"x.bin", "y.bin"}) {
+      assertArrayEquals(
+        Files.readAllBytes(source.resolve(name)),
+        Files.readAllBytes(replica.resolve(name))
+      );
+    }
+    try (final var files = Files.list(replica)) {
+      assertEquals(2L, files.count());
+    }
+  }
+}
@@ -0,0 +1,323 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.tests;
+
+import com.io7m.entomos.core.EoDigestAlgorithm;
+import com.io7m.entomos.core.EoException;
+import com.io7m.entomos.core.EoFileDescription;
+import com.io7m.entomos.core.EoFileReadersChecked;
+import com.io7m.entomos.core.EoFileSectionDescription;
+import com.io7m.entomos.core.EoFileReadersUnchecked;
+import com.io7m.entomos.core.EoFileVerifier;
+import com.io7m.entomos.core.EoFileVersionsDescription;
+import com.io7m.entomos.core.EoFileWriters;
+import com.io7m.entomos.core.EoVerificationStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_A;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_END;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_FILE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class EoFileVerifierTest
+{
+  private static final long TAG_CHECKSUMS =
+    0xCCCCCCCC_CCCCCCCCL;
+
+  private EoFileDescription description;
+  private EoFileVersionsDescription formats;
+  private ForkJoinPool pool;
+  private EoFileVerifier verifier;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.description =
+      EoFileDescription.builder()
+        .setVersionMajor(1)
+        .setVersionMinor(0)
+        .setFileTag(TAG_FILE)
+        .setEndTag(TAG_END)
+        .setChecksumTag(TAG_CHECKSUMS)
+        .addSections(
+          EoFileSectionDescription.builder()
+            .setTag(TAG_A)
+            .build()
+        ).build();
+
+    this.formats =
+      EoFileVersionsDescription.builder()
+        .addDescriptions(this.description)
+        .build();
+
+    this.pool = new ForkJoinPool(4);
+    this.verifier = new EoFileVerifier(new EoFileReadersChecked(), this.pool);
+  }
+
+  @AfterEach
+  public void tearDown()
+  {
+    this.pool.shutdown();
+  }
+
+  private void writeFile(
+    final Path file)
+    throws Exception
+  {
+    try (final var writer =
+           new EoFileWriters().forFile(file, this.description)) {
+      for (int index = 0; index < 16; ++index) {
+        final var data = new byte[10_000 * (index + 1)];
+        data[0] = (byte) index;
+        writer.writeSection(TAG_A, ByteBuffer.wrap(data));
+      }
+    }
+  }
+
+  @Test
+  public void testVerifyChecksums(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+    this.writeFile(file);
+
+    final var report =
+      this.verifier.verify(
+        file,
+        TAG_FILE,
+        TAG_END,
+        this.formats,
+        EoDigestAlgorithm.CRC32C
+      );
+
+    assertTrue(report.succeeded());
+    assertEquals(17, report.sections().size());
+    assertTrue(report.bytesPerSecond() > 0.0);
+
+    for (final var section : report.sections()) {
+      if (section.section().tag() == TAG_CHECKSUMS) {
+        assertEquals(EoVerificationStatus.UNCHECKED, section.status());
+      } else {
+        assertEquals(EoVerificationStatus.VERIFIED, section.status());
+      }
+    }
+  }
+
+  @Test
+  public void testVerifyCorrupt(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+    this.writeFile(file);
+
+    try (final var channel = FileChannel.open(file, WRITE)) {
+      channel.write(ByteBuffer.wrap("X".getBytes(UTF_8)), 16L + 16L + 100L);
+    }
+
+    final var report =
+      this.verifier.verify(
+        file,
+        TAG_FILE,
+        TAG_END,
+        this.formats,
+        EoDigestAlgorithm.CRC32C
+      );
+
+    assertFalse(report.succeeded());
+    assertEquals(
+      EoVerificationStatus.MISMATCH,
+      report.sections().get(0).status()
+    );
+    assertEquals(
+      EoVerificationStatus.VERIFIED,
+      report.sections().get(1).status()
+    );
+  }
+
+  @Test
+  public void testVerifyChecksumMissing(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+    this.writeFile(file);
+
+    /*
+     * Make the first checksum entry refer to an offset at which there is
+     * no section, leaving the first section without a checksum.
+     */
+
+    final long offsetTable;
+    try (final var reader =
+           new EoFileReadersUnchecked()
+             .forFile(TAG_FILE, TAG_END, file, null)) {
+      offsetTable = reader.sections().stream().toList().get(16).dataOffset();
+    }
+
+    try (final var channel = FileChannel.open(file, WRITE)) {
+      channel.write(ByteBuffer.allocate(8).putLong(0, 1L), offsetTable);
+    }
+
+    final var report =
+      this.verifier.verify(
+        file,
+        TAG_FILE,
+        TAG_END,
+        this.formats,
+        EoDigestAlgorithm.CRC32C
+      );
+
+    assertFalse(report.succeeded());
+    assertEquals(
+      EoVerificationStatus.MISSING,
+      report.sections().get(0).status()
+    );
+    assertEquals(
+      EoVerificationStatus.VERIFIED,
+      report.sections().get(1).status()
+    );
+    assertEquals(
+      EoVerificationStatus.UNCHECKED,
+      report.sections().get(16).status()
+    );
+  }
+
+  @Test
+  public void testVerifySHA256(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+    this.writeFile(file);
+
+    final var data = new byte[10_000];
+    final var expected =
+      HexFormat.of()
+        .withUpperCase()
+        .formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+
+    final var report =
+      this.verifier.verify(
+        file,
+        TAG_FILE,
+        TAG_END,
+        this.formats,
+        EoDigestAlgorithm.SHA_256,
+        Map.of(Long.valueOf(16L), expected)
+      );
+
+    assertTrue(report.succeeded());
+    assertEquals(
+      EoVerificationStatus.VERIFIED,
+      report.sections().get(0).status()
+    );
+    assertEquals(
+      EoVerificationStatus.UNCHECKED,
+      report.sections().get(1).status()
+    );
+  }
+
+  @Test
+  public void testVerifyInvalid(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+    Files.write(file, new byte[32]);
+
+    assertThrows(EoException.class, () -> {
+      this.verifier.verify(
+        file,
+        TAG_FILE,
+        TAG_END,
+        this.formats,
+        EoDigestAlgorithm.CRC32C
+      );
+    });
+  }
+
+  @Test
+  public void testFailureWaitsForTasks(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+    this.writeFile(file);
+
+    /*
+     * Hold back the first two digests until the third is rejected; the
+     * verifier must not return until the held tasks have finished.
+     */
+
+    final var gate = new CountDownLatch(1);
+    final var submitted = new AtomicInteger(0);
+    final var started = new AtomicInteger(0);
+    final Executor executor = task -> {
+      if (submitted.incrementAndGet() == 3) {
+        gate.countDown();
+        throw new RejectedExecutionException();
+      }
+      this.pool.execute(() -> {
+        try {
+          gate.await();
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        started.incrementAndGet();
+        task.run();
+      });
+    };
+
+    final var failing =
+      new EoFileVerifier(new EoFileReadersChecked(), executor);
+
+    assertThrows(RejectedExecutionException.class, () -> {
+      failing.verify(
+        file,
+        TAG_FILE,
+        TAG_END,
+        this.formats,
+        EoDigestAlgorithm.SHA_256
+      );
+    });
+    assertEquals(2, started.get());
+  }
+}
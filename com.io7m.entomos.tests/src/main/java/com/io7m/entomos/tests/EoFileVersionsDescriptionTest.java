@@ -165,4 +165,44 @@ public final class EoFileVersionsDescriptionTest
     SSLogging.logMDC(LOG, Level.DEBUG, EoException.wrap(ex));
     assertEquals("All file format versions must use the same end tag.", ex.getMessage());
   }
+
+  @Test
+  public void testVersionWrongAlignment()
+  {
+    final var v1 =
+      EoFileDescription.builder()
+        .setVersionMajor(1)
+        .setVersionMinor(0)
+        .setFileTag(TAG_FILE)
+        .setEndTag(TAG_END)
+        .addSections(
+          EoFileSectionDescription.builder()
+            .setTag(TAG_A)
+            .build()
+        ).build();
+
+    final var v2 =
+      EoFileDescription.builder()
+        .setVersionMajor(2)
+        .setVersionMinor(0)
+        .setFileTag(TAG_FILE)
+        .setEndTag(TAG_END)
+        .setAlignment(4096)
+        .addSections(
+          EoFileSectionDescription.builder()
+            .setTag(TAG_A)
+            .build()
+        ).build();
+
+    final var ex =
+      assertThrows(
+        IllegalArgumentException.class, () -> {
+          EoFileVersionsDescription.builder()
+            .addDescriptions(v1, v2)
+            .build();
+        });
+
+    SSLogging.logMDC(LOG, Level.DEBUG, EoException.wrap(ex));
+    assertEquals("All file format versions must use the same alignment.", ex.getMessage());
+  }
 }
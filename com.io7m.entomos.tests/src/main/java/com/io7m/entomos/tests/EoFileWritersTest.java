@@ -0,0 +1,348 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.tests;
+
+import com.io7m.entomos.core.EoException;
+import com.io7m.entomos.core.EoFileDescription;
+import com.io7m.entomos.core.EoFileReadersChecked;
+import com.io7m.entomos.core.EoFileReadersUnchecked;
+import com.io7m.entomos.core.EoFileSectionDescription;
+import com.io7m.entomos.core.EoFileVersionsDescription;
+import com.io7m.entomos.core.EoFileWriters;
+import com.io7m.entomos.core.EoMetrics;
+import com.io7m.entomos.core.EoMetricsType;
+import com.io7m.jbssio.vanilla.BSSReaders;
+import com.io7m.verona.core.Version;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_A;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_B;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_END;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_FILE;
+import static com.io7m.entomos.tests.EoTestFixtures.readAll;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class EoFileWritersTest
+{
+  @Test
+  public void testWriteRead(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+    final var writers = new EoFileWriters();
+
+    try (final var writer =
+           writers.forFile(file, TAG_FILE, TAG_END, Version.of(1, 2, 0))) {
+      writer.writeSection(TAG_A, ByteBuffer.wrap("Hello.".getBytes(UTF_8)));
+      try (final var channel = writer.createSection(TAG_B)) {
+        channel.write(ByteBuffer.wrap(new byte[20]));
+        channel.write(ByteBuffer.wrap(new byte[3]));
+      }
+      assertEquals(96L, writer.position());
+    }
+
+    assertEquals(112L, Files.size(file));
+
+    final var readers = new EoFileReadersUnchecked();
+    try (final var reader = readers.forFile(TAG_FILE, TAG_END, file, null)) {
+      assertEquals(Version.of(1, 2, 0), reader.version());
+
+      final var sections = reader.sections().stream().toList();
+      assertEquals(3, sections.size());
+      assertEquals(TAG_A, sections.get(0).tag());
+      assertEquals(6L, sections.get(0).dataSize());
+      assertEquals(16L, sections.get(0).offset());
+      assertEquals(TAG_B, sections.get(1).tag());
+      assertEquals(23L, sections.get(1).dataSize());
+      assertEquals(48L, sections.get(1).offset());
+      assertEquals(TAG_END, sections.get(2).tag());
+
+      try (final var channel = reader.dataChannel(sections.get(0))) {
+        assertArrayEquals("Hello.".getBytes(UTF_8), readAll(channel));
+      }
+    }
+  }
+
+  @Test
+  public void testCopySections(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file0 = directory.resolve("file0.bin");
+    final var file1 = directory.resolve("file1.bin");
+    final var writers = new EoFileWriters();
+
+    final var data = new byte[100_000];
+    for (int index = 0; index < data.length; ++index) {
+      data[index] = (byte) index;
+    }
+
+    try (final var writer =
+           writers.forFile(file0, TAG_FILE, TAG_END, Version.of(1, 0, 0))) {
+      writer.writeSection(TAG_A, ByteBuffer.wrap(data));
+    }
+
+    final var readers = new EoFileReadersUnchecked();
+    try (final var reader = readers.forFile(TAG_FILE, TAG_END, file0, null)) {
+      try (final var writer =
+             writers.forFile(file1, TAG_FILE, TAG_END, Version.of(1, 0, 0))) {
+        writer.copySection(reader, reader.sections().first());
+      }
+    }
+
+    assertArrayEquals(Files.readAllBytes(file0), Files.readAllBytes(file1));
+  }
+
+  @Test
+  public void testCopySectionsWithMetrics(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file0 = directory.resolve("file0.bin");
+    final var file1 = directory.resolve("file1.bin");
+    final var writers = new EoFileWriters();
+
+    try (final var writer =
+           writers.forFile(file0, TAG_FILE, TAG_END, Version.of(1, 0, 0))) {
+      writer.writeSection(TAG_A, ByteBuffer.wrap(new byte[100_000]));
+    }
+
+    /*
+     * Section data is transferred directly between the files rather than
+     * being read through the metered channel.
+     */
+
+    final var metrics = new EoMetrics();
+    final var readers =
+      new EoFileReadersUnchecked(new BSSReaders(), metrics);
+    try (final var reader = readers.forFile(TAG_FILE, TAG_END, file0, null)) {
+      try (final var writer =
+             writers.forFile(file1, TAG_FILE, TAG_END, Version.of(1, 0, 0))) {
+        writer.copySection(reader, reader.sections().first());
+      }
+    }
+
+    assertArrayEquals(Files.readAllBytes(file0), Files.readAllBytes(file1));
+    assertEquals(Map.of(), metrics.bytesReadByTag());
+  }
+
+  @Test
+  public void testSectionAlreadyOpen(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+    final var writers = new EoFileWriters();
+
+    try (final var writer =
+           writers.forFile(file, TAG_FILE, TAG_END, Version.of(1, 0, 0))) {
+      try (final var ignored = writer.createSection(TAG_A)) {
+        final var ex =
+          assertThrows(EoException.class, () -> writer.createSection(TAG_B));
+        assertEquals("error-writer-section-open", ex.errorCode());
+      }
+    }
+  }
+
+  @Test
+  public void testWriterClosed(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+    final var writers = new EoFileWriters();
+
+    final var writer =
+      writers.forFile(file, TAG_FILE, TAG_END, Version.of(1, 0, 0));
+    writer.close();
+
+    final var ex =
+      assertThrows(EoException.class, () -> writer.createSection(TAG_A));
+    assertEquals("error-writer-closed", ex.errorCode());
+  }
+
+  @Test
+  public void testPageAligned(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+    final var writers = new EoFileWriters();
+
+    final var description =
+      EoFileDescription.builder()
+        .setVersionMajor(1)
+        .setVersionMinor(0)
+        .setFileTag(TAG_FILE)
+        .setEndTag(TAG_END)
+        .setAlignment(4096)
+        .addSections(
+          EoFileSectionDescription.builder()
+            .setTag(TAG_A)
+            .build(),
+          EoFileSectionDescription.builder()
+            .setTag(TAG_B)
+            .build()
+        ).build();
+
+    try (final var writer = writers.forFile(file, description)) {
+      writer.writeSection(TAG_A, ByteBuffer.wrap("Hello.".getBytes(UTF_8)));
+      writer.writeSection(TAG_B, ByteBuffer.wrap(new byte[5000]));
+    }
+
+    final var readers = new EoFileReadersChecked();
+    final var formats =
+      EoFileVersionsDescription.builder()
+        .addDescriptions(description)
+        .build();
+
+    try (final var reader =
+           readers.forFile(TAG_FILE, TAG_END, file, formats)) {
+      final var sections = reader.sections().stream().toList();
+      assertEquals(3, sections.size());
+      assertEquals(4080L, sections.get(0).offset());
+      assertEquals(8176L, sections.get(1).offset());
+      assertEquals(16368L, sections.get(2).offset());
+      for (final var section : sections) {
+        assertEquals(0L, section.dataOffset() % 4096L);
+      }
+
+      try (final var channel = reader.dataChannel(sections.get(0))) {
+        assertArrayEquals("Hello.".getBytes(UTF_8), readAll(channel));
+      }
+    }
+
+    final var aligned =
+      new EoFileReadersUnchecked(new BSSReaders(), EoMetricsType.none(), 4096);
+    try (final var reader = aligned.forFile(TAG_FILE, TAG_END, file, null)) {
+      assertEquals(3, reader.sections().size());
+    }
+  }
+
+  @Test
+  public void testCopySectionShortSource(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var data = directory.resolve("data.bin");
+    final var file = directory.resolve("file.bin");
+    Files.write(data, new byte[100]);
+
+    final var writers = new EoFileWriters();
+    try (final var source = overstatedSize(FileChannel.open(data), 200L);
+         final var writer =
+           writers.forFile(file, TAG_FILE, TAG_END, Version.of(1, 0, 0))) {
+      final var ex =
+        assertThrows(
+          EoException.class,
+          () -> writer.copySection(TAG_A, source)
+        );
+      assertEquals("error-section-copy-short", ex.errorCode());
+      assertEquals("0xaaaaaaaaaaaaaaaa", ex.attributes().get("Tag"));
+      assertEquals("0x10", ex.attributes().get("Offset"));
+      assertEquals("200", ex.attributes().get("Size"));
+      assertEquals("100", ex.attributes().get("Copied"));
+    }
+  }
+
+  /*
+   * A channel that claims to contain more bytes than it can actually
+   * provide.
+   */
+
+  private static SeekableByteChannel overstatedSize(
+    final SeekableByteChannel channel,
+    final long size)
+  {
+    return new SeekableByteChannel()
+    {
+      @Override
+      public int read(
+        final ByteBuffer dst)
+        throws IOException
+      {
+        return channel.read(dst);
+      }
+
+      @Override
+      public int write(
+        final ByteBuffer src)
+        throws IOException
+      {
+        return channel.write(src);
+      }
+
+      @Override
+      public long position()
+        throws IOException
+      {
+        return channel.position();
+      }
+
+      @Override
+      public SeekableByteChannel position(
+        final long newPosition)
+        throws IOException
+      {
+        channel.position(newPosition);
+        return this;
+      }
+
+      @Override
+      public long size()
+      {
+        return size;
+      }
+
+      @Override
+      public SeekableByteChannel truncate(
+        final long newSize)
+        throws IOException
+      {
+        channel.truncate(newSize);
+        return this;
+      }
+
+      @Override
+      public boolean isOpen()
+      {
+        return channel.isOpen();
+      }
+
+      @Override
+      public void close()
+        throws IOException
+      {
+        channel.close();
+      }
+    };
+  }
+}
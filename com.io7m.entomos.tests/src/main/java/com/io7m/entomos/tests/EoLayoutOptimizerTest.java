@@ -0,0 +1,250 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.tests;
+
+import com.io7m.entomos.core.EoAccessTracer;
+import com.io7m.entomos.core.EoFileDescription;
+import com.io7m.entomos.core.EoFileReadersChecked;
+import com.io7m.entomos.core.EoFileReadersTraced;
+import com.io7m.entomos.core.EoFileReadersUnchecked;
+import com.io7m.entomos.core.EoFileSection;
+import com.io7m.entomos.core.EoFileSectionDescription;
+import com.io7m.entomos.core.EoFileVersionsDescription;
+import com.io7m.entomos.core.EoFileWriters;
+import com.io7m.entomos.core.EoLayoutOptimizer;
+import com.io7m.entomos.core.EoLayoutPadding;
+import com.io7m.jbssio.vanilla.BSSReaders;
+import com.io7m.verona.core.Version;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.io7m.entomos.core.EoSectionOrdering.MUST_BE_FIRST;
+import static com.io7m.entomos.core.EoSectionOrdering.MUST_BE_LAST;
+import static com.io7m.entomos.core.EoSectionsUnknown.UNKNOWN_SECTIONS_PERMITTED;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_A;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_B;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_C;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_END;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_FILE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class EoLayoutOptimizerTest
+{
+  private static final long TAG_FIRST =
+    0x11111111_11111111L;
+  private static final long TAG_LAST =
+    0x99999999_99999999L;
+  private static final long TAG_FILLER =
+    0xFFFFFFFF_00000000L;
+
+  private EoFileDescription description;
+  private EoFileVersionsDescription formats;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.description =
+      EoFileDescription.builder()
+        .setVersionMajor(1)
+        .setVersionMinor(0)
+        .setFileTag(TAG_FILE)
+        .setEndTag(TAG_END)
+        .setSectionsUnknown(UNKNOWN_SECTIONS_PERMITTED)
+        .addSections(
+          EoFileSectionDescription.builder()
+            .setTag(TAG_FIRST)
+            .setOrdering(MUST_BE_FIRST)
+            .build(),
+          EoFileSectionDescription.builder()
+            .setTag(TAG_LAST)
+            .setOrdering(MUST_BE_LAST)
+            .build(),
+          EoFileSectionDescription.builder()
+            .setTag(TAG_A)
+            .build(),
+          EoFileSectionDescription.builder()
+            .setTag(TAG_B)
+            .build(),
+          EoFileSectionDescription.builder()
+            .setTag(TAG_C)
+            .build()
+        ).build();
+
+    this.formats =
+      EoFileVersionsDescription.builder()
+        .addDescriptions(this.description)
+        .build();
+  }
+
+  private static ByteBuffer filled(
+    final int size,
+    final int value)
+  {
+    final var data = new byte[size];
+    Arrays.fill(data, (byte) value);
+    return ByteBuffer.wrap(data);
+  }
+
+  private static void writeFile(
+    final Path file)
+    throws Exception
+  {
+    try (final var writer =
+           new EoFileWriters()
+             .forFile(file, TAG_FILE, TAG_END, Version.of(1, 0, 0))) {
+      writer.writeSection(TAG_FIRST, filled(10, 1));
+      writer.writeSection(TAG_A, filled(100, 2));
+      writer.writeSection(TAG_B, filled(10_000, 3));
+      writer.writeSection(TAG_C, filled(20, 4));
+      writer.writeSection(TAG_LAST, filled(5, 5));
+    }
+  }
+
+  private static EoFileSection find(
+    final Iterable<EoFileSection> sections,
+    final long tag)
+  {
+    for (final var section : sections) {
+      if (section.tag() == tag) {
+        return section;
+      }
+    }
+    throw new IllegalStateException();
+  }
+
+  @Test
+  public void testOrderByTagPriority(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+    writeFile(file);
+
+    try (final var reader =
+           new EoFileReadersUnchecked()
+             .forFile(TAG_FILE, TAG_END, file, null)) {
+      final var order =
+        EoLayoutOptimizer.orderByTagPriority(
+          reader.sections(),
+          Map.of(TAG_C, 10L, TAG_B, 5L, TAG_LAST, 100L),
+          Optional.of(this.description)
+        );
+
+      assertEquals(
+        List.of(TAG_FIRST, TAG_C, TAG_B, TAG_A, TAG_LAST),
+        order.stream().map(EoFileSection::tag).toList()
+      );
+    }
+  }
+
+  @Test
+  public void testRewriteFromTrace(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+    final var output = directory.resolve("output.bin");
+    writeFile(file);
+
+    final var tracer = new EoAccessTracer(64);
+    final var traced =
+      new EoFileReadersTraced<>(
+        new EoFileReadersUnchecked(new BSSReaders()),
+        tracer
+      );
+
+    try (final var reader = traced.forFile(TAG_FILE, TAG_END, file, null)) {
+      for (final var tag : new long[]{TAG_C, TAG_B}) {
+        try (final var channel =
+               reader.dataChannel(find(reader.sections(), tag))) {
+          channel.read(ByteBuffer.allocate(8));
+        }
+      }
+    }
+
+    final var padding =
+      EoLayoutPadding.builder()
+        .setFillerTag(TAG_FILLER)
+        .setPageSize(4096L)
+        .build();
+
+    try (final var reader =
+           new EoFileReadersUnchecked()
+             .forFile(TAG_FILE, TAG_END, file, null)) {
+      final var order =
+        EoLayoutOptimizer.orderByTrace(
+          reader.sections(),
+          file.toUri(),
+          tracer.snapshot(),
+          Optional.of(this.description)
+        );
+
+      assertEquals(
+        List.of(TAG_FIRST, TAG_C, TAG_B, TAG_A, TAG_LAST),
+        order.stream().map(EoFileSection::tag).toList()
+      );
+
+      try (final var writer =
+             new EoFileWriters()
+               .forFile(output, TAG_FILE, TAG_END, reader.version())) {
+        EoLayoutOptimizer.rewrite(
+          reader,
+          order,
+          Optional.of(padding),
+          writer
+        );
+      }
+    }
+
+    final var checked = new EoFileReadersChecked(new BSSReaders());
+    try (final var reader =
+           checked.forFile(TAG_FILE, TAG_END, output, this.formats)) {
+      final var tags =
+        reader.sections()
+          .stream()
+          .map(EoFileSection::tag)
+          .toList();
+
+      assertEquals(
+        List.of(
+          TAG_FIRST, TAG_C, TAG_FILLER, TAG_B, TAG_A, TAG_LAST, TAG_END),
+        tags
+      );
+
+      final var sectionB = find(reader.sections(), TAG_B);
+      assertEquals(0L, sectionB.dataOffset() % 4096L);
+
+      try (final var channel = reader.dataChannel(sectionB)) {
+        final var buffer = ByteBuffer.allocate(10_000);
+        while (buffer.hasRemaining()) {
+          channel.read(buffer);
+        }
+        assertArrayEquals(filled(10_000, 3).array(), buffer.array());
+      }
+    }
+  }
+}
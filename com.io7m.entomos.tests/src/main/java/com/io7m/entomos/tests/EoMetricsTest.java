@@ -0,0 +1,136 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.tests;
+
+import com.io7m.entomos.core.EoException;
+import com.io7m.entomos.core.EoFileDescription;
+import com.io7m.entomos.core.EoFileReadersChecked;
+import com.io7m.entomos.core.EoFileSectionDescription;
+import com.io7m.entomos.core.EoFileVersionsDescription;
+import com.io7m.entomos.core.EoLatencyHistogram;
+import com.io7m.entomos.core.EoMetrics;
+import com.io7m.jbssio.vanilla.BSSReaders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.io7m.entomos.core.EoSectionCardinality.ONE;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_A;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_B;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_END;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_FILE;
+import static com.io7m.entomos.tests.EoTestFixtures.writeSingleSectionFile;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class EoMetricsTest
+{
+  private EoFileVersionsDescription formats;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.formats =
+      EoFileVersionsDescription.builder()
+        .addDescriptions(
+          EoFileDescription.builder()
+            .setVersionMajor(1)
+            .setVersionMinor(0)
+            .setFileTag(TAG_FILE)
+            .setEndTag(TAG_END)
+            .addSections(
+              EoFileSectionDescription.builder()
+                .setTag(TAG_A)
+                .setCardinality(ONE)
+                .build()
+            ).build()
+        ).build();
+  }
+
+  @Test
+  public void testMetrics(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file0 =
+      directory.resolve("file0.bin");
+    final var file1 =
+      directory.resolve("file1.bin");
+    final var file2 =
+      directory.resolve("file2.bin");
+
+    writeSingleSectionFile(file0, TAG_A, 12L);
+    writeSingleSectionFile(file1, TAG_B, 12L);
+    Files.write(file2, new byte[0]);
+
+    final var metrics =
+      new EoMetrics();
+    final var readers =
+      new EoFileReadersChecked(new BSSReaders(), Optional.empty(), metrics);
+
+    try (final var reader =
+           readers.forFile(TAG_FILE, TAG_END, file0, this.formats)) {
+      try (final var channel =
+             reader.dataChannel(reader.sections().first())) {
+        channel.read(ByteBuffer.allocate(100));
+      }
+    }
+
+    assertThrows(EoException.class, () -> {
+      readers.forFile(TAG_FILE, TAG_END, file1, this.formats);
+    });
+    assertThrows(EoException.class, () -> {
+      readers.forFile(TAG_FILE, TAG_END, file2, this.formats);
+    });
+
+    assertEquals(2L, metrics.opens());
+    assertEquals(4L, metrics.sectionsEnumerated());
+    assertEquals(2L, metrics.openLatency().total());
+    assertEquals(Map.of(TAG_A, 12L), metrics.bytesReadByTag());
+    assertEquals(
+      Map.of("error-section-tag-unknown", 1L),
+      metrics.validationFailures()
+    );
+    assertEquals(
+      Map.of("error-file-tag-missing", 1L),
+      metrics.openFailures()
+    );
+  }
+
+  @Test
+  public void testHistogramBuckets()
+  {
+    final var histogram = new EoLatencyHistogram();
+    histogram.record(0L);
+    histogram.record(1_000L);
+    histogram.record(1_001L);
+    histogram.record(Long.MAX_VALUE);
+
+    assertEquals(2L, histogram.bucketCountOf(0));
+    assertEquals(1L, histogram.bucketCountOf(1));
+    assertEquals(1L, histogram.bucketCountOf(histogram.bucketCount() - 1));
+    assertEquals(1_000L, histogram.bucketUpperBoundNanos(0));
+    assertEquals(4L, histogram.total());
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.tests;
+
+import com.io7m.entomos.core.EoFileSection;
+import com.io7m.entomos.core.EoSectionCacheOffHeap;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class EoSectionCacheOffHeapTest
+{
+  private static final URI FILE =
+    URI.create("urn:file");
+
+  private static EoFileSection section(
+    final long offset,
+    final long size)
+  {
+    return EoFileSection.builder()
+      .setTag(0xAAAAAAAA_AAAAAAAAL)
+      .setOffset(offset)
+      .setDataSize(size)
+      .build();
+  }
+
+  private static void fill(
+    final ByteBuffer target,
+    final byte value)
+  {
+    while (target.hasRemaining()) {
+      target.put(value);
+    }
+  }
+
+  @Test
+  public void testHitsAndMisses()
+    throws Exception
+  {
+    final var cache =
+      new EoSectionCacheOffHeap(8192L, 4096);
+    final var loads =
+      new AtomicInteger();
+
+    for (int attempt = 0; attempt < 3; ++attempt) {
+      try (final var lease = cache.get(FILE, section(16L, 100L), t -> {
+        loads.incrementAndGet();
+        fill(t, (byte) 0x23);
+      })) {
+        final var data = lease.data();
+        assertTrue(data.isReadOnly());
+        assertTrue(data.isDirect());
+        assertEquals(100, data.remaining());
+        assertEquals((byte) 0x23, data.get(99));
+      }
+    }
+
+    assertEquals(1, loads.get());
+
+    final var stats = cache.statistics();
+    assertEquals(1L, stats.misses());
+    assertEquals(2L, stats.hits());
+    assertEquals(100L, stats.bytesUsed());
+    assertEquals(8192L, stats.bytesMaximum());
+  }
+
+  @Test
+  public void testEvictionReusesSlabs()
+    throws Exception
+  {
+    final var cache =
+      new EoSectionCacheOffHeap(8192L, 4096);
+
+    for (int index = 0; index < 4; ++index) {
+      final var value = (byte) index;
+      try (final var lease =
+             cache.get(FILE, section(index * 4096L, 4096L), t -> fill(t, value))) {
+        assertEquals(value, lease.data().get(0));
+      }
+    }
+
+    final var stats = cache.statistics();
+    assertEquals(4L, stats.misses());
+    assertEquals(2L, stats.evictions());
+    assertEquals(2L, stats.entries());
+    assertEquals(8192L, stats.bytesUsed());
+
+    try (final var lease = cache.get(FILE, section(0L, 64L), t -> fill(t, (byte) 9))) {
+      assertEquals((byte) 9, lease.data().get(0));
+    }
+    assertEquals(3L, cache.statistics().evictions());
+  }
+
+  @Test
+  public void testLeasedEntriesSurviveInvalidation()
+    throws Exception
+  {
+    final var cache =
+      new EoSectionCacheOffHeap(4096L, 4096);
+
+    final var lease =
+      cache.get(FILE, section(0L, 4096L), t -> fill(t, (byte) 1));
+
+    cache.invalidate(FILE);
+    assertEquals(0L, cache.statistics().entries());
+
+    try (final var other =
+           cache.get(FILE, section(0L, 4096L), t -> fill(t, (byte) 2))) {
+      assertEquals((byte) 2, other.data().get(0));
+      assertEquals((byte) 1, lease.data().get(0));
+    }
+
+    lease.close();
+
+    try (final var other =
+           cache.get(FILE, section(8192L, 4096L), t -> fill(t, (byte) 3))) {
+      assertEquals((byte) 3, other.data().get(0));
+    }
+  }
+
+  @Test
+  public void testTooLarge()
+  {
+    final var cache =
+      new EoSectionCacheOffHeap(8192L, 4096);
+
+    assertThrows(IllegalStateException.class, () -> {
+      cache.get(FILE, section(0L, 4097L), t -> fill(t, (byte) 1));
+    });
+  }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.tests;
+
+import com.io7m.entomos.core.EoException;
+import com.io7m.entomos.core.EoFileDescription;
+import com.io7m.entomos.core.EoFileReadersChecked;
+import com.io7m.entomos.core.EoFileReadersUnchecked;
+import com.io7m.entomos.core.EoFileSectionDescription;
+import com.io7m.entomos.core.EoFileVersionsDescription;
+import com.io7m.entomos.core.EoFileWriters;
+import com.io7m.entomos.core.EoSectionEncoding;
+import com.io7m.entomos.core.EoSectionOrdering;
+import com.io7m.verona.core.Version;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_A;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_B;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_END;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_FILE;
+import static com.io7m.entomos.tests.EoTestFixtures.readAll;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class EoSectionChecksumTest
+{
+  private static final long TAG_CHECKSUMS =
+    0xCCCCCCCC_CCCCCCCCL;
+
+  private EoFileDescription description;
+  private EoFileVersionsDescription formats;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.description =
+      EoFileDescription.builder()
+        .setVersionMajor(1)
+        .setVersionMinor(0)
+        .setFileTag(TAG_FILE)
+        .setEndTag(TAG_END)
+        .setChecksumTag(TAG_CHECKSUMS)
+        .addSections(
+          EoFileSectionDescription.builder()
+            .setTag(TAG_A)
+            .setEncoding(EoSectionEncoding.DEFLATE)
+            .build(),
+          EoFileSectionDescription.builder()
+            .setTag(TAG_B)
+            .setOrdering(EoSectionOrdering.MUST_BE_LAST)
+            .build()
+        ).build();
+
+    this.formats =
+      EoFileVersionsDescription.builder()
+        .addDescriptions(this.description)
+        .build();
+  }
+
+  private void writeFile(
+    final Path file)
+    throws Exception
+  {
+    try (final var writer =
+           new EoFileWriters().forFile(file, this.description)) {
+      writer.writeSection(TAG_A, ByteBuffer.wrap(new byte[10_000]));
+      writer.writeSection(TAG_B, ByteBuffer.wrap("Hello.".getBytes(UTF_8)));
+    }
+  }
+
+  @Test
+  public void testChecksumTagInvalid()
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      EoFileDescription.builder()
+        .from(this.description)
+        .setChecksumTag(TAG_A)
+        .build();
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      EoFileDescription.builder()
+        .from(this.description)
+        .setChecksumTag(TAG_END)
+        .build();
+    });
+  }
+
+  @Test
+  public void testWriteVerify(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+    this.writeFile(file);
+
+    try (final var reader =
+           new EoFileReadersUnchecked()
+             .forFile(TAG_FILE, TAG_END, file, null)) {
+      final var sections = reader.sections().stream().toList();
+      assertEquals(4, sections.size());
+      assertEquals(TAG_CHECKSUMS, sections.get(2).tag());
+      assertEquals(32L, sections.get(2).dataSize());
+    }
+
+    try (final var reader =
+           new EoFileReadersChecked()
+             .forFile(TAG_FILE, TAG_END, file, this.formats)) {
+      final var sections = reader.sections().stream().toList();
+      try (final var channel = reader.dataChannel(sections.get(0))) {
+        assertArrayEquals(new byte[10_000], readAll(channel));
+      }
+      try (final var channel = reader.dataChannel(sections.get(1))) {
+        assertArrayEquals("Hello.".getBytes(UTF_8), readAll(channel));
+      }
+      try (final var channel = reader.dataChannel(sections.get(1))) {
+        assertArrayEquals("Hello.".getBytes(UTF_8), readAll(channel));
+      }
+    }
+  }
+
+  @Test
+  public void testCorruptDetected(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+    this.writeFile(file);
+
+    final long offsetB;
+    try (final var reader =
+           new EoFileReadersUnchecked()
+             .forFile(TAG_FILE, TAG_END, file, null)) {
+      offsetB = reader.sections().stream().toList().get(1).dataOffset();
+    }
+
+    try (final var channel = FileChannel.open(file, WRITE)) {
+      channel.write(ByteBuffer.wrap("J".getBytes(UTF_8)), offsetB);
+    }
+
+    try (final var reader =
+           new EoFileReadersChecked()
+             .forFile(TAG_FILE, TAG_END, file, this.formats)) {
+      final var sections = reader.sections().stream().toList();
+      try (final var channel = reader.dataChannel(sections.get(0))) {
+        assertArrayEquals(new byte[10_000], readAll(channel));
+      }
+
+      final var ex0 =
+        assertThrows(EoException.class, () -> {
+          reader.dataChannel(sections.get(1));
+        });
+      assertEquals("error-section-checksum", ex0.errorCode());
+
+      final var ex1 =
+        assertThrows(EoException.class, () -> {
+          reader.rawDataChannel(sections.get(1));
+        });
+      assertEquals("error-section-checksum", ex1.errorCode());
+      assertSame(ex0, ex1.getCause());
+    }
+  }
+
+  @Test
+  public void testChecksumMissing(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+    this.writeFile(file);
+
+    /*
+     * Make the first checksum entry refer to an offset at which there is
+     * no section, leaving the first section without a checksum.
+     */
+
+    final long offsetTable;
+    try (final var reader =
+           new EoFileReadersUnchecked()
+             .forFile(TAG_FILE, TAG_END, file, null)) {
+      offsetTable = reader.sections().stream().toList().get(2).dataOffset();
+    }
+
+    try (final var channel = FileChannel.open(file, WRITE)) {
+      channel.write(ByteBuffer.allocate(8).putLong(0, 1L), offsetTable);
+    }
+
+    try (final var reader =
+           new EoFileReadersChecked()
+             .forFile(TAG_FILE, TAG_END, file, this.formats)) {
+      final var sections = reader.sections().stream().toList();
+      final var ex =
+        assertThrows(EoException.class, () -> {
+          reader.dataChannel(sections.get(0));
+        });
+      assertEquals("error-section-checksum-missing", ex.errorCode());
+
+      try (final var channel = reader.dataChannel(sections.get(1))) {
+        assertArrayEquals("Hello.".getBytes(UTF_8), readAll(channel));
+      }
+    }
+  }
+
+  @Test
+  public void testChecksumSectionDuplicated(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+
+    try (final var writer =
+           new EoFileWriters()
+             .forFile(file, TAG_FILE, TAG_END, Version.of(1, 0, 0))) {
+      writer.writeSection(TAG_A, ByteBuffer.allocate(8));
+      writer.writeSection(TAG_CHECKSUMS, ByteBuffer.allocate(0));
+      writer.writeSection(TAG_CHECKSUMS, ByteBuffer.allocate(0));
+      writer.writeSection(TAG_B, ByteBuffer.allocate(8));
+    }
+
+    final var ex =
+      assertThrows(EoException.class, () -> {
+        new EoFileReadersChecked()
+          .forFile(TAG_FILE, TAG_END, file, this.formats);
+      });
+    assertEquals("error-section-tag-cardinality", ex.errorCode());
+  }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.tests;
+
+import com.io7m.entomos.core.EoException;
+import com.io7m.entomos.core.EoFileDescription;
+import com.io7m.entomos.core.EoFileReadersChecked;
+import com.io7m.entomos.core.EoFileReadersUnchecked;
+import com.io7m.entomos.core.EoFileSectionDescription;
+import com.io7m.entomos.core.EoFileVersionsDescription;
+import com.io7m.entomos.core.EoFileWriters;
+import com.io7m.entomos.core.EoSectionEncoding;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_A;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_END;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_FILE;
+import static com.io7m.entomos.tests.EoTestFixtures.readAll;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class EoSectionChunkedTest
+{
+  private EoFileDescription description;
+  private EoFileVersionsDescription formats;
+  private byte[] data;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.description =
+      EoFileDescription.builder()
+        .setVersionMajor(1)
+        .setVersionMinor(0)
+        .setFileTag(TAG_FILE)
+        .setEndTag(TAG_END)
+        .addSections(
+          EoFileSectionDescription.builder()
+            .setTag(TAG_A)
+            .setEncoding(EoSectionEncoding.DEFLATE_CHUNKED)
+            .setChunkSize(4096)
+            .build()
+        ).build();
+
+    this.formats =
+      EoFileVersionsDescription.builder()
+        .addDescriptions(this.description)
+        .build();
+
+    this.data = new byte[100_001];
+    for (int index = 0; index < this.data.length; ++index) {
+      this.data[index] = (byte) ((index / 13) % 251);
+    }
+  }
+
+  private void writeFile(
+    final Path file)
+    throws Exception
+  {
+    try (final var writer =
+           new EoFileWriters().forFile(file, this.description)) {
+      try (final var channel = writer.createSection(TAG_A)) {
+        channel.write(ByteBuffer.wrap(this.data, 0, 5000));
+        channel.write(ByteBuffer.wrap(this.data, 5000, 95_001));
+      }
+    }
+  }
+
+  @Test
+  public void testChunkSizeInvalid()
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      EoFileSectionDescription.builder()
+        .setTag(TAG_A)
+        .setChunkSize(5000)
+        .build();
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      EoFileSectionDescription.builder()
+        .setTag(TAG_A)
+        .setChunkSize(1024)
+        .build();
+    });
+  }
+
+  @Test
+  public void testRoundTrip(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+    this.writeFile(file);
+
+    try (final var reader =
+           new EoFileReadersChecked()
+             .forFile(TAG_FILE, TAG_END, file, this.formats)) {
+      final var section = reader.sections().first();
+      assertTrue(section.dataSize() < this.data.length);
+
+      try (final var channel = reader.dataChannel(section)) {
+        assertEquals(this.data.length, channel.size());
+        assertArrayEquals(this.data, readAll(channel));
+      }
+    }
+
+    try (final var reader =
+           new EoFileReadersUnchecked()
+             .forFile(TAG_FILE, TAG_END, file, null)) {
+      try (final var channel =
+             reader.dataChannel(reader.sections().first())) {
+        final var header = ByteBuffer.wrap(readAll(channel));
+        assertEquals(this.data.length, header.getLong());
+        assertEquals(4096, header.getInt());
+        assertEquals(25, header.getInt());
+      }
+    }
+  }
+
+  @Test
+  public void testRandomAccess(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+    this.writeFile(file);
+
+    final var random = new Random(0x5eed);
+    try (final var reader =
+           new EoFileReadersChecked()
+             .forFile(TAG_FILE, TAG_END, file, this.formats)) {
+      final var section = reader.sections().first();
+      try (final var channel = reader.dataChannel(section)) {
+        for (int index = 0; index < 200; ++index) {
+          final var position = random.nextInt(this.data.length);
+          final var buffer = ByteBuffer.allocate(random.nextInt(1, 10_000));
+          channel.position(position);
+          final var count = channel.read(buffer);
+
+          final var expected =
+            Math.min(buffer.capacity(), this.data.length - position);
+          assertEquals(expected, count);
+          assertEquals(position + count, channel.position());
+          assertArrayEquals(
+            Arrays.copyOfRange(this.data, position, position + count),
+            Arrays.copyOf(buffer.array(), count)
+          );
+        }
+
+        channel.position(this.data.length);
+        assertEquals(-1, channel.read(ByteBuffer.allocate(1)));
+      }
+    }
+  }
+
+  @Test
+  public void testIndexCorrupt(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+    this.writeFile(file);
+
+    try (final var channel = FileChannel.open(file, WRITE)) {
+      channel.write(ByteBuffer.allocate(4).putInt(0, 99), 16L + 16L + 12L);
+    }
+
+    try (final var reader =
+           new EoFileReadersChecked()
+             .forFile(TAG_FILE, TAG_END, file, this.formats)) {
+      final var section = reader.sections().first();
+      final var ex =
+        assertThrows(EoException.class, () -> reader.dataChannel(section));
+      assertEquals("error-section-decode", ex.errorCode());
+    }
+  }
+
+  @Test
+  public void testChunkSizeHostile(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+    this.writeFile(file);
+
+    /*
+     * Declare a single 1 GiB chunk; the index is otherwise consistent.
+     */
+
+    try (final var channel = FileChannel.open(file, WRITE)) {
+      final var header =
+        ByteBuffer.allocate(8)
+          .putInt(0, 1 << 30)
+          .putInt(4, 1);
+      channel.write(header, 16L + 16L + 8L);
+    }
+
+    try (final var reader =
+           new EoFileReadersChecked()
+             .forFile(TAG_FILE, TAG_END, file, this.formats)) {
+      final var section = reader.sections().first();
+      final var ex =
+        assertThrows(EoException.class, () -> reader.dataChannel(section));
+      assertEquals("error-section-decode", ex.errorCode());
+    }
+  }
+}
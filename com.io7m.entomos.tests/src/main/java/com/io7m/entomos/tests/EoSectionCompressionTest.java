@@ -0,0 +1,254 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.tests;
+
+import com.io7m.entomos.core.EoFileDescription;
+import com.io7m.entomos.core.EoFileReadersChecked;
+import com.io7m.entomos.core.EoFileReadersUnchecked;
+import com.io7m.entomos.core.EoFileSectionDescription;
+import com.io7m.entomos.core.EoFileVersionsDescription;
+import com.io7m.entomos.core.EoFileWriters;
+import com.io7m.entomos.core.EoSectionEncoding;
+import com.io7m.verona.core.Version;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_A;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_B;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_END;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_FILE;
+import static com.io7m.entomos.tests.EoTestFixtures.readAll;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class EoSectionCompressionTest
+{
+  private EoFileDescription description;
+  private EoFileVersionsDescription formats;
+  private byte[] data;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.description =
+      EoFileDescription.builder()
+        .setVersionMajor(1)
+        .setVersionMinor(0)
+        .setFileTag(TAG_FILE)
+        .setEndTag(TAG_END)
+        .addSections(
+          EoFileSectionDescription.builder()
+            .setTag(TAG_A)
+            .setEncoding(EoSectionEncoding.DEFLATE)
+            .build(),
+          EoFileSectionDescription.builder()
+            .setTag(TAG_B)
+            .build()
+        ).build();
+
+    this.formats =
+      EoFileVersionsDescription.builder()
+        .addDescriptions(this.description)
+        .build();
+
+    this.data = new byte[200_000];
+    for (int index = 0; index < this.data.length; ++index) {
+      this.data[index] = (byte) (index % 7);
+    }
+  }
+
+  private void writeFile(
+    final Path file)
+    throws Exception
+  {
+    try (final var writer =
+           new EoFileWriters().forFile(file, this.description)) {
+      assertEquals(EoSectionEncoding.DEFLATE, writer.encodingOf(TAG_A));
+      assertEquals(EoSectionEncoding.RAW, writer.encodingOf(TAG_B));
+
+      try (final var channel = writer.createSection(TAG_A)) {
+        channel.write(ByteBuffer.wrap(this.data, 0, 100_000));
+        channel.write(ByteBuffer.wrap(this.data, 100_000, 100_000));
+      }
+      writer.writeSection(TAG_B, ByteBuffer.wrap(new byte[]{1, 2, 3}));
+    }
+  }
+
+  @Test
+  public void testRoundTrip(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+    this.writeFile(file);
+
+    try (final var reader =
+           new EoFileReadersChecked()
+             .forFile(TAG_FILE, TAG_END, file, this.formats)) {
+      final var sections = reader.sections().stream().toList();
+      final var sectionA = sections.get(0);
+      final var sectionB = sections.get(1);
+
+      assertEquals(EoSectionEncoding.DEFLATE, reader.encodingOf(sectionA));
+      assertEquals(EoSectionEncoding.RAW, reader.encodingOf(sectionB));
+      assertTrue(sectionA.dataSize() < 10_000L);
+
+      try (final var channel = reader.dataChannel(sectionA)) {
+        assertEquals(200_000L, channel.size());
+        assertArrayEquals(this.data, readAll(channel));
+      }
+      try (final var channel = reader.dataChannel(sectionB)) {
+        assertArrayEquals(new byte[]{1, 2, 3}, readAll(channel));
+      }
+      try (final var channel = reader.rawDataChannel(sectionA)) {
+        assertEquals(sectionA.dataSize(), readAll(channel).length);
+      }
+
+      final var handle =
+        reader.sectionStream()
+          .filter(h -> h.section().tag() == TAG_A)
+          .findFirst()
+          .orElseThrow();
+      final var buffer = handle.data();
+      assertEquals(200_000, buffer.remaining());
+    }
+
+    try (final var reader =
+           new EoFileReadersUnchecked()
+             .forFile(TAG_FILE, TAG_END, file, null)) {
+      final var sectionA = reader.sections().first();
+      assertEquals(EoSectionEncoding.RAW, reader.encodingOf(sectionA));
+
+      try (final var channel = reader.dataChannel(sectionA)) {
+        final var stored = readAll(channel);
+        assertEquals(sectionA.dataSize(), stored.length);
+        assertEquals(200_000L, ByteBuffer.wrap(stored).getLong());
+      }
+    }
+  }
+
+  @Test
+  public void testSeek(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+    this.writeFile(file);
+
+    try (final var reader =
+           new EoFileReadersChecked()
+             .forFile(TAG_FILE, TAG_END, file, this.formats)) {
+      final var sectionA = reader.sections().first();
+
+      try (final var channel = reader.dataChannel(sectionA)) {
+        final var buffer = ByteBuffer.allocate(1000);
+
+        channel.position(150_000L);
+        channel.read(buffer);
+        assertArrayEquals(
+          Arrays.copyOfRange(this.data, 150_000, 150_000 + buffer.position()),
+          Arrays.copyOf(buffer.array(), buffer.position())
+        );
+
+        buffer.clear();
+        channel.position(3L);
+        channel.read(buffer);
+        assertArrayEquals(
+          Arrays.copyOfRange(this.data, 3, 3 + buffer.position()),
+          Arrays.copyOf(buffer.array(), buffer.position())
+        );
+
+        buffer.clear();
+        channel.position(200_000L);
+        assertEquals(-1, channel.read(buffer));
+      }
+    }
+  }
+
+  @Test
+  public void testCopy(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file0 = directory.resolve("file0.bin");
+    final var file1 = directory.resolve("file1.bin");
+    final var file2 = directory.resolve("file2.bin");
+    this.writeFile(file0);
+
+    final var writers = new EoFileWriters();
+    try (final var reader =
+           new EoFileReadersChecked()
+             .forFile(TAG_FILE, TAG_END, file0, this.formats)) {
+      try (final var writer = writers.forFile(file1, this.description)) {
+        for (final var section : reader.sections().headSet(
+          reader.sections().last())) {
+          writer.copySection(reader, section);
+        }
+      }
+
+      try (final var writer =
+             writers.forFile(file2, TAG_FILE, TAG_END, Version.of(1, 0, 0))) {
+        writer.copySection(reader, reader.sections().first());
+      }
+    }
+
+    assertArrayEquals(Files.readAllBytes(file0), Files.readAllBytes(file1));
+
+    try (final var reader =
+           new EoFileReadersUnchecked()
+             .forFile(TAG_FILE, TAG_END, file2, null)) {
+      try (final var channel =
+             reader.dataChannel(reader.sections().first())) {
+        assertArrayEquals(this.data, readAll(channel));
+      }
+    }
+  }
+
+  @Test
+  public void testCorrupt(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("file.bin");
+    this.writeFile(file);
+
+    try (final var channel = FileChannel.open(file, WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[64]), 16L + 16L + 8L);
+    }
+
+    try (final var reader =
+           new EoFileReadersChecked()
+             .forFile(TAG_FILE, TAG_END, file, this.formats)) {
+      final var sectionA = reader.sections().first();
+      try (final var channel = reader.dataChannel(sectionA)) {
+        assertThrows(IOException.class, () -> readAll(channel));
+      }
+    }
+  }
+}
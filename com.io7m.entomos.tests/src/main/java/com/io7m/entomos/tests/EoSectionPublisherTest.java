@@ -0,0 +1,224 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.tests;
+
+import com.io7m.entomos.core.EoAccessTraceEntry;
+import com.io7m.entomos.core.EoAccessTracer;
+import com.io7m.entomos.core.EoFileReaderType;
+import com.io7m.entomos.core.EoFileReadersTraced;
+import com.io7m.entomos.core.EoFileReadersUnchecked;
+import com.io7m.entomos.core.EoFileWriters;
+import com.io7m.entomos.core.EoSectionData;
+import com.io7m.entomos.core.EoSectionPublisher;
+import com.io7m.verona.core.Version;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_A;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_END;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_FILE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+public final class EoSectionPublisherTest
+{
+  private static final int SECTION_COUNT = 20;
+
+  private Path file;
+
+  @BeforeEach
+  public void setup(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    this.file = directory.resolve("file.bin");
+    try (final var writer =
+           new EoFileWriters()
+             .forFile(this.file, TAG_FILE, TAG_END, Version.of(1, 0, 0))) {
+      for (int index = 0; index < SECTION_COUNT; ++index) {
+        final var data = new byte[100 + index];
+        data[0] = (byte) index;
+        writer.writeSection(TAG_A, ByteBuffer.wrap(data));
+      }
+    }
+  }
+
+  private static EoSectionPublisher inlinePublisher(
+    final EoFileReaderType reader)
+  {
+    /*
+     * Read sections on the thread that subscribes or signals demand, so
+     * that all reads have happened by the time subscribe() or request()
+     * returns.
+     */
+
+    final var sections = reader.sections();
+    return new EoSectionPublisher(
+      reader,
+      new ArrayList<>(sections.headSet(sections.last())),
+      Runnable::run
+    );
+  }
+
+  private static final class Collector
+    implements Flow.Subscriber<EoSectionData>
+  {
+    private final List<EoSectionData> items;
+    private final CompletableFuture<Void> finished;
+    private final long initialRequest;
+    private final boolean requestEach;
+    private Flow.Subscription subscription;
+
+    Collector(
+      final long inInitialRequest,
+      final boolean inRequestEach)
+    {
+      this.items = new CopyOnWriteArrayList<>();
+      this.finished = new CompletableFuture<>();
+      this.initialRequest = inInitialRequest;
+      this.requestEach = inRequestEach;
+    }
+
+    @Override
+    public void onSubscribe(
+      final Flow.Subscription inSubscription)
+    {
+      this.subscription = inSubscription;
+      this.subscription.request(this.initialRequest);
+    }
+
+    @Override
+    public void onNext(
+      final EoSectionData item)
+    {
+      this.items.add(item);
+      if (this.requestEach) {
+        this.subscription.request(1L);
+      }
+    }
+
+    @Override
+    public void onError(
+      final Throwable throwable)
+    {
+      this.finished.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete()
+    {
+      this.finished.complete(null);
+    }
+  }
+
+  @Test
+  public void testPublishAll()
+    throws Exception
+  {
+    try (final var reader =
+           new EoFileReadersUnchecked()
+             .forFile(TAG_FILE, TAG_END, this.file, null)) {
+      final var collector = new Collector(1L, true);
+      new EoSectionPublisher(reader).subscribe(collector);
+      collector.finished.get(10L, TimeUnit.SECONDS);
+
+      assertEquals(SECTION_COUNT, collector.items.size());
+      for (int index = 0; index < SECTION_COUNT; ++index) {
+        final var item = collector.items.get(index);
+        assertEquals(TAG_A, item.section().tag());
+        assertEquals(100 + index, item.data().remaining());
+        assertEquals((byte) index, item.data().get(0));
+      }
+    }
+  }
+
+  @Test
+  public void testReadsFollowDemand()
+    throws Exception
+  {
+    final var tracer = new EoAccessTracer(256);
+    final var readers =
+      new EoFileReadersTraced<>(new EoFileReadersUnchecked(), tracer);
+
+    try (final var reader =
+           readers.forFile(TAG_FILE, TAG_END, this.file, null)) {
+      final var collector = new Collector(3L, false);
+      inlinePublisher(reader).subscribe(collector);
+
+      assertEquals(3, collector.items.size());
+      assertEquals(
+        3L,
+        tracer.snapshot()
+          .stream()
+          .map(EoAccessTraceEntry::sectionOffset)
+          .distinct()
+          .count()
+      );
+
+      collector.subscription.request(Long.MAX_VALUE);
+      collector.finished.get(10L, TimeUnit.SECONDS);
+      assertEquals(SECTION_COUNT, collector.items.size());
+    }
+  }
+
+  @Test
+  public void testRequestInvalid()
+    throws Exception
+  {
+    try (final var reader =
+           new EoFileReadersUnchecked()
+             .forFile(TAG_FILE, TAG_END, this.file, null)) {
+      final var collector = new Collector(0L, false);
+      new EoSectionPublisher(reader).subscribe(collector);
+
+      final var ex =
+        collector.finished.handle((x, e) -> e).get(10L, TimeUnit.SECONDS);
+      assertInstanceOf(IllegalArgumentException.class, ex);
+    }
+  }
+
+  @Test
+  public void testCancel()
+    throws Exception
+  {
+    try (final var reader =
+           new EoFileReadersUnchecked()
+             .forFile(TAG_FILE, TAG_END, this.file, null)) {
+      final var collector = new Collector(2L, false);
+      inlinePublisher(reader).subscribe(collector);
+      assertEquals(2, collector.items.size());
+
+      collector.subscription.cancel();
+      collector.subscription.request(10L);
+
+      assertEquals(2, collector.items.size());
+      assertFalse(collector.finished.isDone());
+    }
+  }
+}
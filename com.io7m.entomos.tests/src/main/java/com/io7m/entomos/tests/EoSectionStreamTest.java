@@ -0,0 +1,137 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.tests;
+
+import com.io7m.entomos.core.EoException;
+import com.io7m.entomos.core.EoFileReadersUnchecked;
+import com.io7m.entomos.core.EoFileSection;
+import com.io7m.entomos.core.EoFileWriters;
+import com.io7m.entomos.core.EoSectionHandle;
+import com.io7m.verona.core.Version;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.CRC32C;
+
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_A;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_END;
+import static com.io7m.entomos.tests.EoTestFixtures.TAG_FILE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class EoSectionStreamTest
+{
+  private static final int SECTION_COUNT = 100;
+
+  private Path file;
+
+  @BeforeEach
+  public void setup(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var random = new Random(0x9abcL);
+
+    this.file = directory.resolve("file.bin");
+    try (final var writer =
+           new EoFileWriters()
+             .forFile(this.file, TAG_FILE, TAG_END, Version.of(1, 0, 0))) {
+      for (int index = 0; index < SECTION_COUNT; ++index) {
+        final var data = new byte[random.nextInt(10_000)];
+        random.nextBytes(data);
+        writer.writeSection(TAG_A, ByteBuffer.wrap(data));
+      }
+    }
+  }
+
+  private static long checksum(
+    final EoSectionHandle handle)
+  {
+    try {
+      final var crc = new CRC32C();
+      crc.update(handle.data());
+      return crc.getValue();
+    } catch (final EoException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Test
+  public void testStreamOrder()
+    throws Exception
+  {
+    try (final var reader =
+           new EoFileReadersUnchecked()
+             .forFile(TAG_FILE, TAG_END, this.file, null)) {
+      final var expected =
+        reader.sections()
+          .headSet(reader.sections().last())
+          .stream()
+          .toList();
+
+      final List<EoFileSection> received =
+        reader.sectionStream()
+          .map(EoSectionHandle::section)
+          .toList();
+
+      assertEquals(SECTION_COUNT, received.size());
+      assertEquals(expected, received);
+    }
+  }
+
+  @Test
+  public void testStreamSplitsEvenly()
+    throws Exception
+  {
+    try (final var reader =
+           new EoFileReadersUnchecked()
+             .forFile(TAG_FILE, TAG_END, this.file, null)) {
+      final var right = reader.sectionStream().spliterator();
+      final var left = right.trySplit();
+
+      assertEquals(SECTION_COUNT / 2, left.estimateSize());
+      assertEquals(SECTION_COUNT / 2, right.estimateSize());
+    }
+  }
+
+  @Test
+  public void testParallelMatchesSequential()
+    throws Exception
+  {
+    try (final var reader =
+           new EoFileReadersUnchecked()
+             .forFile(TAG_FILE, TAG_END, this.file, null)) {
+      final var sequential =
+        reader.sectionStream()
+          .map(EoSectionStreamTest::checksum)
+          .toList();
+
+      final var parallel =
+        reader.sectionStream()
+          .parallel()
+          .map(EoSectionStreamTest::checksum)
+          .toList();
+
+      assertEquals(sequential, parallel);
+    }
+  }
+}
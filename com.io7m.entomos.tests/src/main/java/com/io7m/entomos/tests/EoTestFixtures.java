@@ -0,0 +1,154 @@
+/*
+ * Copyright © 2025 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.entomos.tests;
+
+import com.io7m.jbssio.vanilla.BSSWriters;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Tags and helper functions shared between tests.
+ */
+
+public final class EoTestFixtures
+{
+  /**
+   * The file tag used by most test files.
+   */
+
+  public static final long TAG_FILE =
+    0x10101010_20202020L;
+
+  /**
+   * The end tag used by most test files.
+   */
+
+  public static final long TAG_END =
+    0x20202020_30303030L;
+
+  /**
+   * An arbitrary section tag.
+   */
+
+  public static final long TAG_A =
+    0xAAAAAAAA_AAAAAAAAL;
+
+  /**
+   * An arbitrary section tag.
+   */
+
+  public static final long TAG_B =
+    0xBBBBBBBB_BBBBBBBBL;
+
+  /**
+   * An arbitrary section tag.
+   */
+
+  public static final long TAG_C =
+    0xCCCCCCCC_CCCCCCCCL;
+
+  private EoTestFixtures()
+  {
+
+  }
+
+  /**
+   * Read everything remaining in a channel.
+   *
+   * @param channel The channel
+   *
+   * @return The bytes read
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static byte[] readAll(
+    final ReadableByteChannel channel)
+    throws IOException
+  {
+    final var output = new ByteArrayOutputStream();
+    Channels.newInputStream(channel).transferTo(output);
+    return output.toByteArray();
+  }
+
+  /**
+   * Read everything remaining in a channel as UTF-8 text.
+   *
+   * @param channel The channel
+   *
+   * @return The text read
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static String readText(
+    final ReadableByteChannel channel)
+    throws IOException
+  {
+    return new String(readAll(channel), UTF_8);
+  }
+
+  /**
+   * Write a version 1.0 file with {@link #TAG_FILE} and {@link #TAG_END},
+   * containing a single zero-filled section, without going through the
+   * file writers.
+   *
+   * @param file The file
+   * @param tag  The section tag
+   * @param size The declared size of the section data
+   *
+   * @throws Exception On errors
+   */
+
+  public static void writeSingleSectionFile(
+    final Path file,
+    final long tag,
+    final long size)
+    throws Exception
+  {
+    try (final var channel =
+           FileChannel.open(file, CREATE, WRITE, TRUNCATE_EXISTING)) {
+      try (final var writer =
+             new BSSWriters().createWriterFromChannel(
+               file.toUri(),
+               channel,
+               "File")) {
+        writer.writeU64BE(TAG_FILE);
+        writer.writeU32BE(1L);
+        writer.writeU32BE(0L);
+
+        writer.writeU64BE(tag);
+        writer.writeU64BE(size);
+        writer.writeBytes(new byte[(int) ((size + 15L) & ~15L)]);
+
+        writer.writeU64BE(TAG_END);
+        writer.writeU64BE(0L);
+      }
+    }
+  }
+}
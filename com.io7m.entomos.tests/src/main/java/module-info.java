@@ -31,6 +31,7 @@ open module com.io7m.entomos.tests
   requires com.io7m.jbssio.vanilla;
   requires com.io7m.seltzer.slf4j;
   requires com.io7m.verona.core;
+  requires jdk.jfr;
   requires org.apache.commons.io;
   requires org.slf4j;
 